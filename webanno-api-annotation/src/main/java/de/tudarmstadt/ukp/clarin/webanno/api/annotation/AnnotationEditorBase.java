@@ -159,6 +159,10 @@ public abstract class AnnotationEditorBase
         if (page == null) {
             page = getPage();
         }
+        
+        // Report problems encountered while rendering
+        vdoc.getWarnings().forEach(page::warn);
+        
         send(page, Broadcast.BREADTH,
                 new RenderAnnotationsEvent(
                         RequestCycle.get().find(IPartialPageRequestHandler.class).get(), aCas,
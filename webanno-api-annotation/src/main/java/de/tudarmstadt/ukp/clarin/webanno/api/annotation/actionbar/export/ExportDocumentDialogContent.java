@@ -18,6 +18,7 @@
 package de.tudarmstadt.ukp.clarin.webanno.api.annotation.actionbar.export;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
@@ -131,7 +132,39 @@ public class ExportDocumentDialogContent
             throw new NonResettingRestartException(getPage().getPageClass());
         }
             
-        return new FileResourceStream(downloadFile);
+        return new ExportedFileResourceStream(downloadFile, importExportService);
+    }
+    
+    /**
+     * Deletes the exported file along with its temporary folder once it has been sent.
+     */
+    private static class ExportedFileResourceStream
+        extends FileResourceStream
+    {
+        private static final long serialVersionUID = 3529391926316284371L;
+        
+        private final ImportExportService importExportService;
+        private boolean deleted = false;
+        
+        public ExportedFileResourceStream(File aFile, ImportExportService aImportExportService)
+        {
+            super(aFile);
+            importExportService = aImportExportService;
+        }
+        
+        @Override
+        public void close() throws IOException
+        {
+            try {
+                super.close();
+            }
+            finally {
+                if (!deleted) {
+                    deleted = true;
+                    importExportService.deleteExportedFile(getFile());
+                }
+            }
+        }
     }
     
     private static class Preferences
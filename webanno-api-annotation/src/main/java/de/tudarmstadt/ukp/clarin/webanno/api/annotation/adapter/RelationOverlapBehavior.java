@@ -18,6 +18,7 @@
 package de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VCommentType.ERROR;
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.getAddr;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.isSame;
 import static java.util.Collections.emptyList;
 import static org.apache.uima.fit.util.CasUtil.getType;
@@ -25,6 +26,7 @@ import static org.apache.uima.fit.util.CasUtil.select;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -234,46 +236,86 @@ public class RelationOverlapBehavior
             Feature sourceFeature, Feature targetFeature, Collection<AnnotationFS> aStacking,
             Collection<AnnotationFS> aOverlapping)
     {
-        for (AnnotationFS rel1 : aRelations) {
-            for (AnnotationFS rel2 : aRelations) {
-                if (rel1.equals(rel2)) {
-                    continue;
-                }
-                
-                if (stacking(rel1, rel2, sourceFeature, targetFeature)) {
-                    aStacking.add(rel1);
-                    aStacking.add(rel2);
-                }
-                else if (overlapping(rel1, rel2, sourceFeature, targetFeature)) {
-                    aOverlapping.add(rel1);
-                    aOverlapping.add(rel2);
-                }
+        // Relations with exactly the same end points are stacking
+        Map<Object, List<AnnotationFS>> relationsByEndpoints = new HashMap<>();
+        for (AnnotationFS rel : aRelations) {
+            relationsByEndpoints
+                    .computeIfAbsent(endpointsKey(rel, sourceFeature, targetFeature),
+                        k -> new ArrayList<>())
+                    .add(rel);
+        }
+        
+        for (List<AnnotationFS> group : relationsByEndpoints.values()) {
+            if (group.size() > 1) {
+                aStacking.addAll(group);
             }
         }
+        
+        aOverlapping.addAll(overlappingNonStackingRelations(aRelations, sourceFeature,
+                targetFeature));
     }
     
     private Set<AnnotationFS> overlappingNonStackingRelations(Collection<AnnotationFS> aRelations,
             Feature sourceFeature, Feature targetFeature)
     {
+        // Instead of comparing every relation to every other relation, we group the relations by
+        // the end points they touch. Two relations are overlapping if they share any end point, so
+        // all relations are in the same group as the relations they overlap with. Within such a
+        // group, a relation overlaps with another relation without stacking on it if the group
+        // contains any relation with different end points.
+        Map<Integer, List<AnnotationFS>> relationsByEndpoint = new HashMap<>();
+        for (AnnotationFS rel : aRelations) {
+            FeatureStructure sourceFs = rel.getFeatureValue(sourceFeature);
+            FeatureStructure targetFs = rel.getFeatureValue(targetFeature);
+            
+            if (sourceFs != null) {
+                relationsByEndpoint.computeIfAbsent(getAddr(sourceFs), k -> new ArrayList<>())
+                        .add(rel);
+            }
+            
+            if (targetFs != null && !isSame(sourceFs, targetFs)) {
+                relationsByEndpoint.computeIfAbsent(getAddr(targetFs), k -> new ArrayList<>())
+                        .add(rel);
+            }
+        }
+        
         Set<AnnotationFS> overlapping = new HashSet<>();
-        for (AnnotationFS rel1 : aRelations) {
-            for (AnnotationFS rel2 : aRelations) {
-                if (rel1.equals(rel2)) {
-                    continue;
-                }
-                 
-                if (
-                        overlapping(rel1, rel2, sourceFeature, targetFeature) && 
-                        !stacking(rel1, rel2, sourceFeature, targetFeature)
-                ) {
-                    overlapping.add(rel1);
-                    overlapping.add(rel2);
-                }
+        for (List<AnnotationFS> group : relationsByEndpoint.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            
+            Object firstKey = endpointsKey(group.get(0), sourceFeature, targetFeature);
+            boolean differentEndpoints = group.stream()
+                    .anyMatch(rel -> !firstKey.equals(
+                            endpointsKey(rel, sourceFeature, targetFeature)));
+            
+            if (differentEndpoints) {
+                overlapping.addAll(group);
             }
         }
+        
         return overlapping;
     }
     
+    /**
+     * Returns a key which is equal for two relations if and only if the relations are
+     * {@link #stacking stacking}. Relations with a missing end point never stack, so they receive
+     * a key of their own.
+     */
+    private static Object endpointsKey(AnnotationFS aRelation, Feature aSourceFeature,
+            Feature aTargetFeature)
+    {
+        FeatureStructure sourceFs = aRelation.getFeatureValue(aSourceFeature);
+        FeatureStructure targetFs = aRelation.getFeatureValue(aTargetFeature);
+        
+        if (sourceFs == null || targetFs == null) {
+            return aRelation;
+        }
+        
+        return Pair.of(getAddr(sourceFs), getAddr(targetFs));
+    }
+    
     private Set<AnnotationFS> stackingRelations(Collection<AnnotationFS> aRelations,
             Feature sourceFeature, Feature targetFeature)
     {
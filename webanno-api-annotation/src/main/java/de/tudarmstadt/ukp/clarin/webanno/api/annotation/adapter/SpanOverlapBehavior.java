@@ -19,6 +19,7 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VCommentType.ERROR;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectOverlapping;
+import static java.util.Comparator.comparingInt;
 import static org.apache.uima.fit.util.CasUtil.getType;
 import static org.apache.uima.fit.util.CasUtil.select;
 import static org.apache.uima.fit.util.CasUtil.selectAt;
@@ -28,6 +29,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -196,42 +198,44 @@ public class SpanOverlapBehavior
     private void overlappingOrStackingSpans(Collection<AnnotationFS> aSpans,
             Collection<AnnotationFS> aStacking, Collection<AnnotationFS> aOverlapping)
     {
-        for (AnnotationFS span1 : aSpans) {
-            for (AnnotationFS span2 : aSpans) {
-                if (span1.equals(span2)) {
-                    continue;
-                }
-                
-                if (stacking(span1, span2)) {
-                    aStacking.add(span1);
-                    aStacking.add(span2);
-                }
-                else if (overlapping(span1, span2)) {
-                    aOverlapping.add(span1);
-                    aOverlapping.add(span2);
-                }
-            }
-        }
+        aStacking.addAll(stackingSpans(aSpans));
+        aOverlapping.addAll(overlappingNonStackingSpans(aSpans));
     }
     
+    /**
+     * Finds all spans which overlap with another span without stacking on it. Instead of comparing
+     * every span with every other span, this sweeps over the spans ordered by their begin offset
+     * and only compares each span to the spans that have not ended before it begins. The spans
+     * must be given in annotation index order (see {@link AnnotationComparator}).
+     */
     private Set<AnnotationFS> overlappingNonStackingSpans(Collection<AnnotationFS> aSpans)
     {
         Set<AnnotationFS> overlapping = new HashSet<>();
-        for (AnnotationFS fs1 : aSpans) {
-            for (AnnotationFS fs2 : aSpans) {
-                if (fs1.equals(fs2)) {
-                    continue;
-                }
-                
-                if (overlapping(fs1, fs2) && !stacking(fs1, fs2)) {
-                    overlapping.add(fs1);
-                    overlapping.add(fs2);
+        
+        // Spans which may still overlap with the spans to come, ordered by their end offset
+        PriorityQueue<AnnotationFS> active = new PriorityQueue<>(
+                comparingInt(AnnotationFS::getEnd));
+        
+        for (AnnotationFS fs : aSpans) {
+            // A span which ends before the current span begins cannot overlap with the current
+            // span or with any of the following spans
+            while (!active.isEmpty() && active.peek().getEnd() < fs.getBegin()) {
+                active.poll();
+            }
+            
+            for (AnnotationFS other : active) {
+                if ((overlapping(fs, other) || overlapping(other, fs)) && !stacking(fs, other)) {
+                    overlapping.add(fs);
+                    overlapping.add(other);
                 }
             }
+            
+            active.add(fs);
         }
+        
         return overlapping;
     }
-
+    
     private Set<AnnotationFS> stackingSpans(Collection<AnnotationFS> aSpans)
     {
         // Since the annotations are sorted, we can easily find stacked annotation by scanning
@@ -19,9 +19,9 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class ColoringRules
@@ -29,9 +29,24 @@ public class ColoringRules
 {
     private static final long serialVersionUID = 6041625407980459920L;
     
+    private static final String NO_COLOR = "";
+    
+    /**
+     * Upper bound for the number of labels remembered in the color memo table.
+     */
+    private static final int MAX_MEMO_SIZE = 10_000;
+    
     private final List<ColoringRule> rules = new ArrayList<>();
 
-    private final Map<String, String> cache = new LinkedHashMap<>();
+    /**
+     * Memo table mapping labels to the color of the first matching rule. Labels which do not
+     * match any rule are mapped to {@link #NO_COLOR} because the map does not accept
+     * {@code null} values. The rules may be shared across concurrent rendering requests, so the
+     * map must be thread-safe.
+     */
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+    
+    private final Map<String, Pattern> compiledPatterns = new ConcurrentHashMap<>();
 
     public List<ColoringRule> getRules()
     {
@@ -44,6 +59,7 @@ public class ColoringRules
         if (aColoringRules != null) {
             rules.addAll(aColoringRules);
         }
+        cache.clear();
     }
 
     public String findColor(String aLabel)
@@ -52,14 +68,32 @@ public class ColoringRules
             return null;
         }
         
-        return cache.computeIfAbsent(aLabel, l -> {
-            for (ColoringRule r : rules) {
-                if (r.getPattern() != null && Pattern.matches(r.getPattern(), l)) {
-                    return r.getColor();
-                }
+        String color = cache.get(aLabel);
+        if (color == null) {
+            color = matchRules(aLabel);
+            // The rules are cached for the lifetime of the layer, so free-text labels must not
+            // grow the table without limit
+            if (cache.size() < MAX_MEMO_SIZE) {
+                cache.put(aLabel, color);
             }
-            
-            return null;
-        });
+        }
+        
+        return color.isEmpty() ? null : color;
+    }
+    
+    private String matchRules(String aLabel)
+    {
+        for (ColoringRule r : rules) {
+            if (r.getPattern() != null && compile(r.getPattern()).matcher(aLabel).matches()) {
+                return r.getColor() != null ? r.getColor() : NO_COLOR;
+            }
+        }
+        
+        return NO_COLOR;
+    }
+    
+    private Pattern compile(String aPattern)
+    {
+        return compiledPatterns.computeIfAbsent(aPattern, Pattern::compile);
     }
 }
@@ -20,6 +20,7 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring;
 import java.util.Map;
 import java.util.Queue;
 
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotationPreference;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 
@@ -30,4 +31,15 @@ public interface ColoringService
     
     ColoringStrategyType getBestInitialStrategy(AnnotationLayer aLayer,
             AnnotationPreference aPreferences);
+    
+    /**
+     * Returns the coloring rules configured for the layer of the given adapter. The decoded rules
+     * (including their compiled patterns and memoized colors) are cached until the layer traits
+     * change.
+     * 
+     * @param aAdapter
+     *            the type adapter of the layer.
+     * @return the coloring rules or {@code null} if the layer does not support coloring rules.
+     */
+    ColoringRules getColoringRules(TypeAdapter aAdapter);
 }
@@ -20,6 +20,7 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.SPAN_TYPE;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategyType.DYNAMIC;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategyType.GRAY;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategyType.LEGACY;
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategyType.STATIC;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategyType.STATIC_PASTELLE;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringUtils.isTooLight;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.Palette.DISABLED;
@@ -33,13 +34,18 @@ import static java.util.Arrays.asList;
 
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotationPreference;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.LayerConfigurationChangedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.LinkMode;
@@ -49,6 +55,13 @@ public class ColoringServiceImpl implements ColoringService
 {
     private final AnnotationSchemaService schemaService;
     
+    // The following caches are keyed by layer ID and are cleared whenever the layer
+    // configuration changes
+    private final Map<Long, Boolean> hasLinkFeatureCache = new ConcurrentHashMap<>();
+    private final Map<Long, Map<ColoringStrategyType, ColoringStrategy>> strategyCache = 
+            new ConcurrentHashMap<>();
+    private final Map<Long, CachedColoringRules> coloringRulesCache = new ConcurrentHashMap<>();
+    
     @Autowired
     public ColoringServiceImpl(AnnotationSchemaService aSchemaService)
     {
@@ -71,9 +84,19 @@ public class ColoringServiceImpl implements ColoringService
             t = getBestInitialStrategy(aLayer, aPreferences);
         }
         
-        return getStrategy(aLayer, t, aColorQueues);
+        // The static strategies take the next color from the color queues, so they must be
+        // created on every call. The other strategies only depend on the layer and can be
+        // re-used together with their memoized colors.
+        if (t == STATIC || t == STATIC_PASTELLE || aLayer.getId() == null) {
+            return getStrategy(aLayer, t, aColorQueues);
+        }
+        
+        final ColoringStrategyType type = t;
+        return strategyCache
+                .computeIfAbsent(aLayer.getId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, k -> getStrategy(aLayer, type, aColorQueues));
     }
-
+    
     private ColoringStrategy getStrategy(
             AnnotationLayer aLayer, ColoringStrategyType colortype,
             Map<String[], Queue<String>> aColorQueues)
@@ -114,6 +137,42 @@ public class ColoringServiceImpl implements ColoringService
             return new LabelHashBasedColoringStrategy(aPalette2);
         }
     }
+    
+    @Override
+    public ColoringRules getColoringRules(TypeAdapter aAdapter)
+    {
+        AnnotationLayer layer = aAdapter.getLayer();
+        
+        if (layer.getId() == null) {
+            return readColoringRules(aAdapter);
+        }
+        
+        // The traits are stored as a string in the layer, so if the string is still the same,
+        // then so are the coloring rules
+        CachedColoringRules cached = coloringRulesCache.get(layer.getId());
+        if (cached == null || !Objects.equals(cached.traits, layer.getTraits())) {
+            cached = new CachedColoringRules(layer.getTraits(), readColoringRules(aAdapter));
+            coloringRulesCache.put(layer.getId(), cached);
+        }
+        
+        return cached.rules;
+    }
+    
+    private ColoringRules readColoringRules(TypeAdapter aAdapter)
+    {
+        return aAdapter.getTraits(ColoringRulesTrait.class)
+                .map(ColoringRulesTrait::getColoringRules).orElse(null);
+    }
+    
+    @EventListener
+    public void onLayerConfigurationChanged(LayerConfigurationChangedEvent aEvent)
+    {
+        // Layer configuration changes are rare and the caches are cheap to rebuild, so we simply
+        // drop everything instead of tracking which layers belong to the project
+        hasLinkFeatureCache.clear();
+        strategyCache.clear();
+        coloringRulesCache.clear();
+    }
 
     @Override
     public ColoringStrategyType getBestInitialStrategy(AnnotationLayer aLayer,
@@ -134,6 +193,16 @@ public class ColoringServiceImpl implements ColoringService
     }
 
     private boolean hasLinkFeature(AnnotationLayer aLayer)
+    {
+        if (aLayer.getId() == null) {
+            return computeHasLinkFeature(aLayer);
+        }
+        
+        return hasLinkFeatureCache.computeIfAbsent(aLayer.getId(),
+            id -> computeHasLinkFeature(aLayer));
+    }
+    
+    private boolean computeHasLinkFeature(AnnotationLayer aLayer)
     {
         for (AnnotationFeature feature : schemaService.listAnnotationFeature(aLayer)) {
             if (!LinkMode.NONE.equals(feature.getLinkMode())) {
@@ -168,5 +237,16 @@ public class ColoringServiceImpl implements ColoringService
 
         return color;
     }
-
+    
+    private static class CachedColoringRules
+    {
+        private final String traits;
+        private final ColoringRules rules;
+        
+        public CachedColoringRules(String aTraits, ColoringRules aRules)
+        {
+            traits = aTraits;
+            rules = aRules;
+        }
+    }
 }
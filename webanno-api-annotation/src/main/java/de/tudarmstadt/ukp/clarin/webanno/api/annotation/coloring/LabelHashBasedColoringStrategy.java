@@ -19,12 +19,22 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.Palette.PALETTE_NORMAL_FILTERED;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VObject;
 
 public class LabelHashBasedColoringStrategy
     implements ColoringStrategy
 {
+    /**
+     * Upper bound for the number of labels remembered in the color memo table.
+     */
+    private static final int MAX_MEMO_SIZE = 10_000;
+    
     private final String[] palette;
+    
+    private final Map<String, String> colorByLabel = new ConcurrentHashMap<>();
 
     public LabelHashBasedColoringStrategy(String[] aPalette)
     {
@@ -51,6 +61,21 @@ public class LabelHashBasedColoringStrategy
             }
         }
 
+        String color = colorByLabel.get(aLabel);
+        if (color != null) {
+            return color;
+        }
+        
+        color = hashBasedColor(aLabel);
+        if (colorByLabel.size() < MAX_MEMO_SIZE) {
+            colorByLabel.put(aLabel, color);
+        }
+        
+        return color;
+    }
+    
+    private String hashBasedColor(String aLabel)
+    {
         // If each tag should get a separate color, we currently have no chance other than
         // to derive the color from the actual label text because at this point, we cannot
         // access the tagset information. If we could do that, we could calculate a position
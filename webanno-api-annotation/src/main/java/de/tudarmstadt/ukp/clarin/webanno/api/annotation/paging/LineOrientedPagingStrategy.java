@@ -17,11 +17,6 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
 
-import static org.apache.commons.lang3.StringUtils.splitPreserveAllTokens;
-
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.uima.cas.CAS;
 import org.apache.wicket.Component;
 import org.apache.wicket.markup.html.basic.Label;
@@ -31,29 +26,39 @@ import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorState;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.page.AnnotationPageBase;
 
 public class LineOrientedPagingStrategy
-    implements PagingStrategy
+    extends PagingStrategy_ImplBase
 {
     private static final long serialVersionUID = -991967885210129525L;
 
     @Override
-    public List<Unit> units(CAS aCas, int aFirstIndex, int aLastIndex)
+    protected UnitIndex buildUnitIndex(CAS aCas, long aVersion)
     {
-        // We need to preserve all tokens so we can add a +1 for the line breaks of empty lines.
-        String[] lines = splitPreserveAllTokens(aCas.getDocumentText(), '\n');
+        String text = aCas.getDocumentText();
+        
+        if (text == null || text.isEmpty()) {
+            return new UnitIndex(aVersion, new int[0], new int[0], null);
+        }
+        
+        // Every line break starts a new line - including empty lines and the line following a
+        // trailing line break
+        int lineCount = 1;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            lineCount++;
+        }
         
-        List<Unit> units = new ArrayList<>();
+        int[] begins = new int[lineCount];
+        int[] ends = new int[lineCount];
         int beginOffset = 0;
-        for (int i = 0; i < Math.min(lines.length, aLastIndex); i++) {
-            
-            if (i >= aFirstIndex) {
-                units.add(new Unit(i + 1, beginOffset, beginOffset + lines[i].length()));
-            }
-            
-            // The +1 below accounts for the line break which is not included in the token
-            beginOffset += lines[i].length() + 1;
+        for (int i = 0; i < lineCount; i++) {
+            int lineBreak = text.indexOf('\n', beginOffset);
+            int endOffset = lineBreak >= 0 ? lineBreak : text.length();
+            begins[i] = beginOffset;
+            ends[i] = endOffset;
+            // The +1 below accounts for the line break which is not included in the line
+            beginOffset = endOffset + 1;
         }
         
-        return units;
+        return new UnitIndex(aVersion, begins, ends, null);
     }
     
     @Override
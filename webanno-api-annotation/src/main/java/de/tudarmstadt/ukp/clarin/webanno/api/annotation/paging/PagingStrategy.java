@@ -20,7 +20,9 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging.FocusPosition.CENTERED;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.apache.uima.cas.CAS;
@@ -54,19 +56,14 @@ public interface PagingStrategy
             break;
         }
         case CENTERED: {
-            List<Unit> units = units(aCas);
-            
             // Find the unit containing the given offset
-            Unit unit = units.stream()
-                    .filter(u -> u.getBegin() <= aOffset && aOffset <= u.getEnd())
-                    .findFirst()
+            Unit unit = unitAtOffset(aCas, aOffset)
                     .orElseThrow(() -> new IllegalArgumentException(
                             "No unit contains character offset [" + aOffset + "]") );
 
             // How many rows to display before the unit such that the unit is centered?
             int rowsInPageBeforeUnit = aState.getPreferences().getWindowSize() / 2;
-            // The -1 below is because unit.getIndex() is 1-based
-            Unit firstUnit = units.get(Math.max(0, unit.getIndex() - rowsInPageBeforeUnit - 1));
+            Unit firstUnit = unitAtIndex(aCas, unit.getIndex() - rowsInPageBeforeUnit);
             
             aState.setPageBegin(aCas, firstUnit.getBegin());
             aState.setFocusUnitIndex(unit.getIndex());
@@ -116,6 +113,17 @@ public interface PagingStrategy
         return units.get(index - 1);
     }
     
+    /**
+     * Returns the first unit containing the given character offset. A unit contains an offset if
+     * the offset lies between the begin and end of the unit (both inclusive).
+     */
+    default Optional<Unit> unitAtOffset(CAS aCas, int aOffset)
+    {
+        return units(aCas).stream()
+                .filter(u -> u.getBegin() <= aOffset && aOffset <= u.getEnd())
+                .findFirst();
+    }
+    
     default List<Unit> unitsStartingAtOffset(CAS aCas, int aOffset, int aCount)
     {
         return units(aCas).stream()
@@ -156,6 +164,36 @@ public interface PagingStrategy
                 aState.getUnitCount() - aState.getPreferences().getWindowSize() + 1, aPos);
     }
     
+    /**
+     * Returns the units of the page preceding the currently visible page. This allows editors to
+     * prepare the render data for the previous page ahead of time. If the first page is visible,
+     * an empty list is returned.
+     */
+    default List<Unit> previousPageUnits(AnnotatorViewState aState, CAS aCas)
+    {
+        int windowSize = aState.getPreferences().getWindowSize();
+        int lastIndex = aState.getFirstVisibleUnitIndex() - 1;
+        
+        if (lastIndex < 1) {
+            return Collections.emptyList();
+        }
+        
+        return units(aCas, Math.max(1, lastIndex - windowSize + 1), lastIndex);
+    }
+
+    /**
+     * Returns the units of the page following the currently visible page. This allows editors to
+     * prepare the render data for the next page ahead of time. If the last page is visible, an
+     * empty list is returned.
+     */
+    default List<Unit> nextPageUnits(AnnotatorViewState aState, CAS aCas)
+    {
+        int windowSize = aState.getPreferences().getWindowSize();
+        int firstIndex = aState.getLastVisibleUnitIndex() + 1;
+        
+        return units(aCas, firstIndex, firstIndex + windowSize - 1);
+    }
+    
     default void moveToSelection(AnnotatorViewState aState, CAS aCas)
     {
         moveToOffset(aState, aCas, aState.getSelection().getBegin(), CENTERED);
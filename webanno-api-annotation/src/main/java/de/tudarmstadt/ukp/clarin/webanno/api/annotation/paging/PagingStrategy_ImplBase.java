@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.uima.cas.CAS;
+
+/**
+ * Base class for paging strategies which keep an {@link UnitIndex} of the units in the document.
+ * The index is built once per CAS version and then used to quickly look up units by their number
+ * or by character offset.
+ */
+public abstract class PagingStrategy_ImplBase
+    implements PagingStrategy
+{
+    private static final long serialVersionUID = 1775837014838307693L;
+
+    private transient volatile UnitIndex unitIndex;
+
+    /**
+     * Builds the unit index for the given CAS.
+     * 
+     * @param aCas
+     *            the CAS.
+     * @param aVersion
+     *            the version stamp which must be recorded in the index.
+     * @return the unit index.
+     */
+    protected abstract UnitIndex buildUnitIndex(CAS aCas, long aVersion);
+
+    /**
+     * Determines the version stamp of the given CAS. If the stamp differs from the one stored in
+     * the current index, the index is rebuilt.
+     */
+    protected long version(CAS aCas)
+    {
+        return UnitIndex.versionOf(aCas);
+    }
+
+    public UnitIndex unitIndex(CAS aCas)
+    {
+        long version = version(aCas);
+
+        UnitIndex index = unitIndex;
+        if (index == null || index.getVersion() != version) {
+            index = buildUnitIndex(aCas, version);
+            unitIndex = index;
+        }
+
+        return index;
+    }
+
+    @Override
+    public List<Unit> units(CAS aCas, int aFirstIndex, int aLastIndex)
+    {
+        return unitIndex(aCas).units(aFirstIndex, aLastIndex);
+    }
+
+    @Override
+    public int unitCount(CAS aCas)
+    {
+        return unitIndex(aCas).size();
+    }
+
+    @Override
+    public Unit unitAtIndex(CAS aCas, int aIndex)
+    {
+        UnitIndex index = unitIndex(aCas);
+        return index.get(Math.min(Math.max(aIndex, 1), index.size()));
+    }
+
+    @Override
+    public Optional<Unit> unitAtOffset(CAS aCas, int aOffset)
+    {
+        return unitIndex(aCas).unitAtOffset(aOffset);
+    }
+
+    @Override
+    public List<Unit> unitsStartingAtOffset(CAS aCas, int aOffset, int aCount)
+    {
+        return unitIndex(aCas).unitsStartingAtOffset(aOffset, aCount);
+    }
+}
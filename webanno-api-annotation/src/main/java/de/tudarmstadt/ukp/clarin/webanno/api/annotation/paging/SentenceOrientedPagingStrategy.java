@@ -19,9 +19,6 @@ package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectSentences;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.text.AnnotationFS;
 import org.apache.uima.fit.util.CasUtil;
@@ -35,42 +32,42 @@ import de.tudarmstadt.ukp.clarin.webanno.api.annotation.page.AnnotationPageBase;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 
 public class SentenceOrientedPagingStrategy
-    implements PagingStrategy
+    extends PagingStrategy_ImplBase
 {
     private static final long serialVersionUID = -3983123604003839467L;
 
     @Override
-    public List<Unit> units(CAS aCas, int aFirstIndex, int aLastIndex)
+    protected long version(CAS aCas)
     {
-        List<Unit> units = new ArrayList<>();
-        int i = 1;
-        for (AnnotationFS sentence : selectSentences(aCas)) {
-            if (i > aLastIndex) {
-                break;
-            }
-            
-            if (i >= aFirstIndex) {
-                units.add(toUnit(i, sentence));
-            }
-            
-            i++;
-        }
-        return units;
+        // Also consider the number of sentences since sentences may be modified before the CAS
+        // has been written back to the storage
+        return 31L * super.version(aCas) + sentenceCount(aCas);
     }
     
     @Override
-    public int unitCount(CAS aCas)
+    protected UnitIndex buildUnitIndex(CAS aCas, long aVersion)
     {
-        // This is way faster than the default implementation which first materializes all units
-        return aCas.getAnnotationIndex(CasUtil.getType(aCas, Sentence.class)).size(); 
+        int count = sentenceCount(aCas);
+        int[] begins = new int[count];
+        int[] ends = new int[count];
+        String[] ids = new String[count];
+        
+        int i = 0;
+        for (AnnotationFS sentence : selectSentences(aCas)) {
+            begins[i] = sentence.getBegin();
+            ends[i] = sentence.getEnd();
+            // If there is a sentence ID, then make it accessible to the user via a sentence-level
+            // comment.
+            ids[i] = FSUtil.getFeature(sentence, "id", String.class);
+            i++;
+        }
+        
+        return new UnitIndex(aVersion, begins, ends, ids);
     }
     
-    private Unit toUnit(int aIndex, AnnotationFS aSentence)
+    private int sentenceCount(CAS aCas)
     {
-        // If there is a sentence ID, then make it accessible to the user via a sentence-level
-        // comment.
-        String sentId = FSUtil.getFeature(aSentence, "id", String.class);
-        return new Unit(sentId, aIndex, aSentence.getBegin(), aSentence.getEnd());
+        return aCas.getAnnotationIndex(CasUtil.getType(aCas, Sentence.class)).size(); 
     }
     
     @Override
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
+
+import static java.util.Arrays.binarySearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.type.CASMetadata;
+
+/**
+ * Immutable index mapping unit numbers to their character offsets. The index is built once and
+ * then allows looking up units by their number or by a character offset in logarithmic time
+ * instead of iterating over all units from the start of the document.
+ */
+public class UnitIndex
+{
+    private final long version;
+    private final int[] begins;
+    private final int[] ends;
+    private final String[] ids;
+
+    /**
+     * @param aVersion
+     *            the version of the CAS the index has been built from (see
+     *            {@link #versionOf(CAS)}).
+     * @param aBegins
+     *            the begin offsets of the units in ascending order.
+     * @param aEnds
+     *            the end offsets of the units.
+     * @param aIds
+     *            the unit IDs or {@code null} if the units do not have IDs.
+     */
+    public UnitIndex(long aVersion, int[] aBegins, int[] aEnds, String[] aIds)
+    {
+        if (aBegins.length != aEnds.length || (aIds != null && aIds.length != aBegins.length)) {
+            throw new IllegalArgumentException("Offset and ID arrays must have the same length");
+        }
+
+        version = aVersion;
+        begins = aBegins;
+        ends = aEnds;
+        ids = aIds;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the total number of units.
+     */
+    public int size()
+    {
+        return begins.length;
+    }
+
+    /**
+     * @param aIndex
+     *            index of the unit (1-based).
+     */
+    public Unit get(int aIndex)
+    {
+        int i = aIndex - 1;
+        return new Unit(ids != null ? ids[i] : null, aIndex, begins[i], ends[i]);
+    }
+
+    /**
+     * Returns the units in a given index range (1-based, inclusive). The range is capped to the
+     * units available.
+     */
+    public List<Unit> units(int aFirstIndex, int aLastIndex)
+    {
+        int first = Math.max(1, aFirstIndex);
+        int last = Math.min(size(), aLastIndex);
+
+        if (first > last) {
+            return Collections.emptyList();
+        }
+
+        List<Unit> units = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            units.add(get(i));
+        }
+        return units;
+    }
+
+    /**
+     * Returns the up to {@code aCount} units which begin at or after the given offset.
+     */
+    public List<Unit> unitsStartingAtOffset(int aOffset, int aCount)
+    {
+        int pos = binarySearch(begins, aOffset);
+        if (pos < 0) {
+            // Not an exact match, use the insertion point, i.e. the first unit starting after
+            // the offset
+            pos = -(pos + 1);
+        }
+        else {
+            // Multiple (empty) units may start at the same offset - find the first one
+            while (pos > 0 && begins[pos - 1] == aOffset) {
+                pos--;
+            }
+        }
+
+        // pos is 0-based, the unit indexes are 1-based
+        return units(pos + 1, pos + Math.max(0, aCount));
+    }
+
+    /**
+     * Returns the first unit containing the given offset. A unit contains an offset if the offset
+     * lies between its begin and end (both inclusive).
+     */
+    public Optional<Unit> unitAtOffset(int aOffset)
+    {
+        // Find the last unit beginning at or before the offset...
+        int pos = binarySearch(begins, aOffset);
+        if (pos < 0) {
+            pos = -(pos + 1) - 1;
+        }
+        else {
+            while (pos > 0 && begins[pos - 1] == aOffset) {
+                pos--;
+            }
+        }
+
+        if (pos < 0) {
+            return Optional.empty();
+        }
+
+        // ... the previous unit may still contain the offset if it ends exactly at the offset
+        if (pos > 0 && ends[pos - 1] >= aOffset) {
+            pos--;
+        }
+
+        if (ends[pos] < aOffset) {
+            return Optional.empty();
+        }
+
+        return Optional.of(get(pos + 1));
+    }
+
+    /**
+     * Determines a version stamp for the CAS. The stamp is derived from the time the CAS was last
+     * written to the storage (if available) and from the document text, so it changes whenever
+     * the CAS is saved after a modification or a different document is loaded.
+     */
+    public static long versionOf(CAS aCas)
+    {
+        String text = aCas.getDocumentText();
+        long version = text != null ? (31L * text.length() + text.hashCode()) : 0;
+
+        Type casMetadataType = aCas.getTypeSystem().getType(CASMetadata.class.getName());
+        if (casMetadataType != null) {
+            Feature feature = casMetadataType.getFeatureByBaseName("lastChangedOnDisk");
+            long lastChanged = aCas.select(casMetadataType)
+                    .map(cmd -> cmd.getLongValue(feature))
+                    .findFirst()
+                    .orElse(-1L);
+            version = 31L * version + lastChanged;
+        }
+
+        return version;
+    }
+}
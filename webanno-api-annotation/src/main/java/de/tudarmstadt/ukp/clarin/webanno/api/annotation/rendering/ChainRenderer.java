@@ -47,8 +47,8 @@ import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VArc;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VDocument;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VRange;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VSpan;
-import de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.TypeUtil;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 
 public class ChainRenderer
     extends Renderer_ImplBase<ChainAdapter>
@@ -105,6 +105,16 @@ public class ChainRenderer
         // will crash.
         
         Feature chainFirst = chainType.getFeatureByBaseName(typeAdapter.getChainFirstFeatureName());
+        
+        // The label features are the same for all links, so the templates are compiled only once
+        AnnotationLayer layer = typeAdapter.getLayer();
+        LabelTemplate spanTemplate = LabelTemplate.compile(layer,
+                (spanLabelFeature != null) ? asList(spanLabelFeature) : emptyList());
+        LabelTemplate arcTemplate = LabelTemplate.compile(layer,
+                (typeAdapter.isLinkedListBehavior() && arcLabelFeature != null)
+                        ? asList(arcLabelFeature)
+                        : emptyList());
+        StringBuilder labelBuffer = new StringBuilder();
 
         // Sorted index mapping annotations to the corresponding rendered spans
         Map<AnnotationFS, VSpan> annoToSpanIdx = new HashMap<>();
@@ -139,10 +149,8 @@ public class ChainRenderer
 
                 // Render span
                 {
-                    String bratLabelText = TypeUtil.getUiLabelText(typeAdapter, linkFs,
-                            (spanLabelFeature != null) ? asList(spanLabelFeature) : emptyList());
-                    String bratHoverText = TypeUtil.getUiHoverText(typeAdapter, linkFs,
-                            (spanLabelFeature != null) ? asList(spanLabelFeature) : emptyList());
+                    String bratLabelText = spanTemplate.renderLabel(linkFs, labelBuffer);
+                    String bratHoverText = spanTemplate.renderHover(linkFs, labelBuffer);
                     VRange offsets = new VRange(linkFs.getBegin() - aPageBegin,
                             linkFs.getEnd() - aPageBegin);
 
@@ -158,18 +166,8 @@ public class ChainRenderer
                 // Render arc (we do this on prevLinkFs because then we easily know that the current
                 // and last link are within the window ;)
                 if (prevLinkFs != null) {
-                    String bratLabelText = null;
-
-                    if (typeAdapter.isLinkedListBehavior() && arcLabelFeature != null) {
-                        // Render arc label
-                        bratLabelText = TypeUtil.getUiLabelText(typeAdapter, prevLinkFs,
-                                asList(arcLabelFeature));
-                    }
-                    else {
-                        // Render only chain type
-                        bratLabelText = TypeUtil.getUiLabelText(typeAdapter, prevLinkFs,
-                                emptyList());
-                    }
+                    // Renders the arc label or only the chain type if there is no arc label
+                    String bratLabelText = arcTemplate.renderLabel(prevLinkFs, labelBuffer);
 
                     aResponse.add(new VArc(typeAdapter.getLayer(),
                             new VID(prevLinkFs, 1, VID.NONE, VID.NONE), bratTypeName, prevLinkFs,
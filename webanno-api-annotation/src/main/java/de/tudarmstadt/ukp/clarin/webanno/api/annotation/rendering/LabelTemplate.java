@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.text.AnnotationFS;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VObject;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+import de.tudarmstadt.ukp.clarin.webanno.model.MultiValueMode;
+
+/**
+ * Renders the label and hover texts for the annotations of a particular layer. When the template
+ * is compiled (see {@link LabelTemplateService}), the features contributing to the label and to
+ * the hover text are determined from the layer configuration, so they do not need to be filtered
+ * again for every annotation. The texts are rendered into a caller-provided buffer which can be
+ * reused across annotations. Labels consisting of a single tagset value are interned, so that the
+ * many annotations carrying the same tag share the same label instance.
+ * <p>
+ * The methods in {@link de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.TypeUtil} which
+ * produce label and hover texts delegate to this class.
+ */
+public class LabelTemplate
+{
+    public static final String SPAN_TEXT = "__spantext__";
+
+    /**
+     * Upper bound for the number of interned labels per layer. Tagsets which allow annotators to
+     * add tags may grow, so the least recently used labels are dropped beyond this size.
+     */
+    private static final int MAX_INTERNED_LABELS = 1_000;
+
+    private final String emptyLabel;
+    private final boolean showTextInHover;
+    private final List<String> labelFeatures = new ArrayList<>();
+    private final List<String> hoverFeatures = new ArrayList<>();
+    private final Set<String> tagsetFeatures = new HashSet<>();
+    private volatile Cache<String, String> internedLabels;
+
+    private LabelTemplate(AnnotationLayer aLayer, List<AnnotationFeature> aFeatures)
+    {
+        emptyLabel = "(" + aLayer.getUiName() + ")";
+        showTextInHover = aLayer.isShowTextInHover();
+        
+        for (AnnotationFeature feature : aFeatures) {
+            if (!feature.isEnabled() || !MultiValueMode.NONE.equals(feature.getMultiValueMode())) {
+                continue;
+            }
+            
+            if (feature.isVisible()) {
+                labelFeatures.add(feature.getName());
+            }
+            
+            if (feature.isIncludeInHover()) {
+                hoverFeatures.add(feature.getName());
+            }
+            
+            if (feature.getTagset() != null) {
+                tagsetFeatures.add(feature.getName());
+            }
+        }
+    }
+
+    /**
+     * Compiles the template for the given layer.
+     *
+     * @param aLayer
+     *            the layer.
+     * @param aFeatures
+     *            the features of the layer.
+     * @return the template.
+     */
+    public static LabelTemplate compile(AnnotationLayer aLayer, List<AnnotationFeature> aFeatures)
+    {
+        return new LabelTemplate(aLayer, aFeatures);
+    }
+
+    /**
+     * Construct the label text used in the user interface.
+     *
+     * @param aVObject
+     *            a visual object.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the label.
+     * @return the label.
+     */
+    public String renderLabel(VObject aVObject, StringBuilder aBuffer)
+    {
+        if (aVObject.getLabelHint() != null) {
+            return aVObject.getLabelHint();
+        }
+
+        return renderLabel(aVObject.getFeatures(), aBuffer);
+    }
+
+    /**
+     * Construct the label text used in the user interface.
+     *
+     * @param aFeatures
+     *            the rendered label feature values.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the label.
+     * @return the label.
+     */
+    public String renderLabel(Map<String, String> aFeatures, StringBuilder aBuffer)
+    {
+        // In the common case that only a single tagset feature provides a label, we can use the
+        // interned value directly without having to assemble it first
+        if (aFeatures.size() == 1 && !tagsetFeatures.isEmpty()) {
+            Entry<String, String> feature = aFeatures.entrySet().iterator().next();
+            if (tagsetFeatures.contains(feature.getKey()) && feature.getValue() != null) {
+                return intern(feature.getValue());
+            }
+        }
+        
+        return formatLabel(aFeatures, aBuffer);
+    }
+
+    /**
+     * Construct the label text used in the user interface.
+     *
+     * @param aFs
+     *            the annotation.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the label.
+     * @return the label.
+     */
+    public String renderLabel(FeatureStructure aFs, StringBuilder aBuffer)
+    {
+        aBuffer.setLength(0);
+        for (String featureName : labelFeatures) {
+            Feature labelFeature = aFs.getType().getFeatureByBaseName(featureName);
+            String label = defaultString(aFs.getFeatureValueAsString(labelFeature));
+            
+            if (aBuffer.length() > 0 && label.length() > 0) {
+                aBuffer.append(TypeAdapter.FEATURE_SEPARATOR);
+            }
+
+            aBuffer.append(label);
+        }
+
+        if (aBuffer.length() > 0) {
+            return aBuffer.toString();
+        }
+        else {
+            // If there are no label features at all, then use the layer UI name
+            return emptyLabel;
+        }
+    }
+
+    /**
+     * Construct the hover text used in the user interface.
+     *
+     * @param aHoverFeatures
+     *            the rendered hover feature values.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the hover text.
+     * @return the hover text.
+     */
+    public String renderHover(Map<String, String> aHoverFeatures, StringBuilder aBuffer)
+    {
+        return formatHover(aHoverFeatures, aBuffer);
+    }
+
+    /**
+     * Construct the hover text used in the user interface.
+     *
+     * @param aFs
+     *            the annotation.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the hover text.
+     * @return the hover text.
+     */
+    public String renderHover(AnnotationFS aFs, StringBuilder aBuffer)
+    {
+        aBuffer.setLength(0);
+        if (showTextInHover) {
+            aBuffer.append('"').append(aFs.getCoveredText()).append("\" ");
+        }
+        int prefixLength = aBuffer.length();
+        
+        for (String featureName : hoverFeatures) {
+            Feature labelFeature = aFs.getType().getFeatureByBaseName(featureName);
+            String text = defaultString(aFs.getFeatureValueAsString(labelFeature));
+            
+            if (aBuffer.length() > prefixLength && text.length() > 0) {
+                aBuffer.append(TypeAdapter.FEATURE_SEPARATOR);
+            }
+
+            aBuffer.append(text);
+        }
+
+        if (aBuffer.length() > prefixLength) {
+            return aBuffer.toString();
+        }
+        else {
+            // If there are no label features at all, then use the spantext, which 
+            // is the default if no hover text is provided
+            return null;
+        }
+    }
+
+    /**
+     * Assembles the label text from the rendered label feature values.
+     *
+     * @param aFeatures
+     *            the rendered label feature values.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the label.
+     * @return the label.
+     */
+    public static String formatLabel(Map<String, String> aFeatures, StringBuilder aBuffer)
+    {
+        aBuffer.setLength(0);
+        for (String value : aFeatures.values()) {
+            String label = defaultString(value);
+
+            if (aBuffer.length() > 0 && label.length() > 0) {
+                aBuffer.append(TypeAdapter.FEATURE_SEPARATOR);
+            }
+
+            aBuffer.append(label);
+        }
+
+        if (aBuffer.length() > 0) {
+            return aBuffer.toString();
+        }
+        else {
+            // If there are no label features at all, then return the empty string. This avoids
+            // NPEs in the coloring strategy, saves a few characters in the brat JSON ("" vs null)
+            // and still causes the brat UI JS to fall back to the layer name.
+            return "";
+        }
+    }
+
+    /**
+     * Assembles the hover text from the rendered hover feature values.
+     *
+     * @param aHoverFeatures
+     *            the rendered hover feature values.
+     * @param aBuffer
+     *            a buffer which is cleared and used for assembling the hover text.
+     * @return the hover text.
+     */
+    public static String formatHover(Map<String, String> aHoverFeatures, StringBuilder aBuffer)
+    {
+        aBuffer.setLength(0);
+
+        if (aHoverFeatures.containsKey(SPAN_TEXT)) {
+            aBuffer.append('"').append(defaultString(aHoverFeatures.get(SPAN_TEXT))).append("\" ");
+        }
+
+        boolean featuresToShowAvailable = false;
+        for (Entry<String, String> feature : aHoverFeatures.entrySet()) {
+            if (SPAN_TEXT.equals(feature.getKey())) {
+                continue;
+            }
+
+            String text = defaultString(feature.getValue());
+
+            if (aBuffer.length() > 0 && featuresToShowAvailable && text.length() > 0) {
+                aBuffer.append(TypeAdapter.FEATURE_SEPARATOR);
+            }
+
+            aBuffer.append(text);
+            featuresToShowAvailable = true;
+        }
+
+        if (featuresToShowAvailable) {
+            return aBuffer.toString();
+        }
+        else {
+            // If there are no hover features at all, then use the spantext, which
+            // is the default if no hover text is provided
+            return null;
+        }
+    }
+
+    private String intern(String aLabel)
+    {
+        Cache<String, String> labels = internedLabels;
+        if (labels == null) {
+            synchronized (this) {
+                labels = internedLabels;
+                if (labels == null) {
+                    labels = Caffeine.newBuilder().maximumSize(MAX_INTERNED_LABELS).build();
+                    internedLabels = labels;
+                }
+            }
+        }
+        
+        return labels.get(aLabel, label -> label);
+    }
+}
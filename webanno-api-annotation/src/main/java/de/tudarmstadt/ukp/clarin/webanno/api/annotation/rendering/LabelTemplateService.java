@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+
+public interface LabelTemplateService
+{
+    /**
+     * Returns the label template for the given layer. Templates are cached until the layer
+     * configuration of the project changes.
+     * 
+     * @param aLayer
+     *            the layer.
+     * @return the label template.
+     */
+    LabelTemplate getTemplate(AnnotationLayer aLayer);
+}
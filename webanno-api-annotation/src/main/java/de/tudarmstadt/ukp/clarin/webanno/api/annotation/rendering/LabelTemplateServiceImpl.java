@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
+
+import static java.util.Collections.emptyList;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.LayerConfigurationChangedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+
+@Component
+public class LabelTemplateServiceImpl
+    implements LabelTemplateService
+{
+    private final AnnotationSchemaService schemaService;
+    private final Map<Long, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LabelTemplateServiceImpl(AnnotationSchemaService aSchemaService)
+    {
+        schemaService = aSchemaService;
+    }
+
+    @Override
+    public LabelTemplate getTemplate(AnnotationLayer aLayer)
+    {
+        // Layers which have not been persisted yet cannot be cached and have no features yet
+        if (aLayer.getId() == null) {
+            return LabelTemplate.compile(aLayer, emptyList());
+        }
+        
+        return templates
+                .computeIfAbsent(aLayer.getId(), id -> new CachedTemplate(
+                        aLayer.getProject().getId(), LabelTemplate.compile(aLayer,
+                                schemaService.listAnnotationFeature(aLayer))))
+                .template;
+    }
+
+    @EventListener
+    public void onLayerConfigurationChanged(LayerConfigurationChangedEvent aEvent)
+    {
+        templates.values().removeIf(
+            t -> Objects.equals(t.projectId, aEvent.getProject().getId()));
+    }
+    
+    private static class CachedTemplate
+    {
+        private final Long projectId;
+        private final LabelTemplate template;
+        
+        public CachedTemplate(Long aProjectId, LabelTemplate aTemplate)
+        {
+            projectId = aProjectId;
+            template = aTemplate;
+        }
+    }
+}
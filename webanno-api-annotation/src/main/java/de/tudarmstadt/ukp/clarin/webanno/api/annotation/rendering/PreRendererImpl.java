@@ -17,34 +17,74 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.uima.cas.CAS;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.layer.LayerSupportRegistry;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.config.PreRendererProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 
 @Component
-public class PreRendererImpl implements PreRenderer
+public class PreRendererImpl
+    implements PreRenderer, DisposableBean
 {
     private final AnnotationSchemaService annotationService;
     private final LayerSupportRegistry layerSupportRegistry;
+    private final PreRendererProperties properties;
+    private final ExecutorService renderExecutorService;
 
-    @Autowired
     public PreRendererImpl(LayerSupportRegistry aLayerSupportRegistry,
             AnnotationSchemaService aAnnotationService)
+    {
+        this(aLayerSupportRegistry, aAnnotationService, new PreRendererProperties());
+    }
+
+    @Autowired
+    public PreRendererImpl(LayerSupportRegistry aLayerSupportRegistry,
+            AnnotationSchemaService aAnnotationService, PreRendererProperties aProperties)
     {
         layerSupportRegistry = aLayerSupportRegistry;
         annotationService = aAnnotationService;
+        properties = aProperties;
+        
+        if (properties.isParallel()) {
+            renderExecutorService = Executors.newFixedThreadPool(
+                    Math.max(1, properties.getThreads()), new BasicThreadFactory.Builder()
+                            .namingPattern("pre-renderer-%d").daemon(true).build());
+        }
+        else {
+            renderExecutorService = null;
+        }
+    }
+    
+    @Override
+    public void destroy() throws Exception
+    {
+        if (renderExecutorService != null) {
+            renderExecutorService.shutdownNow();
+        }
     }
     
     @Override
@@ -65,6 +105,12 @@ public class PreRendererImpl implements PreRenderer
         // every layer.
         List<AnnotationFeature> allFeatures = annotationService.listSupportedFeatures(project);
         
+        if (renderExecutorService != null && aLayers.size() >= properties.getMinLayers()) {
+            renderParallel(aResponse, windowBeginOffset, windowEndOffset, aCas, aLayers,
+                    allFeatures);
+            return;
+        }
+        
         // Render (custom) layers
         for (AnnotationLayer layer : aLayers) {
             List<AnnotationFeature> features = allFeatures.stream()
@@ -75,4 +121,63 @@ public class PreRendererImpl implements PreRenderer
             renderer.render(aCas, features, aResponse, windowBeginOffset, windowEndOffset);
         }
     }
+    
+    /**
+     * Renders each layer into its own buffer on the render pool and then merges the buffers into
+     * the response in the order of the layers, so the result is the same as when rendering
+     * sequentially. The render threads only read the CAS and the layer and feature definitions.
+     * All renderers and the feature lists they need are created on the calling thread before the
+     * first layer is dispatched to the pool, so the render threads never access the database or
+     * the request of the caller. Problems which should be reported to the user are recorded as
+     * warnings in the buffers.
+     */
+    private void renderParallel(VDocument aResponse, int aWindowBegin, int aWindowEnd, CAS aCas,
+            List<AnnotationLayer> aLayers, List<AnnotationFeature> aAllFeatures)
+    {
+        // The render threads cannot fetch the features lazily, so fetch the features of all
+        // layers in a single query instead of querying each layer separately
+        Map<AnnotationLayer, List<AnnotationFeature>> featuresByLayer = annotationService
+                .listAnnotationFeature(aLayers.get(0).getProject()).stream()
+                .collect(groupingBy(AnnotationFeature::getLayer));
+        
+        List<Callable<VDocument>> tasks = new ArrayList<>();
+        for (AnnotationLayer layer : aLayers) {
+            List<AnnotationFeature> features = unmodifiableList(aAllFeatures.stream()
+                    .filter(feature -> feature.getLayer().equals(layer))
+                    .collect(toList()));
+            List<AnnotationFeature> layerFeatures = unmodifiableList(
+                    featuresByLayer.getOrDefault(layer, emptyList()));
+            Renderer renderer = layerSupportRegistry.getLayerSupport(layer).createRenderer(layer,
+                () -> layerFeatures);
+            
+            tasks.add(() -> {
+                VDocument buffer = new VDocument();
+                renderer.render(aCas, features, buffer, aWindowBegin, aWindowEnd);
+                return buffer;
+            });
+        }
+        
+        List<Future<VDocument>> results = new ArrayList<>();
+        for (Callable<VDocument> task : tasks) {
+            results.add(renderExecutorService.submit(task));
+        }
+        
+        try {
+            for (Future<VDocument> result : results) {
+                aResponse.addAll(result.get());
+            }
+        }
+        catch (InterruptedException e) {
+            results.forEach(result -> result.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering layers", e);
+        }
+        catch (ExecutionException e) {
+            results.forEach(result -> result.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unable to render layers", e.getCause());
+        }
+    }
 }
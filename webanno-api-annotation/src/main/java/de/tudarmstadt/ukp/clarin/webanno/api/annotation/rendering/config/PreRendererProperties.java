@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("annotation.rendering")
+public class PreRendererProperties
+{
+    /**
+     * Whether layers are rendered concurrently. The CAS is only read during rendering, so each
+     * layer can be rendered independently and the results are assembled in layer order.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Maximum number of threads used for rendering layers concurrently.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Minimum number of layers to render before the concurrent mode kicks in. Below this
+     * threshold, the overhead of dispatching to the pool outweighs the gain.
+     */
+    private int minLayers = 4;
+
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    public void setParallel(boolean aParallel)
+    {
+        parallel = aParallel;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    public void setThreads(int aThreads)
+    {
+        threads = aThreads;
+    }
+
+    public int getMinLayers()
+    {
+        return minLayers;
+    }
+
+    public void setMinLayers(int aMinLayers)
+    {
+        minLayers = aMinLayers;
+    }
+}
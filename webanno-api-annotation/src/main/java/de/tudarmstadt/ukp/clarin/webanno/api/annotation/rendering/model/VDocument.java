@@ -39,6 +39,7 @@ public class VDocument
     private final ListValuedMap<Long, VSpan> spansByLayer = new ArrayListValuedHashMap<>();
     private final Map<Long, AnnotationLayer> annotationLayers = new LinkedHashMap<>();
     private final List<VMarker> markers = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
 
     public void add(VArc aArc)
     {
@@ -72,6 +73,33 @@ public class VDocument
         markers.add(aMarker);
     }
     
+    /**
+     * Records a problem encountered during rendering which should be reported to the user.
+     *
+     * @param aMessage
+     *            the warning message.
+     */
+    public void addWarning(String aMessage)
+    {
+        warnings.add(aMessage);
+    }
+    
+    /**
+     * Adds all spans, arcs, comments, markers and warnings of the given document to this
+     * document. The relative order of the elements in the given document is retained.
+     *
+     * @param aOther
+     *            the document to merge into this one.
+     */
+    public void addAll(VDocument aOther)
+    {
+        aOther.spans.values().forEach(this::add);
+        aOther.arcs.values().forEach(this::add);
+        aOther.comments.values().forEach(this::add);
+        aOther.markers.forEach(this::add);
+        aOther.warnings.forEach(this::addWarning);
+    }
+
     public VSpan getSpan(VID aVid) {
         return spans.get(aVid);
     }
@@ -89,6 +117,11 @@ public class VDocument
     {
         return markers;
     }
+    
+    public List<String> getWarnings()
+    {
+        return Collections.unmodifiableList(warnings);
+    }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public Collection<VSpan> spans(long aLayerId)
@@ -21,7 +21,6 @@ import static java.lang.Long.parseLong;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.uima.cas.CAS;
@@ -31,6 +30,7 @@ import org.apache.uima.cas.Type;
 import org.apache.uima.cas.text.AnnotationFS;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.LabelTemplate;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VObject;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
@@ -76,26 +76,7 @@ public final class TypeUtil
      */
     public static String getUiLabelText(TypeAdapter aAdapter, Map<String, String> aFeatures)
     {
-        StringBuilder labelText = new StringBuilder();
-        for (Entry<String, String> feature : aFeatures.entrySet()) {
-            String label = StringUtils.defaultString(feature.getValue());
-            
-            if (labelText.length() > 0 && label.length() > 0) {
-                labelText.append(TypeAdapter.FEATURE_SEPARATOR);
-            }
-
-            labelText.append(label);
-        }
-
-        if (labelText.length() > 0) {
-            return labelText.toString();
-        }
-        else {
-            // If there are no label features at all, then return the empty string. This avoids
-            // NPEs in the coloring strategy, saves a few characters in the brat JSON ("" vs null)
-            // and still causes the brat UI JS to fall back to the layer name.
-            return "";
-        }
+        return LabelTemplate.formatLabel(aFeatures, new StringBuilder());
     }
     
     /**
@@ -107,37 +88,7 @@ public final class TypeUtil
      */
     public static String getUiHoverText(TypeAdapter aAdapter, Map<String, String> aHoverFeatures)
     {
-        StringBuilder bratHoverText = new StringBuilder();
-        if (aHoverFeatures.containsKey("__spantext__")) {
-            bratHoverText
-                .append("\"")
-                .append(StringUtils.defaultString(aHoverFeatures.get("__spantext__")))
-                .append("\" ");
-        }
-        
-        boolean featuresToShowAvailable = false;
-        for (Entry<String, String> feature : aHoverFeatures.entrySet()) {
-            if ("__spantext__".equals(feature.getKey())) {
-                continue;
-            }
-            String text = StringUtils.defaultString(feature.getValue());
-            
-            if (bratHoverText.length() > 0 && featuresToShowAvailable && text.length() > 0) {
-                bratHoverText.append(TypeAdapter.FEATURE_SEPARATOR);
-            }
-
-            bratHoverText.append(text);
-            featuresToShowAvailable = true;
-        }
-
-        if (featuresToShowAvailable) {
-            return bratHoverText.toString();
-        }
-        else {
-            // If there are no hover features at all, then use the spantext, which 
-            // is the default if no hover text is provided
-            return null;
-        }
+        return LabelTemplate.formatHover(aHoverFeatures, new StringBuilder());
     }
     
     /**
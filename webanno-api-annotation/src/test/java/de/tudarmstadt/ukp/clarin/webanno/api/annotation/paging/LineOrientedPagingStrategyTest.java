@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.factory.CasFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotationPreference;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorViewState;
+
+public class LineOrientedPagingStrategyTest
+{
+    private LineOrientedPagingStrategy sut;
+    private CAS cas;
+
+    @Before
+    public void setup() throws Exception
+    {
+        sut = new LineOrientedPagingStrategy();
+        cas = CasFactory.createCas();
+    }
+
+    @Test
+    public void thatLinesAreIndexed()
+    {
+        cas.setDocumentText("line 1\n\nline 3\n");
+
+        assertThat(sut.units(cas)).containsExactly(
+                new Unit(1, 0, 6),
+                new Unit(2, 7, 7),
+                new Unit(3, 8, 14),
+                new Unit(4, 15, 15));
+        assertThat(sut.unitCount(cas)).isEqualTo(4);
+    }
+
+    @Test
+    public void thatUnitsCanBeLookedUpByIndexAndOffset()
+    {
+        cas.setDocumentText("line 1\n\nline 3\n");
+
+        assertThat(sut.unitAtIndex(cas, 3)).isEqualTo(new Unit(3, 8, 14));
+        assertThat(sut.unitAtIndex(cas, 100)).isEqualTo(new Unit(4, 15, 15));
+        assertThat(sut.unitAtIndex(cas, -1)).isEqualTo(new Unit(1, 0, 6));
+        assertThat(sut.unitAtOffset(cas, 10)).contains(new Unit(3, 8, 14));
+        assertThat(sut.unitAtOffset(cas, 7)).contains(new Unit(2, 7, 7));
+        assertThat(sut.unitsStartingAtOffset(cas, 1, 2)).containsExactly(
+                new Unit(2, 7, 7),
+                new Unit(3, 8, 14));
+    }
+
+    @Test
+    public void thatIndexIsRebuiltWhenTextChanges() throws Exception
+    {
+        cas.setDocumentText("line 1\nline 2");
+        assertThat(sut.unitCount(cas)).isEqualTo(2);
+
+        cas.reset();
+        cas.setDocumentText("line 1\nline 2\nline 3");
+        assertThat(sut.unitCount(cas)).isEqualTo(3);
+    }
+
+    @Test
+    public void thatThereIsNoPreviousPageOnTheFirstPage()
+    {
+        cas.setDocumentText("1\n2\n3\n4\n5\n6\n7");
+        AnnotatorViewState state = viewState(3, 1, 3);
+
+        assertThat(sut.previousPageUnits(state, cas)).isEmpty();
+        assertThat(sut.nextPageUnits(state, cas)).containsExactly(
+                new Unit(4, 6, 7),
+                new Unit(5, 8, 9),
+                new Unit(6, 10, 11));
+    }
+
+    @Test
+    public void thatThereIsNoNextPageOnTheLastPage()
+    {
+        cas.setDocumentText("1\n2\n3\n4\n5\n6\n7");
+        AnnotatorViewState state = viewState(3, 5, 7);
+
+        assertThat(sut.nextPageUnits(state, cas)).isEmpty();
+        assertThat(sut.previousPageUnits(state, cas)).containsExactly(
+                new Unit(2, 2, 3),
+                new Unit(3, 4, 5),
+                new Unit(4, 6, 7));
+    }
+
+    @Test
+    public void thatPartialPagesAreCappedAtTheDocumentBoundaries()
+    {
+        cas.setDocumentText("1\n2\n3\n4\n5\n6\n7");
+
+        assertThat(sut.previousPageUnits(viewState(3, 2, 4), cas)).containsExactly(
+                new Unit(1, 0, 1));
+        assertThat(sut.nextPageUnits(viewState(3, 4, 6), cas)).containsExactly(
+                new Unit(7, 12, 13));
+    }
+
+    private AnnotatorViewState viewState(int aWindowSize, int aFirstVisibleUnitIndex,
+            int aLastVisibleUnitIndex)
+    {
+        AnnotationPreference preferences = new AnnotationPreference();
+        preferences.setWindowSize(aWindowSize);
+
+        AnnotatorViewState state = mock(AnnotatorViewState.class);
+        when(state.getPreferences()).thenReturn(preferences);
+        when(state.getFirstVisibleUnitIndex()).thenReturn(aFirstVisibleUnitIndex);
+        when(state.getLastVisibleUnitIndex()).thenReturn(aLastVisibleUnitIndex);
+        return state;
+    }
+}
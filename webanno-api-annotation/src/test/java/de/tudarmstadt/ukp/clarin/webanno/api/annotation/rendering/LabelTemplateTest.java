@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter.FEATURE_SEPARATOR;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.TypeUtil;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+import de.tudarmstadt.ukp.clarin.webanno.model.TagSet;
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+
+public class LabelTemplateTest
+{
+    private AnnotationLayer layer;
+    private AnnotationFeature valueFeature;
+    private AnnotationFeature identifierFeature;
+    private LabelTemplate sut;
+    private StringBuilder buffer;
+
+    @Before
+    public void setup()
+    {
+        layer = new AnnotationLayer();
+        layer.setId(1l);
+        layer.setUiName("Named entity");
+        
+        valueFeature = new AnnotationFeature();
+        valueFeature.setName("value");
+        valueFeature.setEnabled(true);
+        valueFeature.setVisible(true);
+        valueFeature.setIncludeInHover(true);
+        valueFeature.setTagset(new TagSet());
+        
+        identifierFeature = new AnnotationFeature();
+        identifierFeature.setName("identifier");
+        identifierFeature.setEnabled(true);
+        identifierFeature.setVisible(false);
+        identifierFeature.setIncludeInHover(true);
+        
+        sut = LabelTemplate.compile(layer, asList(valueFeature, identifierFeature));
+        buffer = new StringBuilder();
+    }
+
+    @Test
+    public void thatLabelMatchesTypeUtil()
+    {
+        Map<String, String> features = new LinkedHashMap<>();
+        assertThat(sut.renderLabel(features, buffer))
+                .isEqualTo(TypeUtil.getUiLabelText(null, features));
+
+        features.put("value", "PER");
+        assertThat(sut.renderLabel(features, buffer))
+                .isEqualTo(TypeUtil.getUiLabelText(null, features));
+
+        features.put("identifier", null);
+        features.put("comment", "check");
+        assertThat(sut.renderLabel(features, buffer))
+                .isEqualTo(TypeUtil.getUiLabelText(null, features));
+    }
+
+    @Test
+    public void thatHoverMatchesTypeUtil()
+    {
+        Map<String, String> features = new LinkedHashMap<>();
+        assertThat(sut.renderHover(features, buffer))
+                .isEqualTo(TypeUtil.getUiHoverText(null, features));
+
+        features.put(LabelTemplate.SPAN_TEXT, "John");
+        assertThat(sut.renderHover(features, buffer))
+                .isEqualTo(TypeUtil.getUiHoverText(null, features));
+
+        features.put("value", "PER");
+        features.put("comment", "");
+        features.put("identifier", "Q1");
+        assertThat(sut.renderHover(features, buffer))
+                .isEqualTo(TypeUtil.getUiHoverText(null, features));
+    }
+
+    @Test
+    public void thatTagsetLabelsAreInterned()
+    {
+        Map<String, String> features = new LinkedHashMap<>();
+        features.put("value", new String("PER"));
+        String label1 = sut.renderLabel(features, buffer);
+        
+        features.put("value", new String("PER"));
+        String label2 = sut.renderLabel(features, buffer);
+
+        assertThat(label1).isEqualTo("PER");
+        assertThat(label1).isSameAs(label2);
+    }
+
+    @Test
+    public void thatLabelOfAnnotationUsesVisibleFeaturesOnly() throws Exception
+    {
+        AnnotationFS ne = makeNamedEntity("PER", "Q1");
+        
+        assertThat(sut.renderLabel(ne, buffer)).isEqualTo("PER");
+        
+        ne.setStringValue(ne.getType().getFeatureByBaseName("value"), null);
+        assertThat(sut.renderLabel(ne, buffer)).isEqualTo("(Named entity)");
+    }
+
+    @Test
+    public void thatHoverOfAnnotationUsesHoverFeatures() throws Exception
+    {
+        AnnotationFS ne = makeNamedEntity("PER", "Q1");
+        
+        assertThat(sut.renderHover(ne, buffer)).isEqualTo("PER" + FEATURE_SEPARATOR + "Q1");
+        
+        layer.setShowTextInHover(true);
+        sut = LabelTemplate.compile(layer, asList(valueFeature, identifierFeature));
+        assertThat(sut.renderHover(ne, buffer))
+                .isEqualTo("\"John\" PER" + FEATURE_SEPARATOR + "Q1");
+    }
+    
+    private AnnotationFS makeNamedEntity(String aValue, String aIdentifier) throws Exception
+    {
+        JCas jcas = JCasFactory.createText("John");
+        CAS cas = jcas.getCas();
+        Type type = cas.getTypeSystem().getType(NamedEntity.class.getName());
+        AnnotationFS ne = cas.createAnnotation(type, 0, 4);
+        ne.setStringValue(type.getFeatureByBaseName("value"), aValue);
+        ne.setStringValue(type.getFeatureByBaseName("identifier"), aIdentifier);
+        cas.addFsToIndexes(ne);
+        return ne;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.RELATION_TYPE;
+import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.SPAN_TYPE;
+import static de.tudarmstadt.ukp.clarin.webanno.model.AnchoringMode.SINGLE_TOKEN;
+import static de.tudarmstadt.ukp.clarin.webanno.model.AnchoringMode.TOKENS;
+import static de.tudarmstadt.ukp.clarin.webanno.model.OverlapMode.ANY_OVERLAP;
+import static de.tudarmstadt.ukp.clarin.webanno.model.OverlapMode.NO_OVERLAP;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.uima.fit.util.JCasUtil.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.testing.factory.TokenBuilder;
+import org.apache.uima.jcas.JCas;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.RelationCrossSentenceBehavior;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.RelationOverlapBehavior;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.SpanCrossSentenceBehavior;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.SpanOverlapBehavior;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.feature.BooleanFeatureSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.feature.FeatureSupportRegistryImpl;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.feature.NumberFeatureSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.feature.StringFeatureSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.layer.LayerBehaviorRegistryImpl;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.layer.LayerSupportRegistryImpl;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.layer.RelationLayerSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.layer.SpanLayerSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.config.PreRendererProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VArc;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VDocument;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VSpan;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency;
+
+public class PreRendererImplTest
+{
+    private @Mock AnnotationSchemaService schemaService;
+
+    private LayerSupportRegistryImpl layerSupportRegistry;
+    private List<AnnotationLayer> layers;
+    private List<AnnotationFeature> features;
+    private JCas jcas;
+
+    private PreRendererImpl sequentialRenderer;
+    private PreRendererImpl parallelRenderer;
+
+    @Before
+    public void setup() throws Exception
+    {
+        initMocks(this);
+
+        Project project = new Project();
+        project.setId(1l);
+
+        AnnotationLayer tokenLayer = new AnnotationLayer(Token.class.getName(), "Token",
+                SPAN_TYPE, project, true, SINGLE_TOKEN, NO_OVERLAP);
+        tokenLayer.setId(1l);
+
+        AnnotationLayer posLayer = new AnnotationLayer(POS.class.getName(), "POS", SPAN_TYPE,
+                project, true, SINGLE_TOKEN, NO_OVERLAP);
+        posLayer.setId(2l);
+
+        AnnotationLayer lemmaLayer = new AnnotationLayer(Lemma.class.getName(), "Lemma",
+                SPAN_TYPE, project, true, SINGLE_TOKEN, NO_OVERLAP);
+        lemmaLayer.setId(3l);
+
+        AnnotationLayer neLayer = new AnnotationLayer(NamedEntity.class.getName(),
+                "Named entity", SPAN_TYPE, project, true, TOKENS, ANY_OVERLAP);
+        neLayer.setId(4l);
+
+        AnnotationLayer depLayer = new AnnotationLayer(Dependency.class.getName(),
+                "Dependency", RELATION_TYPE, project, true, SINGLE_TOKEN, ANY_OVERLAP);
+        depLayer.setId(5l);
+        depLayer.setAttachType(tokenLayer);
+
+        layers = asList(posLayer, lemmaLayer, neLayer, depLayer);
+        features = asList(
+                new AnnotationFeature(1l, posLayer, "PosValue", CAS.TYPE_NAME_STRING),
+                new AnnotationFeature(2l, lemmaLayer, "value", CAS.TYPE_NAME_STRING),
+                new AnnotationFeature(3l, neLayer, "value", CAS.TYPE_NAME_STRING),
+                new AnnotationFeature(4l, depLayer, "DependencyType", CAS.TYPE_NAME_STRING));
+
+        FeatureSupportRegistryImpl featureSupportRegistry = new FeatureSupportRegistryImpl(
+                asList(new StringFeatureSupport(), new BooleanFeatureSupport(),
+                        new NumberFeatureSupport()));
+        featureSupportRegistry.init();
+
+        LayerBehaviorRegistryImpl layerBehaviorRegistry = new LayerBehaviorRegistryImpl(
+                asList(new SpanOverlapBehavior(), new SpanCrossSentenceBehavior(),
+                        new RelationOverlapBehavior(), new RelationCrossSentenceBehavior()));
+        layerBehaviorRegistry.init();
+
+        layerSupportRegistry = new LayerSupportRegistryImpl(asList(
+                new SpanLayerSupport(featureSupportRegistry, null, layerBehaviorRegistry),
+                new RelationLayerSupport(featureSupportRegistry, null, layerBehaviorRegistry)));
+        layerSupportRegistry.init();
+
+        when(schemaService.listSupportedFeatures(any(Project.class))).thenReturn(features);
+        when(schemaService.listAnnotationFeature(any(Project.class))).thenReturn(features);
+        when(schemaService.listAnnotationFeature(any(AnnotationLayer.class))).then(_call -> {
+            AnnotationLayer layer = _call.getArgument(0);
+            return features.stream().filter(f -> f.getLayer().equals(layer)).collect(toList());
+        });
+
+        sequentialRenderer = new PreRendererImpl(layerSupportRegistry, schemaService);
+
+        PreRendererProperties properties = new PreRendererProperties();
+        properties.setParallel(true);
+        properties.setThreads(4);
+        properties.setMinLayers(1);
+        parallelRenderer = new PreRendererImpl(layerSupportRegistry, schemaService, properties);
+
+        jcas = JCasFactory.createJCas();
+        TokenBuilder<Token, Sentence> builder = new TokenBuilder<>(Token.class, Sentence.class);
+        builder.buildTokens(jcas, "John lives in New York .\nMary visits John in Paris .");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        parallelRenderer.destroy();
+    }
+
+    @Test
+    public void thatParallelRenderingMatchesSequentialRendering() throws Exception
+    {
+        List<Token> tokens = new ArrayList<>(select(jcas, Token.class));
+        for (Token token : tokens) {
+            POS pos = new POS(jcas, token.getBegin(), token.getEnd());
+            pos.setPosValue(token.getCoveredText().length() > 2 ? "NN" : "X");
+            pos.addToIndexes();
+            token.setPos(pos);
+
+            Lemma lemma = new Lemma(jcas, token.getBegin(), token.getEnd());
+            lemma.setValue(token.getCoveredText().toLowerCase());
+            lemma.addToIndexes();
+            token.setLemma(lemma);
+        }
+
+        addNamedEntity(tokens.get(0), tokens.get(0), "PER");
+        addNamedEntity(tokens.get(3), tokens.get(4), "LOC");
+        addNamedEntity(tokens.get(4), tokens.get(4), "LOC");
+        addNamedEntity(tokens.get(6), tokens.get(6), "PER");
+        addNamedEntity(tokens.get(10), tokens.get(10), "LOC");
+
+        addDependency(tokens.get(1), tokens.get(0), "nsubj");
+        addDependency(tokens.get(1), tokens.get(4), "obl");
+        addDependency(tokens.get(1), tokens.get(4), "obl");
+        addDependency(tokens.get(1), tokens.get(7), "dep");
+        addDependency(tokens.get(7), tokens.get(8), "obj");
+        // Relation with a loose end which can only be reported as a warning
+        addDependency(tokens.get(7), null, "obl");
+
+        int windowEnd = jcas.getDocumentText().length();
+
+        VDocument expected = new VDocument();
+        sequentialRenderer.render(expected, 0, windowEnd, jcas.getCas(), layers);
+
+        VDocument actual = new VDocument();
+        parallelRenderer.render(actual, 0, windowEnd, jcas.getCas(), layers);
+
+        assertThat(expected.spans()).isNotEmpty();
+        assertThat(expected.arcs()).isNotEmpty();
+        assertThat(expected.comments()).isNotEmpty();
+        assertThat(expected.getWarnings()).hasSize(1);
+
+        assertThat(describeSpans(actual)).containsExactlyElementsOf(describeSpans(expected));
+        assertThat(describeArcs(actual)).containsExactlyElementsOf(describeArcs(expected));
+        assertThat(actual.comments())
+                .usingFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected.comments());
+        assertThat(actual.getWarnings()).containsExactlyElementsOf(expected.getWarnings());
+    }
+
+    private void addNamedEntity(Token aFirst, Token aLast, String aValue)
+    {
+        NamedEntity ne = new NamedEntity(jcas, aFirst.getBegin(), aLast.getEnd());
+        ne.setValue(aValue);
+        ne.addToIndexes();
+    }
+
+    private void addDependency(Token aGovernor, Token aDependent, String aType)
+    {
+        Token anchor = aDependent != null ? aDependent : aGovernor;
+        Dependency dep = new Dependency(jcas, anchor.getBegin(), anchor.getEnd());
+        dep.setGovernor(aGovernor);
+        dep.setDependent(aDependent);
+        dep.setDependencyType(aType);
+        dep.addToIndexes();
+    }
+
+    private static List<String> describeSpans(VDocument aDocument)
+    {
+        return aDocument.spans().stream()
+                .map(PreRendererImplTest::describe)
+                .collect(toList());
+    }
+
+    private static List<String> describeArcs(VDocument aDocument)
+    {
+        return aDocument.arcs().stream()
+                .map(PreRendererImplTest::describe)
+                .collect(toList());
+    }
+
+    private static String describe(VSpan aSpan)
+    {
+        return aSpan.getLayer().getName() + " " + aSpan.getVid() + " " + aSpan.getType() + " "
+                + aSpan.getRanges() + " " + aSpan.getFeatures() + " "
+                + aSpan.getHoverFeatures();
+    }
+
+    private static String describe(VArc aArc)
+    {
+        return aArc.getLayer().getName() + " " + aArc.getVid() + " " + aArc.getType() + " "
+                + aArc.getSource() + " -> " + aArc.getTarget() + " " + aArc.getFeatures();
+    }
+}
@@ -257,4 +257,99 @@ public class RelationRendererTest
                             new VComment(dep3, ERROR, "Overlap is not permitted."));
         }
     }
+
+    @Test
+    public void thatRelationOverlapBehaviorOnRenderGeneratesOverlapErrors() throws Exception
+    {
+        TokenBuilder<Token, Sentence> builder = new TokenBuilder<>(Token.class, Sentence.class);
+        builder.buildTokens(jcas, "This is a test .\nThis is sentence two .");
+
+        for (Token t : select(jcas, Token.class)) {
+            POS pos = new POS(jcas, t.getBegin(), t.getEnd());
+            t.setPos(pos);
+            pos.addToIndexes();
+        }
+
+        RelationAdapter adapter = new RelationAdapter(layerSupportRegistry, featureSupportRegistry,
+            null, depLayer, FEAT_REL_TARGET, FEAT_REL_SOURCE,
+            () -> asList(dependencyLayerGovernor, dependencyLayerDependent), behaviors);
+
+        List<POS> pos = new ArrayList<>(select(jcas, POS.class));
+
+        depLayer.setOverlapMode(ANY_OVERLAP);
+        // Two stacked relations and a relation which overlaps with them at one end point
+        AnnotationFS dep1 = adapter.add(document, username, pos.get(0), pos.get(1),
+                jcas.getCas());
+        AnnotationFS dep2 = adapter.add(document, username, pos.get(0), pos.get(1),
+                jcas.getCas());
+        AnnotationFS dep3 = adapter.add(document, username, pos.get(1), pos.get(2),
+                jcas.getCas());
+        // A relation which does not touch any other relation
+        adapter.add(document, username, pos.get(6), pos.get(7), jcas.getCas());
+        // Two relations in opposite directions which overlap but do not stack
+        AnnotationFS dep5 = adapter.add(document, username, pos.get(8), pos.get(9),
+                jcas.getCas());
+        AnnotationFS dep6 = adapter.add(document, username, pos.get(9), pos.get(8),
+                jcas.getCas());
+
+        RelationRenderer sut = new RelationRenderer(adapter, layerSupportRegistry,
+                featureSupportRegistry, asList(new RelationOverlapBehavior()));
+
+        {
+            depLayer.setOverlapMode(ANY_OVERLAP);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+
+            assertThat(vdoc.comments())
+                    .filteredOn(c -> !YIELD.equals(c.getCommentType()))
+                    .isEmpty();
+        }
+
+        {
+            depLayer.setOverlapMode(NO_OVERLAP);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+
+            assertThat(vdoc.comments())
+                    .filteredOn(c -> !YIELD.equals(c.getCommentType()))
+                    .usingFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrder(
+                            new VComment(dep1, ERROR, "Overlap is not permitted."),
+                            new VComment(dep2, ERROR, "Overlap is not permitted."),
+                            new VComment(dep3, ERROR, "Overlap is not permitted."),
+                            new VComment(dep5, ERROR, "Overlap is not permitted."),
+                            new VComment(dep6, ERROR, "Overlap is not permitted."),
+                            new VComment(dep1, ERROR, "Stacking is not permitted."),
+                            new VComment(dep2, ERROR, "Stacking is not permitted."));
+        }
+
+        {
+            depLayer.setOverlapMode(STACKING_ONLY);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+
+            assertThat(vdoc.comments())
+                    .filteredOn(c -> !YIELD.equals(c.getCommentType()))
+                    .usingFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrder(
+                            new VComment(dep1, ERROR, "Only stacking is permitted."),
+                            new VComment(dep2, ERROR, "Only stacking is permitted."),
+                            new VComment(dep3, ERROR, "Only stacking is permitted."),
+                            new VComment(dep5, ERROR, "Only stacking is permitted."),
+                            new VComment(dep6, ERROR, "Only stacking is permitted."));
+        }
+
+        {
+            depLayer.setOverlapMode(OVERLAP_ONLY);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+
+            assertThat(vdoc.comments())
+                    .filteredOn(c -> !YIELD.equals(c.getCommentType()))
+                    .usingFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrder(
+                            new VComment(dep1, ERROR, "Stacking is not permitted."),
+                            new VComment(dep2, ERROR, "Stacking is not permitted."));
+        }
+    }
 }
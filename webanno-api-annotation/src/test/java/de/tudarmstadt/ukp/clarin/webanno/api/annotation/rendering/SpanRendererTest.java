@@ -160,4 +160,52 @@ public class SpanRendererTest
                     .isEmpty();
         }
     }
+
+    @Test
+    public void thatSpanOverlapBehaviorOnRenderGeneratesOverlapErrors()
+    {
+        jcas.setDocumentText(StringUtils.repeat("a", 20));
+        
+        new Sentence(jcas, 0, 20).addToIndexes();
+        NamedEntity ne1 = new NamedEntity(jcas, 0, 5);
+        ne1.addToIndexes();
+        NamedEntity ne2 = new NamedEntity(jcas, 3, 8);
+        ne2.addToIndexes();
+        NamedEntity ne3 = new NamedEntity(jcas, 10, 12);
+        ne3.addToIndexes();
+        NamedEntity ne4 = new NamedEntity(jcas, 10, 12);
+        ne4.addToIndexes();
+        NamedEntity ne5 = new NamedEntity(jcas, 15, 20);
+        ne5.addToIndexes();
+        
+        SpanAdapter adapter = new SpanAdapter(layerSupportRegistry, featureSupportRegistry, null,
+                neLayer, () -> asList(), asList(new SpanOverlapBehavior()));
+        
+        SpanRenderer sut = new SpanRenderer(adapter, layerSupportRegistry, featureSupportRegistry,
+                asList(new SpanOverlapBehavior()));
+        
+        {
+            neLayer.setOverlapMode(OverlapMode.NO_OVERLAP);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+            assertThat(vdoc.comments())
+                    .usingFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrder(
+                            new VComment(ne1, VCommentType.ERROR, "Overlap is not permitted."),
+                            new VComment(ne2, VCommentType.ERROR, "Overlap is not permitted."),
+                            new VComment(ne3, VCommentType.ERROR, "Stacking is not permitted."),
+                            new VComment(ne4, VCommentType.ERROR, "Stacking is not permitted."));
+        }
+        
+        {
+            neLayer.setOverlapMode(OverlapMode.STACKING_ONLY);
+            VDocument vdoc = new VDocument();
+            sut.render(jcas.getCas(), asList(), vdoc, 0, jcas.getDocumentText().length());
+            assertThat(vdoc.comments())
+                    .usingFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrder(
+                            new VComment(ne1, VCommentType.ERROR, "Only stacking is permitted."),
+                            new VComment(ne2, VCommentType.ERROR, "Only stacking is permitted."));
+        }
+    }
 }
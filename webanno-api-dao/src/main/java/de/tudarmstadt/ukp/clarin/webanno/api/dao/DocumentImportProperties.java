@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties("document-import")
+public class DocumentImportProperties
+{
+    /**
+     * Whether documents uploaded in bulk are converted concurrently. The documents are still
+     * stored one after the other in upload order.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Maximum number of threads used for converting documents concurrently.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Minimum document length (in characters) from which on the built-in sentence splitting and
+     * tokenization run concurrently. Only used if parallel import is enabled.
+     */
+    private int parallelSegmentationThreshold = 1_000_000;
+
+    /**
+     * Maximum size of a document file that can be imported. No limit if not set.
+     */
+    private DataSize maxDocumentSize;
+
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    public void setParallel(boolean aParallel)
+    {
+        parallel = aParallel;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    public void setThreads(int aThreads)
+    {
+        threads = aThreads;
+    }
+
+    public int getParallelSegmentationThreshold()
+    {
+        return parallelSegmentationThreshold;
+    }
+
+    public void setParallelSegmentationThreshold(int aParallelSegmentationThreshold)
+    {
+        parallelSegmentationThreshold = aParallelSegmentationThreshold;
+    }
+
+    public DataSize getMaxDocumentSize()
+    {
+        return maxDocumentSize;
+    }
+
+    public void setMaxDocumentSize(DataSize aMaxDocumentSize)
+    {
+        maxDocumentSize = aMaxDocumentSize;
+    }
+}
@@ -24,6 +24,7 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.PROJECT_FOLDE
 import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.SOURCE_FOLDER;
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.INITIAL_CAS_PSEUDO_USER;
 import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.EXCLUSIVE_WRITE_ACCESS;
+import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.SHARED_READ_ONLY_ACCESS;
 import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.UNMANAGED_ACCESS;
 import static de.tudarmstadt.ukp.clarin.webanno.api.dao.CasMetadataUtils.addOrUpdateCasMetadata;
 import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.IGNORE;
@@ -35,17 +36,26 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -53,19 +63,27 @@ import javax.persistence.PersistenceContext;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CAS;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.CasStorageService;
 import de.tudarmstadt.ukp.clarin.webanno.api.CasUpgradeMode;
@@ -75,6 +93,8 @@ import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.RepositoryProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst;
 import de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.casstorage.CasStorageSession;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterCasDeletedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterCasWrittenEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterDocumentCreatedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterDocumentResetEvent;
@@ -96,10 +116,13 @@ import de.tudarmstadt.ukp.clarin.webanno.support.logging.Logging;
 
 @Component(DocumentService.SERVICE_NAME)
 public class DocumentServiceImpl
-    implements DocumentService
+    implements DocumentService, DisposableBean
 {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final int MAX_PENDING_CONVERSIONS = 2
+            * Runtime.getRuntime().availableProcessors();
+    
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -109,6 +132,9 @@ public class DocumentServiceImpl
     private final ProjectService projectService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final RepositoryProperties repositoryProperties;
+    private final ExecutorService casReaderExecutorService;
+    
+    private @Autowired PlatformTransactionManager txManager;
 
     @Autowired
     public DocumentServiceImpl(RepositoryProperties aRepositoryProperties, UserDao aUserRepository,
@@ -123,6 +149,10 @@ public class DocumentServiceImpl
         importExportService = aImportExportService;
         projectService = aProjectService;
         applicationEventPublisher = aApplicationEventPublisher;
+        
+        casReaderExecutorService = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new BasicThreadFactory.Builder()
+                        .namingPattern("annotation-cas-reader-%d").daemon(true).build());
     }
 
     public DocumentServiceImpl(RepositoryProperties aRepositoryProperties, UserDao aUserRepository,
@@ -135,6 +165,12 @@ public class DocumentServiceImpl
         entityManager = aEntityManager;
     }
     
+    @Override
+    public void destroy()
+    {
+        casReaderExecutorService.shutdownNow();
+    }
+    
     @Override
     public File getDir()
     {
@@ -567,6 +603,155 @@ public class DocumentServiceImpl
         }
     }
 
+    @Override
+    public Map<String, Exception> uploadSourceDocuments(
+            List<Pair<SourceDocument, InputStreamSource>> aDocuments,
+            TypeSystemDescription aFullProjectTypeSystem)
+    {
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        
+        // Every document is stored in transactions of its own, so a document that fails to
+        // import does not roll back the documents that were imported successfully.
+        
+        // Create the metadata records and store the source files first. This involves the
+        // database and therefore happens on the calling thread.
+        List<SourceDocument> storedDocuments = new ArrayList<>();
+        for (Pair<SourceDocument, InputStreamSource> upload : aDocuments) {
+            SourceDocument document = upload.getKey();
+            TransactionStatus status = txManager.getTransaction(newDocumentTransaction());
+            try {
+                createSourceDocument(document);
+                File targetFile = getSourceDocumentFile(document);
+                FileUtils.forceMkdir(targetFile.getParentFile());
+                try (
+                        InputStream is = upload.getValue().getInputStream();
+                        OutputStream os = new FileOutputStream(targetFile);
+                ) {
+                    copyLarge(is, os);
+                }
+                txManager.commit(status);
+                storedDocuments.add(document);
+            }
+            catch (Exception e) {
+                failures.put(document.getName(), e);
+                if (!status.isCompleted()) {
+                    txManager.rollback(status);
+                }
+                // The metadata record has been rolled back, only the file needs to go
+                deleteDocumentFolder(document);
+                document.setId(null);
+            }
+        }
+        
+        // Convert the documents in the background, but store the converted CASes one after the
+        // other in upload order. Only a bounded number of conversions is scheduled at a time so
+        // the converted CASes do not pile up in memory while they wait to be stored.
+        Deque<Pair<SourceDocument, Future<CAS>>> pending = new ArrayDeque<>();
+        Iterator<SourceDocument> documentIterator = storedDocuments.iterator();
+        while (documentIterator.hasNext() || !pending.isEmpty()) {
+            while (documentIterator.hasNext() && pending.size() < MAX_PENDING_CONVERSIONS) {
+                SourceDocument document = documentIterator.next();
+                pending.add(Pair.of(document, importExportService.importCasFromFileAsync(
+                        getSourceDocumentFile(document), document.getProject(),
+                        document.getFormat(), aFullProjectTypeSystem)));
+            }
+            
+            Pair<SourceDocument, Future<CAS>> conversion = pending.poll();
+            SourceDocument document = conversion.getKey();
+            TransactionStatus status = txManager.getTransaction(newDocumentTransaction());
+            try (CasStorageSession session = CasStorageSession.openNested()) {
+                CAS cas = casStorageService.readOrCreateCas(document, INITIAL_CAS_PSEUDO_USER,
+                        NO_CAS_UPGRADE, () -> awaitConversion(conversion.getValue()),
+                        EXCLUSIVE_WRITE_ACCESS);
+                
+                log.trace("Sending AfterDocumentCreatedEvent for {}", document);
+                applicationEventPublisher
+                        .publishEvent(new AfterDocumentCreatedEvent(this, document, cas));
+                txManager.commit(status);
+            }
+            catch (Exception e) {
+                failures.put(document.getName(), e);
+                if (!status.isCompleted()) {
+                    txManager.rollback(status);
+                }
+                discardSourceDocument(document);
+                continue;
+            }
+            
+            try (MDC.MDCCloseable closable = MDC.putCloseable(Logging.KEY_PROJECT_ID,
+                    String.valueOf(document.getProject().getId()))) {
+                Project project = document.getProject();
+                log.info("Imported source document [{}]({}) to project [{}]({})",
+                        document.getName(), document.getId(), project.getName(), project.getId());
+            }
+        }
+        
+        return failures;
+    }
+    
+    private TransactionDefinition newDocumentTransaction()
+    {
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("uploadSourceDocument");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return def;
+    }
+    
+    private CAS awaitConversion(Future<CAS> aConversion) throws IOException
+    {
+        try {
+            return aConversion.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for document conversion");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to create CAS: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+    
+    private void discardSourceDocument(SourceDocument aDocument)
+    {
+        TransactionStatus status = txManager.getTransaction(newDocumentTransaction());
+        try {
+            removeSourceDocument(aDocument);
+            txManager.commit(status);
+        }
+        catch (Exception e) {
+            if (!status.isCompleted()) {
+                txManager.rollback(status);
+            }
+            log.error("Unable to remove source document [{}]({}) after failed import",
+                    aDocument.getName(), aDocument.getId(), e);
+            deleteDocumentFolder(aDocument);
+        }
+    }
+    
+    private void deleteDocumentFolder(SourceDocument aDocument)
+    {
+        if (isNull(aDocument.getId())) {
+            return;
+        }
+        
+        File folder = new File(repositoryProperties.getPath(), "/" + PROJECT_FOLDER + "/"
+                + aDocument.getProject().getId() + "/" + DOCUMENT_FOLDER + "/"
+                + aDocument.getId());
+        try {
+            if (folder.exists()) {
+                FileUtils.forceDelete(folder);
+            }
+        }
+        catch (IOException e) {
+            log.error("Unable to delete files of source document [{}]({}) after failed import",
+                    aDocument.getName(), aDocument.getId(), e);
+        }
+    }
+
     @Override
     public CAS createOrReadInitialCas(SourceDocument aDocument)
         throws IOException
@@ -703,6 +888,32 @@ public class DocumentServiceImpl
         return readAnnotationCas(aDocument, userName, aUpgradeMode);
     }
     
+    @Override
+    public <T> Future<T> readAnnotationCasAsync(AnnotationDocument aAnnotationDocument,
+            Function<CAS, T> aFunction)
+    {
+        Validate.notNull(aAnnotationDocument, "Annotation document must be specified");
+        
+        SourceDocument document = aAnnotationDocument.getDocument();
+        String userName = aAnnotationDocument.getUser();
+        
+        // The workers run in their own threads, so they need to inherit the logging context and
+        // they need a CAS storage session of their own
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return casReaderExecutorService.submit(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try (CasStorageSession session = CasStorageSession.openNested()) {
+                CAS cas = casStorageService.readCas(document, userName, SHARED_READ_ONLY_ACCESS);
+                return aFunction.apply(cas);
+            }
+            finally {
+                MDC.clear();
+            }
+        });
+    }
+    
     @Override
     public Optional<Long> getAnnotationCasTimestamp(SourceDocument aDocument, String aUsername)
         throws IOException
@@ -739,8 +950,11 @@ public class DocumentServiceImpl
     @Override
     public void deleteAnnotationCas(AnnotationDocument aAnnotationDocument) throws IOException
     {
-        casStorageService.deleteCas(aAnnotationDocument.getDocument(),
-                aAnnotationDocument.getUser());
+        if (casStorageService.deleteCas(aAnnotationDocument.getDocument(),
+                aAnnotationDocument.getUser())) {
+            applicationEventPublisher
+                    .publishEvent(new AfterCasDeletedEvent(this, aAnnotationDocument));
+        }
     }
     
     @Override
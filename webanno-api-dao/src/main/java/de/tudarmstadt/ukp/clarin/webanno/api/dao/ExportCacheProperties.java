@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties("export-cache")
+public class ExportCacheProperties
+{
+    /**
+     * Whether exported annotation documents are kept on disk and handed out again as long as
+     * neither the annotations nor the layer configuration have changed.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum disk space used by the cache. The least recently used exports are removed first.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean aEnabled)
+    {
+        enabled = aEnabled;
+    }
+
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize aMaxSize)
+    {
+        maxSize = aMaxSize;
+    }
+}
@@ -22,11 +22,8 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.PROJECT_FOLDE
 import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.SOURCE_FOLDER;
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.CHAIN_TYPE;
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.CURATION_USER;
-import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.createSentence;
-import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.createToken;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.exists;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.getRealCas;
-import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectSentences;
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.ANNOTATION;
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.AUTOMATION;
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.CORRECTION;
@@ -34,7 +31,10 @@ import static de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils.zipFolder;
 import static de.tudarmstadt.ukp.clarin.webanno.support.logging.Logging.KEY_PROJECT_ID;
 import static java.io.File.createTempFile;
 import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.apache.commons.io.FileUtils.cleanDirectory;
 import static org.apache.commons.io.FileUtils.copyFile;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
 import static org.apache.commons.io.FileUtils.forceDelete;
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
@@ -47,17 +47,26 @@ import static org.apache.uima.fit.util.LifeCycleUtil.destroy;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.text.BreakIterator;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
 import org.apache.uima.UIMAException;
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
@@ -65,16 +74,18 @@ import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.Feature;
 import org.apache.uima.cas.FeatureStructure;
 import org.apache.uima.cas.Type;
-import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.cas.TypeSystem;
 import org.apache.uima.collection.CollectionReader;
 import org.apache.uima.collection.CollectionReaderDescription;
-import org.apache.uima.fit.factory.CasFactory;
+import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.apache.uima.util.CasCreationUtils;
 import org.dkpro.core.api.io.JCasFileWriter_ImplBase;
 import org.dkpro.core.api.io.ResourceCollectionReaderBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -83,6 +94,9 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
 import de.tudarmstadt.ukp.clarin.webanno.api.CasStorageService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ImportExportService;
@@ -90,8 +104,16 @@ import de.tudarmstadt.ukp.clarin.webanno.api.RepositoryProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil;
 import de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.casstorage.CasStorageSession;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.format.ExportCache;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.format.ExportCacheKey;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.format.PooledWriterHolderFactory;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.format.WriterHolder;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.format.WriterKey;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.segmentation.BreakIteratorSegmentationSupport;
 import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
+import de.tudarmstadt.ukp.clarin.webanno.api.segmentation.SegmentationSupport;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.Mode;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
@@ -104,11 +126,22 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
 @Component(ImportExportService.SERVICE_NAME)
 public class ImportExportServiceImpl
-    implements ImportExportService
+    implements ImportExportService, DisposableBean
 {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private static final String EXPORT_CAS = "exportCas";
+    private static final String EXPORT_CACHE_FOLDER = "export-cache";
+    
+    /**
+     * Prefix of the temporary folders holding the exported files. Every exported file is placed
+     * in a folder of its own so that concurrent exports producing files of the same name do not
+     * interfere with each other.
+     */
+    public static final String EXPORT_FOLDER_PREFIX = "webanno-export";
+    
+    private static final int MAX_IDLE_WRITERS_PER_KEY = 4;
+    private static final int EVICT_IDLE_WRITERS_AFTER_MINUTES = 5;
     
     private final RepositoryProperties repositoryProperties;
     private final CasStorageService casStorageService;
@@ -117,16 +150,102 @@ public class ImportExportServiceImpl
     private final List<FormatSupport> formatsProxy;
     private Map<String, FormatSupport> formats;
     
+    private final GenericKeyedObjectPool<WriterKey, WriterHolder> writerPool;
+    
+    // Bulk imports pass the same type system description for every file, so the compiled type
+    // system can be shared by all the CASes of the batch. The keys are compared by identity and
+    // are only weakly referenced, so entries disappear together with the batch.
+    private final LoadingCache<TypeSystemDescription, TypeSystem> compiledTypeSystems;
+    
+    private final ExecutorService importExecutorService;
+    private final long maxDocumentSize;
+    
+    private static final SegmentationSupport DEFAULT_SEGMENTATION =
+            new BreakIteratorSegmentationSupport();
+    
+    private final List<SegmentationSupport> segmentationsProxy;
+    private List<SegmentationSupport> segmentations;
+    
+    private final ExportCache exportCache;
+    
+    public ImportExportServiceImpl(RepositoryProperties aRepositoryProperties, 
+            List<FormatSupport> aFormats, CasStorageService aCasStorageService,
+            AnnotationSchemaService aAnnotationService)
+    {
+        this(aRepositoryProperties, aFormats, aCasStorageService, aAnnotationService,
+                new DocumentImportProperties(), null, new ExportCacheProperties());
+    }
+    
+    @Autowired
     public ImportExportServiceImpl(
-            @Autowired RepositoryProperties aRepositoryProperties, 
+            RepositoryProperties aRepositoryProperties, 
             @Lazy @Autowired(required = false) List<FormatSupport> aFormats,
-            @Autowired CasStorageService aCasStorageService,
-            @Autowired AnnotationSchemaService aAnnotationService)
+            CasStorageService aCasStorageService,
+            AnnotationSchemaService aAnnotationService,
+            DocumentImportProperties aImportProperties,
+            @Lazy @Autowired(required = false) List<SegmentationSupport> aSegmentations,
+            ExportCacheProperties aExportCacheProperties)
     {
         repositoryProperties = aRepositoryProperties;
         casStorageService = aCasStorageService;
         annotationService = aAnnotationService;
         formatsProxy = aFormats;
+        segmentationsProxy = aSegmentations;
+        
+        compiledTypeSystems = Caffeine.newBuilder()
+                .weakKeys()
+                .build(tsd -> CasCreationUtils.createCas(tsd, null, null).getTypeSystem());
+        
+        maxDocumentSize = aImportProperties.getMaxDocumentSize() != null
+                ? aImportProperties.getMaxDocumentSize().toBytes()
+                : -1;
+        
+        if (aImportProperties.isParallel()) {
+            importExecutorService = Executors.newFixedThreadPool(
+                    Math.max(1, aImportProperties.getThreads()), new BasicThreadFactory.Builder()
+                            .namingPattern("document-importer-%d").daemon(true).build());
+        }
+        else {
+            importExecutorService = null;
+        }
+        
+        if (aExportCacheProperties.isEnabled()) {
+            exportCache = new ExportCache(
+                    new File(aRepositoryProperties.getPath(), EXPORT_CACHE_FOLDER),
+                    aExportCacheProperties.getMaxSize().toBytes());
+        }
+        else {
+            exportCache = null;
+        }
+        
+        GenericKeyedObjectPoolConfig<WriterHolder> config = new GenericKeyedObjectPoolConfig<>();
+        // Concurrent exports each get their own writer, but we only keep a few of them around
+        config.setMaxTotalPerKey(-1);
+        config.setMaxIdlePerKey(MAX_IDLE_WRITERS_PER_KEY);
+        config.setMinIdlePerKey(0);
+        // Drop writers which have not been used for some time, e.g. because the type system of
+        // their project has changed in the meantime
+        config.setTimeBetweenEvictionRunsMillis(MINUTES.toMillis(EVICT_IDLE_WRITERS_AFTER_MINUTES));
+        config.setMinEvictableIdleTimeMillis(MINUTES.toMillis(EVICT_IDLE_WRITERS_AFTER_MINUTES));
+        config.setNumTestsPerEvictionRun(-1);
+        // Allow viewing the pool in JMX
+        config.setJmxEnabled(true);
+        config.setJmxNameBase(getClass().getPackage().getName() + ":type="
+                + getClass().getSimpleName() + ",name=");
+        config.setJmxNamePrefix("exportWriterPool");
+        // Make sure that a writer is only returned to the pool if it has been cleaned up properly
+        config.setTestOnReturn(true);
+        writerPool = new GenericKeyedObjectPool<>(new PooledWriterHolderFactory(), config);
+    }
+    
+    @Override
+    public void destroy()
+    {
+        writerPool.close();
+        
+        if (importExecutorService != null) {
+            importExecutorService.shutdownNow();
+        }
     }
 
     @EventListener(ContextRefreshedEvent.class)
@@ -176,6 +295,15 @@ public class ImportExportServiceImpl
 //        }
         
         formats = Collections.unmodifiableMap(formatMap);
+        
+        List<SegmentationSupport> segs = new ArrayList<>();
+        if (segmentationsProxy != null) {
+            segs.addAll(segmentationsProxy);
+            AnnotationAwareOrderComparator.sort(segs);
+            segs.forEach(seg -> log.info("Found segmentation support: {}",
+                    ClassUtils.getAbbreviatedName(seg.getClass(), 20)));
+        }
+        segmentations = Collections.unmodifiableList(segs);
     }
     
     private String readWriteMsg(FormatSupport aFormat)
@@ -245,15 +373,43 @@ public class ImportExportServiceImpl
             username = CURATION_USER;
         }
 
+        Project project = aDocument.getProject();
+        
+        // If the annotations and the layer configuration did not change since the last export,
+        // the cached export can be handed out directly
+        ExportCacheKey cacheKey = null;
+        if (exportCache != null) {
+            Optional<Long> casTimestamp = casStorageService.getCasTimestamp(aDocument, username);
+            if (casTimestamp.isPresent()) {
+                cacheKey = new ExportCacheKey(aDocument, username, aFormat, aFileName,
+                        aStripExtension, casTimestamp.get(),
+                        getLayerConfigurationRevision(project, bulkOperationContext));
+                Optional<File> cachedFile = exportCache.get(cacheKey);
+                if (cachedFile.isPresent()) {
+                    return cachedFile.get();
+                }
+            }
+        }
+        
         // Read file
         File exportFile;
         try (CasStorageSession session = CasStorageSession.openNested()) {
             CAS cas = casStorageService.readCas(aDocument, username);
             exportFile = exportCasToFile(cas, aDocument, aFileName, aFormat, aStripExtension,
-                    aBulkOperationContext);
+                    bulkOperationContext);
+        }
+        
+        if (cacheKey != null) {
+            try {
+                exportCache.put(cacheKey, exportFile);
+            }
+            catch (IOException e) {
+                // The export itself worked, so we do not let the export fail here
+                log.warn("Unable to cache export of [{}]({}) for user [{}]", aDocument.getName(),
+                        aDocument.getId(), username, e);
+            }
         }
 
-        Project project = aDocument.getProject();
         try (MDC.MDCCloseable closable = MDC.putCloseable(KEY_PROJECT_ID,
                 String.valueOf(project.getId()))) {
             log.info("Exported annotations [{}]({}) for user [{}] from project [{}]({}) "
@@ -264,6 +420,37 @@ public class ImportExportServiceImpl
         return exportFile;
     }
     
+    @Override
+    @Transactional
+    public void prepareBulkExport(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws ResourceInitializationException
+    {
+        // Look up the export type system as well as the features along with their layers and
+        // tagsets once, so afterwards everything is in the bulk operation context
+        getExportTypeSystemFingerprint(aProject, aBulkOperationContext);
+        getLayerConfigurationRevision(aProject, aBulkOperationContext);
+    }
+    
+    @Override
+    @Transactional
+    public long getLayerConfigurationRevision(Project aProject)
+    {
+        return getLayerConfigurationRevision(aProject, new HashMap<>());
+    }
+    
+    @Override
+    public void deleteExportedFile(File aFile) throws IOException
+    {
+        File folder = aFile.getParentFile();
+        if (folder != null && folder.getName().startsWith(EXPORT_FOLDER_PREFIX)) {
+            deleteDirectory(folder);
+        }
+        else {
+            forceDelete(aFile);
+        }
+    }
+    
     @Override
     public CAS importCasFromFile(File aFile, Project aProject, String aFormatId)
         throws UIMAException, IOException
@@ -276,6 +463,12 @@ public class ImportExportServiceImpl
             TypeSystemDescription aFullProjectTypeSystem)
         throws UIMAException, IOException
     {
+        if (maxDocumentSize >= 0 && aFile.length() > maxDocumentSize) {
+            throw new IOException("Source file [" + aFile.getName() + "] has ["
+                    + aFile.length() + "] bytes which exceeds the maximum document size of ["
+                    + maxDocumentSize + "] bytes");
+        }
+        
         TypeSystemDescription tsd = aFullProjectTypeSystem;
         
         if (tsd == null) {
@@ -283,7 +476,16 @@ public class ImportExportServiceImpl
         }
         
         // Prepare a CAS with the project type system
-        CAS cas = CasFactory.createCas(tsd);
+        CAS cas;
+        try {
+            cas = CasCreationUtils.createCas(compiledTypeSystems.get(tsd), null, null, null);
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof UIMAException) {
+                throw (UIMAException) e.getCause();
+            }
+            throw e;
+        }
 
         // Convert the source document to CAS
         FormatSupport format = getReadableFormatById(aFormatId).orElseThrow(() -> 
@@ -314,12 +516,16 @@ public class ImportExportServiceImpl
 //            pipeline.process(jCas);
 //        }
         
-        if (!hasSentences) {
-            splitSentences(cas);
-        }
-
-        if (!hasTokens) {
-            tokenize(cas);
+        if (!hasSentences || !hasTokens) {
+            SegmentationSupport segmentation = getSegmentation(cas);
+            
+            if (!hasSentences) {
+                segmentation.splitSentences(cas);
+            }
+            
+            if (!hasTokens) {
+                segmentation.tokenize(cas);
+            }
         }
         
         if (!exists(cas, getType(cas, Token.class)) || !exists(cas, getType(cas, Sentence.class))) {
@@ -330,41 +536,58 @@ public class ImportExportServiceImpl
         return cas;
     }
     
-    public static void splitSentences(CAS aCas)
+    @Override
+    public Future<CAS> importCasFromFileAsync(File aFile, Project aProject, String aFormatId,
+            TypeSystemDescription aFullProjectTypeSystem)
     {
-        BreakIterator bi = BreakIterator.getSentenceInstance(Locale.US);
-        bi.setText(aCas.getDocumentText());
-        int last = bi.first();
-        int cur = bi.next();
-        while (cur != BreakIterator.DONE) {
-            int[] span = new int[] { last, cur };
-            trim(aCas.getDocumentText(), span);
-            if (!isEmpty(span[0], span[1])) {
-                aCas.addFsToIndexes(createSentence(aCas, span[0], span[1]));
+        if (importExecutorService == null) {
+            CompletableFuture<CAS> result = new CompletableFuture<>();
+            try {
+                result.complete(importCasFromFile(aFile, aProject, aFormatId,
+                        aFullProjectTypeSystem));
             }
-            last = cur;
-            cur = bi.next();
+            catch (UIMAException | IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
         }
+        
+        // The workers run in their own threads, so they need to inherit the logging context
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return importExecutorService.submit(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return importCasFromFile(aFile, aProject, aFormatId, aFullProjectTypeSystem);
+            }
+            finally {
+                MDC.clear();
+            }
+        });
     }
     
-    public static void tokenize(CAS aCas)
+    private SegmentationSupport getSegmentation(CAS aCas)
     {
-        BreakIterator bi = BreakIterator.getWordInstance(Locale.US);
-        for (AnnotationFS s : selectSentences(aCas)) {
-            bi.setText(s.getCoveredText());
-            int last = bi.first();
-            int cur = bi.next();
-            while (cur != BreakIterator.DONE) {
-                int[] span = new int[] { last, cur };
-                trim(s.getCoveredText(), span);
-                if (!isEmpty(span[0], span[1])) {
-                    aCas.addFsToIndexes(
-                            createToken(aCas, span[0] + s.getBegin(), span[1] + s.getBegin()));
+        if (segmentations != null) {
+            for (SegmentationSupport segmentation : segmentations) {
+                if (segmentation.accepts(aCas)) {
+                    return segmentation;
                 }
-                last = cur;
-                cur = bi.next();
             }
         }
+        
+        return DEFAULT_SEGMENTATION;
+    }
+    
+    public static void splitSentences(CAS aCas)
+    {
+        DEFAULT_SEGMENTATION.splitSentences(aCas);
+    }
+    
+    public static void tokenize(CAS aCas)
+    {
+        DEFAULT_SEGMENTATION.tokenize(aCas);
     }
     
     /**
@@ -438,15 +661,10 @@ public class ImportExportServiceImpl
             bulkOperationContext = new HashMap<>();
         }
         
-        // Either fetch the type system from the bulk-context or fetch it from the DB and store it
-        // in the bulk-context to avoid further lookups in the same bulk operation
-        Pair<Project, String> exportTypeSystemKey = Pair.of(project, "exportTypeSystem");
-        TypeSystemDescription exportTypeSystem = (TypeSystemDescription) bulkOperationContext
-                .get(exportTypeSystemKey);
-        if (exportTypeSystem == null) {
-            exportTypeSystem = annotationService.getTypeSystemForExport(project);
-            bulkOperationContext.put(exportTypeSystemKey, exportTypeSystem);
-        }
+        TypeSystemDescription exportTypeSystem = getExportTypeSystem(project,
+                bulkOperationContext);
+        long exportTypeSystemFingerprint = getExportTypeSystemFingerprint(project,
+                bulkOperationContext);
         
         try (CasStorageSession session = CasStorageSession.openNested()) {
             // Update type system the CAS, compact it (remove all non-reachable feature structures)
@@ -469,15 +687,8 @@ public class ImportExportServiceImpl
             documentMetadata.setDocumentId(aFileName);
     
             // update with the correct tagset name
-            Pair<Project, String> annotationFeaturesKey = Pair.of(project, "annotationFeatures");
-            @SuppressWarnings("unchecked")
-            List<AnnotationFeature> features = (List<AnnotationFeature>) bulkOperationContext
-                    .get(annotationFeaturesKey);
-            if (features == null) {
-                features = annotationService.listAnnotationFeature(project);
-                bulkOperationContext.put(annotationFeaturesKey, features);
-            }
-            for (AnnotationFeature feature : features) {
+            for (AnnotationFeature feature : getAnnotationFeatures(project,
+                    bulkOperationContext)) {
                 TagSet tagSet = feature.getTagset();
                 if (tagSet == null || CHAIN_TYPE.equals(feature.getLayer().getType())) {
                     continue;
@@ -486,6 +697,12 @@ public class ImportExportServiceImpl
                 updateCasWithTagSet(exportCas, feature.getLayer().getName(), tagSet.getName());
             }
     
+            if (aFormat.isWriterReusable()) {
+                WriterKey key = new WriterKey(aFormat, project, exportTypeSystem,
+                        exportTypeSystemFingerprint, aStripExtension);
+                return exportCasWithPooledWriter(key, exportCas);
+            }
+            
             File exportTempDir = createTempFile("webanno", "export");
             try {
                 exportTempDir.delete();
@@ -511,27 +728,7 @@ public class ImportExportServiceImpl
                     destroy(engine);
                 }
                 
-                // If the writer produced more than one file, we package it up as a ZIP file
-                File exportFile;
-                if (exportTempDir.listFiles().length > 1) {
-                    exportFile = new File(exportTempDir.getAbsolutePath() + ".zip");
-                    try {
-                        zipFolder(exportTempDir, exportFile);
-                    }
-                    catch (Exception e) {
-                        try (MDC.MDCCloseable closable = MDC.putCloseable(Logging.KEY_PROJECT_ID,
-                                String.valueOf(project.getId()))) {
-                            log.info("Unable to create zip File");
-                        }
-                    }
-                }
-                else {
-                    exportFile = new File(exportTempDir.getParent(),
-                            exportTempDir.listFiles()[0].getName());
-                    copyFile(exportTempDir.listFiles()[0], exportFile);
-                }
-                
-                return exportFile;
+                return collectExportedFiles(project, exportTempDir);
             }
             finally {
                 if (exportTempDir != null) {
@@ -541,6 +738,169 @@ public class ImportExportServiceImpl
         }
     }
     
+    private TypeSystemDescription getExportTypeSystem(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws ResourceInitializationException
+    {
+        // Either fetch the type system from the bulk-context or fetch it from the DB and store it
+        // in the bulk-context to avoid further lookups in the same bulk operation
+        Pair<Project, String> exportTypeSystemKey = Pair.of(aProject, "exportTypeSystem");
+        TypeSystemDescription exportTypeSystem = (TypeSystemDescription) aBulkOperationContext
+                .get(exportTypeSystemKey);
+        if (exportTypeSystem == null) {
+            exportTypeSystem = annotationService.getTypeSystemForExport(aProject);
+            aBulkOperationContext.put(exportTypeSystemKey, exportTypeSystem);
+        }
+        return exportTypeSystem;
+    }
+    
+    private long getExportTypeSystemFingerprint(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws ResourceInitializationException
+    {
+        // Same for the type system fingerprint which is used to look up reusable writers
+        Pair<Project, String> exportTypeSystemFingerprintKey = Pair.of(aProject,
+                "exportTypeSystemFingerprint");
+        Long exportTypeSystemFingerprint = (Long) aBulkOperationContext
+                .get(exportTypeSystemFingerprintKey);
+        if (exportTypeSystemFingerprint == null) {
+            exportTypeSystemFingerprint = WriterKey
+                    .fingerprint(getExportTypeSystem(aProject, aBulkOperationContext));
+            aBulkOperationContext.put(exportTypeSystemFingerprintKey, exportTypeSystemFingerprint);
+        }
+        return exportTypeSystemFingerprint;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<AnnotationFeature> getAnnotationFeatures(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+    {
+        Pair<Project, String> annotationFeaturesKey = Pair.of(aProject, "annotationFeatures");
+        List<AnnotationFeature> features = (List<AnnotationFeature>) aBulkOperationContext
+                .get(annotationFeaturesKey);
+        if (features == null) {
+            features = annotationService.listAnnotationFeature(aProject);
+            aBulkOperationContext.put(annotationFeaturesKey, features);
+        }
+        return features;
+    }
+    
+    /**
+     * Derives a revision of the layer configuration of the given project from everything in the
+     * layer definitions which affects the exported files. The project types in the export type
+     * system are generated from these definitions, so the (expensive) export type system itself
+     * does not need to be built here.
+     */
+    private long getLayerConfigurationRevision(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+    {
+        Pair<Project, String> revisionKey = Pair.of(aProject, "layerConfigurationRevision");
+        Long revision = (Long) aBulkOperationContext.get(revisionKey);
+        if (revision == null) {
+            long hash = 0;
+            for (AnnotationLayer layer : annotationService.listAnnotationLayer(aProject)) {
+                AnnotationLayer attachType = layer.getAttachType();
+                AnnotationFeature attachFeature = layer.getAttachFeature();
+                hash = 31 * hash + Objects.hash(layer.getName(), layer.getType(),
+                        layer.isEnabled(), layer.getTraits(),
+                        attachType != null ? attachType.getName() : null,
+                        attachFeature != null ? attachFeature.getName() : null);
+            }
+            for (AnnotationFeature feature : getAnnotationFeatures(aProject,
+                    aBulkOperationContext)) {
+                TagSet tagSet = feature.getTagset();
+                hash = 31 * hash + Objects.hash(feature.getLayer().getName(), feature.getName(),
+                        feature.getType(), feature.isEnabled(), feature.getMultiValueMode(),
+                        feature.getLinkMode(), feature.getLinkTypeName(),
+                        feature.getLinkTypeRoleFeatureName(),
+                        feature.getLinkTypeTargetFeatureName(), feature.getTraits(),
+                        tagSet != null ? tagSet.getName() : null);
+            }
+            revision = hash;
+            aBulkOperationContext.put(revisionKey, revision);
+        }
+        return revision;
+    }
+    
+    /**
+     * Writes the given CAS using a writer from the {@link #writerPool}. Creating a writer is
+     * expensive compared to writing a single (small) document, so writers are reused across
+     * documents and across exports as long as the project type system does not change.
+     */
+    private File exportCasWithPooledWriter(WriterKey aKey, CAS aExportCas)
+        throws IOException, UIMAException
+    {
+        WriterHolder writer;
+        try {
+            writer = writerPool.borrowObject(aKey);
+        }
+        catch (Exception e) {
+            throw new IOException("Unable to obtain writer for [" + aKey + "]", e);
+        }
+        
+        boolean reusable = false;
+        try {
+            writer.getEngine().process(getRealCas(aExportCas));
+            // Writers may only finish their output when the collection is complete. Each document
+            // is a collection of its own, as it would be for a writer that is not reused.
+            collectionProcessComplete(writer.getEngine());
+            File exportFile = collectExportedFiles(aKey.getProject(), writer.getTargetFolder());
+            cleanDirectory(writer.getTargetFolder());
+            reusable = true;
+            return exportFile;
+        }
+        finally {
+            if (reusable) {
+                writerPool.returnObject(aKey, writer);
+            }
+            else {
+                invalidateWriter(aKey, writer);
+            }
+        }
+    }
+    
+    private void invalidateWriter(WriterKey aKey, WriterHolder aWriter)
+    {
+        try {
+            writerPool.invalidateObject(aKey, aWriter);
+        }
+        catch (Exception e) {
+            log.error("Unable to discard writer [{}]", aWriter, e);
+        }
+    }
+    
+    /**
+     * Picks up the files produced by a writer. If the writer produced more than one file, they are
+     * packaged up as a ZIP file. The result is placed in a new temporary folder, so it can safely
+     * keep the name chosen by the writer.
+     */
+    private File collectExportedFiles(Project aProject, File aFolder) throws IOException
+    {
+        File[] files = aFolder.listFiles();
+        
+        File exportFolder = Files.createTempDirectory(EXPORT_FOLDER_PREFIX).toFile();
+        
+        File exportFile;
+        if (files.length > 1) {
+            exportFile = createTempFile("webanno", "export.zip", exportFolder);
+            try {
+                zipFolder(aFolder, exportFile);
+            }
+            catch (Exception e) {
+                try (MDC.MDCCloseable closable = MDC.putCloseable(Logging.KEY_PROJECT_ID,
+                        String.valueOf(aProject.getId()))) {
+                    log.info("Unable to create zip File");
+                }
+            }
+        }
+        else {
+            exportFile = new File(exportFolder, files[0].getName());
+            copyFile(files[0], exportFile);
+        }
+        
+        return exportFile;
+    }
+    
     /**
      * A Helper method to add {@link TagsetDescription} to {@link CAS}
      *
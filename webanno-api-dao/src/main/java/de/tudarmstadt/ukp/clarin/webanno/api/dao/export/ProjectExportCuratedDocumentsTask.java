@@ -19,9 +19,12 @@ package de.tudarmstadt.ukp.clarin.webanno.api.dao.export;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest.FORMAT_AUTO;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,12 +67,8 @@ public class ProjectExportCuratedDocumentsTask
     {
         Project project = aRequest.getProject();
         File exportFile = null;
-        File exportTempDir = null;
+        boolean success = false;
         try {
-            exportTempDir = File.createTempFile("webanno", "export");
-            exportTempDir.delete();
-            exportTempDir.mkdirs();
-
             boolean curationDocumentExist = documentService.existsCurationDocument(
                     project);
 
@@ -77,28 +76,24 @@ public class ProjectExportCuratedDocumentsTask
                 throw new ProjectExportException("No curation document created yet for this document");
             }
             
+            exportFile = File.createTempFile("webanno", "export_curated_documents.zip");
+            
             ProjectExportRequest request = aRequest;
             request.setProject(project);
-            exportCuratedDocuments(request, exportTempDir, false, aMonitor);
+            try (ZipOutputStream zos = new ZipOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(exportFile)))) {
+                exportCuratedDocuments(request, zos, false, aMonitor);
+            }
             
-            exportFile = new File(exportTempDir.getAbsolutePath() + "_curated_documents.zip");
-            ZipUtils.zipFolder(exportTempDir, exportFile);
+            success = true;
         }
         catch (Exception e) {
-            if (exportFile != null) {
-                try {
-                    FileUtils.forceDelete(exportTempDir);
-                } catch (IOException ex) {
-                    aMonitor.addMessage(LogMessage.error(this,
-                            "Unable to export file after export failed: %s", ex.getMessage()));
-                }
-            }
             throw new ProjectExportException(e);
         }
         finally {
-            if (exportTempDir != null) {
+            if (!success && exportFile != null) {
                 try {
-                    FileUtils.forceDelete(exportTempDir);
+                    FileUtils.forceDelete(exportFile);
                 } catch (IOException e) {
                     aMonitor.addMessage(LogMessage.error(this, "Unable to delete temp file: %s",
                             e.getMessage()));
@@ -110,12 +105,12 @@ public class ProjectExportCuratedDocumentsTask
     }
     
     /**
-     * Copy, if exists, curation documents to a folder that will be exported as Zip file
+     * Write, if exists, curation documents into the archive
      * 
-     * @param aCopyDir
-     *            The folder where curated documents are copied to be exported as Zip File
+     * @param aZip
+     *            The archive into which the curated documents are written
      */
-    private void exportCuratedDocuments(ProjectExportRequest aModel, File aCopyDir,
+    private void exportCuratedDocuments(ProjectExportRequest aModel, ZipOutputStream aZip,
             boolean aIncludeInProgress, ProjectExportTaskMonitor aMonitor)
         throws ProjectExportException, IOException
     {
@@ -143,12 +138,8 @@ public class ProjectExportCuratedDocumentsTask
         int initProgress = aMonitor.getProgress() - 1;
         int i = 1;
         for (de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument sourceDocument : documents) {
-            File curationCasDir = new File(aCopyDir + CURATION_AS_SERIALISED_CAS
-                    + sourceDocument.getName());
-            FileUtils.forceMkdir(curationCasDir);
-
-            File curationDir = new File(aCopyDir + CURATION_FOLDER + sourceDocument.getName());
-            FileUtils.forceMkdir(curationDir);
+            String curationCasDir = CURATION_AS_SERIALISED_CAS + sourceDocument.getName() + "/";
+            String curationDir = CURATION_FOLDER + sourceDocument.getName() + "/";
 
             // If depending on aInProgress, include only the the curation documents that are
             // finished or also the ones that are in progress
@@ -161,15 +152,21 @@ public class ProjectExportCuratedDocumentsTask
                         WebAnnoConst.CURATION_USER);
                 if (curationCasFile.exists()) {
                     // Copy CAS - this is used when importing the project again
-                    FileUtils.copyFileToDirectory(curationCasFile, curationCasDir);
+                    ZipUtils.addFileToZip(aZip, curationCasFile,
+                            curationCasDir + curationCasFile.getName());
 
                     // Copy secondary export format for convenience - not used during import
                     try {
                         File curationFile = importExportService.exportAnnotationDocument(
                                 sourceDocument, WebAnnoConst.CURATION_USER, format,
                                 WebAnnoConst.CURATION_USER, Mode.CURATION);
-                        FileUtils.copyFileToDirectory(curationFile, curationDir);
-                        FileUtils.forceDelete(curationFile);
+                        try {
+                            ZipUtils.addFileToZip(aZip, curationFile,
+                                    curationDir + curationFile.getName());
+                        }
+                        finally {
+                            importExportService.deleteExportedFile(curationFile);
+                        }
                     }
                     catch (Exception e) {
                         // error("Unexpected error while exporting project: " +
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("project-export")
+public class ProjectExportProperties
+{
+    /**
+     * Whether the annotation documents of a project are exported concurrently. Each document is
+     * converted in its own CAS storage session and the results are written to the export archive
+     * in document order. During import, the source and annotation files are extracted from the
+     * archive concurrently.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Maximum number of threads used for exporting or importing documents concurrently. The
+     * export pool is shared by all running exports.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    
+    /**
+     * Number of project export and import tasks (e.g. started from the UI or via the remote API)
+     * which run at the same time. Further tasks wait until a running task is complete.
+     */
+    private int taskThreads = 4;
+
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    public void setParallel(boolean aParallel)
+    {
+        parallel = aParallel;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    public void setThreads(int aThreads)
+    {
+        threads = aThreads;
+    }
+
+    public int getTaskThreads()
+    {
+        return taskThreads;
+    }
+
+    public void setTaskThreads(int aTaskThreads)
+    {
+        taskThreads = aTaskThreads;
+    }
+}
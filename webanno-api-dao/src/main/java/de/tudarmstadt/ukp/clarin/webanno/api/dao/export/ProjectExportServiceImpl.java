@@ -19,13 +19,18 @@ package de.tudarmstadt.ukp.clarin.webanno.api.dao.export;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.NOT_STARTED;
 import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.RUNNING;
+import static java.lang.Math.ceil;
 import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.time.DurationFormatUtils.formatDurationWords;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -45,6 +50,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.io.FileUtils;
@@ -76,7 +82,6 @@ import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectImportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedProject;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
-import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
 
 @Component
@@ -96,17 +101,26 @@ public class ProjectExportServiceImpl
     private final List<ProjectExporter> exportersProxy;
     private List<ProjectExporter> exporters;
 
+    public ProjectExportServiceImpl(
+            ApplicationContext aApplicationContext,
+            List<ProjectExporter> aExporters,
+            ProjectService aProjectService)
+    {
+        this(aApplicationContext, aExporters, aProjectService, new ProjectExportProperties());
+    }
+
     @Autowired
     public ProjectExportServiceImpl(
             ApplicationContext aApplicationContext,
             @Lazy @Autowired(required = false) List<ProjectExporter> aExporters,
-            @Autowired ProjectService aProjectService)
+            @Autowired ProjectService aProjectService,
+            @Autowired ProjectExportProperties aProperties)
     {
         applicationContext = aApplicationContext;
         exportersProxy = aExporters;
         projectService = aProjectService;
         
-        taskExecutorService = Executors.newFixedThreadPool(4);
+        taskExecutorService = Executors.newFixedThreadPool(aProperties.getTaskThreads());
         
         cleaningScheduler = Executors.newScheduledThreadPool(1);
         cleaningScheduler.scheduleAtFixedRate(this::cleanUp, 15, 15, TimeUnit.MINUTES);
@@ -155,52 +169,57 @@ public class ProjectExportServiceImpl
     public File exportProject(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor)
         throws ProjectExportException, IOException
     {
+        // Target file
+        File projectZipFile = File.createTempFile("webanno-project", "export.zip");
+        
         boolean success = false;
-        File exportTempDir = null;
         try {
-            // Directory to store source documents and annotation documents
-            exportTempDir = File.createTempFile("webanno-project", "export");
-            exportTempDir.delete();
-            exportTempDir.mkdirs();
-            
-            // Target file
-            File projectZipFile = new File(exportTempDir.getAbsolutePath() + ".zip");
-    
-            ExportedProject exProjekt = exportProject(aRequest, aMonitor, exportTempDir);
-                    
-            // all metadata and project settings data from the database as JSON file
-            File projectSettings = File.createTempFile(EXPORTED_PROJECT, ".json");
-            JSONUtil.generatePrettyJson(exProjekt, projectSettings);
-            FileUtils.copyFileToDirectory(projectSettings, exportTempDir);
-    
-            try {
-                ZipUtils.zipFolder(exportTempDir, projectZipFile);
-            }
-            finally {
-                FileUtils.forceDelete(projectSettings);
-                System.gc();
-                FileUtils.forceDelete(exportTempDir);
+            try (OutputStream os = new BufferedOutputStream(
+                    new FileOutputStream(projectZipFile))) {
+                exportProject(aRequest, aMonitor, os);
             }
-                        
+            
             success = true;
-    
+            
             return projectZipFile;
         }
         finally {
-            if (!success && exportTempDir != null) {
+            if (!success) {
                 try {
-                    FileUtils.forceDelete(exportTempDir);
+                    FileUtils.forceDelete(projectZipFile);
                 } catch (IOException e) {
                     aMonitor.addMessage(LogMessage.error(this,
-                            "Unable to delete temporary export directory [%s]", exportTempDir));
-                    log.error("Unable to delete temporary export directory [{}]", exportTempDir);
+                            "Unable to delete temporary export file [%s]", projectZipFile));
+                    log.error("Unable to delete temporary export file [{}]", projectZipFile);
                 }
             }
         }
     }
     
+    @Override
+    @Transactional
+    public void exportProject(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
+            OutputStream aOutputStream)
+        throws ProjectExportException, IOException
+    {
+        // The exporters write their data directly into the archive. We do not close the archive
+        // here because that would also close the output stream which is owned by the caller.
+        ZipOutputStream zos = new ZipOutputStream(aOutputStream);
+        
+        ExportedProject exProjekt = exportProject(aRequest, aMonitor, zos);
+        
+        // all metadata and project settings data from the database as JSON file. This must come
+        // last because the exporters add to the project model.
+        zos.putNextEntry(new ZipEntry(EXPORTED_PROJECT + ".json"));
+        zos.write(JSONUtil.toPrettyJsonString(exProjekt).getBytes(UTF_8));
+        zos.closeEntry();
+        
+        zos.finish();
+        zos.flush();
+    }
+    
     private ExportedProject exportProject(ProjectExportRequest aRequest,
-            ProjectExportTaskMonitor aMonitor, File aStage)
+            ProjectExportTaskMonitor aMonitor, ZipOutputStream aStage)
         throws ProjectExportException, IOException
     {
         Deque<ProjectExporter> deque = new LinkedList<>(exporters);
@@ -291,6 +310,8 @@ public class ProjectExportServiceImpl
                     importer.importData(aRequest, project, exProject, aZip);
                     initsSeen.add(importer.getClass());
                     initsDeferred.clear();
+                    aRequest.setProgress(
+                            (int) ceil(((double) initsSeen.size()) / exporters.size() * 100.0));
                 }
                 else {
                     log.debug(
@@ -379,19 +400,42 @@ public class ProjectExportServiceImpl
         return startTask(task);
     }
 
+    @Override
+    public ProjectExportTaskHandle startProjectImportTask(ProjectImportRequest aRequest,
+            File aZipFile, String aUsername)
+    {
+        ProjectExportTaskHandle handle = new ProjectExportTaskHandle();
+        ProjectExportTaskMonitor monitor = new ProjectExportTaskMonitor();
+        ProjectImportTask task = new ProjectImportTask(handle, monitor, aRequest, aZipFile,
+                aUsername);
+        
+        autowireTask(task);
+        
+        tasks.put(handle, new TaskInfo(taskExecutorService.submit(task), monitor, null, task));
+        
+        return handle;
+    }
+
     private ProjectExportTaskHandle startTask(ProjectExportTask_ImplBase aTask)
     {
         ProjectExportTaskHandle handle = aTask.getHandle();
         
+        autowireTask(aTask);
+
+        tasks.put(handle, new TaskInfo(taskExecutorService.submit(aTask), aTask.getMonitor(),
+                aTask.getRequest(), null));
+        
+        return handle;
+    }
+    
+    private void autowireTask(Runnable aTask)
+    {
         // This autowires the task fields manually.
         AutowireCapableBeanFactory factory = applicationContext.getAutowireCapableBeanFactory();
         factory.autowireBean(aTask);
         factory.initializeBean(aTask, "transientTask");
-
-        tasks.put(handle, new TaskInfo(taskExecutorService.submit(aTask), aTask));
-        
-        return handle;
     }
+    
     @Override
     public ProjectExportRequest getExportRequest(ProjectExportTaskHandle aHandle)
     {
@@ -401,7 +445,7 @@ public class ProjectExportServiceImpl
             return null;
         }
         
-        return task.task.getRequest();
+        return task.exportRequest;
     }
 
     @Override
@@ -413,7 +457,19 @@ public class ProjectExportServiceImpl
             return null;
         }
         
-        return task.task.getMonitor();
+        return task.monitor;
+    }
+    
+    @Override
+    public Project getImportedProject(ProjectExportTaskHandle aHandle)
+    {
+        TaskInfo task = tasks.get(aHandle);
+
+        if (task == null || task.importTask == null) {
+            return null;
+        }
+        
+        return task.importTask.getImportedProject();
     }
 
     @Override
@@ -433,7 +489,7 @@ public class ProjectExportServiceImpl
     private void cleanUp()
     {
         for (Entry<ProjectExportTaskHandle, TaskInfo> e : tasks.entrySet()) {
-            ProjectExportTaskMonitor monitor = e.getValue().task.getMonitor();
+            ProjectExportTaskMonitor monitor = e.getValue().monitor;
             
             // Do not clean up running tasks or tasks that have not started yet
             if (asList(NOT_STARTED, RUNNING).contains(monitor.getState())) {
@@ -443,11 +499,14 @@ public class ProjectExportServiceImpl
             // Remove task info from the tasks map one hour after completion/failure/etc.
             long age = System.currentTimeMillis() - monitor.getEndTime();
             if (age > Duration.ofHours(1).toMillis()) {
-                log.info("Cleaning up stale export task for project [{}]:",
-                        e.getValue().task.getRequest().getProject().getName());
+                ProjectExportRequest request = e.getValue().exportRequest;
+                if (request != null) {
+                    log.info("Cleaning up stale export task for project [{}]:",
+                            request.getProject().getName());
+                }
                 tasks.remove(e.getKey());
-                File exportedFile = e.getValue().task.getMonitor().getExportedFile();
-                if (exportedFile.exists()) {
+                File exportedFile = monitor.getExportedFile();
+                if (exportedFile != null && exportedFile.exists()) {
                     try {
                         FileUtils.forceDelete(exportedFile);
                     }
@@ -462,12 +521,17 @@ public class ProjectExportServiceImpl
     private static class TaskInfo
     {
         private final Future<?> future;
-        private final ProjectExportTask_ImplBase task;
+        private final ProjectExportTaskMonitor monitor;
+        private final ProjectExportRequest exportRequest;
+        private final ProjectImportTask importTask;
 
-        public TaskInfo(Future<?> aFuture, ProjectExportTask_ImplBase aTask)
+        public TaskInfo(Future<?> aFuture, ProjectExportTaskMonitor aMonitor,
+                ProjectExportRequest aExportRequest, ProjectImportTask aImportTask)
         {
             future = aFuture;
-            task = aTask;
+            monitor = aMonitor;
+            exportRequest = aExportRequest;
+            importTask = aImportTask;
         }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.export;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.CANCELLED;
+import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.COMPLETED;
+import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.FAILED;
+import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState.RUNNING;
+import static de.tudarmstadt.ukp.clarin.webanno.support.logging.Logging.KEY_USERNAME;
+
+import java.io.File;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.casstorage.CasStorageSession;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportService;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskHandle;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectImportRequest;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
+
+public class ProjectImportTask
+    implements Runnable
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    
+    // See ProjectExportTask_ImplBase for why the task holds on to its handle
+    private final ProjectExportTaskHandle handle;
+    private final String username;
+    private final ProjectExportTaskMonitor monitor;
+    private final ProjectImportRequest request;
+    private final File zipFile;
+    
+    private volatile Project importedProject;
+    
+    private @Autowired ProjectExportService exportService;
+    
+    public ProjectImportTask(ProjectExportTaskHandle aHandle, ProjectExportTaskMonitor aMonitor,
+            ProjectImportRequest aRequest, File aZipFile, String aUsername)
+    {
+        handle = aHandle;
+        monitor = aMonitor;
+        request = aRequest;
+        zipFile = aZipFile;
+        username = aUsername;
+        
+        monitor.setCreateTime(System.currentTimeMillis());
+    }
+
+    @Override
+    public void run()
+    {
+        try {
+            // We are in a new thread. Set up thread-specific MDC
+            MDC.put(KEY_USERNAME, username);
+            
+            monitor.setState(RUNNING);
+            
+            try (
+                    CasStorageSession session = CasStorageSession.open();
+                    ZipFile zip = new ZipFile(zipFile);
+            ) {
+                importedProject = exportService.importProject(request, zip);
+            }
+            
+            monitor.setStateAndProgress(COMPLETED, 100);
+        }
+        catch (ClosedByInterruptException e) {
+            monitor.setStateAndProgress(CANCELLED, 100);
+        }
+        catch (Throwable e) {
+            monitor.setStateAndProgress(FAILED, 100);
+            monitor.addMessage(LogMessage.error(this, "Unexpected error during project import: %s",
+                    ExceptionUtils.getRootCauseMessage(e)));
+            log.error("Unexpected error during project import", e);
+        }
+        finally {
+            if (!zipFile.delete()) {
+                log.warn("Unable to delete imported project archive [{}]", zipFile);
+            }
+        }
+    }
+
+    public ProjectImportRequest getRequest()
+    {
+        return request;
+    }
+    
+    public ProjectExportTaskMonitor getMonitor()
+    {
+        return monitor;
+    }
+    
+    public ProjectExportTaskHandle getHandle()
+    {
+        return handle;
+    }
+    
+    public Project getImportedProject()
+    {
+        return importedProject;
+    }
+}
@@ -27,7 +27,7 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.PROJECT_TYPE_CO
 import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest.FORMAT_AUTO;
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.ANNOTATION;
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.CORRECTION;
-import static de.tudarmstadt.ukp.clarin.webanno.support.io.FastIOUtils.copy;
+import static de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils.addFileToZip;
 import static java.lang.Math.ceil;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Arrays.asList;
@@ -36,30 +36,42 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static org.apache.commons.io.FileUtils.copyFileToDirectory;
-import static org.apache.commons.io.FileUtils.forceDelete;
-import static org.apache.commons.io.FileUtils.forceMkdir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -70,6 +82,7 @@ import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ImportExportService;
 import de.tudarmstadt.ukp.clarin.webanno.api.RepositoryProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.casstorage.CasStorageSession;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.export.ProjectExportProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExporter;
@@ -83,12 +96,13 @@ import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
 import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
+import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
 
 @Component
 public class AnnotationDocumentExporter
-    implements ProjectExporter
+    implements ProjectExporter, DisposableBean
 {
     private static final String ANNOTATION_ORIGINAL_FOLDER = "/annotation/";
     private static final String ANNOTATION_AS_SERIALISED_CAS = "annotation_ser";
@@ -100,15 +114,43 @@ public class AnnotationDocumentExporter
     private final UserDao userRepository;
     private final ImportExportService importExportService;
     private final RepositoryProperties repositoryProperties;
+    private final ProjectExportProperties properties;
+    private final ExecutorService exportExecutorService;
     
-    @Autowired
     public AnnotationDocumentExporter(DocumentService aDocumentService, UserDao aUserRepository,
             ImportExportService aImportExportService, RepositoryProperties aRepositoryProperties)
+    {
+        this(aDocumentService, aUserRepository, aImportExportService, aRepositoryProperties,
+                new ProjectExportProperties());
+    }
+    
+    @Autowired
+    public AnnotationDocumentExporter(DocumentService aDocumentService, UserDao aUserRepository,
+            ImportExportService aImportExportService, RepositoryProperties aRepositoryProperties,
+            ProjectExportProperties aProperties)
     {
         documentService = aDocumentService;
         userRepository = aUserRepository;
         importExportService = aImportExportService;
         repositoryProperties = aRepositoryProperties;
+        properties = aProperties;
+        
+        if (properties.isParallel()) {
+            exportExecutorService = Executors.newFixedThreadPool(
+                    Math.max(1, properties.getThreads()), new BasicThreadFactory.Builder()
+                            .namingPattern("document-exporter-%d").daemon(true).build());
+        }
+        else {
+            exportExecutorService = null;
+        }
+    }
+    
+    @Override
+    public void destroy() throws Exception
+    {
+        if (exportExecutorService != null) {
+            exportExecutorService.shutdownNow();
+        }
     }
 
     @Override
@@ -125,7 +167,7 @@ public class AnnotationDocumentExporter
     
     @Override
     public void exportData(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
-            ExportedProject aExProject, File aStage)
+            ExportedProject aExProject, ZipOutputStream aStage)
         throws UIMAException, ClassNotFoundException, IOException
     {
         exportAnnotationDocuments(aMonitor, aRequest.getProject(), aExProject);
@@ -154,17 +196,18 @@ public class AnnotationDocumentExporter
     }
 
     private void exportAnnotationDocumentContents(ProjectExportRequest aRequest,
-            ProjectExportTaskMonitor aMonitor, ExportedProject aExProject, File aStage)
+            ProjectExportTaskMonitor aMonitor, ExportedProject aExProject,
+            ZipOutputStream aStage)
         throws UIMAException, ClassNotFoundException, IOException
     {
         Project project = aRequest.getProject();
         
         // The export process may store project-related information in this context to ensure it
         // is looked up only once during the bulk operation and the DB is not hit too often.
-        Map<Pair<Project, String>, Object> bulkOperationContext = new HashMap<>();
+        // The context may be shared by several export workers, so it must be thread-safe.
+        Map<Pair<Project, String>, Object> bulkOperationContext = new ConcurrentHashMap<>();
         
         List<SourceDocument> documents = documentService.listSourceDocuments(project);
-        int i = 1;
         int initProgress = aMonitor.getProgress();
 
         // Create a map containing the annotation documents for each source document. Doing this
@@ -178,127 +221,304 @@ public class AnnotationDocumentExporter
         LoadingCache<String, User> usersCache = Caffeine.newBuilder()
                 .build(key -> userRepository.get(key));
 
+        if (exportExecutorService != null && documents.size() > 1) {
+            exportAnnotationDocumentContentsParallel(aRequest, aMonitor, aStage, documents,
+                    srcToAnnIdx, usersCache, bulkOperationContext);
+            return;
+        }
+        
+        int i = 1;
         for (SourceDocument srcDoc : documents) {
-            try (CasStorageSession session = CasStorageSession.openNested()) {
-                //
-                // Export initial CASes
-                //
-                
-                // The initial CAS must always be exported to ensure that the converted source
-                // document will *always* have the state it had at the time of the initial import.
-                // We we do have a reliably initial CAS and instead lazily convert whenever an
-                // annotator starts annotating, then we could end up with two annotators having two
-                // different versions of their CAS e.g. if there was a code change in the reader
-                // component that affects its output.
+            PreparedDocument preparedDoc = prepareAnnotationDocumentContent(aRequest, aMonitor,
+                    srcDoc, srcToAnnIdx.getOrDefault(srcDoc, emptyList()), usersCache);
+            List<ExportedEntry> entries = exportAnnotationDocumentContent(project, preparedDoc,
+                    bulkOperationContext);
+            writeEntries(aStage, entries);
+            
+            aMonitor.setProgress(initProgress + (int) ceil(((double) i) / documents.size() * 80.0));
+            i++;
+        }
+    }
     
-                // If the initial CAS does not exist yet, it must be created before export.
-                if (!documentService.existsInitialCas(srcDoc)) {
-                    documentService.createOrReadInitialCas(srcDoc);
+    private void exportAnnotationDocumentContentsParallel(ProjectExportRequest aRequest,
+            ProjectExportTaskMonitor aMonitor, ZipOutputStream aStage,
+            List<SourceDocument> aDocuments,
+            Map<SourceDocument, List<AnnotationDocument>> aSrcToAnnIdx,
+            LoadingCache<String, User> aUsersCache,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws UIMAException, ClassNotFoundException, IOException
+    {
+        Project project = aRequest.getProject();
+        int initProgress = aMonitor.getProgress();
+        
+        // The workers must not access the database because they run outside the transaction of
+        // the export. So everything they need is looked up here before handing out any work.
+        importExportService.prepareBulkExport(project, aBulkOperationContext);
+        
+        // The workers run in their own threads, so they need to inherit the logging context
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        
+        // Keep only a bounded number of documents in flight so that the temporary files produced
+        // by the workers do not pile up while the archive is being written.
+        int window = 2 * Math.max(1, properties.getThreads());
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        Deque<Future<List<ExportedEntry>>> pending = new ArrayDeque<>();
+        Iterator<SourceDocument> documentIterator = aDocuments.iterator();
+        
+        boolean success = false;
+        try {
+            int i = 1;
+            while (documentIterator.hasNext() || !pending.isEmpty()) {
+                while (documentIterator.hasNext() && pending.size() < window) {
+                    SourceDocument srcDoc = documentIterator.next();
+                    PreparedDocument preparedDoc = prepareAnnotationDocumentContent(aRequest,
+                            aMonitor, srcDoc, aSrcToAnnIdx.getOrDefault(srcDoc, emptyList()),
+                            aUsersCache);
+                    pending.add(exportExecutorService.submit(() -> {
+                        if (mdc != null) {
+                            MDC.setContextMap(mdc);
+                        }
+                        try {
+                            List<ExportedEntry> entries = exportAnnotationDocumentContent(project,
+                                    preparedDoc, aBulkOperationContext);
+                            // If the export has failed in the meantime, nobody is going to pick
+                            // up the results
+                            if (aborted.get()) {
+                                deleteTemporaryEntries(entries);
+                            }
+                            return entries;
+                        }
+                        finally {
+                            MDC.clear();
+                        }
+                    }));
                 }
                 
-                File targetDir = new File(aStage, ANNOTATION_CAS_FOLDER + srcDoc.getName());
-                forceMkdir(targetDir);
-                
-                File initialCasFile = documentService.getCasFile(srcDoc, INITIAL_CAS_PSEUDO_USER);
+                // Entries are written in document order, no matter in which order the workers
+                // complete
+                writeEntries(aStage, awaitEntries(pending.poll()));
                 
-                copyFileToDirectory(initialCasFile, targetDir);
-                
-                log.info("Exported annotation document content for user [" + INITIAL_CAS_PSEUDO_USER
-                        + "] for source document [" + srcDoc.getId() + "] in project ["
-                        + project.getName() + "] with id [" + project.getId() + "]");
-    
-                //
-                // Export per-user annotation document
-                // 
-                
-                // Determine which format to use for export
-                String formatId = FORMAT_AUTO.equals(aRequest.getFormat()) ? srcDoc.getFormat()
-                        : aRequest.getFormat();
-                
-                FormatSupport format = importExportService.getWritableFormatById(formatId)
-                        .orElseGet(() -> {
-                            FormatSupport fallbackFormat = new WebAnnoTsv3FormatSupport();
-                            aMonitor.addMessage(LogMessage.error(this,"Annotation: [%s] No writer "
-                                    + "found for original format [%s] - exporting as [%s] "
-                                    + "instead.",
-                                    srcDoc.getName(), formatId, fallbackFormat.getName()));
-                            return fallbackFormat;
-                        });
-    
-                // Export annotations from regular users
-                for (AnnotationDocument annDoc : 
-                    srcToAnnIdx.computeIfAbsent(srcDoc, key -> emptyList())) {
-                    
-                    // copy annotation document only for existing users and the state of the 
-                    // annotation document is not NEW/IGNORE
-                    if (
-                            usersCache.get(annDoc.getUser()) != null && 
-                            !annDoc.getState().equals(AnnotationDocumentState.NEW) && 
-                            !annDoc.getState().equals(AnnotationDocumentState.IGNORE)
-                    ) {
-                        File annSerDir = new File(
-                                aStage.getAbsolutePath() + ANNOTATION_CAS_FOLDER
-                                        + srcDoc.getName());
-                        File annDocDir = new File(aStage.getAbsolutePath()
-                                + ANNOTATION_ORIGINAL_FOLDER + srcDoc.getName());
-    
-                        forceMkdir(annSerDir);
-                        forceMkdir(annDocDir);
-    
-                        File annSerFile = documentService.getCasFile(srcDoc, annDoc.getUser());
-    
-                        File annFile = null;
-                        if (annSerFile.exists()) {
-                            annFile = importExportService.exportAnnotationDocument(srcDoc,
-                                    annDoc.getUser(), format, annDoc.getUser(), ANNOTATION, false,
-                                    bulkOperationContext);
+                aMonitor.setProgress(
+                        initProgress + (int) ceil(((double) i) / aDocuments.size() * 80.0));
+                i++;
+            }
+            success = true;
+        }
+        finally {
+            if (!success) {
+                aborted.set(true);
+                for (Future<List<ExportedEntry>> future : pending) {
+                    if (!future.cancel(false) && future.isDone()) {
+                        try {
+                            deleteTemporaryEntries(future.get());
                         }
-                        
-                        if (annSerFile.exists()) {
-                            copyFileToDirectory(annSerFile, annSerDir);
-                            copyFileToDirectory(annFile, annDocDir);
-                            forceDelete(annFile);
+                        catch (Exception e) {
+                            // The worker failed and has already cleaned up after itself
                         }
-                        
-                        log.info("Exported annotation document content for user ["
-                                + annDoc.getUser() + "] for source document [" + srcDoc.getId()
-                                + "] in project [" + project.getName() + "] with id ["
-                                + project.getId() + "]");
                     }
                 }
-                
-                // Special handling for the virtual CORRECTION_USER data used in automation and
-                // correction type projects.
-                if (
-                        PROJECT_TYPE_AUTOMATION.equals(project.getMode()) || 
-                        PROJECT_TYPE_CORRECTION.equals(project.getMode())
-                ) {
-                    File corrSerFile = documentService.getCasFile(srcDoc, CORRECTION_USER);
-                    if (corrSerFile.exists()) {
-                        // Copy CAS - this is used when importing the project again
-                        // Util WebAnno 3.4.x, the CORRECTION_USER CAS was exported to 'curation'
-                        // and 'curation_ser'.
-                        // Since WebAnno 3.5.x, the CORRECTION_USER CAS is exported to 'annotation'
-                        // and 'annotation_ser'.
-                        File curationSerDir = new File(
-                                aStage + ANNOTATION_AS_SERIALISED_CAS + srcDoc.getName());
-                        forceMkdir(curationSerDir);
-                        copyFileToDirectory(corrSerFile, curationSerDir);
+            }
+        }
+    }
     
-                        // Copy secondary export format for convenience - not used during import
-                        File curationDir = new File(
-                                aStage + ANNOTATION_ORIGINAL_FOLDER + srcDoc.getName());
-                        forceMkdir(curationDir);
-                        File corrFile = importExportService.exportAnnotationDocument(srcDoc,
-                                CORRECTION_USER, format, CORRECTION_USER, CORRECTION);
-                        copyFileToDirectory(corrFile, curationDir);
-                        forceDelete(corrFile);
-                    }
+    private List<ExportedEntry> awaitEntries(Future<List<ExportedEntry>> aFuture)
+        throws UIMAException, ClassNotFoundException, IOException
+    {
+        try {
+            return aFuture.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Signal the cancellation the same way as an interrupted file channel would
+            throw new ClosedByInterruptException();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UIMAException) {
+                throw (UIMAException) cause;
+            }
+            if (cause instanceof ClassNotFoundException) {
+                throw (ClassNotFoundException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+    
+    /**
+     * Determines what needs to be exported for the given source document. This involves database
+     * access and reporting to the monitor, so it must be called from the thread running the
+     * export.
+     */
+    private PreparedDocument prepareAnnotationDocumentContent(ProjectExportRequest aRequest,
+            ProjectExportTaskMonitor aMonitor, SourceDocument srcDoc,
+            List<AnnotationDocument> aAnnDocs, LoadingCache<String, User> aUsersCache)
+        throws IOException
+    {
+        Project project = aRequest.getProject();
+        
+        // The initial CAS must always be exported to ensure that the converted source
+        // document will *always* have the state it had at the time of the initial import.
+        // We we do have a reliably initial CAS and instead lazily convert whenever an
+        // annotator starts annotating, then we could end up with two annotators having two
+        // different versions of their CAS e.g. if there was a code change in the reader
+        // component that affects its output.
+
+        // If the initial CAS does not exist yet, it must be created before export.
+        if (!documentService.existsInitialCas(srcDoc)) {
+            try (CasStorageSession session = CasStorageSession.openNested()) {
+                documentService.createOrReadInitialCas(srcDoc);
+            }
+        }
+        
+        // Determine which format to use for export
+        String formatId = FORMAT_AUTO.equals(aRequest.getFormat()) ? srcDoc.getFormat()
+                : aRequest.getFormat();
+        
+        FormatSupport format = importExportService.getWritableFormatById(formatId)
+                .orElseGet(() -> {
+                    FormatSupport fallbackFormat = new WebAnnoTsv3FormatSupport();
+                    aMonitor.addMessage(LogMessage.error(this,"Annotation: [%s] No writer "
+                            + "found for original format [%s] - exporting as [%s] "
+                            + "instead.",
+                            srcDoc.getName(), formatId, fallbackFormat.getName()));
+                    return fallbackFormat;
+                });
+        
+        PreparedDocument preparedDoc = new PreparedDocument(srcDoc, format,
+                documentService.getCasFile(srcDoc, INITIAL_CAS_PSEUDO_USER));
+        
+        // Annotations from regular users
+        for (AnnotationDocument annDoc : aAnnDocs) {
+            // copy annotation document only for existing users and the state of the 
+            // annotation document is not NEW/IGNORE
+            if (
+                    aUsersCache.get(annDoc.getUser()) != null && 
+                    !annDoc.getState().equals(AnnotationDocumentState.NEW) && 
+                    !annDoc.getState().equals(AnnotationDocumentState.IGNORE)
+            ) {
+                preparedDoc.userCasFiles.put(annDoc.getUser(),
+                        documentService.getCasFile(srcDoc, annDoc.getUser()));
+            }
+        }
+        
+        // Special handling for the virtual CORRECTION_USER data used in automation and
+        // correction type projects.
+        if (
+                PROJECT_TYPE_AUTOMATION.equals(project.getMode()) || 
+                PROJECT_TYPE_CORRECTION.equals(project.getMode())
+        ) {
+            preparedDoc.correctionCasFile = documentService.getCasFile(srcDoc, CORRECTION_USER);
+        }
+        
+        return preparedDoc;
+    }
+    
+    /**
+     * Exports the initial CAS and the annotations of all users for the given source document.
+     * This method may be called from a worker thread, so it must not touch the export archive.
+     * Instead, it returns the files to be added to the archive in the order they should appear.
+     * All the information which requires database access must have been collected in the
+     * prepared document and the bulk operation context already.
+     */
+    private List<ExportedEntry> exportAnnotationDocumentContent(Project aProject,
+            PreparedDocument aDoc, Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws UIMAException, ClassNotFoundException, IOException
+    {
+        SourceDocument srcDoc = aDoc.document;
+        List<ExportedEntry> entries = new ArrayList<>();
+        
+        boolean success = false;
+        try (CasStorageSession session = CasStorageSession.openNested()) {
+            //
+            // Export initial CASes
+            //
+            String annSerDir = ANNOTATION_CAS_FOLDER + srcDoc.getName() + "/";
+            String annDocDir = ANNOTATION_ORIGINAL_FOLDER + srcDoc.getName() + "/";
+            
+            entries.add(new ExportedEntry(annSerDir + aDoc.initialCasFile.getName(),
+                    aDoc.initialCasFile, false));
+            
+            log.info("Exported annotation document content for user [" + INITIAL_CAS_PSEUDO_USER
+                    + "] for source document [" + srcDoc.getId() + "] in project ["
+                    + aProject.getName() + "] with id [" + aProject.getId() + "]");
+
+            //
+            // Export per-user annotation document
+            // 
+            for (Entry<String, File> userCasFile : aDoc.userCasFiles.entrySet()) {
+                String user = userCasFile.getKey();
+                File annSerFile = userCasFile.getValue();
+
+                if (annSerFile.exists()) {
+                    File annFile = importExportService.exportAnnotationDocument(srcDoc, user,
+                            aDoc.format, user, ANNOTATION, false, aBulkOperationContext);
+                    entries.add(new ExportedEntry(annSerDir + annSerFile.getName(), annSerFile,
+                            false));
+                    entries.add(new ExportedEntry(annDocDir + annFile.getName(), annFile, true));
                 }
+                
+                log.info("Exported annotation document content for user [" + user
+                        + "] for source document [" + srcDoc.getId() + "] in project ["
+                        + aProject.getName() + "] with id [" + aProject.getId() + "]");
             }
             
-            aMonitor.setProgress(initProgress + (int) ceil(((double) i) / documents.size() * 80.0));
-            i++;
+            File corrSerFile = aDoc.correctionCasFile;
+            if (corrSerFile != null && corrSerFile.exists()) {
+                // Copy CAS - this is used when importing the project again
+                // Util WebAnno 3.4.x, the CORRECTION_USER CAS was exported to 'curation'
+                // and 'curation_ser'.
+                // Since WebAnno 3.5.x, the CORRECTION_USER CAS is exported to 'annotation'
+                // and 'annotation_ser'.
+                entries.add(new ExportedEntry(annSerDir + corrSerFile.getName(), corrSerFile,
+                        false));
+
+                // Copy secondary export format for convenience - not used during import
+                File corrFile = importExportService.exportAnnotationDocument(srcDoc,
+                        CORRECTION_USER, aDoc.format, CORRECTION_USER, CORRECTION, true,
+                        aBulkOperationContext);
+                entries.add(new ExportedEntry(annDocDir + corrFile.getName(), corrFile, true));
+            }
+            
+            success = true;
+            return entries;
+        }
+        finally {
+            if (!success) {
+                deleteTemporaryEntries(entries);
+            }
+        }
+    }
+    
+    private void writeEntries(ZipOutputStream aStage, List<ExportedEntry> aEntries)
+        throws IOException
+    {
+        try {
+            for (ExportedEntry entry : aEntries) {
+                addFileToZip(aStage, entry.file, entry.name);
+            }
+        }
+        finally {
+            deleteTemporaryEntries(aEntries);
+        }
+    }
+    
+    private void deleteTemporaryEntries(List<ExportedEntry> aEntries)
+    {
+        for (ExportedEntry entry : aEntries) {
+            if (entry.temporary) {
+                try {
+                    importExportService.deleteExportedFile(entry.file);
+                }
+                catch (IOException e) {
+                    log.warn("Unable to delete temporary file [{}]", entry.file, e);
+                }
+            }
         }
     }
     
@@ -376,47 +596,92 @@ public class AnnotationDocumentExporter
         
         Set<SourceDocument> annotationFolderInitialized = new HashSet<>();
         
-        for (Enumeration zipEnumerate = zip.entries(); zipEnumerate.hasMoreElements();) {
-            ZipEntry entry = (ZipEntry) zipEnumerate.nextElement();
-
-            // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
-            String entryName = ProjectExporter.normalizeEntryName(entry);
-
-            if (!entryName.startsWith(ANNOTATION_AS_SERIALISED_CAS + "/") ||
-                !entryName.endsWith(".ser")) {
-                continue;
-            }
-
-            String fileName = entryName.replace(ANNOTATION_AS_SERIALISED_CAS + "/", "");
-
-            if (fileName.trim().isEmpty()) {
-                continue;
-            }
-
-            // the user annotated the document is file name minus extension (anno1.ser)
-            String username = FilenameUtils.getBaseName(fileName).replace(".ser", "");
-
-            // name of the annotation document
-            fileName = fileName.replace(FilenameUtils.getName(fileName), "").replace("/", "");
-            SourceDocument sourceDocument = aNameToDoc.get(fileName);
-
-            Path annFolder = docRoot.resolve(sourceDocument.getId().toString())
-                    .resolve(ANNOTATION_FOLDER);
-            
-            // Check if the annotation folder for the given source document has already been
-            // created. Using the set to check here is faster than querying the file system.
-            if (!annotationFolderInitialized.contains(sourceDocument)) {
-                Files.createDirectories(annFolder);
-                annotationFolderInitialized.add(sourceDocument);
+        try (ProjectArchiveExtractor extractor = new ProjectArchiveExtractor(zip, properties)) {
+            for (Enumeration zipEnumerate = zip.entries(); zipEnumerate.hasMoreElements();) {
+                ZipEntry entry = (ZipEntry) zipEnumerate.nextElement();
+    
+                // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
+                String entryName = ZipUtils.normalizeEntryName(entry);
+    
+                if (!entryName.startsWith(ANNOTATION_AS_SERIALISED_CAS + "/") ||
+                    !entryName.endsWith(".ser")) {
+                    continue;
+                }
+    
+                String fileName = entryName.replace(ANNOTATION_AS_SERIALISED_CAS + "/", "");
+    
+                if (fileName.trim().isEmpty()) {
+                    continue;
+                }
+    
+                // the user annotated the document is file name minus extension (anno1.ser)
+                String username = FilenameUtils.getBaseName(fileName).replace(".ser", "");
+    
+                // name of the annotation document
+                fileName = fileName.replace(FilenameUtils.getName(fileName), "").replace("/", "");
+                SourceDocument sourceDocument = aNameToDoc.get(fileName);
+    
+                Path annFolder = docRoot.resolve(sourceDocument.getId().toString())
+                        .resolve(ANNOTATION_FOLDER);
+                
+                // Check if the annotation folder for the given source document has already been
+                // created. Using the set to check here is faster than querying the file system.
+                // The folder is created before the entry is handed to the extractor, so the
+                // workers do not race to create it.
+                if (!annotationFolderInitialized.contains(sourceDocument)) {
+                    Files.createDirectories(annFolder);
+                    annotationFolderInitialized.add(sourceDocument);
+                }
+                
+                extractor.extract(entry, annFolder.resolve(username + ".ser"));
+    
+                n++;
+                log.info(
+                        "Imported content for annotation document {}: user [{}] for [{}]({}) in "
+                        + "project [{}]({})",
+                        n, username, sourceDocument.getName(), sourceDocument.getId(),
+                        aProject.getName(), aProject.getId());
             }
             
-            copy(zip.getInputStream(entry), annFolder.resolve(username + ".ser").toFile());
+            extractor.await();
+        }
+    }
+    
+    /**
+     * Everything needed to export the annotations of a source document, collected up front so
+     * that the export itself does not need to access the database.
+     */
+    private static class PreparedDocument
+    {
+        private final SourceDocument document;
+        private final FormatSupport format;
+        private final File initialCasFile;
+        private final Map<String, File> userCasFiles = new LinkedHashMap<>();
+        private File correctionCasFile;
+
+        public PreparedDocument(SourceDocument aDocument, FormatSupport aFormat,
+                File aInitialCasFile)
+        {
+            document = aDocument;
+            format = aFormat;
+            initialCasFile = aInitialCasFile;
+        }
+    }
+    
+    /**
+     * A file to be added to the export archive.
+     */
+    private static class ExportedEntry
+    {
+        private final String name;
+        private final File file;
+        private final boolean temporary;
 
-            n++;
-            log.info(
-                    "Imported content for annotation document {}: user [{}] for [{}]({}) in project [{}]({})",
-                    n, username, sourceDocument.getName(), sourceDocument.getId(),
-                    aProject.getName(), aProject.getId());
+        public ExportedEntry(String aName, File aFile, boolean aTemporary)
+        {
+            name = aName;
+            file = aFile;
+            temporary = aTemporary;
         }
     }
 }
@@ -22,11 +22,9 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest.
 import static de.tudarmstadt.ukp.clarin.webanno.model.Mode.CURATION;
 import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_FINISHED;
 import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_IN_PROGRESS;
+import static de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils.addFileToZip;
 import static java.lang.Math.ceil;
 import static java.util.Arrays.asList;
-import static org.apache.commons.io.FileUtils.copyFileToDirectory;
-import static org.apache.commons.io.FileUtils.forceDelete;
-import static org.apache.commons.io.FileUtils.forceMkdir;
 
 import java.io.File;
 import java.io.IOException;
@@ -36,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -56,6 +55,7 @@ import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedProject;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
 
@@ -91,11 +91,11 @@ public class CuratedDocumentsExporter
      * Copy, if exists, curation documents to a folder that will be exported as Zip file
      * 
      * @param aStage
-     *            The folder where curated documents are copied to be exported as Zip File
+     *            The archive into which the curated documents are written
      */
     @Override
     public void exportData(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
-            ExportedProject aExProject, File aStage)
+            ExportedProject aExProject, ZipOutputStream aStage)
         throws Exception
     {
         Project project = aRequest.getProject();
@@ -110,11 +110,8 @@ public class CuratedDocumentsExporter
         int initProgress = aMonitor.getProgress() - 1;
         int i = 1;
         for (SourceDocument sourceDocument : documents) {
-            File curationCasDir = new File(aStage, CURATION_CAS_FOLDER + sourceDocument.getName());
-            forceMkdir(curationCasDir);
-
-            File curationDir = new File(aStage, CURATION_FOLDER + sourceDocument.getName());
-            forceMkdir(curationDir);
+            String curationCasDir = CURATION_CAS_FOLDER + sourceDocument.getName() + "/";
+            String curationDir = CURATION_FOLDER + sourceDocument.getName() + "/";
 
             // If depending on aInProgress, include only the the curation documents that are
             // finished or also the ones that are in progress
@@ -126,7 +123,8 @@ public class CuratedDocumentsExporter
                 File curationCasFile = documentService.getCasFile(sourceDocument, CURATION_USER);
                 if (curationCasFile.exists()) {
                     // Copy CAS - this is used when importing the project again
-                    copyFileToDirectory(curationCasFile, curationCasDir);
+                    addFileToZip(aStage, curationCasFile,
+                            curationCasDir + curationCasFile.getName());
 
                     // Determine which format to use for export
                     String formatId = FORMAT_AUTO.equals(aRequest.getFormat())
@@ -148,8 +146,13 @@ public class CuratedDocumentsExporter
                         File curationFile = importExportService.exportAnnotationDocument(
                                 sourceDocument, CURATION_USER, format, CURATION_USER, CURATION,
                                 true, bulkOperationContext);
-                        copyFileToDirectory(curationFile, curationDir);
-                        forceDelete(curationFile);
+                        try {
+                            addFileToZip(aStage, curationFile,
+                                    curationDir + curationFile.getName());
+                        }
+                        finally {
+                            importExportService.deleteExportedFile(curationFile);
+                        }
                     }
                     catch (Exception e) {
                         // error("Unexpected error while exporting project: " +
@@ -187,7 +190,7 @@ public class CuratedDocumentsExporter
             log.trace("Considering ZIP entry [{}]", entry.getName());
 
             // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
-            String entryName = ProjectExporter.normalizeEntryName(entry);
+            String entryName = ZipUtils.normalizeEntryName(entry);
             
             if (!entryName.startsWith(CURATION_AS_SERIALISED_CAS + "/")) {
                 continue;
@@ -25,8 +25,8 @@ import java.io.IOException;
 import java.util.Enumeration;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,16 +58,15 @@ public class GuildelinesExporter
      */
     @Override
     public void exportData(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
-            ExportedProject aExProject, File aStage)
+            ExportedProject aExProject, ZipOutputStream aStage)
         throws Exception
     {
-        File guidelineDir = new File(aStage + GUIDELINES_FOLDER);
-        FileUtils.forceMkdir(guidelineDir);
         File annotationGuidlines = projectService.getGuidelinesFolder(aRequest.getProject());
         
         if (annotationGuidlines.exists()) {
             for (File annotationGuideline : annotationGuidlines.listFiles()) {
-                FileUtils.copyFileToDirectory(annotationGuideline, guidelineDir);
+                ZipUtils.addFileToZip(aStage, annotationGuideline,
+                        GUIDELINES_FOLDER + "/" + annotationGuideline.getName());
             }
         }
     }
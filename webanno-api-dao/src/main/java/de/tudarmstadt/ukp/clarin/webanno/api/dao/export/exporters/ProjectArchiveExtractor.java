@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.export.exporters;
+
+import static de.tudarmstadt.ukp.clarin.webanno.support.io.FastIOUtils.copy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.MDC;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.export.ProjectExportProperties;
+
+/**
+ * Copies entries from a project archive into the repository. If parallel processing is enabled
+ * in the {@link ProjectExportProperties}, the entries are inflated and written by several
+ * threads. A {@link ZipFile} can be read concurrently, so all workers share the same archive.
+ */
+class ProjectArchiveExtractor
+    implements AutoCloseable
+{
+    private final ZipFile zip;
+    private final ExecutorService executor;
+    private final Deque<Future<?>> pending = new ArrayDeque<>();
+    private final Map<String, String> mdc;
+
+    public ProjectArchiveExtractor(ZipFile aZip, ProjectExportProperties aProperties)
+    {
+        zip = aZip;
+        mdc = MDC.getCopyOfContextMap();
+        
+        if (aProperties.isParallel()) {
+            executor = Executors.newFixedThreadPool(Math.max(1, aProperties.getThreads()),
+                    new BasicThreadFactory.Builder().namingPattern("project-importer-%d")
+                            .daemon(true).build());
+        }
+        else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Copies the given entry to the target file. Depending on the configuration, this happens
+     * immediately or asynchronously. Use {@link #await()} to wait for asynchronous copies to
+     * complete.
+     */
+    public void extract(ZipEntry aEntry, Path aTarget) throws IOException
+    {
+        if (executor == null) {
+            copy(zip.getInputStream(aEntry), aTarget.toFile());
+            return;
+        }
+        
+        pending.add(executor.submit(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                copy(zip.getInputStream(aEntry), aTarget.toFile());
+            }
+            finally {
+                MDC.clear();
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Waits for all asynchronous copies to complete.
+     * 
+     * @throws IOException
+     *             if any of the entries could not be copied.
+     */
+    public void await() throws IOException
+    {
+        while (!pending.isEmpty()) {
+            try {
+                pending.poll().get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while extracting project archive");
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
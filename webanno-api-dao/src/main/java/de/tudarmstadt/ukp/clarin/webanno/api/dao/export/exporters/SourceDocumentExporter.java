@@ -19,7 +19,6 @@ package de.tudarmstadt.ukp.clarin.webanno.api.dao.export.exporters;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.DOCUMENT_FOLDER;
 import static de.tudarmstadt.ukp.clarin.webanno.api.ProjectService.PROJECT_FOLDER;
-import static de.tudarmstadt.ukp.clarin.webanno.support.io.FastIOUtils.copy;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.file.Files.createDirectory;
 import static java.util.function.Function.identity;
@@ -37,8 +36,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.time.DurationFormatUtils;
@@ -49,6 +48,7 @@ import org.springframework.stereotype.Component;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.export.ProjectExportProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportException;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
@@ -58,6 +58,7 @@ import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedProject;
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedSourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
 
 @Component
@@ -70,10 +71,11 @@ public class SourceDocumentExporter
 
     private @Autowired DocumentService documentService;
     private @Autowired RepositoryProperties repositoryProperties;
+    private @Autowired ProjectExportProperties properties;
 
     @Override
     public void exportData(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
-            ExportedProject aExProject, File aStage)
+            ExportedProject aExProject, ZipOutputStream aStage)
         throws IOException, ProjectExportException
     {
         exportSourceDocuments(aRequest.getProject(), aExProject);
@@ -103,19 +105,19 @@ public class SourceDocumentExporter
     }
 
     private void exportSourceDocumentContents(ProjectExportRequest aRequest,
-            ProjectExportTaskMonitor aMonitor, ExportedProject aExProject, File aStage)
+            ProjectExportTaskMonitor aMonitor, ExportedProject aExProject,
+            ZipOutputStream aStage)
         throws IOException, ProjectExportException
     {
         Project project = aRequest.getProject();
-        File sourceDocumentDir = new File(aStage, SOURCE_FOLDER);
-        FileUtils.forceMkdir(sourceDocumentDir);
         // Get all the source documents from the project
         List<SourceDocument> documents = documentService.listSourceDocuments(project);
         int i = 1;
         for (SourceDocument sourceDocument : documents) {
             try {
-                FileUtils.copyFileToDirectory(documentService.getSourceDocumentFile(sourceDocument),
-                        sourceDocumentDir);
+                File sourceDocumentFile = documentService.getSourceDocumentFile(sourceDocument);
+                ZipUtils.addFileToZip(aStage, sourceDocumentFile,
+                        SOURCE_FOLDER + "/" + sourceDocumentFile.getName());
                 aMonitor.setProgress((int) Math.ceil(((double) i) / documents.size() * 10.0));
                 i++;
                 log.info("Exported content for source document [" + sourceDocument.getId()
@@ -209,27 +211,31 @@ public class SourceDocumentExporter
         }
         
         int n = 0;
-        for (Enumeration zipEnumerate = zip.entries(); zipEnumerate.hasMoreElements();) {
-            ZipEntry entry = (ZipEntry) zipEnumerate.nextElement();
-
-            // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
-            String entryName = ProjectExporter.normalizeEntryName(entry);
-
-            if (entryName.startsWith(SOURCE_FOLDER)) {
-                String fileName = FilenameUtils.getName(entryName);
-                if (fileName.trim().isEmpty()) {
-                    continue;
+        try (ProjectArchiveExtractor extractor = new ProjectArchiveExtractor(zip, properties)) {
+            for (Enumeration zipEnumerate = zip.entries(); zipEnumerate.hasMoreElements();) {
+                ZipEntry entry = (ZipEntry) zipEnumerate.nextElement();
+    
+                // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
+                String entryName = ZipUtils.normalizeEntryName(entry);
+    
+                if (entryName.startsWith(SOURCE_FOLDER)) {
+                    String fileName = FilenameUtils.getName(entryName);
+                    if (fileName.trim().isEmpty()) {
+                        continue;
+                    }
+                    
+                    SourceDocument sourceDocument = docs.get(fileName);
+                    File sourceFilePath = documentService.getSourceDocumentFile(sourceDocument);
+                    extractor.extract(entry, sourceFilePath.toPath());
+    
+                    n++;
+                    log.info("Imported content for source document {}/{}: [{}]({}) in project "
+                            + "[{}]({})", n, docs.size(), sourceDocument.getName(),
+                            sourceDocument.getId(), aProject.getName(), aProject.getId());
                 }
-                
-                SourceDocument sourceDocument = docs.get(fileName);
-                File sourceFilePath = documentService.getSourceDocumentFile(sourceDocument);
-                copy(zip.getInputStream(entry), sourceFilePath);
-
-                n++;
-                log.info("Imported content for source document {}/{}: [{}]({}) in project [{}]({})",
-                        n, docs.size(), sourceDocument.getName(), sourceDocument.getId(),
-                        aProject.getName(), aProject.getId());
             }
+            
+            extractor.await();
         }
     }
 }
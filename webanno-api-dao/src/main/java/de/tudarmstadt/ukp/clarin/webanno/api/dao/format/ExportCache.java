@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.dao.ImportExportServiceImpl.EXPORT_FOLDER_PREFIX;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps exported annotation documents on disk so that repeated exports of unchanged documents do
+ * not need to run the export again. The cache is bounded by the total size of the cached files and
+ * removes the least recently used exports first.
+ * <p>
+ * The index of the cache is only held in memory. Any files left over from a previous run are
+ * removed when the cache is first used.
+ */
+public class ExportCache
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    
+    private final File directory;
+    private final long maxSize;
+    
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final Map<ExportCacheKey, CachedExport> entries = new LinkedHashMap<>(16, 0.75f,
+            true);
+    private long size = 0;
+    private boolean initialized = false;
+    
+    public ExportCache(File aDirectory, long aMaxSize)
+    {
+        directory = aDirectory;
+        maxSize = aMaxSize;
+    }
+    
+    /**
+     * Retrieves a copy of a cached export. The copy is placed in a new temporary folder under the
+     * name of the original export. The copy and its folder are owned by the caller.
+     * 
+     * @param aKey
+     *            the key of the export.
+     * @return the copy of the export if it was in the cache.
+     * @throws IOException
+     *             if the cached export could not be copied.
+     */
+    public Optional<File> get(ExportCacheKey aKey) throws IOException
+    {
+        CachedExport entry;
+        synchronized (this) {
+            entry = entries.get(aKey);
+        }
+        
+        if (entry == null) {
+            return Optional.empty();
+        }
+        
+        // Concurrent requests may retrieve exports with the same name, so each copy needs a
+        // folder of its own
+        File copyFolder = Files.createTempDirectory(EXPORT_FOLDER_PREFIX).toFile();
+        File copy = new File(copyFolder, entry.name);
+        try {
+            Files.copy(entry.file.toPath(), copy.toPath());
+        }
+        catch (NoSuchFileException e) {
+            // The entry was evicted while we were copying it
+            FileUtils.deleteQuietly(copyFolder);
+            return Optional.empty();
+        }
+        catch (IOException e) {
+            FileUtils.deleteQuietly(copyFolder);
+            throw e;
+        }
+        
+        log.debug("Export cache hit for [{}]", aKey);
+        
+        return Optional.of(copy);
+    }
+    
+    /**
+     * Adds a copy of the given export to the cache. Exports larger than the cache are not added.
+     * 
+     * @param aKey
+     *            the key of the export.
+     * @param aExport
+     *            the exported file. The file itself remains owned by the caller.
+     * @throws IOException
+     *             if the export could not be copied into the cache.
+     */
+    public void put(ExportCacheKey aKey, File aExport) throws IOException
+    {
+        long length = aExport.length();
+        if (length > maxSize) {
+            return;
+        }
+        
+        initialize();
+        
+        // Copy outside the lock - exports can be large
+        File file = new File(directory, UUID.randomUUID().toString());
+        Files.copy(aExport.toPath(), file.toPath());
+        
+        synchronized (this) {
+            if (entries.containsKey(aKey)) {
+                // Someone else exported the same document concurrently
+                delete(file);
+                return;
+            }
+            
+            entries.put(aKey, new CachedExport(file, aExport.getName(), length));
+            size += length;
+            
+            Iterator<CachedExport> i = entries.values().iterator();
+            while (size > maxSize && i.hasNext()) {
+                CachedExport eldest = i.next();
+                i.remove();
+                size -= eldest.size;
+                delete(eldest.file);
+            }
+        }
+    }
+    
+    private synchronized void initialize() throws IOException
+    {
+        if (initialized) {
+            return;
+        }
+        
+        if (directory.exists()) {
+            FileUtils.deleteDirectory(directory);
+        }
+        FileUtils.forceMkdir(directory);
+        initialized = true;
+    }
+    
+    private void delete(File aFile)
+    {
+        if (!aFile.delete() && aFile.exists()) {
+            log.warn("Unable to remove cached export [{}]", aFile);
+        }
+    }
+    
+    private static class CachedExport
+    {
+        private final File file;
+        private final String name;
+        private final long size;
+        
+        public CachedExport(File aFile, String aName, long aSize)
+        {
+            file = aFile;
+            name = aName;
+            size = aSize;
+        }
+    }
+}
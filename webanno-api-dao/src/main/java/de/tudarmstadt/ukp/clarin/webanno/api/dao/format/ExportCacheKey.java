@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+
+/**
+ * Identifies a cached export. The key includes the timestamp of the CAS and the revision of the
+ * layer configuration of the project, so changing either results in a different key and the
+ * outdated export is never handed out again.
+ */
+public class ExportCacheKey
+{
+    private final long documentId;
+    private final String user;
+    private final String formatId;
+    private final String fileName;
+    private final boolean stripExtension;
+    private final long casTimestamp;
+    private final long layerConfigurationRevision;
+
+    public ExportCacheKey(SourceDocument aDocument, String aUser, FormatSupport aFormat,
+            String aFileName, boolean aStripExtension, long aCasTimestamp,
+            long aLayerConfigurationRevision)
+    {
+        documentId = aDocument.getId();
+        user = aUser;
+        formatId = aFormat.getId();
+        fileName = aFileName;
+        stripExtension = aStripExtension;
+        casTimestamp = aCasTimestamp;
+        layerConfigurationRevision = aLayerConfigurationRevision;
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (!(other instanceof ExportCacheKey)) {
+            return false;
+        }
+        ExportCacheKey castOther = (ExportCacheKey) other;
+        return new EqualsBuilder().append(documentId, castOther.documentId)
+                .append(user, castOther.user)
+                .append(formatId, castOther.formatId)
+                .append(fileName, castOther.fileName)
+                .append(stripExtension, castOther.stripExtension)
+                .append(casTimestamp, castOther.casTimestamp)
+                .append(layerConfigurationRevision, castOther.layerConfigurationRevision)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return new HashCodeBuilder().append(documentId).append(user).append(formatId)
+                .append(fileName).append(stripExtension).append(casTimestamp)
+                .append(layerConfigurationRevision).toHashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
+                .append("d", documentId)
+                .append("u", user)
+                .append("f", formatId)
+                .append("n", fileName)
+                .append("s", stripExtension)
+                .append("t", casTimestamp)
+                .append("r", Long.toHexString(layerConfigurationRevision)).toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.forceDelete;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.factory.ConfigurationParameterFactory.addConfigurationParameters;
+import static org.apache.uima.fit.util.LifeCycleUtil.destroy;
+
+import java.io.File;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.dkpro.core.api.io.JCasFileWriter_ImplBase;
+
+public class PooledWriterHolderFactory
+    extends BaseKeyedPooledObjectFactory<WriterKey, WriterHolder>
+{
+    @Override
+    public WriterHolder create(WriterKey aKey) throws Exception
+    {
+        File targetFolder = createTempFile("webanno", "export");
+        targetFolder.delete();
+        targetFolder.mkdirs();
+
+        try {
+            // Reusable writers do not depend on the CAS, so we do not pass one here
+            AnalysisEngineDescription writer = aKey.getFormat()
+                    .getWriterDescription(aKey.getProject(), aKey.getTypeSystem(), null);
+            addConfigurationParameters(writer,
+                    JCasFileWriter_ImplBase.PARAM_USE_DOCUMENT_ID, true,
+                    JCasFileWriter_ImplBase.PARAM_ESCAPE_FILENAME, false,
+                    JCasFileWriter_ImplBase.PARAM_TARGET_LOCATION, targetFolder,
+                    JCasFileWriter_ImplBase.PARAM_STRIP_EXTENSION, aKey.isStripExtension());
+            AnalysisEngine engine = createEngine(writer);
+            return new WriterHolder(aKey, engine, targetFolder);
+        }
+        catch (Exception e) {
+            forceDelete(targetFolder);
+            throw e;
+        }
+    }
+
+    @Override
+    public PooledObject<WriterHolder> wrap(WriterHolder aWriter)
+    {
+        return new DefaultPooledObject<WriterHolder>(aWriter);
+    }
+
+    @Override
+    public boolean validateObject(WriterKey aKey, PooledObject<WriterHolder> aP)
+    {
+        // A writer may only be reused if no output from a previous document is left over
+        File[] files = aP.getObject().getTargetFolder().listFiles();
+        return files != null && files.length == 0;
+    }
+
+    @Override
+    public void destroyObject(WriterKey aKey, PooledObject<WriterHolder> aP) throws Exception
+    {
+        try {
+            destroy(aP.getObject().getEngine());
+        }
+        finally {
+            File targetFolder = aP.getObject().getTargetFolder();
+            if (targetFolder.exists()) {
+                forceDelete(targetFolder);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import java.io.File;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+
+/**
+ * A writer engine together with the folder into which it writes. Since the target location of a
+ * writer is fixed when the writer is created, each pooled writer owns its own folder which must be
+ * emptied after every document before the writer is returned to the pool.
+ */
+public class WriterHolder
+{
+    private final WriterKey key;
+    private final AnalysisEngine engine;
+    private final File targetFolder;
+
+    public WriterHolder(WriterKey aKey, AnalysisEngine aEngine, File aTargetFolder)
+    {
+        key = aKey;
+        engine = aEngine;
+        targetFolder = aTargetFolder;
+    }
+
+    public WriterKey getKey()
+    {
+        return key;
+    }
+
+    public AnalysisEngine getEngine()
+    {
+        return engine;
+    }
+
+    public File getTargetFolder()
+    {
+        return targetFolder;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.DEFAULT_STYLE).append("key", key)
+                .append("targetFolder", targetFolder).toString();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import java.util.Objects;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.uima.resource.metadata.FeatureDescription;
+import org.apache.uima.resource.metadata.TypeDescription;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+
+/**
+ * Identifies a pooled writer engine. Writers are interchangeable if they were created for the same
+ * format, project and export type system and with the same extension stripping setting.
+ */
+public class WriterKey
+{
+    private final String formatId;
+    private final long projectId;
+    private final long typeSystemFingerprint;
+    private final boolean stripExtension;
+
+    // These are needed to create the writer, but they are not included when checking for equality
+    // or building a hash.
+    private final FormatSupport format;
+    private final Project project;
+    private final TypeSystemDescription typeSystem;
+
+    public WriterKey(FormatSupport aFormat, Project aProject, TypeSystemDescription aTypeSystem,
+            long aTypeSystemFingerprint, boolean aStripExtension)
+    {
+        format = aFormat;
+        formatId = aFormat.getId();
+        project = aProject;
+        projectId = aProject.getId();
+        typeSystem = aTypeSystem;
+        typeSystemFingerprint = aTypeSystemFingerprint;
+        stripExtension = aStripExtension;
+    }
+
+    public FormatSupport getFormat()
+    {
+        return format;
+    }
+
+    public Project getProject()
+    {
+        return project;
+    }
+
+    public TypeSystemDescription getTypeSystem()
+    {
+        return typeSystem;
+    }
+
+    public boolean isStripExtension()
+    {
+        return stripExtension;
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (!(other instanceof WriterKey)) {
+            return false;
+        }
+        WriterKey castOther = (WriterKey) other;
+        return new EqualsBuilder().append(formatId, castOther.formatId)
+                .append(projectId, castOther.projectId)
+                .append(typeSystemFingerprint, castOther.typeSystemFingerprint)
+                .append(stripExtension, castOther.stripExtension).isEquals();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return new HashCodeBuilder().append(formatId).append(projectId)
+                .append(typeSystemFingerprint).append(stripExtension).toHashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
+                .append("f", formatId)
+                .append("p", projectId)
+                .append("ts", Long.toHexString(typeSystemFingerprint))
+                .append("s", stripExtension).toString();
+    }
+
+    /**
+     * Calculates a fingerprint of the types and features in the given type system. A writer that
+     * was created for a type system with a different fingerprint is not reused.
+     * 
+     * @param aTypeSystem
+     *            the type system.
+     * @return the fingerprint.
+     */
+    public static long fingerprint(TypeSystemDescription aTypeSystem)
+    {
+        long hash = 17;
+        for (TypeDescription type : aTypeSystem.getTypes()) {
+            hash = 31 * hash + Objects.hash(type.getName(), type.getSupertypeName());
+            for (FeatureDescription feature : type.getFeatures()) {
+                hash = 31 * hash + Objects.hash(feature.getName(), feature.getRangeTypeName(),
+                        feature.getElementType());
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.segmentation;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.createSentence;
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.createToken;
+import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectSentences;
+import static de.tudarmstadt.ukp.clarin.webanno.api.dao.ImportExportServiceImpl.trimChar;
+import static java.util.stream.Collectors.toList;
+
+import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.DocumentImportProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.segmentation.SegmentationSupport;
+
+/**
+ * Built-in segmentation based on the Java {@link BreakIterator}. The iterators operate directly on
+ * the document text using character offsets, so no substrings are created for the sentences.
+ * <p>
+ * Very large documents can optionally be segmented concurrently. For sentence splitting, the text
+ * is cut into chunks just after line breaks. The sentence iterator always breaks after a line
+ * break, so this produces the same sentences as processing the text in one go. Tokenization is
+ * independent for every sentence anyway.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BreakIteratorSegmentationSupport
+    implements SegmentationSupport
+{
+    private static final Locale LOCALE = Locale.US;
+    
+    private final boolean parallel;
+    private final int parallelThreshold;
+
+    public BreakIteratorSegmentationSupport()
+    {
+        this(new DocumentImportProperties());
+    }
+    
+    @Autowired
+    public BreakIteratorSegmentationSupport(DocumentImportProperties aProperties)
+    {
+        parallel = aProperties.isParallel();
+        parallelThreshold = aProperties.getParallelSegmentationThreshold();
+    }
+
+    @Override
+    public void splitSentences(CAS aCas)
+    {
+        String text = aCas.getDocumentText();
+        if (text == null) {
+            return;
+        }
+        
+        List<Spans> chunks;
+        if (isParallel(text)) {
+            int[] boundaries = chunkBoundaries(text);
+            chunks = IntStream.range(0, boundaries.length - 1).parallel()
+                    .mapToObj(i -> sentenceSpans(text, boundaries[i], boundaries[i + 1]))
+                    .collect(toList());
+        }
+        else {
+            chunks = Arrays.asList(sentenceSpans(text, 0, text.length()));
+        }
+        
+        for (Spans spans : chunks) {
+            for (int i = 0; i < spans.size(); i++) {
+                aCas.addFsToIndexes(createSentence(aCas, spans.begin(i), spans.end(i)));
+            }
+        }
+    }
+
+    @Override
+    public void tokenize(CAS aCas)
+    {
+        String text = aCas.getDocumentText();
+        if (text == null) {
+            return;
+        }
+        
+        List<AnnotationFS> sentences = new ArrayList<>(selectSentences(aCas));
+        
+        List<Spans> chunks;
+        if (isParallel(text) && sentences.size() > 1) {
+            int chunkCount = Math.min(sentences.size(),
+                    Math.max(1, text.length() / (parallelThreshold / 4 + 1)));
+            chunks = IntStream.range(0, chunkCount).parallel()
+                    .mapToObj(i -> tokenSpans(text, sentences.subList(
+                            i * sentences.size() / chunkCount,
+                            (i + 1) * sentences.size() / chunkCount)))
+                    .collect(toList());
+        }
+        else {
+            chunks = Arrays.asList(tokenSpans(text, sentences));
+        }
+
+        for (Spans spans : chunks) {
+            for (int i = 0; i < spans.size(); i++) {
+                aCas.addFsToIndexes(createToken(aCas, spans.begin(i), spans.end(i)));
+            }
+        }
+    }
+    
+    private boolean isParallel(String aText)
+    {
+        return parallel && parallelThreshold > 0 && aText.length() >= parallelThreshold;
+    }
+    
+    /**
+     * Cuts the text into chunks of roughly a quarter of the parallel threshold. Each chunk except
+     * the last ends just after a line break.
+     */
+    private int[] chunkBoundaries(String aText)
+    {
+        int targetSize = Math.max(1, parallelThreshold / 4);
+        
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int pos = targetSize;
+        while (pos < aText.length()) {
+            int lineBreak = aText.indexOf('\n', pos);
+            if (lineBreak == -1) {
+                break;
+            }
+            boundaries.add(lineBreak + 1);
+            pos = lineBreak + 1 + targetSize;
+        }
+        if (boundaries.get(boundaries.size() - 1) < aText.length()) {
+            boundaries.add(aText.length());
+        }
+        
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Spans sentenceSpans(String aText, int aBegin, int aEnd)
+    {
+        Spans spans = new Spans();
+        BreakIterator bi = BreakIterator.getSentenceInstance(LOCALE);
+        bi.setText(new StringCharacterIterator(aText, aBegin, aEnd, aBegin));
+        addSpans(aText, bi, spans);
+        return spans;
+    }
+    
+    private static Spans tokenSpans(String aText, List<AnnotationFS> aSentences)
+    {
+        Spans spans = new Spans();
+        BreakIterator bi = BreakIterator.getWordInstance(LOCALE);
+        for (AnnotationFS s : aSentences) {
+            bi.setText(new StringCharacterIterator(aText, s.getBegin(), s.getEnd(),
+                    s.getBegin()));
+            addSpans(aText, bi, spans);
+        }
+        return spans;
+    }
+    
+    private static void addSpans(String aText, BreakIterator aIterator, Spans aSpans)
+    {
+        int last = aIterator.first();
+        int cur = aIterator.next();
+        while (cur != BreakIterator.DONE) {
+            // Remove whitespace at the end and at the start
+            int end = cur;
+            while (end > last && trimChar(aText.charAt(end - 1))) {
+                end--;
+            }
+            int begin = last;
+            while (begin < end && trimChar(aText.charAt(begin))) {
+                begin++;
+            }
+            
+            if (begin < end) {
+                aSpans.add(begin, end);
+            }
+            
+            last = cur;
+            cur = aIterator.next();
+        }
+    }
+    
+    /**
+     * Begin/end offsets stored in a growing primitive array.
+     */
+    private static class Spans
+    {
+        private int[] offsets = new int[64];
+        private int size = 0;
+        
+        public void add(int aBegin, int aEnd)
+        {
+            if (2 * size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[2 * size] = aBegin;
+            offsets[2 * size + 1] = aEnd;
+            size++;
+        }
+        
+        public int size()
+        {
+            return size;
+        }
+        
+        public int begin(int aIndex)
+        {
+            return offsets[2 * aIndex];
+        }
+        
+        public int end(int aIndex)
+        {
+            return offsets[2 * aIndex + 1];
+        }
+    }
+}
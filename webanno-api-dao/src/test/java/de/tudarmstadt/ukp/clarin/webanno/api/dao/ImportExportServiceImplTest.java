@@ -153,7 +153,7 @@ public class ImportExportServiceImplTest
             }
         }
         finally {
-            exportedXmi.delete();
+            sut.deleteExportedFile(exportedXmi);
         }
         
         List<CASMetadata> result = new ArrayList<>(select(jcas2, CASMetadata.class));
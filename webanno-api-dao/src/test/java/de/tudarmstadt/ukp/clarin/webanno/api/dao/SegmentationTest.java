@@ -22,10 +22,12 @@ import static org.apache.uima.fit.util.CasUtil.toText;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.junit.Assert.assertEquals;
 
+import org.apache.uima.cas.CAS;
 import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.jcas.JCas;
 import org.junit.Test;
 
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.segmentation.BreakIteratorSegmentationSupport;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
@@ -54,4 +56,34 @@ public class SegmentationTest
         assertEquals(asList("i", "am", "one", ".", "i", "am", "two", "."),
                 toText(select(jcas, Token.class)));
     }
+    
+    @Test
+    public void testParallelSegmentationMatchesSerialSegmentation() throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Sentence number ").append(i).append(" is here. And another one");
+            text.append(i % 3 == 0 ? "\n" : " ").append("follows!\n\n");
+        }
+        
+        DocumentImportProperties properties = new DocumentImportProperties();
+        properties.setParallel(true);
+        properties.setParallelSegmentationThreshold(100);
+        
+        JCas serial = JCasFactory.createText(text.toString(), "en");
+        segment(new BreakIteratorSegmentationSupport(), serial.getCas());
+
+        JCas parallel = JCasFactory.createText(text.toString(), "en");
+        segment(new BreakIteratorSegmentationSupport(properties), parallel.getCas());
+        
+        assertEquals(toText(select(serial, Sentence.class)),
+                toText(select(parallel, Sentence.class)));
+        assertEquals(toText(select(serial, Token.class)), toText(select(parallel, Token.class)));
+    }
+    
+    private static void segment(BreakIteratorSegmentationSupport aSegmentation, CAS aCas)
+    {
+        aSegmentation.splitSentences(aCas);
+        aSegmentation.tokenize(aCas);
+    }
 }
@@ -21,19 +21,33 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.CORRECTION_USER
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.INITIAL_CAS_PSEUDO_USER;
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.PROJECT_TYPE_ANNOTATION;
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.PROJECT_TYPE_CORRECTION;
+import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.EXCLUSIVE_WRITE_ACCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static org.apache.commons.io.FilenameUtils.removeExtension;
+import static org.apache.uima.fit.factory.TypeSystemDescriptionFactory.createTypeSystemDescription;
+import static org.apache.uima.util.CasCreationUtils.mergeTypeSystems;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -45,16 +59,30 @@ import de.tudarmstadt.ukp.clarin.webanno.api.CasStorageService;
 import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ImportExportService;
 import de.tudarmstadt.ukp.clarin.webanno.api.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.AnnotationSchemaServiceImpl;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.BackupProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.CasMetadataUtils;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.CasStorageServiceImpl;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.ImportExportServiceImpl;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.casstorage.CasStorageSession;
+import de.tudarmstadt.ukp.clarin.webanno.api.dao.export.ProjectExportProperties;
 import de.tudarmstadt.ukp.clarin.webanno.api.dao.export.ProjectExportServiceImpl;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectImportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedProject;
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedSourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
+import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.xmi.XmiFormatSupport;
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
 public class AnnotationDocumentsExporterTest
 {
@@ -67,6 +95,7 @@ public class AnnotationDocumentsExporterTest
     
     private @Mock DocumentService documentService;
     private @Mock AnnotationSchemaService schemaService;
+    private @Mock UserDao userRepository;
     
     private Project project;
     private File workFolder;
@@ -116,6 +145,83 @@ public class AnnotationDocumentsExporterTest
                 .containsExactlyInAnyOrder(INITIAL_CAS_PSEUDO_USER, "admin");
     }
     
+    @Test
+    public void thatParallelImportingAnnotationProjectWorks_3_6_1() throws Exception
+    {
+        ProjectExportProperties properties = new ProjectExportProperties();
+        properties.setParallel(true);
+        properties.setThreads(2);
+        sut = new AnnotationDocumentExporter(documentService, null, importExportSerivce,
+                repositoryProperties, properties);
+        
+        project.setMode(PROJECT_TYPE_ANNOTATION);
+        
+        List<Pair<SourceDocument, String>> imported = runImportAndFetchDocuments(new ZipFile(
+                "src/test/resources/exports/Export+Test+-+Curated+annotation+project_3_6_1.zip"));
+
+        assertThat(imported).extracting(Pair::getValue)
+                .containsExactlyInAnyOrder(INITIAL_CAS_PSEUDO_USER, "admin");
+    }
+    
+    @Test
+    public void thatParallelExportKeepsAnnotationsOfSameAnnotatorApart() throws Exception
+    {
+        // The real schema service is needed to produce the export type system
+        AnnotationSchemaService exportSchemaService = spy(new AnnotationSchemaServiceImpl());
+        doReturn(emptyList()).when(exportSchemaService).listAnnotationLayer(any());
+        doReturn(emptyList()).when(exportSchemaService).listAnnotationFeature((Project) any());
+        importExportSerivce = new ImportExportServiceImpl(repositoryProperties,
+                asList(new XmiFormatSupport(), new WebAnnoTsv3FormatSupport()), casStorageService,
+                exportSchemaService);
+        
+        ProjectExportProperties properties = new ProjectExportProperties();
+        properties.setParallel(true);
+        properties.setThreads(4);
+        sut = new AnnotationDocumentExporter(documentService, userRepository,
+                importExportSerivce, repositoryProperties, properties);
+        
+        project.setMode(PROJECT_TYPE_ANNOTATION);
+        
+        // All documents are annotated by the same annotator, so the exported files of all the
+        // documents have the same name
+        List<SourceDocument> docs = new ArrayList<>();
+        List<AnnotationDocument> annDocs = new ArrayList<>();
+        try (CasStorageSession session = CasStorageSession.open()) {
+            for (int i = 0; i < 8; i++) {
+                SourceDocument doc = makeSourceDocument("doc-" + i + ".txt");
+                docs.add(doc);
+                annDocs.add(makeAnnotationDocument(doc, "annotator"));
+                
+                casStorageService.writeCas(doc, makeCas(session, "Document " + i + " ."),
+                        INITIAL_CAS_PSEUDO_USER);
+                casStorageService.writeCas(doc, makeCas(session, "Document " + i + " ."),
+                        "annotator");
+            }
+        }
+        
+        when(documentService.listSourceDocuments(project)).thenReturn(docs);
+        when(documentService.listAnnotationDocuments(project)).thenReturn(annDocs);
+        when(documentService.existsInitialCas(any())).thenReturn(true);
+        when(documentService.getCasFile(any(), any())).then(invocation -> casStorageService
+                .getCasFile(invocation.getArgument(0), invocation.getArgument(1)));
+        when(userRepository.get(any())).then(invocation -> new User(invocation.getArgument(0)));
+        
+        File exportFile = new File(workFolder, "export.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(exportFile))) {
+            sut.exportData(new ProjectExportRequest(project, WebAnnoTsv3FormatSupport.ID, true),
+                    new ProjectExportTaskMonitor(), new ExportedProject(), zos);
+        }
+        
+        try (ZipFile zip = new ZipFile(exportFile)) {
+            for (int i = 0; i < docs.size(); i++) {
+                ZipEntry entry = zip.getEntry("annotation/doc-" + i + ".txt/annotator.tsv");
+                assertThat(entry).as("Export of document %d", i).isNotNull();
+                assertThat(IOUtils.toString(zip.getInputStream(entry), UTF_8))
+                        .contains("#Text=Document " + i + " .");
+            }
+        }
+    }
+    
     @Test
     public void thatImportingCorrectionProjectWorks_3_6_1() throws Exception
     {
@@ -150,6 +256,42 @@ public class AnnotationDocumentsExporterTest
         assertThat(imported).extracting(Pair::getValue)
                 .containsExactlyInAnyOrder(INITIAL_CAS_PSEUDO_USER, "admin");
     }    
+    private SourceDocument makeSourceDocument(String aName)
+    {
+        SourceDocument doc = new SourceDocument();
+        doc.setId(nextDocId++);
+        doc.setName(aName);
+        doc.setProject(project);
+        return doc;
+    }
+    
+    private AnnotationDocument makeAnnotationDocument(SourceDocument aDocument, String aUser)
+    {
+        AnnotationDocument annDoc = new AnnotationDocument();
+        annDoc.setName(aDocument.getName());
+        annDoc.setProject(project);
+        annDoc.setDocument(aDocument);
+        annDoc.setUser(aUser);
+        annDoc.setState(AnnotationDocumentState.FINISHED);
+        return annDoc;
+    }
+    
+    private CAS makeCas(CasStorageSession aSession, String aText) throws Exception
+    {
+        JCas jcas = JCasFactory.createJCas(mergeTypeSystems(asList(
+                createTypeSystemDescription(), CasMetadataUtils.getInternalTypeSystem())));
+        aSession.add(aText + "@" + jcas.hashCode(), EXCLUSIVE_WRITE_ACCESS, jcas.getCas());
+        jcas.setDocumentText(aText);
+        DocumentMetaData.create(jcas);
+        new Sentence(jcas, 0, aText.length()).addToIndexes();
+        int begin = 0;
+        for (String token : aText.split(" ")) {
+            new Token(jcas, begin, begin + token.length()).addToIndexes();
+            begin += token.length() + 1;
+        }
+        return jcas.getCas();
+    }
+    
     private List<Pair<SourceDocument, String>> runImportAndFetchDocuments(ZipFile aZipFile)
         throws Exception
     {
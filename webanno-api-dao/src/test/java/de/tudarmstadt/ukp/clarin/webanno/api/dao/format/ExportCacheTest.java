@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.dao.format;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
+
+public class ExportCacheTest
+{
+    public @Rule TemporaryFolder testFolder = new TemporaryFolder();
+    
+    private SourceDocument document;
+    private ExportCache sut;
+    
+    @Before
+    public void setup() throws Exception
+    {
+        document = new SourceDocument();
+        document.setId(1l);
+        
+        sut = new ExportCache(testFolder.newFolder("cache"), 10);
+    }
+    
+    @Test
+    public void thatCachedExportIsReturned() throws Exception
+    {
+        sut.put(key(1000l), export("doc.tsv", "12345"));
+        
+        Optional<File> cached = sut.get(key(1000l));
+        
+        assertThat(cached).isPresent();
+        assertThat(cached.get()).hasName("doc.tsv");
+        assertThat(FileUtils.readFileToString(cached.get(), UTF_8)).isEqualTo("12345");
+        
+        FileUtils.forceDelete(cached.get().getParentFile());
+    }
+    
+    @Test
+    public void thatEachRetrievalGetsItsOwnCopy() throws Exception
+    {
+        sut.put(key(1000l), export("doc.tsv", "12345"));
+        
+        File copy1 = sut.get(key(1000l)).get();
+        File copy2 = sut.get(key(1000l)).get();
+        
+        assertThat(copy1).hasName("doc.tsv");
+        assertThat(copy2).hasName("doc.tsv");
+        assertThat(copy1.getParentFile()).isNotEqualTo(copy2.getParentFile());
+        
+        // Deleting one copy must not affect the other one
+        FileUtils.forceDelete(copy1.getParentFile());
+        assertThat(FileUtils.readFileToString(copy2, UTF_8)).isEqualTo("12345");
+        
+        FileUtils.forceDelete(copy2.getParentFile());
+    }
+    
+    @Test
+    public void thatModifiedCasIsNotServedFromCache() throws Exception
+    {
+        sut.put(key(1000l), export("doc.tsv", "12345"));
+        
+        assertThat(sut.get(key(2000l))).isEmpty();
+    }
+    
+    @Test
+    public void thatLeastRecentlyUsedExportIsEvicted() throws Exception
+    {
+        sut.put(key(1l), export("doc.tsv", "1111"));
+        sut.put(key(2l), export("doc.tsv", "2222"));
+        
+        // Use the first export so the second one becomes the least recently used
+        FileUtils.forceDelete(sut.get(key(1l)).get().getParentFile());
+        
+        sut.put(key(3l), export("doc.tsv", "3333"));
+        
+        assertThat(sut.get(key(2l))).isEmpty();
+        FileUtils.forceDelete(sut.get(key(1l)).get().getParentFile());
+        FileUtils.forceDelete(sut.get(key(3l)).get().getParentFile());
+    }
+    
+    @Test
+    public void thatExportLargerThanCacheIsNotCached() throws Exception
+    {
+        sut.put(key(1l), export("doc.tsv", "12345678901"));
+        
+        assertThat(sut.get(key(1l))).isEmpty();
+    }
+    
+    private ExportCacheKey key(long aCasTimestamp)
+    {
+        return new ExportCacheKey(document, "user", new WebAnnoTsv3FormatSupport(), "doc.tsv",
+                true, aCasTimestamp, 0);
+    }
+    
+    private File export(String aName, String aContent) throws Exception
+    {
+        File file = new File(testFolder.newFolder(), aName);
+        FileUtils.writeStringToFile(file, aContent, UTF_8);
+        return file;
+    }
+}
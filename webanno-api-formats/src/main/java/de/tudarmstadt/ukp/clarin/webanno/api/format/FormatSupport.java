@@ -58,6 +58,19 @@ public interface FormatSupport
         return false;
     }
 
+    /**
+     * @return whether the writer returned by {@link #getWriterDescription} depends only on the
+     *         project and its type system, but not on the CAS being written. In this case, the
+     *         writer may be created once (passing {@code null} as the CAS) and then be reused to
+     *         write many documents. The writer must support this: every document is passed to
+     *         {@code process} followed by {@code collectionProcessComplete}, and then the next
+     *         document is written.
+     */
+    default boolean isWriterReusable()
+    {
+        return false;
+    }
+
     /**
      * @return a UIMA reader description.
      */
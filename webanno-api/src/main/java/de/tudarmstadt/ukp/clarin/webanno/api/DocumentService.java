@@ -23,12 +23,16 @@ import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import javax.persistence.NoResultException;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CAS;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode;
@@ -177,6 +181,23 @@ public interface DocumentService
             TypeSystemDescription aFullProjectTypeSystem)
         throws IOException, UIMAException;
 
+    /**
+     * Upload multiple SourceDocuments at once. The documents are stored in the given order, but
+     * depending on the configuration, they may be converted concurrently. A document which cannot
+     * be imported does not prevent the remaining documents from being imported.
+     *
+     * @param aDocuments
+     *            the source documents to create, each along with the source of its content.
+     * @param aFullProjectTypeSystem
+     *            the project type system. If this parameter is {@code null}, then the type
+     *            system is resolved for every document which is considerably slower.
+     * @return the names of the documents which could not be imported along with the reason.
+     */
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_USER','ROLE_REMOTE')")
+    Map<String, Exception> uploadSourceDocuments(
+            List<Pair<SourceDocument, InputStreamSource>> aDocuments,
+            TypeSystemDescription aFullProjectTypeSystem);
+
     /**
      * Get the directory of this {@link SourceDocument} usually to read the content of the document
      *
@@ -412,6 +433,21 @@ public interface DocumentService
             CasAccessMode aMode)
         throws IOException;
 
+    /**
+     * Reads the existing CAS of the given annotation document in the background and applies the
+     * given function to it. The CAS is obtained through the shared read-only cache, so the
+     * function must not modify it and must not keep any references to it. The CAS is not
+     * upgraded and it is not created if it does not exist yet.
+     *
+     * @param aAnnotationDocument
+     *            the annotation document.
+     * @param aFunction
+     *            the function to apply to the CAS.
+     * @return the result of the function.
+     */
+    <T> Future<T> readAnnotationCasAsync(AnnotationDocument aAnnotationDocument,
+            Function<CAS, T> aFunction);
+
     /**
      * Read the initial CAS for the given document. If the CAS does not exist then it is created. 
      * This method does not perform an upgrade of the type system in the CAS.
@@ -22,11 +22,13 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CAS;
+import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
@@ -131,6 +133,26 @@ public interface ImportExportService
             TypeSystemDescription aFullProjectTypeSystem)
                     throws UIMAException, IOException;
 
+    /**
+     * Convert a file to a CAS in the background. This is meant for bulk-imports where many files
+     * are converted using the same project type system. If parallel conversion is disabled, the
+     * file is converted immediately and the returned future is already completed.
+     *
+     * @param aFile
+     *            the file.
+     * @param aProject
+     *            the project to which this file belongs (required to get the type system).
+     * @param aFormatId
+     *            ID of a supported file format
+     * @param aFullProjectTypeSystem
+     *            the project type system. Passing the same instance for all files of a batch
+     *            allows the compiled type system to be shared by all the CASes created.
+     * @return the future CAS. If the conversion fails, the future fails with an
+     *         {@link UIMAException} or {@link IOException}.
+     */
+    Future<CAS> importCasFromFileAsync(File aFile, Project aProject, String aFormatId,
+            TypeSystemDescription aFullProjectTypeSystem);
+
     /**
      * Exports the given CAS to a file on disk. 
      * 
@@ -187,4 +209,44 @@ public interface ImportExportService
             String fileName, Mode mode, boolean stripExtension,
             Map<Pair<Project, String>, Object> aBulkOperationContext)
         throws UIMAException, IOException, ClassNotFoundException;
+    
+    /**
+     * Looks up all the project-level information needed to export the documents of the given
+     * project and stores it in the bulk operation context. Afterwards, exports using this context
+     * no longer need to access the database, so the context can be handed to export workers
+     * running in other threads.
+     *
+     * @param aProject
+     *            the project.
+     * @param aBulkOperationContext
+     *            the bulk operation context to populate.
+     * @throws ResourceInitializationException
+     *             if the export type system could not be created.
+     */
+    void prepareBulkExport(Project aProject,
+            Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws ResourceInitializationException;
+    
+    /**
+     * Derives a revision of the layer configuration of the given project. The revision changes
+     * whenever the layer configuration changes in a way that affects the exported files. It can
+     * be combined with the timestamp of a CAS to tell whether a previous export of the CAS is
+     * still up to date.
+     *
+     * @param aProject
+     *            the project.
+     * @return the revision.
+     */
+    long getLayerConfigurationRevision(Project aProject);
+    
+    /**
+     * Deletes a file obtained from one of the export methods, including the temporary folder
+     * created to hold it.
+     *
+     * @param aFile
+     *            the exported file.
+     * @throws IOException
+     *             if the file could not be deleted.
+     */
+    void deleteExportedFile(File aFile) throws IOException;
 }
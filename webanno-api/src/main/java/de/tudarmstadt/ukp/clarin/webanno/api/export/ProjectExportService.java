@@ -19,6 +19,7 @@ package de.tudarmstadt.ukp.clarin.webanno.api.export;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.ZipFile;
 
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
@@ -31,6 +32,14 @@ public interface ProjectExportService
     File exportProject(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor)
         throws ProjectExportException, IOException;
     
+    /**
+     * Exports the project as a ZIP archive directly into the given stream, e.g. a HTTP response.
+     * No files are staged on disk in the process. The stream is not closed.
+     */
+    void exportProject(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
+            OutputStream aOutputStream)
+        throws ProjectExportException, IOException;
+    
     ProjectExportTaskHandle startProjectExportTask(ProjectExportRequest aModel, String aUsername);
 
     ProjectExportRequest getExportRequest(ProjectExportTaskHandle aHandle);
@@ -41,4 +50,17 @@ public interface ProjectExportService
 
     ProjectExportTaskHandle startProjectExportCuratedDocumentsTask(ProjectExportRequest aRequest,
             String aUsername);
+    
+    /**
+     * Imports the given project archive in the background. The archive is deleted once the import
+     * is complete.
+     */
+    ProjectExportTaskHandle startProjectImportTask(ProjectImportRequest aRequest, File aZipFile,
+            String aUsername);
+    
+    /**
+     * @return the project created by the given import task or {@code null} if the task is not an
+     *         import task or if it has not completed (yet).
+     */
+    Project getImportedProject(ProjectExportTaskHandle aHandle);
 }
@@ -44,6 +44,15 @@ public class ProjectExportTaskHandle
         runId = NEXT_ID.getAndIncrement();
         instanceId = INSTANCE_ID;
     }
+    
+    /**
+     * @return the id of the task within the current instance, e.g. to refer to the task from
+     *         outside the application.
+     */
+    public long getRunId()
+    {
+        return runId;
+    }
 
     
     @Override
@@ -94,7 +94,7 @@ public class ProjectExportTaskMonitor
         progress = aProgress;
     }
 
-    public void addMessage(LogMessage aMessage)
+    public synchronized void addMessage(LogMessage aMessage)
     {
         // Avoid repeating the same message over for different users
         if (!messages.contains(aMessage)) {
@@ -17,11 +17,10 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.api.export;
 
-import java.io.File;
 import java.util.Collections;
 import java.util.List;
-import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import de.tudarmstadt.ukp.clarin.webanno.export.model.ExportedProject;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
@@ -36,23 +35,15 @@ public interface ProjectExporter
         return Collections.emptyList();
     }
     
+    /**
+     * Exports the project data directly into the export archive. The exporter must not close the
+     * archive.
+     */
     void exportData(ProjectExportRequest aRequest, ProjectExportTaskMonitor aMonitor,
-            ExportedProject aExProject, File aStage)
+            ExportedProject aExProject, ZipOutputStream aStage)
         throws Exception;
 
     void importData(ProjectImportRequest aRequest, Project aProject, ExportedProject aExProject,
             ZipFile aZip)
         throws Exception;
-    
-    static String normalizeEntryName(ZipEntry aEntry)
-    {
-        // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
-        String entryName = aEntry.toString();
-        if (entryName.startsWith("/")) {
-            entryName = entryName.substring(1);
-        }
-       
-        return entryName;
-    }
-
 }
@@ -31,7 +31,7 @@ public class ProjectImportRequest
 
     public static final String FORMAT_AUTO = "AUTO";
 
-    public int progress = 0;
+    private int progress = 0;
 
     private final Queue<String> messages = new ConcurrentLinkedQueue<>();
     
@@ -65,6 +65,16 @@ public class ProjectImportRequest
         manager = aManager;
     }
 
+    public synchronized int getProgress()
+    {
+        return progress;
+    }
+
+    public synchronized void setProgress(int aProgress)
+    {
+        progress = aProgress;
+    }
+
     public void addMessage(String aMessage)
     {
         // Avoid repeating the same message over for different users
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.api.segmentation;
+
+import org.apache.uima.cas.CAS;
+
+/**
+ * Adds sentences and tokens to documents which are imported without them. The supports are
+ * consulted in order and the first one which accepts a CAS is used to segment it. Use
+ * {@link org.springframework.core.annotation.Order} to place a custom support before the
+ * built-in one.
+ */
+public interface SegmentationSupport
+{
+    /**
+     * @param aCas
+     *            the CAS to segment.
+     * @return whether this support can segment the given CAS, e.g. depending on its language.
+     */
+    default boolean accepts(CAS aCas)
+    {
+        return true;
+    }
+
+    /**
+     * Adds sentence annotations covering the document text.
+     * 
+     * @param aCas
+     *            the CAS to segment.
+     */
+    void splitSentences(CAS aCas);
+
+    /**
+     * Adds token annotations within the existing sentence annotations.
+     * 
+     * @param aCas
+     *            the CAS to segment.
+     */
+    void tokenize(CAS aCas);
+}
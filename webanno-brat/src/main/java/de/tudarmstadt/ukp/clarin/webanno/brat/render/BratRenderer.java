@@ -18,8 +18,6 @@
 package de.tudarmstadt.ukp.clarin.webanno.brat.render;
 
 import static de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst.CHAIN_TYPE;
-import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.TypeUtil.getUiHoverText;
-import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.TypeUtil.getUiLabelText;
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectAnnotationByAddr;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -50,12 +48,13 @@ import org.slf4j.LoggerFactory;
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.adapter.TypeAdapter;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringRules;
-import de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringRulesTrait;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.coloring.ColoringStrategy;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorState;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.VID;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging.Unit;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.LabelTemplate;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.LabelTemplateService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VAnnotationMarker;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VArc;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VComment;
@@ -103,11 +102,14 @@ public class BratRenderer
     
     private final AnnotationSchemaService schemaService;
     private final ColoringService coloringService;
+    private final LabelTemplateService labelTemplateService;
     
-    public BratRenderer(AnnotationSchemaService aSchemaService, ColoringService aColoringService)
+    public BratRenderer(AnnotationSchemaService aSchemaService, ColoringService aColoringService,
+            LabelTemplateService aLabelTemplateService)
     {
         schemaService = aSchemaService;
         coloringService = aColoringService;
+        labelTemplateService = aLabelTemplateService;
     }
 
     public void render(GetDocumentResponse aResponse, AnnotatorState aState,
@@ -142,6 +144,7 @@ public class BratRenderer
         
         // Render visible (custom) layers
         Map<String[], Queue<String>> colorQueues = new HashMap<>();
+        StringBuilder labelBuffer = new StringBuilder();
         for (AnnotationLayer layer : schemaService.listAnnotationLayer(aState.getProject())) {
             ColoringStrategy coloringStrategy = aColoringStrategy != null ? aColoringStrategy
                     : coloringService.getStrategy(layer, aState.getPreferences(), colorQueues);
@@ -155,9 +158,9 @@ public class BratRenderer
             }
 
             TypeAdapter typeAdapter = schemaService.getAdapter(layer);
+            LabelTemplate labelTemplate = labelTemplateService.getTemplate(layer);
             
-            ColoringRules coloringRules = typeAdapter.getTraits(ColoringRulesTrait.class)
-                    .map(ColoringRulesTrait::getColoringRules).orElse(null);
+            ColoringRules coloringRules = coloringService.getColoringRules(typeAdapter);
             
             for (VSpan vspan : aVDoc.spans(layer.getId())) {
                 List<Offsets> offsets = vspan.getRanges().stream()
@@ -168,8 +171,9 @@ public class BratRenderer
                                 range.getBegin(), range.getEnd()).stream())
                         .collect(toList());
                 
-                String labelText = getUiLabelText(typeAdapter, vspan);
-                String hoverText = getUiHoverText(typeAdapter, vspan.getHoverFeatures());
+                String labelText = labelTemplate.renderLabel(vspan, labelBuffer);
+                String hoverText = labelTemplate.renderHover(vspan.getHoverFeatures(),
+                        labelBuffer);
                 
                 String color = coloringStrategy.getColor(vspan, labelText, coloringRules);
                 
@@ -186,7 +190,7 @@ public class BratRenderer
             }
 
             for (VArc varc : aVDoc.arcs(layer.getId())) {
-                String bratLabelText = getUiLabelText(typeAdapter, varc);
+                String bratLabelText = labelTemplate.renderLabel(varc, labelBuffer);
                 String color = coloringStrategy.getColor(varc, bratLabelText, coloringRules);
 
                 aResponse.addRelation(new Relation(varc.getVid(), varc.getType(),
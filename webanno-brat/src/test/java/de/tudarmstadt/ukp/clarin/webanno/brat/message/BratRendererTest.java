@@ -59,6 +59,7 @@ import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorState;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorStateImpl;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging.LineOrientedPagingStrategy;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.paging.SentenceOrientedPagingStrategy;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.LabelTemplateServiceImpl;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.PreRenderer;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.PreRendererImpl;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VDocument;
@@ -173,7 +174,8 @@ public class BratRendererTest
 
         GetDocumentResponse response = new GetDocumentResponse();
         BratRenderer renderer = new BratRenderer(schemaService,
-                new ColoringServiceImpl(schemaService));
+                new ColoringServiceImpl(schemaService),
+                new LabelTemplateServiceImpl(schemaService));
         renderer.render(response, state, vdoc, cas);
 
         JSONUtil.generatePrettyJson(response, new File(jsonFilePath));
@@ -211,7 +213,8 @@ public class BratRendererTest
 
         GetDocumentResponse response = new GetDocumentResponse();
         BratRenderer renderer = new BratRenderer(schemaService,
-                new ColoringServiceImpl(schemaService));
+                new ColoringServiceImpl(schemaService),
+                new LabelTemplateServiceImpl(schemaService));
         renderer.render(response, state, vdoc, cas);
 
         JSONUtil.generatePrettyJson(response, new File(jsonFilePath));
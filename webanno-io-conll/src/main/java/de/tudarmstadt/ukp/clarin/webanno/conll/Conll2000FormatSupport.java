@@ -63,6 +63,12 @@ public class Conll2000FormatSupport
         return true;
     }
 
+    @Override
+    public boolean isWriterReusable()
+    {
+        return true;
+    }
+
     @Override
     public CollectionReaderDescription getReaderDescription(TypeSystemDescription aTSD)
         throws ResourceInitializationException
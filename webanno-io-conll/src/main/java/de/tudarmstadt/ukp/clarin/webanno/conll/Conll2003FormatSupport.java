@@ -64,6 +64,12 @@ public class Conll2003FormatSupport
         return true;
     }
 
+    @Override
+    public boolean isWriterReusable()
+    {
+        return true;
+    }
+
     @Override
     public CollectionReaderDescription getReaderDescription(TypeSystemDescription aTSD)
         throws ResourceInitializationException
@@ -17,26 +17,25 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.text;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.CharBuffer;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.TypeCapability;
 import org.apache.uima.jcas.JCas;
-import org.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 
 /**
- * UIMA collection reader for plain text files, one sentence per line.
+ * UIMA collection reader for plain text files, one sentence per line. The sentences are created
+ * while the text is being decoded.
  */
 @TypeCapability(
         outputs = {
-                "de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData"})
+                "de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData",
+                "de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence"})
 public class LineOrientedTextReader
-    extends JCasResourceCollectionReader_ImplBase
+    extends TextReader_ImplBase
 {
     @Override
     public void getNext(JCas aJCas)
@@ -45,42 +44,23 @@ public class LineOrientedTextReader
         Resource res = nextFile();
         initCas(aJCas, res);
 
-        try (InputStream is = new BufferedInputStream(res.getInputStream())) {
-            aJCas.setDocumentText(IOUtils.toString(is, "UTF-8"));
-        }
-
-        String t = aJCas.getDocumentText();
-        int start = 0;
-        int end = t.indexOf('\n');
-        while (end >= 0) {
-            createSentence(aJCas, start, end);
-            start = end + 1;
-            if (start < t.length()) {
-                end = t.indexOf('\n', start);
-            }
-            else {
-                end = -1;
-            }
-        }
-
-        if (start < t.length()) {
-            createSentence(aJCas, start, t.length());
-        }
+        LineScanner scanner = new LineScanner(aJCas);
+        String text = readText(res, scanner);
+        scanner.end();
+        
+        aJCas.setDocumentText(text);
     }
 
+    /**
+     * Creates a sentence annotation. The offsets have already been trimmed and the document
+     * text may not have been set yet.
+     */
     protected Sentence createSentence(final JCas aJCas, final int aBegin,
             final int aEnd)
     {
-        int[] span = new int[] { aBegin, aEnd };
-        trim(aJCas.getDocumentText(), span);
-        if (!isEmpty(span[0], span[1])) {
-            Sentence seg = new Sentence(aJCas, span[0], span[1]);
-            seg.addToIndexes(aJCas);
-            return seg;
-        }
-        else {
-            return null;
-        }
+        Sentence seg = new Sentence(aJCas, aBegin, aEnd);
+        seg.addToIndexes(aJCas);
+        return seg;
     }
     
     /**
@@ -127,4 +107,48 @@ public class LineOrientedTextReader
             return  Character.isWhitespace(aChar);
         }
     }
+
+    /**
+     * Tracks the first and last non-whitespace character of the current line across chunks and
+     * creates a sentence for each line which is not blank.
+     */
+    private class LineScanner
+        implements ChunkHandler
+    {
+        private final JCas jcas;
+        private int contentBegin = -1;
+        private int contentEnd = -1;
+
+        public LineScanner(JCas aJCas)
+        {
+            jcas = aJCas;
+        }
+
+        @Override
+        public void chunk(CharBuffer aChunk, int aOffset)
+        {
+            int length = aChunk.remaining();
+            for (int i = 0; i < length; i++) {
+                char c = aChunk.get(i);
+                if (c == '\n') {
+                    end();
+                }
+                else if (!trimChar(c)) {
+                    if (contentBegin < 0) {
+                        contentBegin = aOffset + i;
+                    }
+                    contentEnd = aOffset + i + 1;
+                }
+            }
+        }
+
+        public void end()
+        {
+            if (contentBegin >= 0) {
+                createSentence(jcas, contentBegin, contentEnd);
+            }
+            contentBegin = -1;
+            contentEnd = -1;
+        }
+    }
 }
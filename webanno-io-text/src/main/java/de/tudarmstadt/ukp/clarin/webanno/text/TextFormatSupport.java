@@ -25,7 +25,6 @@ import org.apache.uima.cas.CAS;
 import org.apache.uima.collection.CollectionReaderDescription;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
-import org.dkpro.core.io.text.TextReader;
 import org.dkpro.core.io.text.TextWriter;
 import org.springframework.stereotype.Component;
 
@@ -63,11 +62,17 @@ public class TextFormatSupport
         return true;
     }
 
+    @Override
+    public boolean isWriterReusable()
+    {
+        return true;
+    }
+
     @Override
     public CollectionReaderDescription getReaderDescription(TypeSystemDescription aTSD)
         throws ResourceInitializationException
     {
-        return createReaderDescription(TextReader.class, aTSD);
+        return createReaderDescription(PlainTextReader.class, aTSD);
     }
     
     @Override
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.text;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
+import org.dkpro.core.api.parameter.ComponentParameters;
+import org.dkpro.core.api.resources.CompressionUtils;
+
+import com.ibm.icu.text.CharsetDetector;
+import com.ibm.icu.text.CharsetMatch;
+
+/**
+ * Base class for readers of large plain text files. Files are memory-mapped (other resources are
+ * read as a stream) and decoded in chunks straight into the buffer that becomes the document text,
+ * so the text is not copied several times on the heap. Subclasses can inspect each decoded chunk,
+ * e.g. to create annotations while the file is being read. Compressed files and files for which
+ * the encoding is to be detected automatically are always read as a stream.
+ */
+public abstract class TextReader_ImplBase
+    extends JCasResourceCollectionReader_ImplBase
+{
+    /**
+     * Number of characters decoded at a time.
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Value for {@link #PARAM_SOURCE_ENCODING} which causes the encoding of each document to be
+     * detected automatically.
+     */
+    public static final String ENCODING_AUTO = "auto";
+
+    /**
+     * Character encoding of the input data. Use {@link #ENCODING_AUTO} to detect the encoding of
+     * each document automatically.
+     */
+    public static final String PARAM_SOURCE_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
+    @ConfigurationParameter(name = PARAM_SOURCE_ENCODING, mandatory = true, 
+            defaultValue = ComponentParameters.DEFAULT_ENCODING)
+    private String sourceEncoding;
+
+    /**
+     * Maximum size of a document in bytes. Larger documents are rejected. A negative value
+     * disables the limit.
+     */
+    public static final String PARAM_MAX_DOCUMENT_SIZE = "maxDocumentSize";
+    @ConfigurationParameter(name = PARAM_MAX_DOCUMENT_SIZE, mandatory = true, defaultValue = "-1")
+    private long maxDocumentSize;
+
+    /**
+     * Receives the document text chunk by chunk while it is being decoded.
+     */
+    @FunctionalInterface
+    protected interface ChunkHandler
+    {
+        /**
+         * @param aChunk
+         *            the decoded characters. The buffer is reused for the next chunk.
+         * @param aOffset
+         *            the offset of the first character of the chunk in the document text.
+         */
+        void chunk(CharBuffer aChunk, int aOffset);
+    }
+
+    /**
+     * Reads the text of the given resource.
+     * 
+     * @param aResource
+     *            the resource to read.
+     * @param aHandler
+     *            receives each decoded chunk (optional).
+     * @return the document text.
+     * @throws IOException
+     *             if the resource cannot be read or exceeds the maximum document size.
+     */
+    protected String readText(Resource aResource, ChunkHandler aHandler)
+        throws IOException
+    {
+        boolean autoEncoding = ENCODING_AUTO.equals(sourceEncoding);
+        
+        // Compressed files need to be decompressed by the resource input stream and detecting the
+        // encoding requires a stream which can be reset, so these files are not memory-mapped
+        if (!autoEncoding && aResource.getResource().isFile() && !isCompressed(aResource)) {
+            CharsetDecoder decoder = newDecoder(Charset.forName(sourceEncoding));
+            try (FileChannel channel = FileChannel.open(aResource.getResource().getFile().toPath(),
+                    READ)) {
+                long size = channel.size();
+                checkDocumentSize(aResource, size);
+                
+                // The text of a CAS cannot have more than Integer.MAX_VALUE characters anyway
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Document [" + aResource.getLocation() + "] has [" + size
+                            + "] bytes which is more than can be loaded into a single document");
+                }
+                
+                StringBuilder text = new StringBuilder(
+                        (int) Math.min(size * (double) decoder.maxCharsPerByte(),
+                                Integer.MAX_VALUE - 8));
+                ByteBuffer bytes = channel.map(READ_ONLY, 0, size);
+                decode(decoder, bytes, text, aHandler);
+                return text.toString();
+            }
+        }
+        
+        try (InputStream is = new BufferedInputStream(aResource.getInputStream())) {
+            CharsetDecoder decoder = newDecoder(
+                    autoEncoding ? detectEncoding(is) : Charset.forName(sourceEncoding));
+            ReadableByteChannel channel = Channels.newChannel(is);
+            ByteBuffer bytes = ByteBuffer.allocate(CHUNK_SIZE);
+            StringBuilder text = new StringBuilder(CHUNK_SIZE);
+            CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE);
+            long size = 0;
+            int read;
+            while ((read = channel.read(bytes)) >= 0) {
+                size += read;
+                checkDocumentSize(aResource, size);
+                bytes.flip();
+                decodeChunk(decoder, bytes, chars, false, text, aHandler);
+                bytes.compact();
+            }
+            bytes.flip();
+            decodeChunk(decoder, bytes, chars, true, text, aHandler);
+            flush(decoder, chars, text, aHandler);
+            return text.toString();
+        }
+    }
+
+    private static boolean isCompressed(Resource aResource)
+    {
+        String location = aResource.getLocation();
+        return !CompressionUtils.stripCompressionExtension(location).equals(location);
+    }
+
+    /**
+     * Detects the encoding from the start of the given stream. The stream is reset afterwards.
+     * If the encoding cannot be detected, UTF-8 is assumed.
+     */
+    private static Charset detectEncoding(InputStream aStream)
+        throws IOException
+    {
+        CharsetDetector detector = new CharsetDetector();
+        detector.setText(aStream);
+        CharsetMatch match = detector.detect();
+        return match != null ? Charset.forName(match.getName()) : UTF_8;
+    }
+
+    private static CharsetDecoder newDecoder(Charset aCharset)
+    {
+        return aCharset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private void checkDocumentSize(Resource aResource, long aSize)
+        throws IOException
+    {
+        if (maxDocumentSize >= 0 && aSize > maxDocumentSize) {
+            throw new IOException("Document [" + aResource.getLocation() + "] exceeds the maximum "
+                    + "document size of [" + maxDocumentSize + "] bytes");
+        }
+    }
+
+    private void decode(CharsetDecoder aDecoder, ByteBuffer aBytes, StringBuilder aText,
+            ChunkHandler aHandler)
+        throws IOException
+    {
+        CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE);
+        decodeChunk(aDecoder, aBytes, chars, true, aText, aHandler);
+        flush(aDecoder, chars, aText, aHandler);
+    }
+
+    private void decodeChunk(CharsetDecoder aDecoder, ByteBuffer aBytes, CharBuffer aChars,
+            boolean aEndOfInput, StringBuilder aText, ChunkHandler aHandler)
+        throws IOException
+    {
+        while (true) {
+            CoderResult result = aDecoder.decode(aBytes, aChars, aEndOfInput);
+            if (result.isOverflow()) {
+                emit(aChars, aText, aHandler);
+            }
+            else if (result.isUnderflow()) {
+                return;
+            }
+            else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void flush(CharsetDecoder aDecoder, CharBuffer aChars, StringBuilder aText,
+            ChunkHandler aHandler)
+        throws IOException
+    {
+        while (aDecoder.flush(aChars).isOverflow()) {
+            emit(aChars, aText, aHandler);
+        }
+        emit(aChars, aText, aHandler);
+    }
+
+    private void emit(CharBuffer aChars, StringBuilder aText, ChunkHandler aHandler)
+    {
+        aChars.flip();
+        if (aChars.hasRemaining()) {
+            int offset = aText.length();
+            aText.append(aChars);
+            if (aHandler != null) {
+                aHandler.chunk(aChars, offset);
+            }
+        }
+        aChars.clear();
+    }
+}
@@ -17,20 +17,35 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.text;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.uima.collection.CollectionReader;
 import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.jcas.JCas;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
 public class LineOrientedTextReaderTest
 {
+    public @Rule TemporaryFolder testFolder = new TemporaryFolder();
+    
     @Test
     public void test()
         throws Exception
@@ -47,4 +62,69 @@ public class LineOrientedTextReaderTest
         assertEquals(169, select(doc, Sentence.class).size());
         assertEquals(0, select(doc, Token.class).size());
     }
+
+    @Test
+    public void thatLinesSpanningSeveralChunksAreRead()
+        throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append("  Zeile ").append(i).append(" \u00e4\u20ac\r\n");
+            if (i % 100 == 0) {
+                text.append(" \t \n");
+            }
+        }
+        File file = testFolder.newFile("large.txt");
+        Files.write(file.toPath(), text.toString().getBytes(UTF_8));
+        assertTrue(text.length() > 2 * TextReader_ImplBase.CHUNK_SIZE);
+        
+        JCas doc = JCasFactory.createJCas();
+
+        CollectionReader reader = createReader(LineOrientedTextReader.class,
+                LineOrientedTextReader.PARAM_SOURCE_LOCATION, file.getPath());
+
+        reader.getNext(doc.getCas());
+        
+        List<Sentence> sentences = new ArrayList<>(select(doc, Sentence.class));
+        assertEquals(text.toString(), doc.getDocumentText());
+        assertEquals(20_000, sentences.size());
+        assertEquals("Zeile 0 \u00e4\u20ac", sentences.get(0).getCoveredText());
+        assertEquals("Zeile 19999 \u00e4\u20ac", sentences.get(19_999).getCoveredText());
+    }
+    
+    @Test
+    public void thatDocumentsExceedingMaximumSizeAreRejected()
+        throws Exception
+    {
+        JCas doc = JCasFactory.createJCas();
+
+        CollectionReader reader = createReader(LineOrientedTextReader.class,
+                LineOrientedTextReader.PARAM_SOURCE_LOCATION, "LICENSE.txt",
+                LineOrientedTextReader.PARAM_MAX_DOCUMENT_SIZE, 1024);
+
+        IOException e = assertThrows(IOException.class, () -> reader.getNext(doc.getCas()));
+        assertTrue(e.getMessage().contains("exceeds the maximum document size of [1024] bytes"));
+    }
+    
+    @Test
+    public void thatCompressedFilesAreRead()
+        throws Exception
+    {
+        File file = testFolder.newFile("lines.txt.gz");
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            os.write("Zeile 1 \u00e4\nZeile 2 \u20ac\n".getBytes(UTF_8));
+        }
+        
+        JCas doc = JCasFactory.createJCas();
+
+        CollectionReader reader = createReader(LineOrientedTextReader.class,
+                LineOrientedTextReader.PARAM_SOURCE_LOCATION, file.getPath());
+
+        reader.getNext(doc.getCas());
+        
+        List<Sentence> sentences = new ArrayList<>(select(doc, Sentence.class));
+        assertEquals("Zeile 1 \u00e4\nZeile 2 \u20ac\n", doc.getDocumentText());
+        assertEquals(2, sentences.size());
+        assertEquals("Zeile 2 \u20ac", sentences.get(1).getCoveredText());
+    }
 }
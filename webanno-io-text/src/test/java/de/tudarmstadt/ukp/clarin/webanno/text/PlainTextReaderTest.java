@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.text;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PlainTextReaderTest
+{
+    private static final String TEXT = "Die Bären fraßen Äpfel und Öl über der Straße.\n";
+
+    public @Rule TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void thatCompressedFilesAreRead()
+        throws Exception
+    {
+        File file = testFolder.newFile("text.txt.gz");
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            os.write(TEXT.getBytes(UTF_8));
+        }
+
+        assertEquals(TEXT, read(file));
+    }
+
+    @Test
+    public void thatGivenEncodingIsUsed()
+        throws Exception
+    {
+        File file = testFolder.newFile("text.txt");
+        Files.write(file.toPath(), TEXT.getBytes(ISO_8859_1));
+
+        assertEquals(TEXT, read(file, PlainTextReader.PARAM_SOURCE_ENCODING, "ISO-8859-1"));
+    }
+
+    @Test
+    public void thatEncodingIsDetectedAutomatically()
+        throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append(TEXT);
+        }
+
+        File latin1File = testFolder.newFile("latin1.txt");
+        Files.write(latin1File.toPath(), text.toString().getBytes(ISO_8859_1));
+        File utf8File = testFolder.newFile("utf8.txt");
+        Files.write(utf8File.toPath(), text.toString().getBytes(UTF_8));
+
+        assertEquals(text.toString(), read(latin1File, PlainTextReader.PARAM_SOURCE_ENCODING,
+                PlainTextReader.ENCODING_AUTO));
+        assertEquals(text.toString(), read(utf8File, PlainTextReader.PARAM_SOURCE_ENCODING,
+                PlainTextReader.ENCODING_AUTO));
+    }
+
+    @Test
+    public void thatEncodingOfCompressedFilesIsDetectedAutomatically()
+        throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append(TEXT);
+        }
+
+        File file = testFolder.newFile("latin1.txt.gz");
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            os.write(text.toString().getBytes(ISO_8859_1));
+        }
+
+        assertEquals(text.toString(), read(file, PlainTextReader.PARAM_SOURCE_ENCODING,
+                PlainTextReader.ENCODING_AUTO));
+    }
+
+    private static String read(File aFile, Object... aParameters)
+        throws Exception
+    {
+        Object[] parameters = new Object[aParameters.length + 2];
+        parameters[0] = PlainTextReader.PARAM_SOURCE_LOCATION;
+        parameters[1] = aFile.getPath();
+        System.arraycopy(aParameters, 0, parameters, 2, aParameters.length);
+
+        CollectionReader reader = createReader(PlainTextReader.class, parameters);
+
+        JCas doc = JCasFactory.createJCas();
+        reader.getNext(doc.getCas());
+        return doc.getDocumentText();
+    }
+}
@@ -60,12 +60,19 @@ public class WebAnnoTsv3FormatSupport
     {
         return true;
     }
+
+    @Override
+    public boolean isWriterReusable()
+    {
+        return true;
+    }
     
     @Override
     public CollectionReaderDescription getReaderDescription(TypeSystemDescription aTSD)
         throws ResourceInitializationException
     {
-        return createReaderDescription(WebannoTsv3XReader.class, aTSD);
+        return createReaderDescription(WebannoTsv3XReader.class, aTSD,
+                WebannoTsv3XReader.PARAM_STREAMING, true);
     }
     
     @Override
@@ -73,6 +80,7 @@ public class WebAnnoTsv3FormatSupport
             TypeSystemDescription aTSD, CAS aCAS)
         throws ResourceInitializationException
     {
-        return createEngineDescription(WebannoTsv3XWriter.class, aTSD);
+        return createEngineDescription(WebannoTsv3XWriter.class, aTSD,
+                WebannoTsv3XWriter.PARAM_STREAMING, true);
     }
 }
@@ -20,6 +20,7 @@ package de.tudarmstadt.ukp.clarin.webanno.tsv;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.io.Reader;
 
 import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
@@ -28,6 +29,7 @@ import org.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 import org.dkpro.core.api.parameter.ComponentParameters;
 
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XDeserializer;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XStreamingDeserializer;
 
 /**
  * Reads the WebAnno TSV v3.x format.
@@ -42,12 +44,28 @@ public class WebannoTsv3XReader
     @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
     private String encoding;
 
+    /**
+     * Parse the lines in a reusable buffer instead of splitting them into strings first. The
+     * resulting CAS is the same, but reading is faster and creates less garbage.
+     */
+    public static final String PARAM_STREAMING = "streaming";
+    @ConfigurationParameter(name = PARAM_STREAMING, mandatory = true, defaultValue = "false")
+    private boolean streaming;
+
     @Override
     public void getNext(JCas aJCas) throws IOException, CollectionException
     {
         Resource res = nextFile();
         initCas(aJCas, res);
 
+        if (streaming) {
+            // The streaming deserializer does its own buffering
+            try (Reader r = new InputStreamReader(res.getInputStream(), encoding)) {
+                new Tsv3XStreamingDeserializer().read(r, aJCas);
+            }
+            return;
+        }
+
         try (LineNumberReader br = new LineNumberReader(
                 new InputStreamReader(res.getInputStream(), encoding))) {
             new Tsv3XDeserializer().read(br, aJCas);
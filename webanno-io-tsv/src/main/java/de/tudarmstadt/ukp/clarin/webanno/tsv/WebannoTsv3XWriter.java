@@ -31,6 +31,7 @@ import org.dkpro.core.api.parameter.ComponentParameters;
 
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasSchemaAnalyzer;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasStreamingSerializer;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XSerializer;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvDocument;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema;
@@ -56,11 +57,30 @@ public class WebannoTsv3XWriter
     @ConfigurationParameter(name = PARAM_FILENAME_EXTENSION, mandatory = true, defaultValue = ".tsv")
     private String filenameSuffix;
 
+    /**
+     * Write the document sentence by sentence instead of first building the complete document
+     * model in memory. The output is the same, but memory use is lower for large documents.
+     */
+    public static final String PARAM_STREAMING = "streaming";
+    @ConfigurationParameter(name = PARAM_STREAMING, mandatory = true, defaultValue = "false")
+    private boolean streaming;
+
     @Override
     public void process(JCas aJCas) throws AnalysisEngineProcessException
     {
         TsvSchema schema = Tsv3XCasSchemaAnalyzer.analyze(aJCas.getTypeSystem());
         
+        if (streaming) {
+            try (PrintWriter docOS = new PrintWriter(new OutputStreamWriter(buffer(
+                    getOutputStream(aJCas, filenameSuffix)), encoding))) {
+                new Tsv3XCasStreamingSerializer().write(docOS, schema, aJCas);
+            }
+            catch (IOException e) {
+                throw new AnalysisEngineProcessException(e);
+            }
+            return;
+        }
+        
         TsvDocument doc = Tsv3XCasDocumentBuilder.of(schema, aJCas);
         
         try (PrintWriter docOS = new PrintWriter(new OutputStreamWriter(buffer(
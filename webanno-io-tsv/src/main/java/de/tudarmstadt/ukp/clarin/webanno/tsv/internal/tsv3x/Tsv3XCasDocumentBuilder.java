@@ -68,8 +68,7 @@ public class Tsv3XCasDocumentBuilder
 {
     public static TsvDocument of(TsvSchema aSchema, JCas aJCas)
     {
-        TsvFormatHeader format = new TsvFormatHeader("WebAnno TSV", "3.2");
-        TsvDocument doc = new TsvDocument(format, aSchema, aJCas);
+        TsvDocument doc = new TsvDocument(formatHeader(), aSchema, aJCas);
         
         // Fill document with all the sentences and tokens
         for (Sentence uimaSentence : select(aJCas, Sentence.class)) {
@@ -79,22 +78,7 @@ public class Tsv3XCasDocumentBuilder
             }
         }
         
-        // Scan for chains
-        for (Type headType : aSchema.getChainHeadTypes()) {
-            for (FeatureStructure chainHead : CasUtil.selectFS(aJCas.getCas(), headType)) {
-                List<AnnotationFS> elements = new ArrayList<>();
-                AnnotationFS link = getFeature(chainHead, CHAIN_FIRST_FEAT, AnnotationFS.class);
-                while (link != null) {
-                    elements.add(link);
-                    link = getFeature(link, CHAIN_NEXT_FEAT, AnnotationFS.class);
-                }
-                if (!elements.isEmpty()) {
-                    Type elementType = headType.getFeatureByBaseName(CHAIN_FIRST_FEAT).getRange();
-                    doc.createChain(headType, elementType, elements);
-                }
-            }
-        }
-        
+        scanChains(doc);
         
         // Build indexes over the token start and end positions such that we can quickly locate
         // tokens based on their offsets.
@@ -289,23 +273,53 @@ public class Tsv3XCasDocumentBuilder
             }
         }
     
-        // Activate the placeholder columns for any active types for which no other columns are
-        // active.
-        Set<Type> activeTypesNeedingPlaceholders = new HashSet<>(doc.getActiveTypes());
-        for (TsvColumn col : doc.getActiveColumns()) {
+        activatePlaceholderColumns(doc);
+        
+        return doc;
+    }
+    
+    /* package private */ static TsvFormatHeader formatHeader()
+    {
+        return new TsvFormatHeader("WebAnno TSV", "3.2");
+    }
+    
+    /* package private */ static void scanChains(TsvDocument aDoc)
+    {
+        for (Type headType : aDoc.getSchema().getChainHeadTypes()) {
+            for (FeatureStructure chainHead : CasUtil.selectFS(aDoc.getJCas().getCas(),
+                    headType)) {
+                List<AnnotationFS> elements = new ArrayList<>();
+                AnnotationFS link = getFeature(chainHead, CHAIN_FIRST_FEAT, AnnotationFS.class);
+                while (link != null) {
+                    elements.add(link);
+                    link = getFeature(link, CHAIN_NEXT_FEAT, AnnotationFS.class);
+                }
+                if (!elements.isEmpty()) {
+                    Type elementType = headType.getFeatureByBaseName(CHAIN_FIRST_FEAT).getRange();
+                    aDoc.createChain(headType, elementType, elements);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Activate the placeholder columns for any active types for which no other columns are active.
+     */
+    /* package private */ static void activatePlaceholderColumns(TsvDocument aDoc)
+    {
+        Set<Type> activeTypesNeedingPlaceholders = new HashSet<>(aDoc.getActiveTypes());
+        for (TsvColumn col : aDoc.getActiveColumns()) {
             activeTypesNeedingPlaceholders.remove(col.uimaType);
         }
-        for (TsvColumn col : doc.getSchema().getColumns()) {
+        for (TsvColumn col : aDoc.getSchema().getColumns()) {
             if (PLACEHOLDER.equals(col.featureType)
                     && activeTypesNeedingPlaceholders.contains(col.uimaType)) {
-                doc.activateColumn(col);
+                aDoc.activateColumn(col);
             }
         }
-        
-        return doc;
     }
 
-    private static void scanUnitForActiveColumns(TsvUnit aUnit)
+    /* package private */ static void scanUnitForActiveColumns(TsvUnit aUnit)
     {
         for (TsvColumn col : aUnit.getDocument().getSchema().getColumns()) {
             List<AnnotationFS> annotationsForColumn = aUnit.getAnnotationsForColumn(col);
@@ -362,7 +376,7 @@ public class Tsv3XCasDocumentBuilder
      * used as slot filler. In this case, the targets are ambiguous and require an disambiguaton
      * ID.
      */
-    private static void scanUnitForAmbiguousSlotReferences(TsvUnit aUnit)
+    /* package private */ static void scanUnitForAmbiguousSlotReferences(TsvUnit aUnit)
     {
         for (TsvColumn col : aUnit.getDocument().getSchema().getColumns()) {
             if (SPAN.equals(col.layerType) && SLOT_TARGET.equals(col.featureType)
@@ -0,0 +1,656 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x;
+
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder.activatePlaceholderColumns;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder.formatHeader;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder.scanChains;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder.scanUnitForActiveColumns;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Tsv3XCasDocumentBuilder.scanUnitForAmbiguousSlotReferences;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FeatureType.RELATION_REF;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FeatureType.SLOT_TARGET;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.LINE_BREAK;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.LayerType.CHAIN;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.LayerType.RELATION;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.LayerType.SPAN;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_REL_SOURCE;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_REL_TARGET;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_SLOT_TARGET;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Comparator.comparingInt;
+import static org.apache.uima.fit.util.FSUtil.getFeature;
+import static org.apache.uima.fit.util.JCasUtil.select;
+import static org.apache.uima.fit.util.JCasUtil.selectCovered;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.util.CasUtil;
+import org.apache.uima.jcas.JCas;
+
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.LayerType;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvColumn;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvDocument;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSentence;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSubToken;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvToken;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvUnit;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+
+/**
+ * Writes the WebAnno TSV v3.x format without first building a {@link TsvDocument} for the whole
+ * CAS. The units (tokens and sub-tokens) only exist for one sentence at a time. Only the
+ * information which can be referenced across sentences is kept for the whole document: the active
+ * columns, the chains, the disambiguation IDs and the IDs of the units which are the targets of
+ * relations or slot links.
+ * <p>
+ * This information is needed before the first sentence can be written, so the sentences are
+ * processed twice: once to collect it and once to write them. The output is the same as the one
+ * of {@link Tsv3XCasDocumentBuilder} followed by {@link Tsv3XSerializer}. In particular, the
+ * disambiguation IDs are numbered in the same order although they are discovered sentence by
+ * sentence instead of layer by layer.
+ */
+public class Tsv3XCasStreamingSerializer
+{
+    public void write(PrintWriter aOut, TsvSchema aSchema, JCas aJCas)
+    {
+        StreamingTsvDocument doc = new StreamingTsvDocument(aSchema, aJCas);
+        TokenIndex tokenIndex = new TokenIndex(aJCas);
+        
+        scanChains(doc);
+        
+        List<List<PendingAnnotation>> annotationsBySentence = assignAnnotationsToSentences(doc,
+                tokenIndex);
+        
+        collectReferencedAnnotations(doc);
+        
+        // First pass: determine the active columns, the disambiguation IDs and the IDs of the
+        // units which may be referenced from other sentences
+        doc.collecting = true;
+        for (int i = 0; i < tokenIndex.sentences.size(); i++) {
+            TsvSentence sentence = buildSentence(doc, tokenIndex, i,
+                    annotationsBySentence.get(i));
+            
+            // Disambiguation IDs for slot targets are only added after all the layers have been
+            // processed
+            doc.setContext(Integer.MAX_VALUE, 0, 0);
+            for (TsvToken token : sentence.getTokens()) {
+                scanUnitForActiveColumns(token);
+                scanUnitForAmbiguousSlotReferences(token);
+                for (TsvSubToken subToken : token.getSubTokens()) {
+                    scanUnitForActiveColumns(subToken);
+                    scanUnitForAmbiguousSlotReferences(subToken);
+                }
+            }
+        }
+        doc.assignDisambiguationIds();
+        doc.collecting = false;
+        
+        activatePlaceholderColumns(doc);
+        
+        // Second pass: build the sentences again and write them
+        Tsv3XSerializer serializer = new Tsv3XSerializer();
+        serializer.write(aOut, doc.getFormatHeader());
+        
+        List<TsvColumn> headerColumns = aSchema.getHeaderColumns(doc.getActiveColumns());
+        serializer.write(aOut, headerColumns);
+        
+        for (int i = 0; i < tokenIndex.sentences.size(); i++) {
+            aOut.print(LINE_BREAK);
+            serializer.write(aOut, buildSentence(doc, tokenIndex, i, annotationsBySentence.get(i)),
+                    headerColumns);
+        }
+    }
+    
+    /**
+     * Determines the begin and end token of every annotation and assigns the annotation to all
+     * the sentences it touches. Within each sentence, the annotations are kept in the order in
+     * which {@link Tsv3XCasDocumentBuilder} processes them.
+     */
+    private static List<List<PendingAnnotation>> assignAnnotationsToSentences(TsvDocument aDoc,
+            TokenIndex aTokenIndex)
+    {
+        List<List<PendingAnnotation>> annotationsBySentence = new ArrayList<>();
+        for (int i = 0; i < aTokenIndex.sentences.size(); i++) {
+            annotationsBySentence.add(new ArrayList<>());
+        }
+        
+        TsvSchema schema = aDoc.getSchema();
+        int typeIndex = 0;
+        for (Type type : schema.getUimaTypes()) {
+            typeIndex++;
+            
+            if (schema.getIgnoredTypes().contains(type)) {
+                continue;
+            }
+            
+            LayerType layerType = schema.getLayerType(type);
+            
+            int ordinal = 0;
+            for (AnnotationFS annotation : CasUtil.select(aDoc.getJCas().getCas(), type)) {
+                // Mind that we might actually get an annotation here which is a subtype of `type`!
+                aDoc.activateType(type);
+                
+                PendingAnnotation pending = new PendingAnnotation(annotation, typeIndex, ordinal,
+                        layerType);
+                ordinal++;
+                
+                // According to DKPro Core conventions, the offsets of relations must match
+                // those of the target, so we obtain the offsets from the target.
+                if (RELATION.equals(layerType)) {
+                    AnnotationFS targetFS = getFeature(annotation, FEAT_REL_TARGET,
+                            AnnotationFS.class);
+                    pending.begin = targetFS.getBegin();
+                    pending.end = targetFS.getEnd();
+                }
+                
+                aTokenIndex.locate(pending);
+                
+                int firstSentence = aTokenIndex.sentenceOf(
+                        min(pending.beginToken, pending.endToken));
+                int lastSentence = aTokenIndex.sentenceOf(
+                        max(pending.beginToken, pending.endToken));
+                for (int i = firstSentence; i <= lastSentence; i++) {
+                    annotationsBySentence.get(i).add(pending);
+                }
+            }
+        }
+        
+        return annotationsBySentence;
+    }
+    
+    /**
+     * Collects the annotations to which relations or slot links point. The IDs of their units are
+     * remembered for the whole document.
+     */
+    private static void collectReferencedAnnotations(StreamingTsvDocument aDoc)
+    {
+        for (TsvColumn col : aDoc.getSchema().getColumns()) {
+            if (RELATION.equals(col.layerType) && RELATION_REF.equals(col.featureType)) {
+                for (AnnotationFS relation : CasUtil.select(aDoc.getJCas().getCas(),
+                        col.uimaType)) {
+                    AnnotationFS source = getFeature(relation, FEAT_REL_SOURCE,
+                            AnnotationFS.class);
+                    if (source != null) {
+                        aDoc.referencedAnnotations.add(source);
+                    }
+                }
+            }
+            else if (SPAN.equals(col.layerType) && SLOT_TARGET.equals(col.featureType)) {
+                for (AnnotationFS host : CasUtil.select(aDoc.getJCas().getCas(), col.uimaType)) {
+                    FeatureStructure[] links = getFeature(host, col.uimaFeature,
+                            FeatureStructure[].class);
+                    if (links == null) {
+                        continue;
+                    }
+                    
+                    for (FeatureStructure link : links) {
+                        AnnotationFS target = getFeature(link, FEAT_SLOT_TARGET,
+                                AnnotationFS.class);
+                        if (target != null) {
+                            aDoc.referencedAnnotations.add(target);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private static TsvSentence buildSentence(StreamingTsvDocument aDoc, TokenIndex aTokenIndex,
+            int aSentence, List<PendingAnnotation> aAnnotations)
+    {
+        Sentence uimaSentence = aTokenIndex.sentences.get(aSentence);
+        TsvSentence sentence = new TsvSentence(aDoc, uimaSentence, aSentence + 1);
+        for (Token uimaToken : selectCovered(Token.class, uimaSentence)) {
+            sentence.createToken(uimaToken);
+        }
+        
+        int firstToken = aTokenIndex.firstToken(aSentence);
+        for (PendingAnnotation annotation : aAnnotations) {
+            addToUnits(aDoc, aTokenIndex, sentence.getTokens(), firstToken, annotation);
+        }
+        
+        return sentence;
+    }
+    
+    /**
+     * Adds the annotation to those of its units which are part of the given sentence. This follows
+     * the same rules as {@link Tsv3XCasDocumentBuilder}. The steps are numbered in the order in
+     * which the builder would perform them, so the disambiguation IDs can be numbered in the same
+     * order later.
+     */
+    private static void addToUnits(StreamingTsvDocument aDoc, TokenIndex aTokenIndex,
+            List<TsvToken> aTokens, int aFirstToken, PendingAnnotation aPending)
+    {
+        AnnotationFS annotation = aPending.annotation;
+        TsvToken beginToken = localToken(aTokens, aFirstToken, aPending.beginToken);
+        TsvToken endToken = localToken(aTokens, aFirstToken, aPending.endToken);
+        
+        boolean addDisambiguationIdIfStacked = SPAN.equals(aPending.layerType);
+        boolean singleToken = aPending.beginToken == aPending.endToken;
+        boolean zeroWitdh = aPending.begin == aPending.end;
+        boolean multiTokenCapable = SPAN.equals(aPending.layerType)
+                || CHAIN.equals(aPending.layerType);
+        
+        aDoc.setContext(aPending.typeIndex, aPending.ordinal, 0);
+        
+        if (aTokenIndex.begin(aPending.beginToken) == aPending.begin
+                && aTokenIndex.end(aPending.endToken) == aPending.end) {
+            if (beginToken != null) {
+                aDoc.mapFS2Unit(annotation, beginToken);
+                beginToken.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+            }
+            
+            if (multiTokenCapable && endToken != null) {
+                aDoc.setContext(aPending.typeIndex, aPending.ordinal, 1);
+                endToken.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+            }
+        }
+        else if (zeroWitdh) {
+            if (beginToken != null) {
+                int position = min(beginToken.getEnd(), aPending.end);
+                if (position < beginToken.getBegin()) {
+                    position = beginToken.getBegin();
+                }
+                TsvSubToken t = beginToken.createSubToken(position, position);
+                aDoc.mapFS2Unit(annotation, t);
+                t.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+            }
+        }
+        else {
+            if (beginToken != null) {
+                if (beginToken.getBegin() < aPending.begin) {
+                    TsvSubToken t = beginToken.createSubToken(aPending.begin,
+                            min(beginToken.getEnd(), aPending.end));
+                    aDoc.mapFS2Unit(annotation, t);
+                    t.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+                }
+                else {
+                    beginToken.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+                    aDoc.mapFS2Unit(annotation, beginToken);
+                }
+            }
+            
+            if (endToken != null) {
+                aDoc.setContext(aPending.typeIndex, aPending.ordinal, 1);
+                if (endToken.getEnd() > aPending.end) {
+                    TsvSubToken t = endToken.createSubToken(
+                            max(endToken.getBegin(), aPending.begin), aPending.end);
+                    t.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+                    
+                    if (!singleToken) {
+                        aDoc.mapFS2Unit(annotation, t);
+                    }
+                }
+                else if (!singleToken && multiTokenCapable) {
+                    endToken.addUimaAnnotation(annotation, addDisambiguationIdIfStacked);
+                }
+            }
+        }
+        
+        // The annotation must also be added to all tokens between the begin token and the end
+        // token
+        if (multiTokenCapable && !singleToken) {
+            int from = max(aPending.beginToken + 1, aFirstToken);
+            int to = min(aPending.endToken, aFirstToken + aTokens.size());
+            for (int i = from; i < to; i++) {
+                aDoc.setContext(aPending.typeIndex, aPending.ordinal,
+                        2 + i - aPending.beginToken);
+                aTokens.get(i - aFirstToken).addUimaAnnotation(annotation,
+                        addDisambiguationIdIfStacked);
+            }
+        }
+        
+        // Multi-token span annotations must get a disambiguation ID
+        if (SPAN.equals(aPending.layerType) && !singleToken) {
+            aDoc.setContext(aPending.typeIndex, aPending.ordinal, Integer.MAX_VALUE);
+            aDoc.addDisambiguationId(annotation);
+        }
+    }
+    
+    private static TsvToken localToken(List<TsvToken> aTokens, int aFirstToken, int aToken)
+    {
+        int i = aToken - aFirstToken;
+        return i >= 0 && i < aTokens.size() ? aTokens.get(i) : null;
+    }
+    
+    /**
+     * An annotation together with its position in the processing order of
+     * {@link Tsv3XCasDocumentBuilder} and its begin and end tokens.
+     */
+    private static class PendingAnnotation
+    {
+        private final AnnotationFS annotation;
+        private final int typeIndex;
+        private final int ordinal;
+        private final LayerType layerType;
+        private int begin;
+        private int end;
+        private int beginToken;
+        private int endToken;
+        
+        public PendingAnnotation(AnnotationFS aAnnotation, int aTypeIndex, int aOrdinal,
+                LayerType aLayerType)
+        {
+            annotation = aAnnotation;
+            typeIndex = aTypeIndex;
+            ordinal = aOrdinal;
+            layerType = aLayerType;
+            begin = aAnnotation.getBegin();
+            end = aAnnotation.getEnd();
+        }
+    }
+    
+    /**
+     * The offsets of all tokens in the document and the sentences they belong to. Tokens are
+     * identified by their position in the document. The lookups behave like the token begin and
+     * end maps used by {@link Tsv3XCasDocumentBuilder}, but the index only consists of a few
+     * primitive arrays.
+     */
+    private static class TokenIndex
+    {
+        private final List<Sentence> sentences = new ArrayList<>();
+        private int[] sentenceFirstToken = new int[16];
+        private int[] tokenBegins = new int[256];
+        private int[] tokenEnds = new int[256];
+        private int tokenCount = 0;
+        
+        // Distinct begin/end offsets in ascending order and the last token with the respective
+        // offset
+        private final int[] beginKeys;
+        private final int[] beginTokens;
+        private final int[] endKeys;
+        private final int[] endTokens;
+        
+        public TokenIndex(JCas aJCas)
+        {
+            for (Sentence sentence : select(aJCas, Sentence.class)) {
+                if (sentences.size() == sentenceFirstToken.length) {
+                    sentenceFirstToken = Arrays.copyOf(sentenceFirstToken,
+                            sentenceFirstToken.length * 2);
+                }
+                sentenceFirstToken[sentences.size()] = tokenCount;
+                sentences.add(sentence);
+                
+                for (Token token : selectCovered(Token.class, sentence)) {
+                    if (tokenCount == tokenBegins.length) {
+                        tokenBegins = Arrays.copyOf(tokenBegins, tokenBegins.length * 2);
+                        tokenEnds = Arrays.copyOf(tokenEnds, tokenEnds.length * 2);
+                    }
+                    tokenBegins[tokenCount] = token.getBegin();
+                    tokenEnds[tokenCount] = token.getEnd();
+                    tokenCount++;
+                }
+            }
+            
+            int[][] begins = distinctOffsets(tokenBegins, tokenCount);
+            beginKeys = begins[0];
+            beginTokens = begins[1];
+            int[][] ends = distinctOffsets(tokenEnds, tokenCount);
+            endKeys = ends[0];
+            endTokens = ends[1];
+        }
+        
+        private static int[][] distinctOffsets(int[] aOffsets, int aCount)
+        {
+            // Sort by offset and then by token position, so the last entry for an offset is the
+            // last token having this offset
+            long[] sorted = new long[aCount];
+            for (int i = 0; i < aCount; i++) {
+                sorted[i] = ((long) aOffsets[i] << 32) | i;
+            }
+            Arrays.sort(sorted);
+            
+            int[] keys = new int[aCount];
+            int[] tokens = new int[aCount];
+            int n = 0;
+            for (int i = 0; i < aCount; i++) {
+                int offset = (int) (sorted[i] >>> 32);
+                if (n > 0 && keys[n - 1] == offset) {
+                    n--;
+                }
+                keys[n] = offset;
+                tokens[n] = (int) sorted[i];
+                n++;
+            }
+            
+            return new int[][] { Arrays.copyOf(keys, n), Arrays.copyOf(tokens, n) };
+        }
+        
+        public int begin(int aToken)
+        {
+            return tokenBegins[aToken];
+        }
+        
+        public int end(int aToken)
+        {
+            return tokenEnds[aToken];
+        }
+        
+        public int firstToken(int aSentence)
+        {
+            return sentenceFirstToken[aSentence];
+        }
+        
+        public int sentenceOf(int aToken)
+        {
+            int i = Arrays.binarySearch(sentenceFirstToken, 0, sentences.size(), aToken);
+            if (i < 0) {
+                return -i - 2;
+            }
+            
+            // Sentences without tokens share their first token with the following sentence
+            while (i + 1 < sentences.size() && sentenceFirstToken[i + 1] == aToken) {
+                i++;
+            }
+            return i;
+        }
+        
+        /**
+         * Determines the begin and end token of the given annotation in the same way as
+         * {@link Tsv3XCasDocumentBuilder}.
+         */
+        public void locate(PendingAnnotation aAnnotation)
+        {
+            int begin = aAnnotation.begin;
+            int end = aAnnotation.end;
+            
+            int beginToken = floor(beginKeys, beginTokens, begin);
+            // If the current annotation has leading whitespace, we have wrongly fetched the
+            // token before the start token - so let's try to correct this
+            if ((beginToken != -1 && tokenEnds[beginToken] < begin
+                    && higher(endKeys, endTokens, begin) != -1) || beginToken == -1) {
+                beginToken = higher(endKeys, endTokens, begin);
+            }
+            if (beginToken == -1) {
+                throw new IllegalStateException(
+                        "Unable to find begin token starting at or before " + begin
+                                + " (first token starts at "
+                                + (tokenCount > 0 ? beginKeys[0] : "-")
+                                + ") for annotation: " + aAnnotation.annotation);
+            }
+            
+            int endToken = ceiling(endKeys, endTokens, end);
+            // If the current annotation has trailing whitespace, we have wrongly fetched the
+            // token after the end token - so let's try to correct this
+            if ((endToken != -1 && tokenBegins[endToken] > end
+                    && lower(endKeys, endTokens, end) != -1) || endToken == -1) {
+                endToken = lower(endKeys, endTokens, end);
+            }
+            if (endToken == -1) {
+                throw new IllegalStateException("Unable to find end token ending at or after "
+                        + end + " (last token ends at "
+                        + (tokenCount > 0 ? endKeys[endKeys.length - 1] : "-")
+                        + ") for annotation: " + aAnnotation.annotation);
+            }
+            
+            // For zero-width annotations, the begin token must match the end token.
+            if (begin == end) {
+                beginToken = endToken;
+            }
+            
+            aAnnotation.beginToken = beginToken;
+            aAnnotation.endToken = endToken;
+        }
+        
+        private static int floor(int[] aKeys, int[] aTokens, int aOffset)
+        {
+            int i = Arrays.binarySearch(aKeys, aOffset);
+            i = i >= 0 ? i : -i - 2;
+            return i >= 0 ? aTokens[i] : -1;
+        }
+        
+        private static int ceiling(int[] aKeys, int[] aTokens, int aOffset)
+        {
+            int i = Arrays.binarySearch(aKeys, aOffset);
+            i = i >= 0 ? i : -i - 1;
+            return i < aKeys.length ? aTokens[i] : -1;
+        }
+        
+        private static int higher(int[] aKeys, int[] aTokens, int aOffset)
+        {
+            int i = Arrays.binarySearch(aKeys, aOffset);
+            i = i >= 0 ? i + 1 : -i - 1;
+            return i < aKeys.length ? aTokens[i] : -1;
+        }
+        
+        private static int lower(int[] aKeys, int[] aTokens, int aOffset)
+        {
+            int i = Arrays.binarySearch(aKeys, aOffset);
+            i = i >= 0 ? i - 1 : -i - 2;
+            return i >= 0 ? aTokens[i] : -1;
+        }
+    }
+    
+    /**
+     * A document which does not keep the units of the sentences. Instead, it records the IDs of
+     * the units which may be referenced from other sentences. While collecting, it also records
+     * when the builder would have assigned disambiguation IDs so that they can be numbered in the
+     * same order at the end.
+     */
+    private static class StreamingTsvDocument
+        extends TsvDocument
+    {
+        private final Set<AnnotationFS> referencedAnnotations = new HashSet<>();
+        private final Map<AnnotationFS, String> referencedUnitIds = new HashMap<>();
+        private final List<DisambiguationRequest> disambiguationRequests = new ArrayList<>();
+        
+        private boolean collecting;
+        private int typeIndex;
+        private int ordinal;
+        private int step;
+        
+        public StreamingTsvDocument(TsvSchema aSchema, JCas aJCas)
+        {
+            super(formatHeader(), aSchema, aJCas);
+        }
+        
+        public void setContext(int aTypeIndex, int aOrdinal, int aStep)
+        {
+            typeIndex = aTypeIndex;
+            ordinal = aOrdinal;
+            step = aStep;
+        }
+        
+        @Override
+        public void mapFS2Unit(AnnotationFS aFS, TsvUnit aUnit)
+        {
+            if (collecting && referencedAnnotations.contains(aFS)) {
+                referencedUnitIds.put(aFS, aUnit.getId());
+            }
+        }
+        
+        @Override
+        public TsvUnit findIdDefiningUnit(AnnotationFS aFS)
+        {
+            String id = referencedUnitIds.get(aFS);
+            return id != null ? new UnitReference(this, id) : null;
+        }
+        
+        @Override
+        public void addDisambiguationId(AnnotationFS aAnnotation)
+        {
+            if (collecting) {
+                disambiguationRequests.add(
+                        new DisambiguationRequest(aAnnotation, typeIndex, ordinal, step));
+            }
+        }
+        
+        public void assignDisambiguationIds()
+        {
+            // The sort is stable, so requests made in the same step retain their order
+            disambiguationRequests.sort(comparingInt((DisambiguationRequest r) -> r.typeIndex)
+                    .thenComparingInt(r -> r.ordinal)
+                    .thenComparingInt(r -> r.step));
+            for (DisambiguationRequest request : disambiguationRequests) {
+                super.addDisambiguationId(request.annotation);
+            }
+            disambiguationRequests.clear();
+        }
+    }
+    
+    private static class DisambiguationRequest
+    {
+        private final AnnotationFS annotation;
+        private final int typeIndex;
+        private final int ordinal;
+        private final int step;
+        
+        public DisambiguationRequest(AnnotationFS aAnnotation, int aTypeIndex, int aOrdinal,
+                int aStep)
+        {
+            annotation = aAnnotation;
+            typeIndex = aTypeIndex;
+            ordinal = aOrdinal;
+            step = aStep;
+        }
+    }
+    
+    /**
+     * Stands in for a unit of another sentence when a relation or slot link refers to it.
+     */
+    private static class UnitReference
+        extends TsvUnit
+    {
+        private final String id;
+        
+        public UnitReference(TsvDocument aDoc, String aId)
+        {
+            super(aDoc, null, null, 0);
+            id = aId;
+        }
+        
+        @Override
+        public String getId()
+        {
+            return id;
+        }
+    }
+}
@@ -169,13 +169,16 @@ public class Tsv3XDeserializer
 
     private TsvFormatHeader readFormat(LineNumberReader aIn) throws IOException
     {
-        String line = aIn.readLine();
+        return parseFormat(aIn.readLine());
+    }
 
-        expectStartsWith(line, HEADER_PREFIX_FORMAT);
+    /* package private */ static TsvFormatHeader parseFormat(String aLine) throws IOException
+    {
+        expectStartsWith(aLine, HEADER_PREFIX_FORMAT);
 
-        Matcher m = FORMAT_PATTERN.matcher(line);
+        Matcher m = FORMAT_PATTERN.matcher(aLine);
         if (!m.matches()) {
-            throw new IOException("Illlegal format header: [" + line + "]");
+            throw new IOException("Illlegal format header: [" + aLine + "]");
         }
 
         TsvFormatHeader format = new TsvFormatHeader(m.group("NAME"), m.group("VERSION"));
@@ -183,25 +186,50 @@ public class Tsv3XDeserializer
     }
 
     private TsvSchema readSchema(LineNumberReader aIn, JCas aJCas) throws IOException
+    {
+        List<String> lines = new ArrayList<>();
+        for (String line = aIn.readLine(); !isBlank(line); line = aIn.readLine()) {
+            lines.add(line);
+            
+            if (getLayerType(line) == null) {
+                // End of header
+                break;
+            }
+        }
+        
+        return parseSchema(lines, aJCas);
+    }
+    
+    /**
+     * @return the layer type declared by the given schema header line or {@code null} if the line
+     *         is not a layer declaration.
+     */
+    /* package private */ static LayerType getLayerType(String aLine)
+    {
+        if (startsWith(aLine, HEADER_PREFIX_SPAN_LAYER)) {
+            return SPAN;
+        }
+        else if (startsWith(aLine, HEADER_PREFIX_RELATION_LAYER)) {
+            return RELATION;
+        }
+        else if (startsWith(aLine, HEADER_PREFIX_CHAIN_LAYER)) {
+            return CHAIN;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /* package private */ static TsvSchema parseSchema(List<String> aLines, JCas aJCas)
+        throws IOException
     {
         TsvSchema schema = new TsvSchema();
         int columnIndex = 0;
 
-        // Read first line
-        for (String line = aIn.readLine(); !isBlank(line); line = aIn.readLine()) {
-            LayerType layerType;
-
+        for (String line : aLines) {
             // Determine layer type
-            if (startsWith(line, HEADER_PREFIX_SPAN_LAYER)) {
-                layerType = SPAN;
-            }
-            else if (startsWith(line, HEADER_PREFIX_RELATION_LAYER)) {
-                layerType = RELATION;
-            }
-            else if (startsWith(line, HEADER_PREFIX_CHAIN_LAYER)) {
-                layerType = CHAIN;
-            }
-            else {
+            LayerType layerType = getLayerType(line);
+            if (layerType == null) {
                 // End of header
                 break;
             }
@@ -241,8 +269,8 @@ public class Tsv3XDeserializer
         return schema;
     }
 
-    private TsvColumn parseColumnDeclaration(JCas aJCas, LayerType aLayerType, Type aUimaType,
-            int aIndex, String aColDecl, TsvColumn aPrevCol)
+    private static TsvColumn parseColumnDeclaration(JCas aJCas, LayerType aLayerType,
+            Type aUimaType, int aIndex, String aColDecl, TsvColumn aPrevCol)
         throws IOException
     {
         TypeSystem ts = aJCas.getTypeSystem();
@@ -883,7 +911,7 @@ public class Tsv3XDeserializer
         }
     }
     
-    private void expectStartsWith(String aLine, String aPrefix) throws IOException
+    private static void expectStartsWith(String aLine, String aPrefix) throws IOException
     {
         if (!startsWith(aLine, aPrefix)) {
             throw new IOException(
@@ -0,0 +1,1282 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x;
+
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.Escaping.unescapeText;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FeatureType.CHAIN_LINK_TYPE;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FeatureType.SLOT_TARGET;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.LINE_BREAK;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.NULL_COLUMN;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.NULL_VALUE;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.PREFIX_TEXT;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.SLOT_SEP;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.FormatConstants.STACK_SEP;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.CHAIN_FIRST_FEAT;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.CHAIN_NEXT_FEAT;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_REL_SOURCE;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_REL_TARGET;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_SLOT_ROLE;
+import static de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema.FEAT_SLOT_TARGET;
+import static java.util.Collections.emptyList;
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.uima.fit.util.FSUtil.getFeature;
+import static org.apache.uima.fit.util.FSUtil.setFeature;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.jcas.JCas;
+
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvChain;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvColumn;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvDocument;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvFormatHeader;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSentence;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSubToken;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvToken;
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvUnit;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Stem;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency;
+
+/**
+ * Reads the WebAnno TSV v3.x format with less CPU and memory overhead than
+ * {@link Tsv3XDeserializer}. Both produce the same CAS.
+ * <p>
+ * The lines are read into a reusable character buffer and the columns are split up in place. No
+ * strings are created for empty columns, for token IDs and offsets or for references to other
+ * units. Feature values are interned, so repeated tags share a single string. Escaped separators
+ * and suffixes are detected by scanning the buffer instead of using regular expressions.
+ * <p>
+ * The units (tokens and sub-tokens) are still kept for the whole document because relations and
+ * slot links may refer to annotations in any other unit, including units further down in the
+ * file.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class Tsv3XStreamingDeserializer
+{
+    private final List<Runnable> deferredActions = new ArrayList<>();
+    private final StringPool stringPool = new StringPool();
+    private final Ranges stackedValues = new Ranges();
+    private final Ranges slotValues = new Ranges();
+
+    public void read(Reader aIn, JCas aJCas) throws IOException
+    {
+        deferredActions.clear();
+        stringPool.clear();
+        
+        LineBuffer in = new LineBuffer(aIn);
+        
+        TsvFormatHeader format = Tsv3XDeserializer
+                .parseFormat(in.nextLine() ? in.lineAsString() : null);
+        TsvSchema schema = readSchema(in, aJCas);
+
+        // Read the extra blank line after the schema declaration
+        boolean emptyLine = !in.nextLine() || in.length() == 0;
+        assert emptyLine;
+        
+        TsvDocument doc = new TsvDocument(format, schema, aJCas);
+        
+        for (TsvColumn column : schema.getColumns()) {
+            doc.activateColumn(column);
+            doc.activateType(column.uimaType);
+        }
+        
+        readContent(in, doc);
+        
+        // Complete the addition of the chains
+        CAS cas = aJCas.getCas();
+        for (TsvChain chain : doc.getChains()) {
+            if (chain.getElements().isEmpty()) {
+                continue;
+            }
+            
+            Iterator<AnnotationFS> linkIterator = chain.getElements().iterator();
+            AnnotationFS link = linkIterator.next();
+            
+            // Create the chain head
+            FeatureStructure head = cas.createFS(chain.getHeadType());
+            setFeature(head, CHAIN_FIRST_FEAT, link);
+            cas.addFsToIndexes(head);
+            
+            // Connect the links to each other
+            AnnotationFS prevLink = link;
+            while (linkIterator.hasNext()) {
+                link = linkIterator.next();
+                setFeature(prevLink, CHAIN_NEXT_FEAT, link);
+                prevLink = link;
+            }
+        }
+        
+        // Run deferred actions
+        for (Runnable action : deferredActions) {
+            action.run();
+        }
+        deferredActions.clear();
+        stringPool.clear();
+    }
+    
+    private TsvSchema readSchema(LineBuffer aIn, JCas aJCas) throws IOException
+    {
+        List<String> lines = new ArrayList<>();
+        while (aIn.nextLine() && !aIn.isBlank()) {
+            String line = aIn.lineAsString();
+            lines.add(line);
+            
+            if (Tsv3XDeserializer.getLayerType(line) == null) {
+                // End of header
+                break;
+            }
+        }
+        
+        return Tsv3XDeserializer.parseSchema(lines, aJCas);
+    }
+
+    private void readContent(LineBuffer aIn, TsvDocument aDoc) throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+
+        State prevState = State.INTER_SENTENCE_SPACE;
+        State state = State.INTER_SENTENCE_SPACE;
+
+        StringBuilder sentenceText = new StringBuilder();
+        TsvSentence sentence = null;
+        TsvToken token = null;
+
+        List<TsvColumn> headerColumns = aDoc.getSchema()
+                .getHeaderColumns(aDoc.getSchema().getColumns());
+        
+        boolean hasLine = aIn.nextLine();
+        while (!State.END.equals(state)) {
+            // These variables are only used in TOKEN and SUBTOKEN states.
+            int begin = -1;
+            int end = -1;
+
+            // Determine the status of the current line
+            if (!hasLine) {
+                state = State.END;
+            }
+            else if (aIn.startsWith(PREFIX_TEXT)) {
+                state = State.SENTENCE;
+            }
+            else if (aIn.length() == 0) {
+                state = State.INTER_SENTENCE_SPACE;
+            }
+            else {
+                aIn.splitFields();
+                if (aIn.fieldCount() < 2) {
+                    throw new IOException("Line " + aIn.getLineNumber()
+                            + ": Expected token ID and offsets but got [" + aIn.lineAsString()
+                            + "]");
+                }
+
+                // Get token metadata
+                int offsetsBegin = aIn.fieldBegin(1);
+                int offsetsEnd = aIn.fieldEnd(1);
+                int separator = aIn.indexOf('-', offsetsBegin, offsetsEnd);
+                if (separator == -1) {
+                    throw new IOException("Line " + aIn.getLineNumber()
+                            + ": Invalid offsets [" + aIn.substring(offsetsBegin, offsetsEnd)
+                            + "]");
+                }
+                begin = aIn.parseInt(offsetsBegin, separator);
+                end = aIn.parseInt(separator + 1, offsetsEnd);
+
+                // TOKEN or SUBTOKEN?
+                if (aIn.indexOf('.', aIn.fieldBegin(0), aIn.fieldEnd(0)) != -1) {
+                    state = State.SUBTOKEN;
+                }
+                else {
+                    state = State.TOKEN;
+                }
+            }
+
+            // Assert that the order of information in the file is correct
+            switch (prevState) {
+            case INTER_SENTENCE_SPACE:
+                if (!State.SENTENCE.equals(state)) {
+                    throw new IOException("Line " + aIn.getLineNumber()
+                            + ": Expected sentence header but got [" + state + "]");
+                }
+                break;
+            case SENTENCE:
+                if (!(State.SENTENCE.equals(state) || State.TOKEN.equals(state))) {
+                    throw new IOException("Line " + aIn.getLineNumber()
+                            + ": Expected sentence header or token but got [" + state + "]");
+                }
+                break;
+            case TOKEN:
+            case SUBTOKEN:
+                if (!(State.INTER_SENTENCE_SPACE.equals(state) || State.END.equals(state)
+                        || State.TOKEN.equals(state) || State.SUBTOKEN.equals(state))) {
+                    throw new IOException("Line " + aIn.getLineNumber()
+                            + ": Expected token, sub-token or sentence break but got [" + state
+                            + "]");
+                }
+                break;
+            default:
+                // No constraints
+                break;
+            }
+
+            // Do the actual parsing
+            switch (state) {
+            case END:
+            case INTER_SENTENCE_SPACE:
+                // End of sentence action
+                // The -1 here is to account for the tailing line break
+                sentence.getUimaSentence().setEnd(text.length() - 1);
+                sentence.getUimaSentence().addToIndexes();
+                sentence = null;
+                break;
+            case TOKEN:
+                // Note that the token value is not used here. When we get here, we have already
+                // added the complete sentence text to the text buffer.
+
+                // End of sentence header action
+                if (State.SENTENCE.equals(prevState)) {
+                    // If there is no space between the previous sentence and the current
+                    // sentence, then we have to strip off the trailing line break from the
+                    // last sentence!
+                    if (text.length() > begin) {
+                        assert text.length() == begin + 1;
+                        assert text.charAt(text.length() - 1) == LINE_BREAK;
+                        text.setLength(text.length() - 1);
+                    }
+                    
+                    // If there is a gap between the current end of the text buffer and the
+                    // offset of the first token in this sentence, then add whitespace to fill
+                    // the gap.
+                    if (text.length() < begin) {
+                        text.append(repeat(' ', begin - text.length()));
+                    }
+
+                    assert text.length() == begin;
+                    assert sentence == null;
+
+                    Sentence uimaSentence = new Sentence(aDoc.getJCas());
+                    uimaSentence.setBegin(text.length());
+                    sentence = aDoc.createSentence(uimaSentence);
+                    text.append(sentenceText);
+                    sentenceText.setLength(0);
+                }
+
+                // Token parsing action
+                Token uimaToken = new Token(aDoc.getJCas(), begin, end);
+                uimaToken.addToIndexes();
+                token = sentence.createToken(uimaToken);
+
+                // Read annotations from the columns
+                parseAnnotations(aIn, aDoc, token, headerColumns);
+                break;
+            case SUBTOKEN:
+                // Read annotations from the columns
+                TsvSubToken subToken = token.createSubToken(begin, end);
+                parseAnnotations(aIn, aDoc, subToken, headerColumns);
+                break;
+            case SENTENCE:
+                // Header parsing action
+                String textFragment = aIn.substring(aIn.lineBegin() + PREFIX_TEXT.length(),
+                        aIn.lineEnd());
+                // Unescaping only ever affects sequences starting with a backslash
+                if (textFragment.indexOf('\\') != -1 || !isKnownVersion(aDoc)) {
+                    textFragment = unescapeText(aDoc.getFormatHeader(), textFragment);
+                }
+                sentenceText.append(textFragment);
+                sentenceText.append(LINE_BREAK);
+                break;
+            }
+
+            prevState = state;
+            hasLine = aIn.nextLine();
+        }
+
+        aDoc.getJCas().setDocumentText(text.toString());
+
+        // After all data has been read, we also add the annotations with disambiguation ID to
+        // the CAS indexes. This ensures we only add them after their final begin/end offsets
+        // have been determined since most of these annotations are actually multi-token
+        // annotations.
+        CAS cas = aDoc.getJCas().getCas();
+        Set<FeatureStructure> fses = new LinkedHashSet<>();
+        for (TsvSentence s : aDoc.getSentences()) {
+            for (TsvToken t : s.getTokens()) {
+                for (Type type : t.getUimaTypes()) {
+                    fses.addAll(t.getUimaAnnotations(type));
+                }
+                for (TsvSubToken st : t.getSubTokens()) {
+                    for (Type type : st.getUimaTypes()) {
+                        fses.addAll(st.getUimaAnnotations(type));
+                    }
+                }
+            }
+        }
+        fses.forEach(cas::addFsToIndexes);
+    }
+    
+    private static boolean isKnownVersion(TsvDocument aDoc)
+    {
+        String version = aDoc.getFormatHeader().getVersion();
+        return "3.1".equals(version) || "3.2".equals(version);
+    }
+
+    private void parseAnnotations(LineBuffer aIn, TsvDocument aDoc, TsvUnit aUnit,
+            List<TsvColumn> aHeaderColumns)
+        throws IOException
+    {
+        for (TsvColumn col : aHeaderColumns) {
+            int field = col.index + 3;
+            if (field >= aIn.fieldCount()) {
+                throw new IOException("Line " + aIn.getLineNumber() + ": Expected at least ["
+                        + (field + 1) + "] columns but got [" + aIn.fieldCount() + "]");
+            }
+            
+            int begin = aIn.fieldBegin(field);
+            int end = aIn.fieldEnd(field);
+
+            if (aIn.contentEquals(begin, end, NULL_COLUMN)) {
+                continue;
+            }
+
+            stackedValues.split(aIn.buffer(), begin, end, STACK_SEP.charAt(0));
+
+            for (int i = 0; i < stackedValues.count(); i++) {
+                parseAnnotation(aIn, aDoc, aUnit, col, i, stackedValues.begin(i),
+                        stackedValues.end(i));
+            }
+        }
+    }
+
+    /**
+     * @param aIn
+     *            the buffer containing the current line.
+     * @param aDoc
+     *            the TSV document.
+     * @param aUnit
+     *            the current unit (token or subtoken).
+     * @param aCol
+     *            the column definition.
+     * @param aStackingIndex
+     *            the stack index within the column in case there are multiple stacked annotations
+     *            (0-based).
+     * @param aBegin
+     *            the begin of the value in the buffer.
+     * @param aEnd
+     *            the end of the value in the buffer.
+     */
+    private void parseAnnotation(LineBuffer aIn, TsvDocument aDoc, TsvUnit aUnit,
+            TsvColumn aCol, int aStackingIndex, int aBegin, int aEnd)
+    {
+        char[] buf = aIn.buffer();
+        int valueEnd = aEnd;
+        
+        // Extract disambiguation/chain suffix if it exists.
+        // If it is a slot column, skip this step because disambiguation info is provided per
+        // slot value.
+        String disambiguationInfo = null;
+        if (!(SLOT_TARGET.equals(aCol.featureType))) {
+            if (endsWithUnescaped(buf, aBegin, aEnd, ']')) {
+                int open = lastIndexOf(buf, aBegin, aEnd, '[');
+                if (open != -1) {
+                    int close = indexOf(buf, open + 1, aEnd, ']');
+                    disambiguationInfo = new String(buf, open + 1, close - open - 1);
+                    valueEnd = open;
+                }
+                else {
+                    disambiguationInfo = "";
+                }
+            }
+            else {
+                int chainSuffix = chainSuffixBegin(buf, aBegin, aEnd);
+                if (chainSuffix != -1) {
+                    disambiguationInfo = new String(buf, chainSuffix, aEnd - chainSuffix);
+                    valueEnd = chainSuffix - 2;
+                }
+            }
+        }
+        
+        assert disambiguationInfo == null || disambiguationInfo.length() > 0;
+
+        // Create the annotation of fetch an existing one
+        AnnotationFS annotation;
+        switch (aCol.layerType) {
+        case SPAN:
+            annotation = getOrCreateSpanAnnotation(aCol, aUnit, aStackingIndex, disambiguationInfo);
+            break;
+        case RELATION:
+            annotation = getOrCreateRelationAnnotation(aCol, aUnit, aStackingIndex);
+            break;
+        case CHAIN:
+            annotation = getOrCreateChainAnnotation(aCol, aUnit, aStackingIndex,
+                    disambiguationInfo);
+            break;
+        default:
+            throw new IllegalStateException("Unknown layer type [" + aCol.layerType + "]");
+        }
+
+        // Set feature values including references such as relation source/target or slot targets.
+        setFeatures(aDoc, aCol, aUnit, annotation, disambiguationInfo, aStackingIndex, buf,
+                aBegin, valueEnd);
+    }
+
+    private AnnotationFS getOrCreateSpanAnnotation(TsvColumn aCol, TsvUnit aUnit,
+            int aStackingIndex, String aDisambiguationInfo)
+    {
+        int disambiguationId = aDisambiguationInfo != null ? Integer.valueOf(aDisambiguationInfo)
+                : -1;
+
+        // Check if we have seen the same annotation already in the current unit but in another
+        // column.
+        AnnotationFS annotation = aUnit.getUimaAnnotation(aCol.uimaType, aStackingIndex);
+        // If not, check if we have seen the same annotation already in a previous unit
+        if (annotation == null && disambiguationId != -1) {
+            annotation = aUnit.getDocument().getDisambiguatedAnnotation(disambiguationId);
+            if (annotation != null) {
+                aUnit.addUimaAnnotation(annotation);
+
+                // Extend the span of the existing annotation
+                // Unfortunately, the AnnotationFS interface does not define a setEnd() method.
+                setFeature(annotation, CAS.FEATURE_BASE_NAME_END, aUnit.getEnd());
+            }
+        }
+
+        // Still no annotation? Then we have to create one
+        if (annotation == null) {
+            annotation = aUnit.getDocument().getJCas().getCas().createAnnotation(aCol.uimaType,
+                    aUnit.getBegin(), aUnit.getEnd());
+            aUnit.addUimaAnnotation(annotation);
+
+            // Check if there are slot features that need to be initialized
+            List<TsvColumn> otherColumnsForType = aUnit.getDocument().getSchema()
+                    .getColumns(aCol.uimaType);
+            for (TsvColumn col : otherColumnsForType) {
+                if (SLOT_TARGET.equals(col.featureType)) {
+                    setFeature(annotation, col.uimaFeature.getShortName(), emptyList());
+                }
+            }
+            
+            // Special handling of DKPro Core Token-attached annotations
+            if (Lemma.class.getName().equals(aCol.uimaType.getName())) {
+                TsvToken token = (TsvToken) aUnit;
+                token.getUimaToken().setLemma((Lemma) annotation); 
+            }
+            if (Stem.class.getName().equals(aCol.uimaType.getName())) {
+                TsvToken token = (TsvToken) aUnit;
+                token.getUimaToken().setStem((Stem) annotation); 
+            }
+            if (MorphologicalFeatures.class.getName().equals(aCol.uimaType.getName())) {
+                TsvToken token = (TsvToken) aUnit;
+                token.getUimaToken().setMorph((MorphologicalFeatures) annotation); 
+            }
+            if (POS.class.getName().equals(aCol.uimaType.getName())) {
+                TsvToken token = (TsvToken) aUnit;
+                token.getUimaToken().setPos((POS) annotation); 
+            }
+        }
+        
+        // If the current annotation carries an disambiguation ID, then register it in the
+        // document so we can look up the annotation via its ID later. This is necessary
+        // to extend the range of multi-token IDs.
+        if (disambiguationId != -1) {
+            aUnit.getDocument().addDisambiguationId(annotation, disambiguationId);
+        }
+
+        return annotation;
+    }
+
+    private AnnotationFS getOrCreateRelationAnnotation(TsvColumn aCol, TsvUnit aUnit,
+            int aStackingIndex)
+    {
+        // Check if we have seen the same annotation already in the current unit but in another
+        // column.
+        AnnotationFS annotation = aUnit.getUimaAnnotation(aCol.uimaType, aStackingIndex);
+
+        // If not, then we have to create one
+        if (annotation == null) {
+            annotation = aUnit.getDocument().getJCas().getCas().createAnnotation(aCol.uimaType,
+                    aUnit.getBegin(), aUnit.getEnd());
+            aUnit.addUimaAnnotation(annotation);
+        }
+
+        return annotation;
+    }
+
+    private AnnotationFS getOrCreateChainAnnotation(TsvColumn aCol, TsvUnit aUnit,
+            int aStackingIndex, String aDisambiguationInfo)
+    {
+        AnnotationFS annotation;
+
+        // Check if we have seen the same annotation already in the current unit but in
+        // another column.
+        annotation = aUnit.getUimaAnnotation(aCol.uimaType, aStackingIndex);
+        
+        if (annotation == null && CHAIN_LINK_TYPE.equals(aCol.featureType)) {
+            // Check if there is already an element with the same index/chain ID
+            // No disambiguation info, only chain info: *-><chainId>-<elementIndex>
+            String[] ids = split(aDisambiguationInfo, "-");
+            int chainId = Integer.valueOf(ids[0]);
+            int elementIndex = Integer.valueOf(ids[1]);
+            annotation = aUnit.getDocument().getChainElement(chainId, elementIndex);
+            
+            if (annotation != null) {
+                aUnit.addUimaAnnotation(annotation);
+
+                // Extend the span of the existing annotation
+                // Unfortunately, the AnnotationFS interface does not define a setEnd() method.
+                setFeature(annotation, CAS.FEATURE_BASE_NAME_END, aUnit.getEnd());
+            }
+            
+            // If not, then we have to create one - we do this only for link-type columns because
+            // these columns include the chain id and the element index which we both need to
+            // determine if there is already an existing annotation for this chain/element.
+            if (annotation == null) {
+                annotation = aUnit.getDocument().getJCas().getCas().createAnnotation(aCol.uimaType,
+                        aUnit.getBegin(), aUnit.getEnd());
+                aUnit.addUimaAnnotation(annotation);
+            }
+        }
+        
+        return annotation;
+    }
+
+    private void setFeatures(TsvDocument aDoc, TsvColumn aCol, TsvUnit aUnit,
+            AnnotationFS aAnnotation, String aDisambiguationInfo, int aStackingIndex,
+            char[] aBuf, int aBegin, int aEnd)
+    {
+        // Set the feature value on the annotation
+        switch (aCol.featureType) {
+        case PLACEHOLDER:
+            // Nothing to do!
+            break;
+        case CHAIN_LINK_TYPE: {
+            // No disambiguation info, only chain info: *-><chainId>-<elementIndex>
+            String[] ids = split(aDisambiguationInfo, "-");
+            int chainId = Integer.valueOf(ids[0]);
+            int elementIndex = Integer.valueOf(ids[1]);
+            TsvChain chain = aDoc.getChain(chainId);
+            if (chain == null) {
+                // Guess the head type using naming conventions.
+                String headTypeName = removeEnd(aCol.uimaType.getName(), "Link");
+                headTypeName += "Chain";
+                
+                Type headType = aDoc.getJCas().getTypeSystem().getType(headTypeName);
+                if (headType == null) {
+                    throw new IllegalStateException(
+                            "CAS type system does not contain a type named [" + headTypeName
+                                    + "]");
+                }
+                
+                chain = aDoc.createChain(chainId, headType, aCol.uimaType);
+            }
+            
+            chain.putElement(elementIndex, aAnnotation);
+            // fall-through (to set the relation type)
+        }
+        case CHAIN_ELEMENT_TYPE: {
+            String value = stringPool.get(aBuf, aBegin, aEnd);
+            deferredActions.add(() -> {
+                // We need to do this later because first we need to wait until all the elements
+                // have been created from the link-type columns. Then we have to look the 
+                // annotations up via their unit/stacking index.
+                AnnotationFS annotation = aUnit.getUimaAnnotation(aCol.uimaType, aStackingIndex);
+                setPrimitiveValue(aCol, annotation, value);
+            });
+            break;
+        }
+        case PRIMITIVE: {
+            if (!contentEquals(aBuf, aBegin, aEnd, NULL_VALUE)) {
+                setPrimitiveValue(aCol, aAnnotation, stringPool.get(aBuf, aBegin, aEnd));
+            }
+            break;
+        }
+        case RELATION_REF: {
+            // Two disambiguation IDs in brackets after annotation value, e.g.: 1-1[0_2]
+            final int sourceDisambiguationId;
+            final int targetDisambiguationId;
+            if (aDisambiguationInfo != null) {
+                String[] ids = split(aDisambiguationInfo, "_");
+                sourceDisambiguationId = Integer.valueOf(ids[0]);
+                targetDisambiguationId = Integer.valueOf(ids[1]);
+            }
+            else {
+                sourceDisambiguationId = -1;
+                targetDisambiguationId = -1;
+            }
+            
+            // The source unit is only needed if the source is not disambiguated
+            final UnitReference source = sourceDisambiguationId > 0 ? null
+                    : UnitReference.parse(aBuf, aBegin, aEnd);
+
+            // We cannot set the source and target features set because we may not yet have
+            // created the relevant annotations. So we defer setting these values until all
+            // annotations have been created.
+            deferredActions.add(() -> {
+                Type attachType = aCol.getTargetTypeHint();
+                
+                // COMPATIBILITY NOTE:
+                // WebAnnoTsv3Writer hard-changes the target type for DKPro Core
+                // Dependency annotations from Token to POS - the reason is not really
+                // clear. Probably because the Dependency relations in the WebAnno UI
+                // attach to POS (Token's are not visible as annotations in the UI).
+                if (aCol.uimaType.getName().equals(Dependency.class.getName())) {
+                    attachType = aDoc.getJCas().getTypeSystem().getType(Token.class.getName());
+                }
+                
+                AnnotationFS sourceAnnotation = sourceDisambiguationId > 0
+                        ? resolveReference(aDoc, sourceDisambiguationId)
+                        : resolveReference(attachType, source.resolve(aDoc));
+
+                AnnotationFS targetAnnotation = targetDisambiguationId > 0
+                        ? resolveReference(aDoc, targetDisambiguationId)
+                        : resolveReference(attachType, aUnit);
+
+                setFeature(aAnnotation, FEAT_REL_SOURCE, sourceAnnotation);
+                setFeature(aAnnotation, FEAT_REL_TARGET, targetAnnotation);
+            });
+            break;
+        }
+        case SLOT_ROLE: {
+            CAS cas = aDoc.getJCas().getCas();
+            List<FeatureStructure> links = new ArrayList<>();
+            if (!contentEquals(aBuf, aBegin, aEnd, NULL_COLUMN)) {
+                slotValues.split(aBuf, aBegin, aEnd, SLOT_SEP.charAt(0));
+                for (int i = 0; i < slotValues.count(); i++) {
+                    FeatureStructure linkFS = cas.createFS(aCol.getTargetTypeHint());
+                    int begin = slotValues.begin(i);
+                    int end = slotValues.end(i);
+                    if (!contentEquals(aBuf, begin, end, NULL_VALUE)) {
+                        setFeature(linkFS, FEAT_SLOT_ROLE,
+                                unescapeValue(stringPool.get(aBuf, begin, end)));
+                    }
+                    // We index the link features here already so we do not have to track them
+                    // down later. They do not have offsets and no other index-relevant features
+                    // anyway.
+                    cas.addFsToIndexes(linkFS);
+                    links.add(linkFS);
+                }
+            }
+            setFeature(aAnnotation, aCol.uimaFeature.getShortName(), links);
+            break;
+        }
+        case SLOT_TARGET: {
+            // The targets are parsed now because the buffer is reused for the next line, but
+            // setting the target feature has to be deferred until we have created all the 
+            // annotations.
+            final UnitReference[] targets;
+            final int[] disambiguationIds;
+            final boolean nullValue;
+            if (contentEquals(aBuf, aBegin, aEnd, NULL_COLUMN)) {
+                targets = new UnitReference[0];
+                disambiguationIds = new int[0];
+                nullValue = false;
+            }
+            else {
+                slotValues.split(aBuf, aBegin, aEnd, SLOT_SEP.charAt(0));
+                targets = new UnitReference[slotValues.count()];
+                disambiguationIds = new int[slotValues.count()];
+                nullValue = slotValues.count() == 1
+                        && contentEquals(aBuf, slotValues.begin(0), slotValues.end(0), NULL_VALUE);
+                for (int i = 0; i < slotValues.count(); i++) {
+                    int begin = slotValues.begin(i);
+                    int end = slotValues.end(i);
+                    
+                    if (contentEquals(aBuf, begin, end, NULL_VALUE)
+                            || contentEquals(aBuf, begin, end, NULL_COLUMN)) {
+                        continue;
+                    }
+                    
+                    // Extract slot-local disambiguation info
+                    disambiguationIds[i] = -1;
+                    if (endsWithUnescaped(aBuf, begin, end, ']')) {
+                        int open = lastIndexOf(aBuf, begin, end, '[');
+                        if (open == -1) {
+                            throw new IllegalStateException("Invalid slot target: ["
+                                    + new String(aBuf, begin, end - begin) + "]");
+                        }
+                        int close = indexOf(aBuf, open + 1, end, ']');
+                        disambiguationIds[i] = parseInt(aBuf, open + 1, close);
+                        end = open;
+                    }
+                    
+                    targets[i] = UnitReference.parse(aBuf, begin, end);
+                }
+            }
+            
+            deferredActions.add(() -> {
+                FeatureStructure[] links = getFeature(aAnnotation,
+                        aCol.uimaFeature.getShortName(), FeatureStructure[].class);
+                
+                assert (links.length == 0 && nullValue) || (targets.length == links.length);
+
+                for (int i = 0; i < targets.length; i++) {
+                    if (targets[i] == null) {
+                        continue;
+                    }
+                    
+                    AnnotationFS targetAnnotation = disambiguationIds[i] > 0
+                            ? resolveReference(aDoc, disambiguationIds[i])
+                            : resolveReference(aCol.getTargetTypeHint(),
+                                    targets[i].resolve(aDoc));
+                    
+                    setFeature(links[i], FEAT_SLOT_TARGET, targetAnnotation);
+                }
+            });
+            break;
+        }
+        }
+    }
+    
+    private static void setPrimitiveValue(TsvColumn aCol, AnnotationFS aAnnotation, String aValue)
+    {
+        // Unescape value - this needs to be done after extracting the disambiguation ID and
+        // after determining whether the values is a null value.
+        if (!NULL_VALUE.equals(aValue)) {
+            String value = unescapeValue(aValue);
+            Feature feat = aAnnotation.getType()
+                    .getFeatureByBaseName(aCol.uimaFeature.getShortName());
+            
+            if (feat == null) {
+                throw new IllegalArgumentException(
+                        "CAS type [" + aAnnotation.getType() + "] does not have a feature called ["
+                                + aCol.uimaFeature.getShortName() + "]");
+            }
+            
+            aAnnotation.setFeatureValueFromString(feat, value);
+        }
+    }
+    
+    private static String unescapeValue(String aValue)
+    {
+        // All escape sequences start with a backslash, so most values can be used as they are
+        return aValue.indexOf('\\') == -1 ? aValue : Escaping.unescapeValue(aValue);
+    }
+    
+    private static AnnotationFS resolveReference(TsvDocument aDoc, int aDisambiguationId)
+    {
+        AnnotationFS annotation = aDoc.getDisambiguatedAnnotation(aDisambiguationId);
+        if (annotation == null) {
+            throw new IllegalStateException(
+                    "Unable to resolve reference to disambiguation ID [" + aDisambiguationId + "]");
+        }
+        return annotation;
+    }
+    
+    private static AnnotationFS resolveReference(Type aType, TsvUnit aUnit)
+    {
+        AnnotationFS annotation = aUnit.getUimaAnnotation(aType, 0);
+        if (annotation == null) {
+            throw new IllegalStateException(
+                    "Unable to resolve reference to unambiguous annotation of type ["
+                            + aType.getName() + "] in unit [" + aUnit.getId() + "]");
+        }
+        return annotation;
+    }
+    
+    /**
+     * Checks whether the given range ends with the given character and that character is not
+     * escaped.
+     */
+    private static boolean endsWithUnescaped(char[] aBuf, int aBegin, int aEnd, char aChar)
+    {
+        return aEnd > aBegin && aBuf[aEnd - 1] == aChar
+                && !(aEnd - 1 > aBegin && aBuf[aEnd - 2] == '\\');
+    }
+    
+    /**
+     * Locates a chain suffix of the form {@code -><chainId>-<elementIndex>} at the end of the
+     * given range where the {@code ->} is not escaped.
+     * 
+     * @return the begin of the chain ID or {@code -1} if there is no chain suffix.
+     */
+    private static int chainSuffixBegin(char[] aBuf, int aBegin, int aEnd)
+    {
+        // The chain ID and element index consist only of digits and a dash
+        int i = aEnd;
+        while (i > aBegin && isDigit(aBuf[i - 1])) {
+            i--;
+        }
+        if (i == aEnd || i == aBegin || aBuf[i - 1] != '-') {
+            return -1;
+        }
+        i--;
+        int dash = i;
+        while (i > aBegin && isDigit(aBuf[i - 1])) {
+            i--;
+        }
+        if (i == dash) {
+            return -1;
+        }
+        
+        // Then there must be an unescaped arrow
+        if (i - 2 < aBegin || aBuf[i - 2] != '-' || aBuf[i - 1] != '>') {
+            return -1;
+        }
+        if (i - 3 >= aBegin && aBuf[i - 3] == '\\') {
+            return -1;
+        }
+        
+        return i;
+    }
+    
+    private static boolean isDigit(char aChar)
+    {
+        return aChar >= '0' && aChar <= '9';
+    }
+    
+    private static int indexOf(char[] aBuf, int aBegin, int aEnd, char aChar)
+    {
+        for (int i = aBegin; i < aEnd; i++) {
+            if (aBuf[i] == aChar) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int lastIndexOf(char[] aBuf, int aBegin, int aEnd, char aChar)
+    {
+        for (int i = aEnd - 1; i >= aBegin; i--) {
+            if (aBuf[i] == aChar) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean contentEquals(char[] aBuf, int aBegin, int aEnd, String aValue)
+    {
+        if (aEnd - aBegin != aValue.length()) {
+            return false;
+        }
+        for (int i = 0; i < aValue.length(); i++) {
+            if (aBuf[aBegin + i] != aValue.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int parseInt(char[] aBuf, int aBegin, int aEnd)
+    {
+        if (aBegin >= aEnd || aEnd - aBegin > 9) {
+            // Empty or potentially overflowing - let the JDK produce the error (or the value)
+            return Integer.parseInt(new String(aBuf, aBegin, Math.max(0, aEnd - aBegin)));
+        }
+        
+        int value = 0;
+        for (int i = aBegin; i < aEnd; i++) {
+            char c = aBuf[i];
+            if (!isDigit(c)) {
+                throw new NumberFormatException(
+                        "For input string: \"" + new String(aBuf, aBegin, aEnd - aBegin) + "\"");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private enum State
+    {
+        END, SENTENCE, TOKEN, SUBTOKEN, INTER_SENTENCE_SPACE;
+    }
+    
+    /**
+     * Reference to a unit by its ID, e.g. {@code 1-2} for a token or {@code 1-2.1} for a
+     * sub-token.
+     */
+    private static final class UnitReference
+    {
+        private final int sentence;
+        private final int token;
+        private final int subToken;
+        
+        private UnitReference(int aSentence, int aToken, int aSubToken)
+        {
+            sentence = aSentence;
+            token = aToken;
+            subToken = aSubToken;
+        }
+        
+        public static UnitReference parse(char[] aBuf, int aBegin, int aEnd)
+        {
+            int dash = indexOf(aBuf, aBegin, aEnd, '-');
+            if (dash == -1) {
+                throw new IllegalArgumentException(
+                        "Invalid unit ID: [" + new String(aBuf, aBegin, aEnd - aBegin) + "]");
+            }
+            int dot = indexOf(aBuf, dash + 1, aEnd, '.');
+            
+            try {
+                return new UnitReference(parseInt(aBuf, aBegin, dash),
+                        parseInt(aBuf, dash + 1, dot != -1 ? dot : aEnd),
+                        dot != -1 ? parseInt(aBuf, dot + 1, aEnd) : 0);
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "Invalid unit ID: [" + new String(aBuf, aBegin, aEnd - aBegin) + "]");
+            }
+        }
+        
+        public TsvUnit resolve(TsvDocument aDoc)
+        {
+            TsvToken t = aDoc.getToken(sentence - 1, token - 1);
+            return subToken > 0 ? t.getSubTokens().get(subToken - 1) : t;
+        }
+    }
+    
+    /**
+     * The begin and end offsets of the parts of a value which has been split at a separator.
+     */
+    private static final class Ranges
+    {
+        private int[] bounds = new int[16];
+        private int count;
+        
+        /**
+         * Splits the given range at each separator which is not preceded by a backslash. Like
+         * {@link java.util.regex.Pattern#split(CharSequence)}, trailing empty parts are dropped.
+         */
+        public void split(char[] aBuf, int aBegin, int aEnd, char aSeparator)
+        {
+            count = 0;
+            boolean matched = false;
+            int partBegin = aBegin;
+            for (int i = aBegin; i < aEnd; i++) {
+                if (aBuf[i] == aSeparator && (i == aBegin || aBuf[i - 1] != '\\')) {
+                    add(partBegin, i);
+                    partBegin = i + 1;
+                    matched = true;
+                }
+            }
+            add(partBegin, aEnd);
+            
+            if (matched) {
+                while (count > 0 && begin(count - 1) == end(count - 1)) {
+                    count--;
+                }
+            }
+        }
+        
+        private void add(int aBegin, int aEnd)
+        {
+            if (2 * count + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[2 * count] = aBegin;
+            bounds[2 * count + 1] = aEnd;
+            count++;
+        }
+        
+        public int count()
+        {
+            return count;
+        }
+        
+        public int begin(int aIndex)
+        {
+            return bounds[2 * aIndex];
+        }
+        
+        public int end(int aIndex)
+        {
+            return bounds[2 * aIndex + 1];
+        }
+    }
+    
+    /**
+     * Interns strings without having to create a string for values which have been seen before.
+     */
+    private static final class StringPool
+    {
+        private String[] table = new String[1024];
+        private int size;
+        
+        public String get(char[] aBuf, int aBegin, int aEnd)
+        {
+            int hash = 0;
+            for (int i = aBegin; i < aEnd; i++) {
+                hash = 31 * hash + aBuf[i];
+            }
+            
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            String entry;
+            while ((entry = table[slot]) != null) {
+                if (entry.hashCode() == hash
+                        && Tsv3XStreamingDeserializer.contentEquals(aBuf, aBegin, aEnd, entry)) {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            String value = new String(aBuf, aBegin, aEnd - aBegin);
+            table[slot] = value;
+            size++;
+            if (size > table.length / 2) {
+                rehash();
+            }
+            return value;
+        }
+        
+        private void rehash()
+        {
+            String[] oldTable = table;
+            table = new String[oldTable.length * 2];
+            int mask = table.length - 1;
+            for (String entry : oldTable) {
+                if (entry != null) {
+                    int slot = entry.hashCode() & mask;
+                    while (table[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = entry;
+                }
+            }
+        }
+        
+        public void clear()
+        {
+            Arrays.fill(table, null);
+            size = 0;
+        }
+    }
+    
+    /**
+     * Reads lines into a reusable character buffer. The current line and its fields are only
+     * valid until the next line is read.
+     */
+    private static final class LineBuffer
+    {
+        private final Reader in;
+        private char[] buf = new char[64 * 1024];
+        private int pos;
+        private int limit;
+        private boolean eof;
+        private int lineBegin;
+        private int lineEnd;
+        private int lineNumber;
+        private int[] fields = new int[64];
+        private int fieldCount;
+        
+        public LineBuffer(Reader aIn)
+        {
+            in = aIn;
+        }
+        
+        /**
+         * Reads the next line. Lines may be terminated by {@code \n}, {@code \r} or
+         * {@code \r\n}, like in {@link java.io.BufferedReader#readLine()}.
+         * 
+         * @return {@code false} if the end of the input has been reached.
+         */
+        public boolean nextLine() throws IOException
+        {
+            fieldCount = 0;
+            
+            int scan = pos;
+            while (true) {
+                for (int i = scan; i < limit; i++) {
+                    char c = buf[i];
+                    if (c == '\n' || c == '\r') {
+                        // A \r at the end of the buffer may be followed by a \n which has not
+                        // been read yet
+                        if (c == '\r' && i + 1 == limit && !eof) {
+                            break;
+                        }
+                        lineBegin = pos;
+                        lineEnd = i;
+                        pos = (c == '\r' && i + 1 < limit && buf[i + 1] == '\n') ? i + 2 : i + 1;
+                        lineNumber++;
+                        return true;
+                    }
+                    scan = i + 1;
+                }
+                
+                if (eof) {
+                    if (pos == limit) {
+                        return false;
+                    }
+                    // Last line without a line terminator
+                    lineBegin = pos;
+                    lineEnd = limit;
+                    pos = limit;
+                    lineNumber++;
+                    return true;
+                }
+                
+                scan = fill(scan);
+            }
+        }
+        
+        /**
+         * Moves the unconsumed data to the start of the buffer, grows the buffer if it is full and
+         * reads more data.
+         * 
+         * @return the scan position adjusted to the moved data.
+         */
+        private int fill(int aScan) throws IOException
+        {
+            int remaining = limit - pos;
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, remaining);
+            }
+            else if (remaining == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            int scan = aScan - pos;
+            pos = 0;
+            limit = remaining;
+            
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read == -1) {
+                eof = true;
+            }
+            else {
+                limit += read;
+            }
+            return scan;
+        }
+        
+        public int getLineNumber()
+        {
+            return lineNumber;
+        }
+        
+        public char[] buffer()
+        {
+            return buf;
+        }
+        
+        public int lineBegin()
+        {
+            return lineBegin;
+        }
+        
+        public int lineEnd()
+        {
+            return lineEnd;
+        }
+        
+        public int length()
+        {
+            return lineEnd - lineBegin;
+        }
+        
+        public boolean isBlank()
+        {
+            for (int i = lineBegin; i < lineEnd; i++) {
+                if (!Character.isWhitespace(buf[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        public boolean startsWith(String aPrefix)
+        {
+            return length() >= aPrefix.length()
+                    && Tsv3XStreamingDeserializer.contentEquals(buf, lineBegin,
+                            lineBegin + aPrefix.length(), aPrefix);
+        }
+        
+        public boolean contentEquals(int aBegin, int aEnd, String aValue)
+        {
+            return Tsv3XStreamingDeserializer.contentEquals(buf, aBegin, aEnd, aValue);
+        }
+        
+        public int indexOf(char aChar, int aBegin, int aEnd)
+        {
+            return Tsv3XStreamingDeserializer.indexOf(buf, aBegin, aEnd, aChar);
+        }
+        
+        public int parseInt(int aBegin, int aEnd)
+        {
+            return Tsv3XStreamingDeserializer.parseInt(buf, aBegin, aEnd);
+        }
+        
+        public String substring(int aBegin, int aEnd)
+        {
+            return new String(buf, aBegin, aEnd - aBegin);
+        }
+        
+        public String lineAsString()
+        {
+            return substring(lineBegin, lineEnd);
+        }
+        
+        /**
+         * Splits the current line at the tab characters. Empty fields are retained.
+         */
+        public void splitFields()
+        {
+            fieldCount = 0;
+            int fieldBegin = lineBegin;
+            for (int i = lineBegin; i < lineEnd; i++) {
+                if (buf[i] == '\t') {
+                    addField(fieldBegin, i);
+                    fieldBegin = i + 1;
+                }
+            }
+            addField(fieldBegin, lineEnd);
+        }
+        
+        private void addField(int aBegin, int aEnd)
+        {
+            if (2 * fieldCount + 2 > fields.length) {
+                fields = Arrays.copyOf(fields, fields.length * 2);
+            }
+            fields[2 * fieldCount] = aBegin;
+            fields[2 * fieldCount + 1] = aEnd;
+            fieldCount++;
+        }
+        
+        public int fieldCount()
+        {
+            return fieldCount;
+        }
+        
+        public int fieldBegin(int aIndex)
+        {
+            return fields[2 * aIndex];
+        }
+        
+        public int fieldEnd(int aIndex)
+        {
+            return fields[2 * aIndex + 1];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x;
+
+import static java.util.Arrays.asList;
+import static org.apache.uima.fit.util.JCasUtil.select;
+import static org.apache.uima.fit.util.JCasUtil.selectCovered;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.LineNumberReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
+import org.apache.uima.fit.testing.factory.TokenBuilder;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.apache.uima.util.CasCreationUtils;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.clarin.webanno.tsv.internal.tsv3x.model.TsvSchema;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency;
+
+public class Tsv3XStreamingDeserializerTest
+{
+    private static final String[] POS_TAGS = { "NN", "VBZ", "DT", "JJ", "IN", "PRP" };
+    private static final String[] NE_TAGS = { "PER", "ORG", "LOC" };
+    
+    @Test
+    public void thatSuiteFilesAreReadLikeWithDeserializer() throws Exception
+    {
+        for (File folder : new File("src/test/resources/tsv3-suite/").listFiles()) {
+            File referenceFile = new File(folder, "reference.tsv");
+            if (!referenceFile.exists()) {
+                continue;
+            }
+            
+            TypeSystemDescription tsd = makeTypeSystem(folder);
+            String tsv = FileUtils.readFileToString(referenceFile, "UTF-8");
+            
+            JCas expected = JCasFactory.createJCas(tsd);
+            new Tsv3XDeserializer().read(new LineNumberReader(new StringReader(tsv)), expected);
+            
+            JCas actual = JCasFactory.createJCas(tsd);
+            new Tsv3XStreamingDeserializer().read(new StringReader(tsv), actual);
+            
+            assertEquals(folder.getName(), expected.getDocumentText(), actual.getDocumentText());
+            assertEquals(folder.getName(), write(expected), write(actual));
+        }
+    }
+    
+    @Test
+    public void thatLargeDocumentIsReadLikeWithDeserializer() throws Exception
+    {
+        TypeSystemDescription tsd = makeTypeSystem(null);
+        String tsv = write(makeLargeJCas(tsd, 20_000));
+        
+        JCas expected = JCasFactory.createJCas(tsd);
+        new Tsv3XDeserializer().read(new LineNumberReader(new StringReader(tsv)), expected);
+        
+        JCas actual = JCasFactory.createJCas(tsd);
+        new Tsv3XStreamingDeserializer().read(new StringReader(tsv), actual);
+        
+        assertEquals(expected.getDocumentText(), actual.getDocumentText());
+        assertEquals(write(expected), write(actual));
+    }
+    
+    private static String write(JCas aJCas)
+    {
+        TsvSchema schema = Tsv3XCasSchemaAnalyzer.analyze(aJCas.getTypeSystem());
+        StringWriter buffer = new StringWriter();
+        try (PrintWriter out = new PrintWriter(buffer)) {
+            new Tsv3XSerializer().write(out, Tsv3XCasDocumentBuilder.of(schema, aJCas));
+        }
+        return buffer.toString();
+    }
+    
+    private static TypeSystemDescription makeTypeSystem(File aFolder) throws UIMAException
+    {
+        TypeSystemDescription global = TypeSystemDescriptionFactory.createTypeSystemDescription();
+        TypeSystemDescription local;
+        if (aFolder != null && new File(aFolder, "typesystem.xml").exists()) {
+            local = TypeSystemDescriptionFactory.createTypeSystemDescriptionFromPath(
+                    new File(aFolder, "typesystem.xml").toString());
+        }
+        else {
+            local = TypeSystemDescriptionFactory.createTypeSystemDescriptionFromPath(
+                    "src/test/resources/desc/type/webannoTestTypes.xml");
+        }
+        
+        return CasCreationUtils.mergeTypeSystems(asList(global, local));
+    }
+    
+    private static JCas makeLargeJCas(TypeSystemDescription aTsd, int aSentences)
+        throws UIMAException
+    {
+        StringBuilder text = new StringBuilder();
+        for (int s = 0; s < aSentences; s++) {
+            if (s > 0) {
+                text.append('\n');
+            }
+            text.append("Sentence").append(s).append(" has some tokens with values in it .");
+        }
+        
+        JCas jcas = JCasFactory.createJCas(aTsd);
+        TokenBuilder<Token, Sentence> tb = new TokenBuilder<>(Token.class, Sentence.class);
+        tb.buildTokens(jcas, text.toString());
+        
+        int n = 0;
+        for (Sentence sentence : select(jcas, Sentence.class)) {
+            List<Token> tokens = new ArrayList<>(selectCovered(Token.class, sentence));
+            for (Token token : tokens) {
+                POS pos = new POS(jcas, token.getBegin(), token.getEnd());
+                pos.setPosValue(POS_TAGS[n++ % POS_TAGS.length]);
+                pos.addToIndexes();
+                token.setPos(pos);
+            }
+            
+            // A multi-token named entity and a stacked single-token named entity
+            NamedEntity ne1 = new NamedEntity(jcas, tokens.get(3).getBegin(),
+                    tokens.get(5).getEnd());
+            ne1.setValue(NE_TAGS[n % NE_TAGS.length]);
+            ne1.addToIndexes();
+            NamedEntity ne2 = new NamedEntity(jcas, tokens.get(0).getBegin(),
+                    tokens.get(0).getEnd());
+            ne2.setValue(NE_TAGS[(n + 1) % NE_TAGS.length]);
+            ne2.addToIndexes();
+            NamedEntity ne3 = new NamedEntity(jcas, tokens.get(0).getBegin(),
+                    tokens.get(0).getEnd());
+            ne3.setValue(NE_TAGS[(n + 2) % NE_TAGS.length]);
+            ne3.addToIndexes();
+            
+            for (int i = 1; i < tokens.size(); i++) {
+                Dependency dep = new Dependency(jcas, tokens.get(i).getBegin(),
+                        tokens.get(i).getEnd());
+                dep.setGovernor(tokens.get(0));
+                dep.setDependent(tokens.get(i));
+                dep.setDependencyType(i % 2 == 0 ? "nsubj" : "dobj");
+                dep.addToIndexes();
+            }
+        }
+        
+        return jcas;
+    }
+}
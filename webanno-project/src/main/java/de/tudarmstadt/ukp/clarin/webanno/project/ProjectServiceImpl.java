@@ -23,6 +23,8 @@ import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATI
 import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_IN_PROGRESS;
 import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.NEW;
 import static java.nio.file.Files.newDirectoryStream;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.Comparator.comparingInt;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.io.IOUtils.copyLarge;
@@ -48,6 +50,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -58,7 +61,7 @@ import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -75,6 +78,11 @@ import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectType;
@@ -99,6 +107,9 @@ import de.tudarmstadt.ukp.clarin.webanno.support.logging.Logging;
 public class ProjectServiceImpl
     implements ProjectService, SmartLifecycle
 {
+    private static final long PERMISSION_CACHE_TTL_SECONDS = 30;
+    private static final long PERMISSION_CACHE_SIZE = 10_000;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private @PersistenceContext EntityManager entityManager;
@@ -111,6 +122,18 @@ public class ProjectServiceImpl
     private boolean running = false;
 
     private List<ProjectType> projectTypes;
+    
+    /**
+     * Permission levels per user and project. Permission checks happen on practically every
+     * request (in particular on the stateless remote API), so we avoid hitting the database every
+     * time. Entries are invalidated whenever permissions are granted or revoked through this
+     * service.
+     */
+    private final Cache<Pair<String, Long>, Set<PermissionLevel>> permissionLevelCache = Caffeine
+            .newBuilder()
+            .expireAfterWrite(PERMISSION_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(PERMISSION_CACHE_SIZE)
+            .build();
             
     @Autowired
     public ProjectServiceImpl(UserDao aUserRepository, 
@@ -264,6 +287,7 @@ public class ProjectServiceImpl
     public void createProjectPermission(ProjectPermission aPermission)
     {
         entityManager.persist(aPermission);
+        invalidatePermissionLevels(aPermission.getUser(), aPermission.getProject());
         
         try (MDC.MDCCloseable closable = MDC.putCloseable(Logging.KEY_PROJECT_ID,
                 String.valueOf(aPermission.getProject().getId()))) {
@@ -295,22 +319,8 @@ public class ProjectServiceImpl
     @Override
     public boolean existsProjectPermission(User aUser, Project aProject)
     {
-        String query =
-                "FROM ProjectPermission " + 
-                "WHERE user = :user AND project = :project";
-        List<ProjectPermission> projectPermissions = entityManager
-                .createQuery(query, ProjectPermission.class)
-                .setParameter("user", aUser.getUsername())
-                .setParameter("project", aProject)
-                .getResultList();
-        
         // if at least one permission level exist
-        if (projectPermissions.size() > 0) {
-            return true;
-        }
-        else {
-            return false;
-        }
+        return !getCachedPermissionLevels(aUser, aProject).isEmpty();
     }
 
     @Override
@@ -318,21 +328,7 @@ public class ProjectServiceImpl
     public boolean existsProjectPermissionLevel(User aUser, Project aProject,
             PermissionLevel aLevel)
     {
-        String query =
-                "FROM ProjectPermission " + 
-                "WHERE user = :user AND project = :project AND level = :level";
-        try {
-            entityManager
-                    .createQuery(query, ProjectPermission.class)
-                    .setParameter("user", aUser.getUsername())
-                    .setParameter("project", aProject)
-                    .setParameter("level", aLevel)
-                    .getSingleResult();
-            return true;
-        }
-        catch (NoResultException ex) {
-            return false;
-        }
+        return getCachedPermissionLevels(aUser, aProject).contains(aLevel);
     }
 
     @Override
@@ -435,6 +431,41 @@ public class ProjectServiceImpl
         }
     }
     
+    private Set<PermissionLevel> getCachedPermissionLevels(User aUser, Project aProject)
+    {
+        // Transient projects cannot have any permissions yet
+        if (aProject.getId() == null) {
+            return emptySet();
+        }
+        
+        return permissionLevelCache.get(Pair.of(aUser.getUsername(), aProject.getId()),
+                key -> unmodifiableSet(new HashSet<>(getProjectPermissionLevels(aUser, aProject))));
+    }
+    
+    private void invalidatePermissionLevels(String aUsername, Project aProject)
+    {
+        if (aProject.getId() == null) {
+            return;
+        }
+        
+        Pair<String, Long> key = Pair.of(aUsername, aProject.getId());
+        permissionLevelCache.invalidate(key);
+        
+        // Concurrent requests may re-populate the cache with the old state until the
+        // transaction is committed, so invalidate once more after the transaction completes.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronizationAdapter()
+                    {
+                        @Override
+                        public void afterCompletion(int aStatus)
+                        {
+                            permissionLevelCache.invalidate(key);
+                        }
+                    });
+        }
+    }
+    
     @Override
     @Transactional(noRollbackFor = NoResultException.class)
     public void setProjectPermissionLevels(User aUser, Project aProject,
@@ -660,6 +691,7 @@ public class ProjectServiceImpl
 
         for (ProjectPermission permissions : getProjectPermissions(aProject)) {
             entityManager.remove(permissions);
+            invalidatePermissionLevels(permissions.getUser(), aProject);
         }
                 
         entityManager.remove(project);
@@ -704,6 +736,7 @@ public class ProjectServiceImpl
     public void removeProjectPermission(ProjectPermission aPermission)
     {
         entityManager.remove(aPermission);
+        invalidatePermissionLevels(aPermission.getUser(), aPermission.getProject());
         
         try (MDC.MDCCloseable closable = MDC.putCloseable(Logging.KEY_PROJECT_ID,
                 String.valueOf(aPermission.getProject().getId()))) {
@@ -871,22 +904,7 @@ public class ProjectServiceImpl
     @Override
     public boolean isManager(Project aProject, User aUser)
     {
-        boolean projectAdmin = false;
-        try {
-            List<ProjectPermission> permissionLevels = listProjectPermissionLevel(aUser, aProject);
-            for (ProjectPermission permissionLevel : permissionLevels) {
-                if (StringUtils.equalsIgnoreCase(permissionLevel.getLevel().getName(),
-                        PermissionLevel.MANAGER.getName())) {
-                    projectAdmin = true;
-                    break;
-                }
-            }
-        }
-        catch (NoResultException ex) {
-            log.info("No permision is given to this user " + ex);
-        }
-
-        return projectAdmin;
+        return getCachedPermissionLevels(aUser, aProject).contains(PermissionLevel.MANAGER);
     }
 
     @Override
@@ -899,44 +917,13 @@ public class ProjectServiceImpl
     @Override
     public boolean isCurator(Project aProject, User aUser)
     {
-        boolean curator = false;
-        try {
-            List<ProjectPermission> permissionLevels = listProjectPermissionLevel(aUser, aProject);
-            for (ProjectPermission permissionLevel : permissionLevels) {
-                if (StringUtils.equalsIgnoreCase(permissionLevel.getLevel().getName(),
-                        PermissionLevel.CURATOR.getName())) {
-                    curator = true;
-                    break;
-                }
-            }
-        }
-        catch (NoResultException ex) {
-            log.info("No permision is given to this user " + ex);
-        }
-
-        return curator;
+        return getCachedPermissionLevels(aUser, aProject).contains(PermissionLevel.CURATOR);
     }
 
     @Override
     public boolean isAnnotator(Project aProject, User aUser)
     {
-        boolean user = false;
-        try {
-            List<ProjectPermission> permissionLevels = listProjectPermissionLevel(aUser, aProject);
-            for (ProjectPermission permissionLevel : permissionLevels) {
-                if (StringUtils.equalsIgnoreCase(permissionLevel.getLevel().getName(),
-                        PermissionLevel.ANNOTATOR.getName())) {
-                    user = true;
-                    break;
-                }
-            }
-        }
-
-        catch (NoResultException ex) {
-            log.info("No permision is given to this user " + ex);
-        }
-
-        return user;
+        return getCachedPermissionLevels(aUser, aProject).contains(PermissionLevel.ANNOTATOR);
     }
 
     @EventListener
@@ -148,4 +148,22 @@ public class ProjectServiceImplTest
 
         assertThat(foundUsers).containsExactly(beate, kevin);
     }
+
+    @Test
+    public void thatGrantedAndRevokedPermissionsAreReflectedImmediately()
+    {
+        assertThat(sut.isManager(testProject, kevin)).isFalse();
+        assertThat(sut.isCurator(testProject, beate)).isTrue();
+
+        sut.createProjectPermission(new ProjectPermission(testProject, "kevin", MANAGER));
+        ProjectPermission curator = sut.listProjectPermissionLevel(beate, testProject).stream()
+                .filter(p -> p.getLevel() == CURATOR)
+                .findFirst().get();
+        sut.removeProjectPermission(curator);
+
+        assertThat(sut.isManager(testProject, kevin)).isTrue();
+        assertThat(sut.isCurator(testProject, beate)).isFalse();
+        assertThat(sut.isAnnotator(testProject, beate)).isTrue();
+        assertThat(sut.existsProjectPermissionLevel(beate, testProject2, CURATOR)).isTrue();
+    }
 }
@@ -24,8 +24,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -34,10 +37,12 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -70,6 +75,9 @@ import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
 import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
 import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.PhaseTimer;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RemoteApiStatistics;
 
 /**
  * Expose some functions of WebAnno via a RESTful remote API.
@@ -101,6 +109,7 @@ public class LegacyRemoteApiController
     private @Autowired ImportExportService importExportService;
     private @Autowired AnnotationSchemaService annotationService;
     private @Autowired UserDao userRepository;
+    private @Autowired RemoteApiStatistics statistics;
 
     /**
      * Create a new project.
@@ -184,6 +193,7 @@ public class LegacyRemoteApiController
         aFile.transferTo(zipFile);
         ZipFile zip = new ZipFile(zipFile);
 
+        List<Pair<SourceDocument, InputStreamSource>> documentsToUpload = new ArrayList<>();
         for (Enumeration<?> zipEnumerate = zip.entries(); zipEnumerate.hasMoreElements();) {
             // Get ZipEntry which is a file or a directory
             ZipEntry entry = (ZipEntry) zipEnumerate.nextElement();
@@ -211,9 +221,22 @@ public class LegacyRemoteApiController
             else if (!FilenameUtils.getExtension(entry.toString()).equals("")
                     && !FilenameUtils.getName(entry.toString()).equals(".")) {
 
-                uploadSourceDocument(zip, entry, project, aFileType);
+                SourceDocument document = new SourceDocument();
+                document.setName(FilenameUtils.getName(entry.toString()));
+                document.setProject(project);
+                document.setFormat(aFileType);
+                documentsToUpload.add(Pair.of(document, () -> zip.getInputStream(entry)));
             }
         }
+        
+        // Meta data entries to the database and source documents to the project repository
+        Map<String, Exception> failures = documentRepository.uploadSourceDocuments(
+                documentsToUpload, annotationService.getFullProjectTypeSystem(project));
+        if (!failures.isEmpty()) {
+            Entry<String, Exception> failure = failures.entrySet().iterator().next();
+            throw new IOException("Unable to import document [" + failure.getKey() + "]",
+                    failure.getValue());
+        }
                 
         LOG.info("Successfully created project [" + aName + "] for user [" + username + "]");
         
@@ -737,8 +760,11 @@ public class LegacyRemoteApiController
                 });
 
         // Temporary file of annotation document
-        File downloadableFile = importExportService.exportAnnotationDocument(srcDoc,
-                annotatorName, format, annDoc.getName(), Mode.ANNOTATION);
+        File downloadableFile;
+        try (PhaseTimer timer = statistics.startPhase(CasPhase.SERIALIZE)) {
+            downloadableFile = importExportService.exportAnnotationDocument(srcDoc,
+                    annotatorName, format, annDoc.getName(), Mode.ANNOTATION);
+        }
 
         try {
             // Set mime type
@@ -764,7 +790,7 @@ public class LegacyRemoteApiController
         }
         finally {
             if (downloadableFile.exists()) {
-                downloadableFile.delete();
+                importExportService.deleteExportedFile(downloadableFile);
             }
         }
     }
@@ -870,8 +896,11 @@ public class LegacyRemoteApiController
                 });
 
         // Temporary file of annotation document
-        File downloadableFile = importExportService.exportAnnotationDocument(srcDocument,
-                WebAnnoConst.CURATION_USER, format, srcDocument.getName(), Mode.CURATION);
+        File downloadableFile;
+        try (PhaseTimer timer = statistics.startPhase(CasPhase.SERIALIZE)) {
+            downloadableFile = importExportService.exportAnnotationDocument(srcDocument,
+                    WebAnnoConst.CURATION_USER, format, srcDocument.getName(), Mode.CURATION);
+        }
 
         try {
             // Set mime type
@@ -896,7 +925,7 @@ public class LegacyRemoteApiController
         }
         finally {
             if (downloadableFile.exists()) {
-                downloadableFile.delete();
+                importExportService.deleteExportedFile(downloadableFile);
             }
         }
     }
@@ -916,23 +945,9 @@ public class LegacyRemoteApiController
             document.setFormat(aFileType);
             // Meta data entry to the database
             // Import source document to the project repository folder
-            documentRepository.uploadSourceDocument(is, document);
+            try (PhaseTimer timer = statistics.startPhase(CasPhase.CONVERT)) {
+                documentRepository.uploadSourceDocument(is, document);
+            }
         }
     }
-
-    private void uploadSourceDocument(ZipFile zip, ZipEntry entry, Project project,
-            String aFileType)
-        throws IOException, UIMAException
-    {
-        String fileName = FilenameUtils.getName(entry.toString());
-
-        InputStream zipStream = zip.getInputStream(entry);
-        SourceDocument document = new SourceDocument();
-        document.setName(fileName);
-        document.setProject(project);
-        document.setFormat(aFileType);
-        // Meta data entry to the database
-        // Import source document to the project repository folder
-        documentRepository.uploadSourceDocument(zipStream, document);
-    }
 }
@@ -21,6 +21,9 @@ import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUt
 import static de.tudarmstadt.ukp.clarin.webanno.api.annotation.util.WebAnnoCasUtil.selectTokens;
 import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RMessageLevel.ERROR;
 import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RMessageLevel.INFO;
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RMessageLevel.WARN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8;
@@ -34,17 +37,32 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import javax.persistence.NoResultException;
 
@@ -53,29 +71,35 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.text.AnnotationFS;
 import org.apache.uima.jcas.cas.Sofa;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
@@ -83,15 +107,20 @@ import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ImportExportService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.WebAnnoConst;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportException;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportService;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskHandle;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskState;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectImportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.api.format.FormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.curation.storage.CurationDocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.export.ImportUtil;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.Mode;
 import de.tudarmstadt.ukp.clarin.webanno.model.PermissionLevel;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
@@ -102,6 +131,7 @@ import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState;
 import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
 import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
 import de.tudarmstadt.ukp.clarin.webanno.support.ZipUtils;
 import de.tudarmstadt.ukp.clarin.webanno.tsv.WebAnnoTsv3FormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.exception.AccessForbiddenException;
@@ -112,9 +142,21 @@ import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.exception.ObjectN
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.exception.RemoteApiException;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.exception.UnsupportedFormatException;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotation;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotationContent;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotationImportResult;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotationMatch;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RChange;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RChanges;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RDocument;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RJob;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RMetrics;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RProject;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RResponse;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.ChangeLogService;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model.ChangeLogEntry;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.PhaseTimer;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RemoteApiStatistics;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
@@ -130,6 +172,13 @@ public class AeroRemoteApiController
     private static final String CURATION = "curation";
     private static final String IMPORT = "import";
     private static final String EXPORT = "export.zip";
+    private static final String CHANGES = "changes";
+    private static final String EXPORT_JOBS = "export-jobs";
+    private static final String IMPORT_JOBS = "import-jobs";
+    private static final String JOBS = "jobs";
+    private static final String RESULT = "result";
+    private static final String QUERY = "query";
+    private static final String METRICS = "metrics";
     
     private static final String PARAM_FILE = "file";
     private static final String PARAM_CONTENT = "content";
@@ -140,8 +189,23 @@ public class AeroRemoteApiController
     private static final String PARAM_PROJECT_ID = "projectId";
     private static final String PARAM_ANNOTATOR_ID = "userId";
     private static final String PARAM_DOCUMENT_ID = "documentId";
+    private static final String PARAM_SINCE = "since";
+    private static final String PARAM_PACKAGING = "packaging";
+    private static final String PARAM_CURSOR = "cursor";
+    private static final String PARAM_LIMIT = "limit";
+    private static final String PARAM_JOB_ID = "jobId";
+    private static final String PARAM_LAYER = "layer";
+    private static final String PARAM_FEATURE = "feature";
+    private static final String PARAM_VALUE = "value";
+    private static final String PARAM_BEGIN = "begin";
+    private static final String PARAM_END = "end";
     
     private static final String VAL_ORIGINAL = "ORIGINAL";
+    private static final String VAL_ZIP = "zip";
+    private static final String VAL_NDJSON = "ndjson";
+    
+    private static final String MEDIA_TYPE_ZIP = "application/zip";
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
     
     private static final String PROP_ID = "id";
     private static final String PROP_NAME = "name";
@@ -151,6 +215,15 @@ public class AeroRemoteApiController
     
     private static final String FORMAT_DEFAULT = "text";
     
+    private static final String JOB_TYPE_EXPORT = "EXPORT";
+    private static final String JOB_TYPE_IMPORT = "IMPORT";
+    
+    private static final int CHANGES_LIMIT_DEFAULT = 1000;
+    private static final int CHANGES_LIMIT_MAX = 10000;
+    
+    private static final int MAX_PENDING_CONVERSIONS = 2
+            * Runtime.getRuntime().availableProcessors();
+    
     private final Logger LOG = LoggerFactory.getLogger(getClass());
 
     private @Autowired DocumentService documentService;
@@ -160,6 +233,10 @@ public class AeroRemoteApiController
     private @Autowired AnnotationSchemaService annotationService;
     private @Autowired UserDao userRepository;
     private @Autowired ProjectExportService exportService;
+    private @Autowired ChangeLogService changeLogService;
+    private @Autowired RemoteApiStatistics statistics;
+    
+    private final Map<Long, RemoteJob> jobs = new ConcurrentHashMap<>();
 
     @ExceptionHandler(value = RemoteApiException.class)
     public ResponseEntity<RResponse<Void>> handleException(RemoteApiException aException)
@@ -235,6 +312,37 @@ public class AeroRemoteApiController
         }
     }
 
+    /**
+     * Looks up a layer by its UIMA type name. If there is no such layer, a layer can also be
+     * referred to by its simple type name or by its UI name as long as that is unambiguous.
+     */
+    private AnnotationLayer getLayer(Project aProject, String aLayer)
+        throws ObjectNotFoundException, IllegalObjectStateException
+    {
+        List<AnnotationLayer> layers = annotationService.listAnnotationLayer(aProject);
+
+        Optional<AnnotationLayer> layer = layers.stream()
+                .filter(l -> l.getName().equals(aLayer))
+                .findFirst();
+        if (layer.isPresent()) {
+            return layer.get();
+        }
+
+        List<AnnotationLayer> candidates = layers.stream()
+                .filter(l -> l.getName().endsWith("." + aLayer) || aLayer.equals(l.getUiName()))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            throw new ObjectNotFoundException(
+                    "Layer [" + aLayer + "] in project [" + aProject.getId() + "] not found.");
+        }
+        if (candidates.size() > 1) {
+            throw new IllegalObjectStateException("Layer [%s] is ambiguous - use one of %s.",
+                    aLayer, candidates.stream().map(AnnotationLayer::getName).sorted()
+                            .collect(Collectors.toList()));
+        }
+        return candidates.get(0);
+    }
+
     private AnnotationDocument getAnnotation(SourceDocument aDocument, String aUser,
             boolean aCreateIfMissing)
         throws ObjectNotFoundException
@@ -394,7 +502,24 @@ public class AeroRemoteApiController
                 userRepository.isAdministrator(user));
         
         Project importedProject;
+        File tempFile = stageProjectArchive(aFile);
+        try {
+//            importedProject = importService.importProject(tempFile, false);
+            ProjectImportRequest request = new ProjectImportRequest(false);
+            importedProject = exportService.importProject(request, new ZipFile(tempFile));
+        }
+        finally {
+            tempFile.delete();
+        }
+
+        return ResponseEntity.ok(new RResponse<>(new RProject(importedProject)));
+    }
+    
+    private File stageProjectArchive(MultipartFile aFile)
+        throws IOException, UnsupportedFormatException
+    {
         File tempFile = File.createTempFile("webanno-training", null);
+        boolean success = false;
         try (
                 InputStream is = new BufferedInputStream(aFile.getInputStream());
                 OutputStream os = new FileOutputStream(tempFile);
@@ -409,15 +534,14 @@ public class AeroRemoteApiController
                 throw new UnsupportedFormatException("Incompatible to webanno ZIP file");
             }
             
-//            importedProject = importService.importProject(tempFile, false);
-            ProjectImportRequest request = new ProjectImportRequest(false);
-            importedProject = exportService.importProject(request, new ZipFile(tempFile));
+            success = true;
+            return tempFile;
         }
         finally {
-            tempFile.delete();
+            if (!success) {
+                tempFile.delete();
+            }
         }
-
-        return ResponseEntity.ok(new RResponse<>(new RProject(importedProject)));
     }
     
     @ApiOperation(value = "Export a project to a ZIP file")
@@ -425,7 +549,7 @@ public class AeroRemoteApiController
             value = ("/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + EXPORT), 
             method = RequestMethod.GET,
             produces = { "application/zip", APPLICATION_JSON_UTF8_VALUE })
-    public ResponseEntity<InputStreamResource> projectExport(
+    public ResponseEntity<StreamingResponseBody> projectExport(
             @PathVariable(PARAM_PROJECT_ID) long aProjectId,
             @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat)
         throws Exception
@@ -433,6 +557,37 @@ public class AeroRemoteApiController
         // Get project (this also ensures that it exists and that the current user can access it
         Project project = getProject(aProjectId);
         
+        ProjectExportRequest request = new ProjectExportRequest(project,
+                getExportFormat(aFormat), true);
+        ProjectExportTaskMonitor monitor = new ProjectExportTaskMonitor();
+        
+        // Write the archive directly into the response instead of staging it on disk first. Since
+        // the size is not known in advance, no content length is sent.
+        StreamingResponseBody result = os -> {
+            // The response stream is closed in any case. If the export fails, the archive is left
+            // unfinished and the exception aborts the response, so the client cannot mistake the
+            // partial download for a complete export.
+            try (OutputStream out = os) {
+                exportService.exportProject(request, monitor, out);
+            }
+            catch (ProjectExportException | IOException e) {
+                LOG.error("Unable to export project [{}]({})", project.getName(),
+                        project.getId(), e);
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+        };
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.valueOf("application/zip"));
+        httpHeaders.set("Content-Disposition",
+                "attachment; filename=\"webanno-project-" + project.getId() + ".zip\"");
+
+        return new ResponseEntity<>(result, httpHeaders, HttpStatus.OK);
+    }
+    
+    private String getExportFormat(Optional<String> aFormat)
+        throws UnsupportedFormatException
+    {
         // Check if the format is supported
         if (aFormat.isPresent()) {
             importExportService.getWritableFormatById(aFormat.get())
@@ -444,27 +599,169 @@ public class AeroRemoteApiController
                                     .collect(Collectors.toList()).toString()));
         }
         
+        return aFormat.orElse(WebAnnoTsv3FormatSupport.ID);
+    }
+    
+    @ApiOperation(value = "Start exporting a project to a ZIP file in the background")
+    @RequestMapping(
+            value = ("/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + EXPORT_JOBS), 
+            method = RequestMethod.POST,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<RJob>> projectExportJobCreate(
+            @PathVariable(PARAM_PROJECT_ID) long aProjectId,
+            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat,
+            UriComponentsBuilder aUcb)
+        throws Exception
+    {
+        // Get project (this also ensures that it exists and that the current user can access it
+        Project project = getProject(aProjectId);
+        
         ProjectExportRequest request = new ProjectExportRequest(project,
-                aFormat.orElse(WebAnnoTsv3FormatSupport.ID), true);
-        ProjectExportTaskMonitor monitor = new ProjectExportTaskMonitor();
-        File exportedFile = exportService.exportProject(request, monitor);
-        
-        // Turn the file into a resource and auto-delete the file when the resource closes the
-        // stream.
-        InputStreamResource result = new InputStreamResource(new FileInputStream(exportedFile) {
-            @Override
-            public void close() throws IOException
-            {
-                super.close();
-                FileUtils.forceDelete(exportedFile);
-            } 
-        });
+                getExportFormat(aFormat), true);
+        
+        String username = getCurrentUser().getUsername();
+        ProjectExportTaskHandle handle = exportService.startProjectExportTask(request, username);
+        
+        return jobCreated(new RemoteJob(handle, JOB_TYPE_EXPORT, username, project.getId()),
+                aUcb);
+    }
+    
+    @ApiOperation(value = "Start importing a previously exported project in the background")
+    @RequestMapping(
+            value = ("/" + PROJECTS + "/" + IMPORT_JOBS), 
+            method = RequestMethod.POST,
+            consumes = MULTIPART_FORM_DATA_VALUE,
+            produces = APPLICATION_JSON_UTF8_VALUE)    
+    public ResponseEntity<RResponse<RJob>> projectImportJobCreate(
+            @RequestPart(PARAM_FILE) MultipartFile aFile,
+            UriComponentsBuilder aUcb)
+        throws Exception
+    {
+        // Get current user - this will throw an exception if the current user does not exit
+        User user = getCurrentUser();
+
+        // Check for the access
+        assertPermission("User [" + user.getUsername() + "] is not allowed to import projects",
+                userRepository.isAdministrator(user));
+        
+        // The archive is deleted by the import task once it is done
+        File tempFile = stageProjectArchive(aFile);
+        ProjectExportTaskHandle handle = exportService.startProjectImportTask(
+                new ProjectImportRequest(false), tempFile, user.getUsername());
 
+        return jobCreated(new RemoteJob(handle, JOB_TYPE_IMPORT, user.getUsername(), null), aUcb);
+    }
+    
+    private ResponseEntity<RResponse<RJob>> jobCreated(RemoteJob aJob, UriComponentsBuilder aUcb)
+    {
+        // Forget about jobs which have already been cleaned up by the export service
+        jobs.values().removeIf(job -> exportService.getTaskMonitor(job.handle) == null);
+        
+        jobs.put(aJob.handle.getRunId(), aJob);
+        
+        return ResponseEntity.accepted()
+                .location(aUcb.path(API_BASE + "/" + JOBS + "/{id}")
+                        .buildAndExpand(aJob.handle.getRunId()).toUri())
+                .body(new RResponse<>(toRJob(aJob)));
+    }
+    
+    private RemoteJob getJob(long aJobId)
+        throws ObjectNotFoundException, AccessForbiddenException
+    {
+        // Get current user - this will throw an exception if the current user does not exit
+        User user = getCurrentUser();
+        
+        RemoteJob job = jobs.get(aJobId);
+        if (job != null && exportService.getTaskMonitor(job.handle) == null) {
+            jobs.remove(aJobId);
+            job = null;
+        }
+        
+        if (job == null) {
+            throw new ObjectNotFoundException("Job [" + aJobId + "] not found.");
+        }
+        
+        assertPermission(
+                "User [" + user.getUsername() + "] is not allowed to access job [" + aJobId + "]",
+                job.username.equals(user.getUsername()) || userRepository.isAdministrator(user));
+        
+        return job;
+    }
+    
+    private RJob toRJob(RemoteJob aJob)
+    {
+        Long projectId = aJob.projectId;
+        if (JOB_TYPE_IMPORT.equals(aJob.type)) {
+            Project importedProject = exportService.getImportedProject(aJob.handle);
+            projectId = importedProject != null ? importedProject.getId() : null;
+        }
+        
+        return new RJob(aJob.handle.getRunId(), aJob.type, projectId,
+                exportService.getTaskMonitor(aJob.handle));
+    }
+    
+    @ApiOperation(value = "Get the status of a background job")
+    @RequestMapping(
+            value = ("/" + JOBS + "/{" + PARAM_JOB_ID + "}"), 
+            method = RequestMethod.GET,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<RJob>> jobRead(
+            @PathVariable(PARAM_JOB_ID) long aJobId)
+        throws Exception
+    {
+        return ResponseEntity.ok(new RResponse<>(toRJob(getJob(aJobId))));
+    }
+    
+    @ApiOperation(value = "Cancel a background job")
+    @RequestMapping(
+            value = ("/" + JOBS + "/{" + PARAM_JOB_ID + "}"), 
+            method = RequestMethod.DELETE,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<Void>> jobCancel(
+            @PathVariable(PARAM_JOB_ID) long aJobId)
+        throws Exception
+    {
+        RemoteJob job = getJob(aJobId);
+        
+        exportService.cancelTask(job.handle);
+        
+        return ResponseEntity.ok(new RResponse<>(INFO, "Job [" + aJobId + "] cancelled."));
+    }
+    
+    @ApiOperation(value = "Download the ZIP file produced by a completed export job")
+    @RequestMapping(
+            value = ("/" + JOBS + "/{" + PARAM_JOB_ID + "}/" + RESULT), 
+            method = RequestMethod.GET,
+            produces = { "application/zip", APPLICATION_JSON_UTF8_VALUE })
+    public ResponseEntity<StreamingResponseBody> jobResultRead(
+            @PathVariable(PARAM_JOB_ID) long aJobId)
+        throws Exception
+    {
+        RemoteJob job = getJob(aJobId);
+        
+        if (!JOB_TYPE_EXPORT.equals(job.type)) {
+            throw new IllegalObjectStateException("Job [%d] does not produce a file.", aJobId);
+        }
+        
+        ProjectExportTaskMonitor monitor = exportService.getTaskMonitor(job.handle);
+        File exportedFile = monitor.getExportedFile();
+        if (monitor.getState() != ProjectExportTaskState.COMPLETED || exportedFile == null
+                || !exportedFile.exists()) {
+            throw new IllegalObjectStateException("Job [%d] has not completed successfully: %s",
+                    aJobId, monitor.getState());
+        }
+        
+        StreamingResponseBody result = os -> {
+            try (InputStream is = new FileInputStream(exportedFile)) {
+                IOUtils.copyLarge(is, os);
+            }
+        };
+        
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.valueOf("application/zip"));
         httpHeaders.setContentLength(exportedFile.length());
         httpHeaders.set("Content-Disposition",
-                "attachment; filename=\"" + exportedFile.getName() + "\"");
+                "attachment; filename=\"webanno-project-" + job.projectId + ".zip\"");
 
         return new ResponseEntity<>(result, httpHeaders, HttpStatus.OK);
     }
@@ -547,7 +844,10 @@ public class AeroRemoteApiController
         }
         
         // Import source document to the project repository folder
-        try (InputStream is = aFile.getInputStream()) {
+        try (
+                InputStream is = aFile.getInputStream();
+                PhaseTimer timer = statistics.startPhase(CasPhase.CONVERT);
+        ) {
             documentService.uploadSourceDocument(is, document);
         }
         
@@ -570,10 +870,11 @@ public class AeroRemoteApiController
                     + PARAM_DOCUMENT_ID + "}",
             method = RequestMethod.GET,
             produces = { APPLICATION_OCTET_STREAM_VALUE, APPLICATION_JSON_UTF8_VALUE })
-    public ResponseEntity documentRead(
+    public ResponseEntity<org.springframework.core.io.Resource> documentRead(
             @PathVariable(PARAM_PROJECT_ID) long aProjectId,
             @PathVariable(PARAM_DOCUMENT_ID) long aDocumentId,
-            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat)
+            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat,
+            WebRequest aRequest)
         throws Exception
     {               
         // Get project (this also ensures that it exists and that the current user can access it
@@ -602,13 +903,20 @@ public class AeroRemoteApiController
             // Export the original file - no temporary file created here, we export directly from
             // the file system
             File docFile = documentService.getSourceDocumentFile(doc);
+            String etag = etag(doc.getId(), VAL_ORIGINAL, docFile.length(),
+                    docFile.lastModified());
+            if (aRequest.checkNotModified(etag, docFile.lastModified())) {
+                return null;
+            }
+            
             FileSystemResource resource = new FileSystemResource(docFile);
             HttpHeaders httpHeaders = new HttpHeaders();
             httpHeaders.setContentLength(resource.contentLength());
+            httpHeaders.setETag(etag);
+            httpHeaders.setLastModified(docFile.lastModified());
             httpHeaders.set("Content-Disposition",
                     "attachment; filename=\"" + doc.getName() + "\"");
-            return new ResponseEntity<org.springframework.core.io.Resource>(resource, httpHeaders,
-                    OK);
+            return new ResponseEntity<>(resource, httpHeaders, OK);
         }
         else {
             // Export a converted file - here we first export to a local temporary file and then
@@ -623,29 +931,37 @@ public class AeroRemoteApiController
                                     .sorted()
                                     .collect(Collectors.toList()).toString()));
             
+            // If the client already has the current version, there is no need to convert again
+            Optional<Long> timestamp = documentService.getAnnotationCasTimestamp(doc,
+                    WebAnnoConst.INITIAL_CAS_PSEUDO_USER);
+            if (timestamp.isPresent() && aRequest.checkNotModified(
+                    initialCasETag(project, doc, format, timestamp.get()), timestamp.get())) {
+                return null;
+            }
+            
             // Create a temporary export file from the annotations
-            CAS cas = documentService.createOrReadInitialCas(doc);
+            CAS cas;
+            try (PhaseTimer timer = statistics.startPhase(CasPhase.LOAD)) {
+                cas = documentService.createOrReadInitialCas(doc);
+            }
             
-            File exportedFile = null;
-            try {
-                // Load the converted file into memory
-                exportedFile = importExportService.exportCasToFile(cas, doc,
-                        doc.getName(), format, true);
-                byte[] resource = FileUtils.readFileToByteArray(exportedFile);
-                
-                // Send it back to the client
-                HttpHeaders httpHeaders = new HttpHeaders();
-                httpHeaders.setContentLength(resource.length);
-                httpHeaders.set("Content-Disposition",
-                        "attachment; filename=\"" + exportedFile.getName() + "\"");
-                
-                return new ResponseEntity<>(resource, httpHeaders, OK);
+            // The initial CAS may just have been created
+            if (!timestamp.isPresent()) {
+                timestamp = documentService.getAnnotationCasTimestamp(doc,
+                        WebAnnoConst.INITIAL_CAS_PSEUDO_USER);
             }
-            finally {
-                if (exportedFile != null) {
-                    FileUtils.forceDelete(exportedFile);
-                }
+            String etag = timestamp.isPresent()
+                    ? initialCasETag(project, doc, format, timestamp.get())
+                    : null;
+            
+            File exportedFile;
+            try (PhaseTimer timer = statistics.startPhase(CasPhase.SERIALIZE)) {
+                exportedFile = importExportService.exportCasToFile(cas, doc, doc.getName(),
+                        format, true);
             }
+            
+            return sendTemporaryFile(aRequest, exportedFile, exportedFile.getName(), etag,
+                    timestamp);
         }
     }
     
@@ -747,20 +1063,215 @@ public class AeroRemoteApiController
                 .body(response);
     }
 
+    @ApiOperation(value = "Create annotations for many documents in a project at once")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = PARAM_FORMAT, paramType = "form", required = true),
+        @ApiImplicitParam(name = PARAM_STATE, paramType = "form", required = false),
+    })
+    @RequestMapping(
+            value = "/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + ANNOTATIONS,
+            method = RequestMethod.POST,
+            consumes = MULTIPART_FORM_DATA_VALUE,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<List<RAnnotationImportResult>>> annotationsBulkCreate(
+            @PathVariable(PARAM_PROJECT_ID) long aProjectId,
+            @RequestPart(PARAM_CONTENT) MultipartFile aFile,
+            @RequestParam(PARAM_FORMAT) Optional<String> aFormat,
+            @RequestParam(PARAM_STATE) Optional<String> aState)
+        throws Exception
+    {
+        // Get project (this also ensures that it exists and that the current user can access it
+        Project project = getProject(aProjectId);
+        
+        String format = aFormat.orElse(FORMAT_DEFAULT);
+        assertReadableFormat(format);
+        
+        Optional<AnnotationDocumentState> state = aState
+                .map(AeroRemoteApiController::parseAnnotationDocumentState);
+        
+        Map<String, SourceDocument> documents = new HashMap<>();
+        for (SourceDocument doc : documentService.listSourceDocuments(project)) {
+            documents.put(doc.getName(), doc);
+        }
+        
+        // All entries are converted using the same type system, so prepare it only once
+        TypeSystemDescription tsd = annotationService.getFullProjectTypeSystem(project);
+        
+        List<RAnnotationImportResult> results = new ArrayList<>();
+        File stagingDir = Files.createTempDirectory("upload").toFile();
+        try {
+            List<BulkImportItem> items = stageBulkImportItems(aFile, stagingDir, documents,
+                    results);
+            
+            // The uploaded files are converted in the background. Checking the converted CASes
+            // against the source documents and storing them requires the CAS storage session of
+            // the request, so that happens here one entry after the other in upload order. Only a
+            // bounded number of conversions is scheduled at a time so the converted CASes do not
+            // pile up in memory while they wait to be stored.
+            Deque<Pair<BulkImportItem, Future<CAS>>> pending = new ArrayDeque<>();
+            Iterator<BulkImportItem> itemIterator = items.iterator();
+            try {
+                while (itemIterator.hasNext() || !pending.isEmpty()) {
+                    while (itemIterator.hasNext() && pending.size() < MAX_PENDING_CONVERSIONS) {
+                        BulkImportItem item = itemIterator.next();
+                        pending.add(Pair.of(item, importExportService.importCasFromFileAsync(
+                                item.file, project, format, tsd)));
+                    }
+                    
+                    Pair<BulkImportItem, Future<CAS>> next = pending.poll();
+                    importBulkImportItem(next.getKey(), next.getValue(), state);
+                }
+            }
+            finally {
+                for (Pair<BulkImportItem, Future<CAS>> p : pending) {
+                    p.getValue().cancel(true);
+                }
+            }
+        }
+        finally {
+            FileUtils.deleteQuietly(stagingDir);
+        }
+        
+        long imported = results.stream().filter(r -> r.success).count();
+        RResponse<List<RAnnotationImportResult>> response = new RResponse<>(results);
+        response.addMessage(imported == results.size() ? INFO : WARN, "Imported annotations from ["
+                + imported + "] of [" + results.size() + "] entries.");
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Unpacks the entries of a bulk upload. The entries are expected to be named
+     * {@code <document name>/<user>.<extension>} - the same layout as produced by the bulk
+     * download. Entries which cannot be mapped to a document and user are reported as failed
+     * right away.
+     */
+    private List<BulkImportItem> stageBulkImportItems(MultipartFile aFile, File aStagingDir,
+            Map<String, SourceDocument> aDocuments, List<RAnnotationImportResult> aResults)
+        throws IOException
+    {
+        List<BulkImportItem> items = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(aFile.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                
+                String name = entry.getName();
+                int sep = name.lastIndexOf('/');
+                String documentName = sep > 0 ? name.substring(0, sep) : null;
+                String fileName = name.substring(sep + 1);
+                String username = FilenameUtils.getBaseName(fileName);
+                
+                RAnnotationImportResult result = new RAnnotationImportResult(name, documentName,
+                        username);
+                aResults.add(result);
+                
+                if (documentName == null || username.isEmpty()) {
+                    result.message = "Entry must be named [<document>/<user>.<extension>].";
+                    continue;
+                }
+                
+                SourceDocument document = aDocuments.get(documentName);
+                if (document == null) {
+                    result.message = "Document [" + documentName + "] not found.";
+                    continue;
+                }
+                result.documentId = document.getId();
+                
+                User user = userRepository.get(username);
+                if (user == null) {
+                    result.message = "User [" + username + "] not found.";
+                    continue;
+                }
+                
+                // Do not use the entry name for the staged file - it is not trustworthy
+                File itemDir = new File(aStagingDir, String.valueOf(items.size()));
+                FileUtils.forceMkdir(itemDir);
+                File file = new File(itemDir, "content." + FilenameUtils.getExtension(fileName));
+                try (OutputStream os = new FileOutputStream(file)) {
+                    IOUtils.copyLarge(zis, os);
+                }
+                
+                items.add(new BulkImportItem(result, document, user, file));
+            }
+        }
+        return items;
+    }
+    
+    private void importBulkImportItem(BulkImportItem aItem, Future<CAS> aConversion,
+            Optional<AnnotationDocumentState> aState)
+        throws InterruptedException
+    {
+        RAnnotationImportResult result = aItem.result;
+        try {
+            CAS annotationCas;
+            try {
+                annotationCas = aConversion.get();
+            }
+            catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            
+            assertCompatibleCas(aItem.document, annotationCas);
+            
+            AnnotationDocument anno = documentService.createOrGetAnnotationDocument(aItem.document,
+                    aItem.user);
+            documentService.writeAnnotationCas(annotationCas, aItem.document, aItem.user, false);
+            
+            if (aState.isPresent()) {
+                anno.setState(aState.get());
+                documentService.createAnnotationDocument(anno);
+            }
+            
+            result.success = true;
+        }
+        catch (InterruptedException e) {
+            throw e;
+        }
+        catch (RemoteApiException e) {
+            result.message = e.getMessage();
+        }
+        catch (Exception e) {
+            LOG.error("Unable to import annotations from entry [{}]", result.entry, e);
+            result.message = "Unable to import annotations: "
+                    + ExceptionUtils.getRootCauseMessage(e);
+        }
+    }
+    
+    private static class BulkImportItem
+    {
+        private final RAnnotationImportResult result;
+        private final SourceDocument document;
+        private final User user;
+        private final File file;
+        
+        public BulkImportItem(RAnnotationImportResult aResult, SourceDocument aDocument,
+                User aUser, File aFile)
+        {
+            result = aResult;
+            document = aDocument;
+            user = aUser;
+            file = aFile;
+        }
+    }
+
     @ApiOperation(value = "Get annotations of a document in a project", response = byte[].class)
     @RequestMapping(
             value = "/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + DOCUMENTS + "/{"
                     + PARAM_DOCUMENT_ID + "}/" + ANNOTATIONS + "/{" + PARAM_ANNOTATOR_ID + "}",
             method = RequestMethod.GET,
             produces = { APPLICATION_OCTET_STREAM_VALUE, APPLICATION_JSON_UTF8_VALUE })
-    public ResponseEntity<byte[]> annotationsRead(
+    public ResponseEntity<org.springframework.core.io.Resource> annotationsRead(
             @PathVariable(PARAM_PROJECT_ID) long aProjectId,
             @PathVariable(PARAM_DOCUMENT_ID) long aDocumentId,
             @PathVariable(PARAM_ANNOTATOR_ID) String aAnnotatorId,
-            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat)
+            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat,
+            WebRequest aRequest)
         throws Exception
     {               
-        return readAnnotation(aProjectId, aDocumentId, aAnnotatorId, Mode.ANNOTATION, aFormat);
+        return readAnnotation(aProjectId, aDocumentId, aAnnotatorId, Mode.ANNOTATION, aFormat,
+                aRequest);
 
     }
     
@@ -859,14 +1370,15 @@ public class AeroRemoteApiController
                     + PARAM_DOCUMENT_ID + "}/" + CURATION,
             method = RequestMethod.GET,
             produces = { APPLICATION_OCTET_STREAM_VALUE, APPLICATION_JSON_UTF8_VALUE })
-    public ResponseEntity<byte[]> curationRead(
+    public ResponseEntity<org.springframework.core.io.Resource> curationRead(
             @PathVariable(PARAM_PROJECT_ID) long aProjectId,
             @PathVariable(PARAM_DOCUMENT_ID) long aDocumentId,
-            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat)
+            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat,
+            WebRequest aRequest)
         throws Exception
     {               
         return readAnnotation(aProjectId, aDocumentId, WebAnnoConst.CURATION_USER, Mode.CURATION,
-                aFormat);
+                aFormat, aRequest);
     }
     
     @ApiOperation(value = "Delete a user's annotations of one document from a project")
@@ -903,8 +1415,309 @@ public class AeroRemoteApiController
                         + aDocumentId + "] deleted from project [" + aProjectId + "]."));
     }    
 
-    private ResponseEntity<byte[]> readAnnotation(long aProjectId, long aDocumentId,
-            String aAnnotatorId, Mode aMode, Optional<String> aFormat)
+    @ApiOperation(value = "Get the annotations of many documents in a project at once")
+    @RequestMapping(
+            value = "/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + ANNOTATIONS,
+            method = RequestMethod.GET,
+            produces = { MEDIA_TYPE_ZIP, MEDIA_TYPE_NDJSON, APPLICATION_JSON_UTF8_VALUE })
+    public ResponseEntity<StreamingResponseBody> annotationsBulkRead(
+            @PathVariable(PARAM_PROJECT_ID) long aProjectId,
+            @RequestParam(value = PARAM_FORMAT) Optional<String> aFormat,
+            @RequestParam(value = PARAM_STATE) Optional<List<String>> aStates,
+            @RequestParam(value = PARAM_ANNOTATOR_ID) Optional<List<String>> aAnnotators,
+            @RequestParam(value = PARAM_DOCUMENT_ID) Optional<List<Long>> aDocuments,
+            @RequestParam(value = PARAM_SINCE) Optional<String> aSince,
+            @RequestParam(value = PARAM_PACKAGING) Optional<String> aPackaging)
+        throws Exception
+    {
+        // Get project (this also ensures that it exists and that the current user can access it
+        Project project = getProject(aProjectId);
+        
+        String formatId = aFormat.orElse(WebAnnoTsv3FormatSupport.ID);
+        FormatSupport format = importExportService.getWritableFormatById(formatId)
+                .orElseThrow(() -> new UnsupportedFormatException(
+                        "Format [%s] cannot be exported. Exportable formats are %s.", formatId,
+                        importExportService.getWritableFormats().stream()
+                                .map(FormatSupport::getId)
+                                .sorted()
+                                .collect(Collectors.toList()).toString()));
+        
+        String packaging = aPackaging.orElse(VAL_ZIP);
+        if (!VAL_ZIP.equals(packaging) && !VAL_NDJSON.equals(packaging)) {
+            throw new IllegalArgumentException("Unknown packaging [" + packaging
+                    + "] - use [" + VAL_ZIP + "] or [" + VAL_NDJSON + "]");
+        }
+        
+        // Select the annotations to export before starting the response, so that problems with
+        // the request can still be reported properly
+        List<AnnotationDocument> selection = selectAnnotationDocuments(project, aStates,
+                aAnnotators, aDocuments, aSince);
+        
+        // Write the annotations directly into the response. All documents are exported within
+        // the same bulk operation so that the type system and the writers are set up only once.
+        Map<Pair<Project, String>, Object> bulkOperationContext = new HashMap<>();
+        StreamingResponseBody result;
+        HttpHeaders httpHeaders = new HttpHeaders();
+        if (VAL_NDJSON.equals(packaging)) {
+            result = os -> {
+                for (AnnotationDocument annDoc : selection) {
+                    File exportedFile = exportAnnotationDocument(annDoc, format,
+                            bulkOperationContext);
+                    try {
+                        RAnnotationContent line = new RAnnotationContent(annDoc, format.getId(),
+                                FileUtils.readFileToByteArray(exportedFile));
+                        os.write(JSONUtil.toJsonString(line).getBytes(UTF_8));
+                        os.write('\n');
+                    }
+                    finally {
+                        importExportService.deleteExportedFile(exportedFile);
+                    }
+                }
+            };
+            httpHeaders.setContentType(MediaType.valueOf(MEDIA_TYPE_NDJSON));
+        }
+        else {
+            result = os -> {
+                try (ZipOutputStream zos = new ZipOutputStream(os)) {
+                    for (AnnotationDocument annDoc : selection) {
+                        File exportedFile = exportAnnotationDocument(annDoc, format,
+                                bulkOperationContext);
+                        try {
+                            zos.putNextEntry(new ZipEntry(annDoc.getName() + "/"
+                                    + annDoc.getUser() + "."
+                                    + FilenameUtils.getExtension(exportedFile.getName())));
+                            FileUtils.copyFile(exportedFile, zos);
+                            zos.closeEntry();
+                        }
+                        finally {
+                            importExportService.deleteExportedFile(exportedFile);
+                        }
+                    }
+                }
+            };
+            httpHeaders.setContentType(MediaType.valueOf(MEDIA_TYPE_ZIP));
+            httpHeaders.set("Content-Disposition", "attachment; filename=\"webanno-project-"
+                    + project.getId() + "-annotations.zip\"");
+        }
+        
+        return new ResponseEntity<>(result, httpHeaders, OK);
+    }
+    
+    @ApiOperation(value = "Find the annotations on a layer across the documents of a project")
+    @RequestMapping(
+            value = "/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + QUERY,
+            method = RequestMethod.GET,
+            produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> annotationsQuery(
+            @PathVariable(PARAM_PROJECT_ID) long aProjectId,
+            @RequestParam(value = PARAM_LAYER) String aLayer,
+            @RequestParam(value = PARAM_FEATURE) Optional<String> aFeature,
+            @RequestParam(value = PARAM_VALUE) Optional<String> aValue,
+            @RequestParam(value = PARAM_BEGIN) Optional<Integer> aBegin,
+            @RequestParam(value = PARAM_END) Optional<Integer> aEnd,
+            @RequestParam(value = PARAM_STATE) Optional<List<String>> aStates,
+            @RequestParam(value = PARAM_ANNOTATOR_ID) Optional<List<String>> aAnnotators,
+            @RequestParam(value = PARAM_DOCUMENT_ID) Optional<List<Long>> aDocuments)
+        throws Exception
+    {
+        // Get project (this also ensures that it exists and that the current user can access it
+        Project project = getProject(aProjectId);
+        
+        AnnotationLayer layer = getLayer(project, aLayer);
+        if (!WebAnnoConst.SPAN_TYPE.equals(layer.getType())
+                && !WebAnnoConst.RELATION_TYPE.equals(layer.getType())) {
+            throw new IllegalObjectStateException(
+                    "Layer [%s] is a [%s] layer - only span and relation layers can be queried.",
+                    layer.getName(), layer.getType());
+        }
+        
+        List<String> features = annotationService.listAnnotationFeature(layer).stream()
+                .filter(AnnotationFeature::isEnabled)
+                .map(AnnotationFeature::getName)
+                .collect(Collectors.toList());
+        if (aFeature.isPresent() && !features.contains(aFeature.get())) {
+            throw new ObjectNotFoundException("Feature [" + aFeature.get()
+                    + "] not found in layer [" + layer.getName() + "].");
+        }
+        if (aValue.isPresent() && !aFeature.isPresent()) {
+            throw new IllegalObjectStateException("A value can only be given with a feature.");
+        }
+        
+        // Select the annotations to query before starting the response, so that problems with
+        // the request can still be reported properly
+        List<AnnotationDocument> selection = selectAnnotationDocuments(project, aStates,
+                aAnnotators, aDocuments, Optional.empty());
+        
+        AnnotationQuery query = new AnnotationQuery(layer.getName(), features,
+                aFeature.orElse(null), aValue.orElse(null), aBegin.orElse(0),
+                aEnd.orElse(Integer.MAX_VALUE));
+        
+        // The CASes are read from the shared read-only cache and queried in the background.
+        // The matches are written one document after the other in the order of the selection.
+        // Only a bounded number of documents is queried ahead so the matches do not pile up in
+        // memory while they wait to be written.
+        StreamingResponseBody result = os -> {
+            Deque<Future<List<RAnnotationMatch>>> pending = new ArrayDeque<>();
+            Iterator<AnnotationDocument> annDocIterator = selection.iterator();
+            try {
+                while (annDocIterator.hasNext() || !pending.isEmpty()) {
+                    while (annDocIterator.hasNext() && pending.size() < MAX_PENDING_CONVERSIONS) {
+                        AnnotationDocument annDoc = annDocIterator.next();
+                        pending.add(documentService.readAnnotationCasAsync(annDoc,
+                            cas -> query.select(cas, annDoc)));
+                    }
+                    
+                    for (RAnnotationMatch match : awaitQuery(pending.poll())) {
+                        os.write(JSONUtil.toJsonString(match).getBytes(UTF_8));
+                        os.write('\n');
+                    }
+                }
+            }
+            finally {
+                for (Future<List<RAnnotationMatch>> f : pending) {
+                    f.cancel(true);
+                }
+            }
+        };
+        
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.valueOf(MEDIA_TYPE_NDJSON));
+        return new ResponseEntity<>(result, httpHeaders, OK);
+    }
+    
+    private List<RAnnotationMatch> awaitQuery(Future<List<RAnnotationMatch>> aQuery)
+        throws IOException
+    {
+        try {
+            return aQuery.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for query results");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to query annotations: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+    
+    /**
+     * Selects the annotation documents of the project which match the given filters and which
+     * have been saved at least once, ordered by document name and user.
+     */
+    private List<AnnotationDocument> selectAnnotationDocuments(Project aProject,
+            Optional<List<String>> aStates, Optional<List<String>> aAnnotators,
+            Optional<List<Long>> aDocuments, Optional<String> aSince)
+        throws IOException
+    {
+        List<AnnotationDocumentState> states = aStates.orElse(emptyList()).stream()
+                .map(AeroRemoteApiController::parseAnnotationDocumentState)
+                .collect(Collectors.toList());
+        Optional<Long> since = aSince.map(AeroRemoteApiController::parseTimestamp);
+        
+        List<AnnotationDocument> selection = new ArrayList<>();
+        for (AnnotationDocument annDoc : documentService.listAnnotationDocuments(aProject)) {
+            if (aAnnotators.isPresent() && !aAnnotators.get().contains(annDoc.getUser())) {
+                continue;
+            }
+            
+            if (aDocuments.isPresent()
+                    && !aDocuments.get().contains(annDoc.getDocument().getId())) {
+                continue;
+            }
+            
+            if (!states.isEmpty() && !states.contains(annDoc.getState())) {
+                continue;
+            }
+            
+            // Annotations which have never been saved have no CAS to read from
+            Optional<Long> timestamp = documentService
+                    .getAnnotationCasTimestamp(annDoc.getDocument(), annDoc.getUser());
+            if (!timestamp.isPresent()
+                    || (since.isPresent() && timestamp.get() < since.get())) {
+                continue;
+            }
+            
+            selection.add(annDoc);
+        }
+        selection.sort(Comparator.comparing(AnnotationDocument::getName)
+                .thenComparing(AnnotationDocument::getUser));
+        return selection;
+    }
+    
+    @ApiOperation(value = "List changes to the documents and annotations in a project")
+    @RequestMapping(
+            value = "/" + PROJECTS + "/{" + PARAM_PROJECT_ID + "}/" + CHANGES,
+            method = RequestMethod.GET,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<RChanges>> changesList(
+            @PathVariable(PARAM_PROJECT_ID) long aProjectId,
+            @RequestParam(value = PARAM_CURSOR) Optional<Long> aCursor,
+            @RequestParam(value = PARAM_LIMIT) Optional<Integer> aLimit)
+        throws Exception
+    {
+        // Get project (this also ensures that it exists and that the current user can access it
+        Project project = getProject(aProjectId);
+        
+        long cursor = aCursor.orElse(0l);
+        int limit = Math.max(1, Math.min(aLimit.orElse(CHANGES_LIMIT_DEFAULT), CHANGES_LIMIT_MAX));
+        
+        // Fetch one entry more than requested to find out whether there are further changes
+        List<ChangeLogEntry> entries = changeLogService.listChanges(project, cursor, limit + 1);
+        boolean more = entries.size() > limit;
+        if (more) {
+            entries = entries.subList(0, limit);
+        }
+        
+        List<RChange> changes = entries.stream()
+                .map(RChange::new)
+                .collect(Collectors.toList());
+        if (!changes.isEmpty()) {
+            cursor = changes.get(changes.size() - 1).id;
+        }
+        
+        return ResponseEntity.ok(new RResponse<>(new RChanges(changes, cursor, more)));
+    }
+
+    @ApiOperation(value = "Get latency, error and response size statistics of the remote API")
+    @RequestMapping(
+            value = "/" + METRICS,
+            method = RequestMethod.GET,
+            produces = APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RResponse<RMetrics>> metricsRead()
+        throws Exception
+    {
+        // Get current user - this will throw an exception if the current user does not exit
+        User user = getCurrentUser();
+
+        // Check for the access
+        assertPermission("User [" + user.getUsername() + "] is not allowed to access metrics",
+                userRepository.isAdministrator(user));
+
+        return ResponseEntity.ok(new RResponse<>(new RMetrics(statistics)));
+    }
+
+    private File exportAnnotationDocument(AnnotationDocument aAnnotationDocument,
+            FormatSupport aFormat, Map<Pair<Project, String>, Object> aBulkOperationContext)
+        throws IOException
+    {
+        try (PhaseTimer timer = statistics.startPhase(CasPhase.SERIALIZE)) {
+            return importExportService.exportAnnotationDocument(
+                    aAnnotationDocument.getDocument(), aAnnotationDocument.getUser(), aFormat,
+                    aAnnotationDocument.getName(), Mode.ANNOTATION, true,
+                    aBulkOperationContext);
+        }
+        catch (UIMAException | ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+    
+    private ResponseEntity<org.springframework.core.io.Resource> readAnnotation(long aProjectId,
+            long aDocumentId, String aAnnotatorId, Mode aMode, Optional<String> aFormat,
+            WebRequest aRequest)
         throws RemoteApiException, ClassNotFoundException, IOException, UIMAException
     {
         // Get project (this also ensures that it exists and that the current user can access it
@@ -941,30 +1754,71 @@ public class AeroRemoteApiController
             getAnnotation(doc, aAnnotatorId, false);
         }
         
+        // If the client already has the current version, there is no need to export again
+        Optional<Long> timestamp = documentService.getAnnotationCasTimestamp(doc, aAnnotatorId);
+        String etag = null;
+        if (timestamp.isPresent()) {
+            etag = etag(doc.getId(), aAnnotatorId, format.getId(),
+                    importExportService.getLayerConfigurationRevision(project), timestamp.get());
+            if (aRequest.checkNotModified(etag, timestamp.get())) {
+                return null;
+            }
+        }
+        
         // Create a temporary export file from the annotations
-        File exportedAnnoFile = null;
-        byte[] resource;
-        try {
+        File exportedAnnoFile;
+        try (PhaseTimer timer = statistics.startPhase(CasPhase.SERIALIZE)) {
             exportedAnnoFile = importExportService.exportAnnotationDocument(doc, aAnnotatorId,
                     format, doc.getName(), Mode.ANNOTATION);
-            resource = FileUtils.readFileToByteArray(exportedAnnoFile);
-        }
-        finally {
-            if (exportedAnnoFile != null) {
-                FileUtils.forceDelete(exportedAnnoFile);
-            }
         }
         
         String filename = FilenameUtils.removeExtension(doc.getName());
         filename += "-" + aAnnotatorId;
-        // Actually, exportedAnnoFile cannot be null here - the warning can be ignored.
         filename += "." + FilenameUtils.getExtension(exportedAnnoFile.getName());
         
+        return sendTemporaryFile(aRequest, exportedAnnoFile, filename, etag, timestamp);
+    }
+    
+    /**
+     * Sends a temporary export file back to the client. The file is streamed from disk instead of
+     * being loaded into memory, which also allows the client to request byte ranges. The file is
+     * deleted once the request has been completed.
+     */
+    private ResponseEntity<org.springframework.core.io.Resource> sendTemporaryFile(
+            WebRequest aRequest, File aFile, String aFilename, String aETag,
+            Optional<Long> aLastModified)
+    {
+        aRequest.registerDestructionCallback("exportedFile:" + aFile.getPath(), () -> {
+            try {
+                importExportService.deleteExportedFile(aFile);
+            }
+            catch (IOException e) {
+                LOG.warn("Unable to delete temporary file [{}]", aFile, e);
+            }
+        }, RequestAttributes.SCOPE_REQUEST);
+        
+        // The content length and range handling are taken care of by the resource converter
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentLength(resource.length);
-        httpHeaders.set("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        if (aETag != null) {
+            httpHeaders.setETag(aETag);
+        }
+        aLastModified.ifPresent(httpHeaders::setLastModified);
+        httpHeaders.set("Content-Disposition", "attachment; filename=\"" + aFilename + "\"");
         
-        return new ResponseEntity<>(resource, httpHeaders, OK);
+        return new ResponseEntity<>(new FileSystemResource(aFile), httpHeaders, OK);
+    }
+    
+    private String initialCasETag(Project aProject, SourceDocument aDocument,
+            FormatSupport aFormat, long aTimestamp)
+    {
+        return etag(aDocument.getId(), WebAnnoConst.INITIAL_CAS_PSEUDO_USER, aFormat.getId(),
+                importExportService.getLayerConfigurationRevision(aProject), aTimestamp);
+    }
+    
+    private static String etag(Object... aComponents)
+    {
+        return "\"" + DigestUtils.md5DigestAsHex(StringUtils.join(aComponents, '/')
+                .getBytes(UTF_8)) + "\"";
     }
     
     private CAS createCompatibleCas(long aProjectId, long aDocumentId, MultipartFile aFile,
@@ -976,12 +1830,7 @@ public class AeroRemoteApiController
 
         // Check if the format is supported
         String format = aFormatId.orElse(FORMAT_DEFAULT);
-        if (!importExportService.getReadableFormatById(format).isPresent()) {
-            throw new UnsupportedFormatException(
-                    "Format [%s] not supported. Acceptable formats are %s.", format,
-                    importExportService.getReadableFormats().stream()
-                            .map(FormatSupport::getId).sorted().collect(Collectors.toList()));
-        }
+        assertReadableFormat(format);
 
         // Convert the uploaded annotation document into a CAS
         File tmpFile = null;
@@ -989,7 +1838,9 @@ public class AeroRemoteApiController
         try {
             tmpFile = File.createTempFile("upload", ".bin");
             aFile.transferTo(tmpFile);
-            annotationCas = importExportService.importCasFromFile(tmpFile, project, format);
+            try (PhaseTimer timer = statistics.startPhase(CasPhase.CONVERT)) {
+                annotationCas = importExportService.importCasFromFile(tmpFile, project, format);
+            }
         }
         finally {
             if (tmpFile != null) {
@@ -997,12 +1848,35 @@ public class AeroRemoteApiController
             }
         }
         
-        // Check if the uploaded file is compatible with the source document. They are compatible
-        // if the text is the same and if all the token and sentence annotations have the same
-        // offsets.
-        CAS initialCas = documentService.createOrReadInitialCas(document);
+        assertCompatibleCas(document, annotationCas);
+        
+        return annotationCas;
+    }
+    
+    private void assertReadableFormat(String aFormatId) throws UnsupportedFormatException
+    {
+        if (!importExportService.getReadableFormatById(aFormatId).isPresent()) {
+            throw new UnsupportedFormatException(
+                    "Format [%s] not supported. Acceptable formats are %s.", aFormatId,
+                    importExportService.getReadableFormats().stream()
+                            .map(FormatSupport::getId).sorted().collect(Collectors.toList()));
+        }
+    }
+    
+    /**
+     * Checks if the uploaded annotations are compatible with the source document. They are
+     * compatible if the text is the same and if all the token and sentence annotations have the
+     * same offsets.
+     */
+    private void assertCompatibleCas(SourceDocument aDocument, CAS aAnnotationCas)
+        throws IOException, IncompatibleDocumentException
+    {
+        CAS initialCas;
+        try (PhaseTimer timer = statistics.startPhase(CasPhase.LOAD)) {
+            initialCas = documentService.createOrReadInitialCas(aDocument);
+        }
         String initialText = initialCas.getDocumentText();
-        String annotationText = annotationCas.getDocumentText();
+        String annotationText = aAnnotationCas.getDocumentText();
         
         // If any of the texts contains tailing line breaks, we ignore that. We assume at the moment
         // that nobody will have created annotations over that trailing line breaks.
@@ -1025,9 +1899,9 @@ public class AeroRemoteApiController
         // make sure we copy over the proper text from the initial CAS
         // NOT AT HOME THIS YOU SHOULD TRY
         // SETTING THE SOFA STRING FORCEFULLY FOLLOWING THE DARK SIDE IS!
-        forceOverwriteSofa(annotationCas, initialCas.getDocumentText());
+        forceOverwriteSofa(aAnnotationCas, initialCas.getDocumentText());
         
-        Collection<AnnotationFS> annotationSentences = selectSentences(annotationCas);
+        Collection<AnnotationFS> annotationSentences = selectSentences(aAnnotationCas);
         Collection<AnnotationFS> initialSentences = selectSentences(initialCas);
         if (annotationSentences.size() != initialSentences.size()) {
             throw new IncompatibleDocumentException(
@@ -1036,7 +1910,7 @@ public class AeroRemoteApiController
         }
         assertCompatibleOffsets(initialSentences, annotationSentences);
         
-        Collection<AnnotationFS> annotationTokens = selectTokens(annotationCas);
+        Collection<AnnotationFS> annotationTokens = selectTokens(aAnnotationCas);
         Collection<AnnotationFS> initialTokens = selectTokens(initialCas);
         if (annotationTokens.size() != initialTokens.size()) {
             throw new IncompatibleDocumentException(
@@ -1044,8 +1918,6 @@ public class AeroRemoteApiController
                     initialSentences.size(), annotationSentences.size());
         }
         assertCompatibleOffsets(initialTokens, annotationTokens);
-        
-        return annotationCas;
     }
     
     private static <T extends AnnotationFS> void assertCompatibleOffsets(Collection<T> aExpected,
@@ -1160,6 +2032,25 @@ public class AeroRemoteApiController
         }
     }
     
+    /**
+     * Parses a timestamp which is given either as an ISO-8601 instant (e.g.
+     * {@code 2020-05-01T12:00:00Z}) or as milliseconds since the epoch.
+     */
+    public static long parseTimestamp(String aTimestamp)
+    {
+        if (StringUtils.isNumeric(aTimestamp)) {
+            return Long.parseLong(aTimestamp);
+        }
+        
+        try {
+            return Instant.parse(aTimestamp).toEpochMilli();
+        }
+        catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Unable to parse timestamp [" + aTimestamp + "]",
+                    e);
+        }
+    }
+    
     public static AnnotationDocumentState parseAnnotationDocumentState(String aState)
     {
         if (aState == null) {
@@ -1201,4 +2092,22 @@ public class AeroRemoteApiController
                     "Unknown annotation document state [" + aState + "]");
         }
     }
+    
+    private static class RemoteJob
+    {
+        // Holding on to the handle also keeps the task accessible in the export service
+        private final ProjectExportTaskHandle handle;
+        private final String type;
+        private final String username;
+        private final Long projectId;
+
+        public RemoteJob(ProjectExportTaskHandle aHandle, String aType, String aUsername,
+                Long aProjectId)
+        {
+            handle = aHandle;
+            type = aType;
+            username = aUsername;
+            projectId = aProjectId;
+        }
+    }
 }
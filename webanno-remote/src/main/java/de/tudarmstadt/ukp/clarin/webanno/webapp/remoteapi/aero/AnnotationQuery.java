@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotationMatch;
+
+/**
+ * Selects the annotations of a layer from a CAS which match a feature value and/or lie within an
+ * offset window. Only features with primitive values can be used as a filter or are included
+ * in the matches.
+ */
+public class AnnotationQuery
+{
+    private final String layer;
+    private final List<String> features;
+    private final String filterFeature;
+    private final String filterValue;
+    private final int windowBegin;
+    private final int windowEnd;
+
+    /**
+     * @param aLayer
+     *            the UIMA type name of the layer.
+     * @param aFeatures
+     *            the features to include in the matches.
+     * @param aFilterFeature
+     *            the feature to filter on or {@code null} to not filter on any feature.
+     * @param aFilterValue
+     *            the value the filter feature must have. A {@code null} value matches
+     *            annotations where the feature is not set.
+     * @param aWindowBegin
+     *            the offset at which matching annotations may start at the earliest.
+     * @param aWindowEnd
+     *            the offset at which matching annotations must end at the latest.
+     */
+    public AnnotationQuery(String aLayer, List<String> aFeatures, String aFilterFeature,
+            String aFilterValue, int aWindowBegin, int aWindowEnd)
+    {
+        layer = aLayer;
+        features = aFeatures;
+        filterFeature = aFilterFeature;
+        filterValue = aFilterValue;
+        windowBegin = aWindowBegin;
+        windowEnd = aWindowEnd;
+    }
+
+    public List<RAnnotationMatch> select(CAS aCas, AnnotationDocument aAnnotationDocument)
+    {
+        List<RAnnotationMatch> matches = new ArrayList<>();
+        
+        // If the CAS has not been upgraded since the layer was created, it cannot contain any
+        // annotations on the layer
+        Type type = aCas.getTypeSystem().getType(layer);
+        if (type == null) {
+            return matches;
+        }
+        
+        Feature filter = null;
+        if (filterFeature != null) {
+            filter = type.getFeatureByBaseName(filterFeature);
+            if (filter == null || !filter.getRange().isPrimitive()) {
+                return matches;
+            }
+        }
+        
+        for (AnnotationFS ann : aCas.<AnnotationFS> getAnnotationIndex(type)) {
+            // The index is sorted by begin offset, so no later annotation can match either
+            if (ann.getBegin() > windowEnd) {
+                break;
+            }
+            
+            if (ann.getBegin() < windowBegin || ann.getEnd() > windowEnd) {
+                continue;
+            }
+            
+            if (filter != null
+                    && !Objects.equals(filterValue, ann.getFeatureValueAsString(filter))) {
+                continue;
+            }
+            
+            matches.add(new RAnnotationMatch(aAnnotationDocument, layer, ann.getBegin(),
+                    ann.getEnd(), ann.getCoveredText(), getFeatureValues(type, ann)));
+        }
+        
+        return matches;
+    }
+    
+    private Map<String, String> getFeatureValues(Type aType, AnnotationFS aAnnotation)
+    {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : features) {
+            Feature feature = aType.getFeatureByBaseName(name);
+            if (feature != null && feature.getRange().isPrimitive()) {
+                values.put(name, aAnnotation.getFeatureValueAsString(feature));
+            }
+        }
+        return values;
+    }
+}
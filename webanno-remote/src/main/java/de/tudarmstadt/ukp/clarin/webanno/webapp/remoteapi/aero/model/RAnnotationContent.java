@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+
+/**
+ * Annotations of a single user on a single document including the exported data. Used for the
+ * lines of a bulk annotation export in NDJSON format.
+ */
+public class RAnnotationContent
+    extends RAnnotation
+{
+    public long documentId;
+    public String documentName;
+    public String format;
+    public byte[] content;
+    
+    public RAnnotationContent(AnnotationDocument aAnnotationDocument, String aFormat,
+            byte[] aContent)
+    {
+        super(aAnnotationDocument);
+        documentId = aAnnotationDocument.getDocument().getId();
+        documentName = aAnnotationDocument.getName();
+        format = aFormat;
+        content = aContent;
+    }
+}
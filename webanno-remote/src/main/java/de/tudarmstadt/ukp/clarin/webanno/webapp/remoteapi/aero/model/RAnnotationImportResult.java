@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Outcome of importing a single entry of a bulk annotation upload.
+ */
+@JsonInclude(Include.NON_NULL)
+public class RAnnotationImportResult
+{
+    public String entry;
+    public Long documentId;
+    public String documentName;
+    public String user;
+    public boolean success;
+    public String message;
+    
+    public RAnnotationImportResult(String aEntry, String aDocumentName, String aUser)
+    {
+        entry = aEntry;
+        documentName = aDocumentName;
+        user = aUser;
+    }
+}
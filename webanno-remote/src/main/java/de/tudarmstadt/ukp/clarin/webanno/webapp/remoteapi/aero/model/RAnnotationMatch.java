@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import java.util.Map;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+
+/**
+ * A single annotation matching a query. Used for the lines of a query response in NDJSON
+ * format.
+ */
+public class RAnnotationMatch
+{
+    public long documentId;
+    public String documentName;
+    public String user;
+    public String layer;
+    public int begin;
+    public int end;
+    public String text;
+    public Map<String, String> features;
+    
+    public RAnnotationMatch(AnnotationDocument aAnnotationDocument, String aLayer, int aBegin,
+            int aEnd, String aText, Map<String, String> aFeatures)
+    {
+        documentId = aAnnotationDocument.getDocument().getId();
+        documentName = aAnnotationDocument.getName();
+        user = aAnnotationDocument.getUser();
+        layer = aLayer;
+        begin = aBegin;
+        end = aEnd;
+        text = aText;
+        features = aFeatures;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import java.text.SimpleDateFormat;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemoteApiController;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model.ChangeLogEntry;
+
+public class RChange
+{
+    private static final SimpleDateFormat FORMAT = new SimpleDateFormat("YYYY-MM-dd'T'HH:mm:ssZ");
+    
+    public long id;
+    public String type;
+    public long documentId;
+    public String user;
+    public String state;
+    public String timestamp;
+    
+    public RChange(ChangeLogEntry aEntry)
+    {
+        id = aEntry.getId();
+        type = aEntry.getType().name();
+        documentId = aEntry.getDocument();
+        user = aEntry.getUser();
+        if (aEntry.getState() != null) {
+            switch (aEntry.getType()) {
+            case DOCUMENT_STATE:
+                state = AeroRemoteApiController.sourceDocumentStateToString(
+                        SourceDocumentState.valueOf(aEntry.getState()));
+                break;
+            case ANNOTATION_STATE:
+                state = AeroRemoteApiController.annotationDocumentStateToString(
+                        AnnotationDocumentState.valueOf(aEntry.getState()));
+                break;
+            default:
+                state = aEntry.getState();
+                break;
+            }
+        }
+        if (aEntry.getTimestamp() != null) {
+            timestamp = FORMAT.format(aEntry.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import java.util.List;
+
+public class RChanges
+{
+    public List<RChange> changes;
+    
+    /**
+     * Cursor to pass to the next request in order to receive the changes following the ones
+     * contained in this response.
+     */
+    public long cursor;
+    
+    /**
+     * Whether further changes are available beyond the cursor.
+     */
+    public boolean more;
+    
+    public RChanges(List<RChange> aChanges, long aCursor, boolean aMore)
+    {
+        changes = aChanges;
+        cursor = aCursor;
+        more = aMore;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
+import de.tudarmstadt.ukp.clarin.webanno.support.logging.LogMessage;
+
+public class RJob
+{
+    public long id;
+    public String type;
+    public Long projectId;
+    public String state;
+    public int progress;
+    public List<String> messages;
+    
+    public RJob(long aId, String aType, Long aProjectId, ProjectExportTaskMonitor aMonitor)
+    {
+        id = aId;
+        type = aType;
+        projectId = aProjectId;
+        state = aMonitor.getState().name();
+        progress = aMonitor.getProgress();
+        messages = aMonitor.getMessages().stream()
+                .map(LogMessage::getMessage)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.LatencyHistogram;
+
+public class RLatency
+{
+    public long count;
+    public double meanMillis;
+    public long p50Millis;
+    public long p95Millis;
+    public long p99Millis;
+    public long maxMillis;
+    
+    public RLatency(LatencyHistogram aHistogram)
+    {
+        count = aHistogram.getCount();
+        meanMillis = aHistogram.getMeanMillis();
+        p50Millis = aHistogram.getPercentileMillis(0.5);
+        p95Millis = aHistogram.getPercentileMillis(0.95);
+        p99Millis = aHistogram.getPercentileMillis(0.99);
+        maxMillis = aHistogram.getMaxMillis();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RemoteApiStatistics;
+
+public class RMetrics
+{
+    public List<RRouteMetrics> routes;
+    public Map<String, RLatency> casPhases;
+    
+    public RMetrics(RemoteApiStatistics aStatistics)
+    {
+        routes = aStatistics.listRoutes().stream()
+                .map(RRouteMetrics::new)
+                .collect(Collectors.toList());
+        
+        casPhases = new LinkedHashMap<>();
+        for (CasPhase phase : CasPhase.values()) {
+            casPhases.put(phase.name(), new RLatency(aStatistics.getPhase(phase)));
+        }
+    }
+}
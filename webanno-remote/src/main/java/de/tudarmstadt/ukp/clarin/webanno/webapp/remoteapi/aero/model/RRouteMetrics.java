@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RouteStatistics;
+
+public class RRouteMetrics
+{
+    public String route;
+    public RLatency latency;
+    public long clientErrors;
+    public long serverErrors;
+    public long responseBytes;
+    public long maxResponseBytes;
+    
+    public RRouteMetrics(RouteStatistics aRoute)
+    {
+        route = aRoute.getRoute();
+        latency = new RLatency(aRoute.getLatency());
+        clientErrors = aRoute.getClientErrors();
+        serverErrors = aRoute.getServerErrors();
+        responseBytes = aRoute.getResponseBytes();
+        maxResponseBytes = aRoute.getMaxResponseBytes();
+    }
+}
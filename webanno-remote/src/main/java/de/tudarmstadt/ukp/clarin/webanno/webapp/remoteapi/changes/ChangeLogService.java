@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes;
+
+import java.util.List;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model.ChangeLogEntry;
+
+/**
+ * Records changes to documents and annotations so that external systems can synchronize
+ * incrementally instead of comparing the state of all documents.
+ */
+public interface ChangeLogService
+{
+    /**
+     * Lists the changes in the given project which were recorded after the given cursor.
+     * 
+     * @param aProject
+     *            the project.
+     * @param aCursor
+     *            the ID of the last change the client has already seen (0 to start from the
+     *            beginning).
+     * @param aLimit
+     *            the maximum number of changes to return.
+     * @return the changes ordered by their ID.
+     */
+    List<ChangeLogEntry> listChanges(Project aProject, long aCursor, int aLimit);
+    
+    /**
+     * Removes all changes recorded for the given project.
+     * 
+     * @param aProject
+     *            the project.
+     */
+    void removeChanges(Project aProject);
+}
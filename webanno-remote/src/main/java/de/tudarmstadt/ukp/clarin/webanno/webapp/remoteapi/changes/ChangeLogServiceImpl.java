@@ -0,0 +1,286 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes;
+
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.config.RemoteApiConfig.REMOTE_API_ENABLED_CONDITION;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterCasDeletedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AfterCasWrittenEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AnnotationStateChangeEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeDocumentRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.DocumentStateChangedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model.ChangeLogEntry;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model.ChangeType;
+
+/**
+ * Records the changes once the transaction which made them has been committed. The changes are
+ * collected in memory and written in the background in regular intervals, so saving annotations
+ * does not cause additional writes to the database. All changes are written by a single writer
+ * which commits each batch before writing the next one. Thus, the IDs of the changes increase in
+ * the order in which they become visible and a client paging through the changes by ID does not
+ * skip any changes. This assumes that there is only a single application instance writing to the
+ * database.
+ */
+@Component
+@ConditionalOnExpression(REMOTE_API_ENABLED_CONDITION)
+public class ChangeLogServiceImpl
+    implements ChangeLogService, InitializingBean, DisposableBean
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    
+    /**
+     * Interval in which the collected changes are written to the database.
+     */
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    
+    private @PersistenceContext EntityManager entityManager;
+    private @Autowired PlatformTransactionManager txManager;
+    
+    /**
+     * Changes waiting to be written. Repeated changes of the same kind replace each other, so
+     * they are written only once.
+     */
+    private final Map<Triple<Long, String, ChangeType>, ChangeLogEntry> pending =
+            new LinkedHashMap<>();
+    
+    /**
+     * Held while changes are written or removed so there is only a single writer at a time.
+     */
+    private final Object writeLock = new Object();
+    
+    private final ScheduledExecutorService flushScheduler;
+    
+    public ChangeLogServiceImpl()
+    {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(
+                new BasicThreadFactory.Builder().namingPattern("change-log-writer-%d")
+                        .daemon(true).build());
+    }
+    
+    @Override
+    public void afterPropertiesSet()
+    {
+        flushScheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS,
+                FLUSH_INTERVAL_MILLIS, MILLISECONDS);
+    }
+    
+    @Override
+    public void destroy()
+    {
+        flushScheduler.shutdownNow();
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAfterCasWritten(AfterCasWrittenEvent aEvent)
+    {
+        AnnotationDocument annDoc = aEvent.getDocument();
+        record(annDoc.getDocument(), annDoc.getUser(), ChangeType.ANNOTATION_CAS, null);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAfterCasDeleted(AfterCasDeletedEvent aEvent)
+    {
+        AnnotationDocument annDoc = aEvent.getDocument();
+        record(annDoc.getDocument(), annDoc.getUser(), ChangeType.ANNOTATION_CAS_DELETED, null);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentStateChanged(DocumentStateChangedEvent aEvent)
+    {
+        record(aEvent.getDocument(), null, ChangeType.DOCUMENT_STATE,
+                aEvent.getNewState() != null ? aEvent.getNewState().name() : null);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnotationStateChanged(AnnotationStateChangeEvent aEvent)
+    {
+        record(aEvent.getDocument(), aEvent.getAnnotationDocument().getUser(),
+                ChangeType.ANNOTATION_STATE,
+                aEvent.getNewState() != null ? aEvent.getNewState().name() : null);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeforeDocumentRemoved(BeforeDocumentRemovedEvent aEvent)
+    {
+        record(aEvent.getDocument(), null, ChangeType.DOCUMENT_REMOVED, null);
+    }
+    
+    @EventListener
+    @Transactional
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        removeChanges(aEvent.getProject());
+    }
+
+    private void record(SourceDocument aDocument, String aUser, ChangeType aType, String aState)
+    {
+        ChangeLogEntry entry = new ChangeLogEntry(aDocument.getProject().getId(),
+                aDocument.getId(), aUser, aType, aState);
+        
+        synchronized (pending) {
+            if (aType == ChangeType.DOCUMENT_REMOVED) {
+                pending.values().removeIf(e -> e.getDocument() == entry.getDocument());
+            }
+            
+            // Remove before adding so the entry moves to the end of the queue
+            Triple<Long, String, ChangeType> key = Triple.of(entry.getDocument(), aUser, aType);
+            pending.remove(key);
+            pending.put(key, entry);
+        }
+    }
+    
+    /**
+     * Writes the collected changes in a transaction of its own.
+     */
+    private void flush()
+    {
+        synchronized (writeLock) {
+            List<ChangeLogEntry> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            
+            DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+            def.setName("changeLogFlush");
+            def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            
+            TransactionStatus status = txManager.getTransaction(def);
+            try {
+                batch.forEach(this::write);
+                txManager.commit(status);
+            }
+            catch (RuntimeException e) {
+                if (!status.isCompleted()) {
+                    txManager.rollback(status);
+                }
+                log.error("Unable to record {} changes", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes a change. Any previous change superseded by the new one is dropped, so the log does
+     * not grow with every save.
+     */
+    private void write(ChangeLogEntry aEntry)
+    {
+        Query delete;
+        if (aEntry.getType() == ChangeType.DOCUMENT_REMOVED) {
+            delete = entityManager
+                    .createQuery("DELETE FROM ChangeLogEntry WHERE document = :document");
+        }
+        else {
+            String query = "DELETE FROM ChangeLogEntry WHERE document = :document "
+                    + "AND type IN (:types) "
+                    + (aEntry.getUser() != null ? "AND user = :user" : "AND user IS NULL");
+            delete = entityManager.createQuery(query)
+                    .setParameter("types", superseded(aEntry.getType()));
+            if (aEntry.getUser() != null) {
+                delete.setParameter("user", aEntry.getUser());
+            }
+        }
+        delete.setParameter("document", aEntry.getDocument()).executeUpdate();
+        
+        entityManager.persist(aEntry);
+    }
+    
+    private static List<ChangeType> superseded(ChangeType aType)
+    {
+        switch (aType) {
+        case ANNOTATION_CAS:
+        case ANNOTATION_CAS_DELETED:
+            return asList(ChangeType.ANNOTATION_CAS, ChangeType.ANNOTATION_CAS_DELETED);
+        default:
+            return singletonList(aType);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<ChangeLogEntry> listChanges(Project aProject, long aCursor, int aLimit)
+    {
+        // Make sure that all changes which have been collected so far are reported
+        flush();
+        
+        String query = "FROM ChangeLogEntry WHERE project = :project AND id > :cursor "
+                + "ORDER BY id ASC";
+        return entityManager.createQuery(query, ChangeLogEntry.class)
+                .setParameter("project", aProject.getId())
+                .setParameter("cursor", aCursor)
+                .setMaxResults(aLimit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public void removeChanges(Project aProject)
+    {
+        synchronized (writeLock) {
+            synchronized (pending) {
+                pending.values().removeIf(e -> Objects.equals(e.getProject(),
+                        aProject.getId()));
+            }
+            
+            entityManager.createQuery("DELETE FROM ChangeLogEntry WHERE project = :project")
+                    .setParameter("project", aProject.getId())
+                    .executeUpdate();
+        }
+    }
+}
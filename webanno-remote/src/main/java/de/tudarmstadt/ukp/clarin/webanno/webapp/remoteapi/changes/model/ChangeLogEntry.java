@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * A change to a document or to the annotations of a user on a document. The ID of the entry is
+ * increasing and serves as the cursor of the changes feed. Only the latest change of each type
+ * is kept per document and user.
+ */
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry
+    implements Serializable
+{
+    private static final long serialVersionUID = 3171046391328652817L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "project", nullable = false)
+    private long project;
+    
+    @Column(name = "document", nullable = false)
+    private long document;
+    
+    @Column(name = "username", nullable = true)
+    private String user;
+    
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChangeType type;
+    
+    @Column(name = "state", nullable = true)
+    private String state;
+    
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "timestamp", nullable = false)
+    private Date timestamp;
+
+    public ChangeLogEntry()
+    {
+        // For serialization and persistence
+    }
+    
+    public ChangeLogEntry(long aProject, long aDocument, String aUser, ChangeType aType,
+            String aState)
+    {
+        project = aProject;
+        document = aDocument;
+        user = aUser;
+        type = aType;
+        state = aState;
+        timestamp = new Date();
+    }
+
+    public Long getId()
+    {
+        return id;
+    }
+
+    public void setId(Long aId)
+    {
+        id = aId;
+    }
+
+    public long getProject()
+    {
+        return project;
+    }
+
+    public void setProject(long aProject)
+    {
+        project = aProject;
+    }
+
+    public long getDocument()
+    {
+        return document;
+    }
+
+    public void setDocument(long aDocument)
+    {
+        document = aDocument;
+    }
+
+    public String getUser()
+    {
+        return user;
+    }
+
+    public void setUser(String aUser)
+    {
+        user = aUser;
+    }
+
+    public ChangeType getType()
+    {
+        return type;
+    }
+
+    public void setType(ChangeType aType)
+    {
+        type = aType;
+    }
+
+    public String getState()
+    {
+        return state;
+    }
+
+    public void setState(String aState)
+    {
+        state = aState;
+    }
+
+    public Date getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date aTimestamp)
+    {
+        timestamp = aTimestamp;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model;
+
+public enum ChangeType
+{
+    /**
+     * The annotation CAS of a user was saved.
+     */
+    ANNOTATION_CAS,
+    
+    /**
+     * The annotation CAS of a user was deleted.
+     */
+    ANNOTATION_CAS_DELETED,
+    
+    /**
+     * The state of a source document changed.
+     */
+    DOCUMENT_STATE,
+    
+    /**
+     * The state of the annotations of a user on a document changed.
+     */
+    ANNOTATION_STATE,
+    
+    /**
+     * The source document was removed. All other changes of the document are dropped.
+     */
+    DOCUMENT_REMOVED;
+}
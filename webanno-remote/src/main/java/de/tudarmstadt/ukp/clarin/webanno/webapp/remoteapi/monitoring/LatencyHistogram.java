@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations using fixed buckets. Percentiles are estimated by the upper bound of
+ * the bucket they fall into, which is precise enough to check latencies against service level
+ * objectives.
+ */
+public class LatencyHistogram
+{
+    private static final long[] BUCKET_BOUNDS_MILLIS = { 5, 10, 25, 50, 100, 250, 500, 1000,
+            2500, 5000, 10000, 30000, 60000 };
+    
+    // The last bucket takes everything exceeding the largest bound
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    public void record(long aNanos)
+    {
+        long millis = NANOSECONDS.toMillis(aNanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(aNanos);
+        maxNanos.accumulateAndGet(aNanos, Math::max);
+    }
+    
+    public long getCount()
+    {
+        return count.sum();
+    }
+    
+    public double getMeanMillis()
+    {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) totalNanos.sum() / n / MILLISECONDS.toNanos(1);
+    }
+    
+    public long getMaxMillis()
+    {
+        return NANOSECONDS.toMillis(maxNanos.get());
+    }
+    
+    /**
+     * @param aPercentile
+     *            the percentile as a fraction between {@code 0} and {@code 1}.
+     * @return the upper bound of the bucket into which the percentile falls. If it falls beyond
+     *         the largest bucket, the maximum recorded duration is returned.
+     */
+    public long getPercentileMillis(double aPercentile)
+    {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        
+        if (total == 0) {
+            return 0;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(aPercentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BUCKET_BOUNDS_MILLIS[i];
+            }
+        }
+        
+        return getMaxMillis();
+    }
+    
+    public long[] getBucketCounts()
+    {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+    
+    public static long[] getBucketBoundsMillis()
+    {
+        return BUCKET_BOUNDS_MILLIS.clone();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+/**
+ * Records the time elapsed between its creation and being closed. Meant to be used in a
+ * try-with-resources block around the operation to be timed.
+ */
+public class PhaseTimer
+    implements AutoCloseable
+{
+    private final LatencyHistogram histogram;
+    private final long start;
+    
+    PhaseTimer(LatencyHistogram aHistogram)
+    {
+        histogram = aHistogram;
+        start = System.nanoTime();
+    }
+    
+    @Override
+    public void close()
+    {
+        histogram.record(System.nanoTime() - start);
+    }
+}
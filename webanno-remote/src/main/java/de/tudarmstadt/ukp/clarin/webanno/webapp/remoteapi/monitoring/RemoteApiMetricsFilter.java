@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import static java.util.Arrays.asList;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerMapping;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.LegacyRemoteApiController;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemoteApiController;
+
+/**
+ * Records the latency, the response status and the response size of every request to the remote
+ * API. Requests are grouped by their route, i.e. the HTTP method and the URL pattern of the
+ * controller method handling them, such that e.g. all document downloads end up in the same
+ * group. Streamed responses are recorded once the response has been written completely.
+ */
+@Component
+public class RemoteApiMetricsFilter
+    implements Filter
+{
+    private static final String UNMATCHED_ROUTE = "(unmatched)";
+    
+    private static final List<String> API_PATTERNS = asList(
+            AeroRemoteApiController.API_BASE + "/**", 
+            LegacyRemoteApiController.API_BASE + "/**");
+    
+    private final RemoteApiStatistics statistics;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Autowired
+    public RemoteApiMetricsFilter(RemoteApiStatistics aStatistics)
+    {
+        statistics = aStatistics;
+    }
+    
+    @Override
+    public void init(FilterConfig filterConfig)
+        throws ServletException
+    {
+        // Do nothing
+    }
+
+    @Override
+    public void doFilter(ServletRequest aReq, ServletResponse aResp, FilterChain aChain)
+        throws IOException, ServletException
+    {
+        HttpServletRequest req = (HttpServletRequest) aReq;
+        
+        String path = req.getRequestURI().substring(req.getContextPath().length());
+        if (!isApiRequest(path)) {
+            aChain.doFilter(aReq, aResp);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        CountingResponseWrapper resp = new CountingResponseWrapper(
+                (HttpServletResponse) aResp);
+        boolean failed = true;
+        try {
+            aChain.doFilter(req, resp);
+            failed = false;
+        }
+        finally {
+            if (failed) {
+                // The container turns the exception into an error response later
+                record(req, start, SC_INTERNAL_SERVER_ERROR, resp.getByteCount());
+            }
+            else if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new AsyncListener()
+                {
+                    @Override
+                    public void onComplete(AsyncEvent aEvent)
+                    {
+                        record(req, start, resp.getStatus(), resp.getByteCount());
+                    }
+                    
+                    @Override
+                    public void onTimeout(AsyncEvent aEvent)
+                    {
+                        // Completion follows
+                    }
+                    
+                    @Override
+                    public void onError(AsyncEvent aEvent)
+                    {
+                        // Completion follows
+                    }
+                    
+                    @Override
+                    public void onStartAsync(AsyncEvent aEvent)
+                    {
+                        // Nothing to do
+                    }
+                });
+            }
+            else {
+                record(req, start, resp.getStatus(), resp.getByteCount());
+            }
+        }
+    }
+    
+    private void record(HttpServletRequest aReq, long aStart, int aStatus, long aBytes)
+    {
+        // The pattern is set by Spring MVC once it has selected the controller method
+        Object pattern = aReq.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = aReq.getMethod() + " "
+                + (pattern != null ? pattern.toString() : UNMATCHED_ROUTE);
+        statistics.recordRequest(route, System.nanoTime() - aStart, aStatus, aBytes);
+    }
+    
+    private boolean isApiRequest(String aPath)
+    {
+        return API_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, aPath));
+    }
+
+    @Override
+    public void destroy()
+    {
+        // Do nothing
+    }
+    
+    /**
+     * Counts the bytes written to the output stream of the response. The remote API writes all
+     * its responses through the output stream, so the writer is not wrapped.
+     */
+    private static class CountingResponseWrapper
+        extends HttpServletResponseWrapper
+    {
+        private final AtomicLong byteCount = new AtomicLong();
+        private ServletOutputStream outputStream;
+        
+        public CountingResponseWrapper(HttpServletResponse aResponse)
+        {
+            super(aResponse);
+        }
+        
+        @Override
+        public synchronized ServletOutputStream getOutputStream()
+            throws IOException
+        {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), byteCount);
+            }
+            return outputStream;
+        }
+        
+        public long getByteCount()
+        {
+            return byteCount.get();
+        }
+    }
+    
+    private static class CountingOutputStream
+        extends ServletOutputStream
+    {
+        private final ServletOutputStream delegate;
+        private final AtomicLong byteCount;
+        
+        public CountingOutputStream(ServletOutputStream aDelegate, AtomicLong aByteCount)
+        {
+            delegate = aDelegate;
+            byteCount = aByteCount;
+        }
+        
+        @Override
+        public void write(int aByte)
+            throws IOException
+        {
+            delegate.write(aByte);
+            byteCount.incrementAndGet();
+        }
+        
+        @Override
+        public void write(byte[] aBytes, int aOffset, int aLength)
+            throws IOException
+        {
+            delegate.write(aBytes, aOffset, aLength);
+            byteCount.addAndGet(aLength);
+        }
+        
+        @Override
+        public void flush()
+            throws IOException
+        {
+            delegate.flush();
+        }
+        
+        @Override
+        public void close()
+            throws IOException
+        {
+            delegate.close();
+        }
+        
+        @Override
+        public boolean isReady()
+        {
+            return delegate.isReady();
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener aWriteListener)
+        {
+            delegate.setWriteListener(aWriteListener);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the statistics of the requests to the remote API per route as well as the timings of
+ * the CAS phases of the requests.
+ */
+@Component
+public class RemoteApiStatistics
+{
+    private final Map<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+    private final Map<CasPhase, LatencyHistogram> phases = new EnumMap<>(CasPhase.class);
+    
+    public RemoteApiStatistics()
+    {
+        // The map is only read after this point, so it is safe to share it between threads
+        for (CasPhase phase : CasPhase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+    
+    /**
+     * @param aRoute
+     *            the HTTP method and the URL pattern of the route.
+     * @param aNanos
+     *            the time it took to handle the request.
+     * @param aStatus
+     *            the HTTP status of the response.
+     * @param aResponseBytes
+     *            the size of the response body.
+     */
+    public void recordRequest(String aRoute, long aNanos, int aStatus, long aResponseBytes)
+    {
+        routes.computeIfAbsent(aRoute, RouteStatistics::new).record(aNanos, aStatus,
+                aResponseBytes);
+    }
+    
+    public PhaseTimer startPhase(CasPhase aPhase)
+    {
+        return new PhaseTimer(phases.get(aPhase));
+    }
+    
+    public List<RouteStatistics> listRoutes()
+    {
+        List<RouteStatistics> result = new ArrayList<>(routes.values());
+        result.sort(comparing(RouteStatistics::getRoute));
+        return result;
+    }
+    
+    public LatencyHistogram getPhase(CasPhase aPhase)
+    {
+        return phases.get(aPhase);
+    }
+}
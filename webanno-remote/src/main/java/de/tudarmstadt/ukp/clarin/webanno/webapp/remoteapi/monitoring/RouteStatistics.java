@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, errors and response sizes of the requests to a single route of the remote API.
+ */
+public class RouteStatistics
+{
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final AtomicLong maxResponseBytes = new AtomicLong();
+    
+    public RouteStatistics(String aRoute)
+    {
+        route = aRoute;
+    }
+    
+    void record(long aNanos, int aStatus, long aResponseBytes)
+    {
+        latency.record(aNanos);
+        
+        if (aStatus >= 500) {
+            serverErrors.increment();
+        }
+        else if (aStatus >= 400) {
+            clientErrors.increment();
+        }
+        
+        responseBytes.add(aResponseBytes);
+        maxResponseBytes.accumulateAndGet(aResponseBytes, Math::max);
+    }
+    
+    public String getRoute()
+    {
+        return route;
+    }
+    
+    public LatencyHistogram getLatency()
+    {
+        return latency;
+    }
+    
+    public long getRequests()
+    {
+        return latency.getCount();
+    }
+    
+    public long getClientErrors()
+    {
+        return clientErrors.sum();
+    }
+    
+    public long getServerErrors()
+    {
+        return serverErrors.sum();
+    }
+    
+    public long getResponseBytes()
+    {
+        return responseBytes.sum();
+    }
+    
+    public long getMaxResponseBytes()
+    {
+        return maxResponseBytes.get();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.metrics;
+
+public interface RemoteApiMetrics
+{
+    /**
+     * Retrieve the total number of remote API requests
+     */
+    public long getRequestsTotal();
+    /**
+     * Retrieve the total number of remote API requests answered with a client error
+     */
+    public long getClientErrorsTotal();
+    /**
+     * Retrieve the total number of remote API requests answered with a server error
+     */
+    public long getServerErrorsTotal();
+    /**
+     * Retrieve the total number of bytes sent in remote API responses
+     */
+    public long getResponseBytesTotal();
+    /**
+     * Retrieve count, latency percentiles, errors and response sizes per remote API route
+     */
+    public String[] getRoutes();
+    /**
+     * Retrieve the 95th percentile of the time it took to read a CAS for the remote API
+     */
+    public long getCasLoadP95Millis();
+    /**
+     * Retrieve the 95th percentile of the time it took to convert a file to a CAS for the
+     * remote API
+     */
+    public long getCasConvertP95Millis();
+    /**
+     * Retrieve the 95th percentile of the time it took to export a CAS for the remote API
+     */
+    public long getCasSerializeP95Millis();
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.metrics;
+
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase.CONVERT;
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase.LOAD;
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.CasPhase.SERIALIZE;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.LatencyHistogram;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RemoteApiStatistics;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RouteStatistics;
+
+@ManagedResource
+@Service
+@ConditionalOnProperty(prefix = "monitoring.metrics", name = "enabled", havingValue = "true")
+public class RemoteApiMetricsImpl
+    implements RemoteApiMetrics
+{
+    private final RemoteApiStatistics statistics;
+
+    @Autowired
+    public RemoteApiMetricsImpl(RemoteApiStatistics aStatistics)
+    {
+        statistics = aStatistics;
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getRequestsTotal()
+    {
+        return statistics.listRoutes().stream().mapToLong(RouteStatistics::getRequests).sum();
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getClientErrorsTotal()
+    {
+        return statistics.listRoutes().stream().mapToLong(RouteStatistics::getClientErrors)
+                .sum();
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getServerErrorsTotal()
+    {
+        return statistics.listRoutes().stream().mapToLong(RouteStatistics::getServerErrors)
+                .sum();
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getResponseBytesTotal()
+    {
+        return statistics.listRoutes().stream().mapToLong(RouteStatistics::getResponseBytes)
+                .sum();
+    }
+
+    @Override
+    @ManagedAttribute
+    public String[] getRoutes()
+    {
+        return statistics.listRoutes().stream()
+                .map(route -> {
+                    LatencyHistogram latency = route.getLatency();
+                    return String.format(
+                            "%s: requests=%d p50=%dms p95=%dms p99=%dms max=%dms "
+                                    + "clientErrors=%d serverErrors=%d bytes=%d maxBytes=%d",
+                            route.getRoute(), route.getRequests(),
+                            latency.getPercentileMillis(0.5), latency.getPercentileMillis(0.95),
+                            latency.getPercentileMillis(0.99), latency.getMaxMillis(),
+                            route.getClientErrors(), route.getServerErrors(),
+                            route.getResponseBytes(), route.getMaxResponseBytes());
+                })
+                .toArray(String[]::new);
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getCasLoadP95Millis()
+    {
+        return statistics.getPhase(LOAD).getPercentileMillis(0.95);
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getCasConvertP95Millis()
+    {
+        return statistics.getPhase(CONVERT).getPercentileMillis(0.95);
+    }
+
+    @Override
+    @ManagedAttribute
+    public long getCasSerializeP95Millis()
+    {
+        return statistics.getPhase(SERIALIZE).getPercentileMillis(0.95);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = RateLimitConfiguration.PROPERTY_PREFIX)
+public class RateLimitConfiguration
+{
+    public static final String PROPERTY_PREFIX = "remote-api.rate-limit";
+    
+    private boolean enabled = false;
+    
+    /**
+     * Number of requests per second a single user may sustain.
+     */
+    private double requestsPerSecond = 10;
+    
+    /**
+     * Number of requests a single user may issue in a burst before the rate limit applies.
+     */
+    private int burst = 20;
+    
+    /**
+     * Maximum number of requests per user which are processed concurrently. Further requests are
+     * queued.
+     */
+    private int maxConcurrentRequestsPerUser = 4;
+    
+    /**
+     * Maximum number of requests to an expensive endpoint (e.g. project export or annotation
+     * import) which are processed concurrently across all users. Further requests are queued.
+     */
+    private int maxConcurrentHeavyRequests = 2;
+    
+    /**
+     * Maximum time a request waits in the queue before it is rejected.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean aEnabled)
+    {
+        enabled = aEnabled;
+    }
+
+    public double getRequestsPerSecond()
+    {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double aRequestsPerSecond)
+    {
+        requestsPerSecond = aRequestsPerSecond;
+    }
+
+    public int getBurst()
+    {
+        return burst;
+    }
+
+    public void setBurst(int aBurst)
+    {
+        burst = aBurst;
+    }
+
+    public int getMaxConcurrentRequestsPerUser()
+    {
+        return maxConcurrentRequestsPerUser;
+    }
+
+    public void setMaxConcurrentRequestsPerUser(int aMaxConcurrentRequestsPerUser)
+    {
+        maxConcurrentRequestsPerUser = aMaxConcurrentRequestsPerUser;
+    }
+
+    public int getMaxConcurrentHeavyRequests()
+    {
+        return maxConcurrentHeavyRequests;
+    }
+
+    public void setMaxConcurrentHeavyRequests(int aMaxConcurrentHeavyRequests)
+    {
+        maxConcurrentHeavyRequests = aMaxConcurrentHeavyRequests;
+    }
+
+    public Duration getQueueTimeout()
+    {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration aQueueTimeout)
+    {
+        queueTimeout = aQueueTimeout;
+    }
+}
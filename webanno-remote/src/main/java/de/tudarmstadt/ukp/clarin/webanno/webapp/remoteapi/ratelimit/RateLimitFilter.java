@@ -0,0 +1,321 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.ratelimit;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.LegacyRemoteApiController;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemoteApiController;
+
+/**
+ * Limits the request rate and the number of concurrent requests to the remote API per user. 
+ * Requests to expensive endpoints are additionally limited across all users, such that scripts
+ * cannot starve the interactive users of CPU and memory. Requests exceeding the rate limit or
+ * waiting too long for a free slot are rejected with {@code 429 Too Many Requests}.
+ * <p>
+ * The filter runs after the Spring Security filter chain, i.e. the user has already been
+ * authenticated when it is invoked.
+ */
+@Component
+public class RateLimitFilter
+    implements Filter
+{
+    private static final long MAX_RETRY_AFTER_SECONDS = HOURS.toSeconds(1);
+    
+    private static final String AERO = AeroRemoteApiController.API_BASE;
+    
+    private static final List<String> API_PATTERNS = asList(
+            AERO + "/**", 
+            LegacyRemoteApiController.API_BASE + "/**");
+    
+    private static final List<String> HEAVY_ENDPOINT_PATTERNS = asList(
+            AERO + "/projects/import",
+            AERO + "/projects/*/export.zip",
+            AERO + "/projects/*/annotations",
+            AERO + "/projects/*/query",
+            AERO + "/projects/*/documents/*",
+            AERO + "/projects/*/documents/*/annotations/*",
+            AERO + "/projects/*/documents/*/curation");
+    
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final RateLimitConfiguration configuration;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, UserLimits> userLimits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> endpointLimits = new LinkedHashMap<>();
+    
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejectedByRate = new AtomicLong();
+    private final AtomicLong rejectedByConcurrency = new AtomicLong();
+    
+    @Autowired
+    public RateLimitFilter(RateLimitConfiguration aConfiguration)
+    {
+        configuration = aConfiguration;
+        
+        for (String pattern : HEAVY_ENDPOINT_PATTERNS) {
+            endpointLimits.put(pattern,
+                    new Semaphore(configuration.getMaxConcurrentHeavyRequests(), true));
+        }
+    }
+    
+    @Override
+    public void init(FilterConfig filterConfig)
+        throws ServletException
+    {
+        // Do nothing
+    }
+
+    @Override
+    public void doFilter(ServletRequest aReq, ServletResponse aResp, FilterChain aChain)
+        throws IOException, ServletException
+    {
+        HttpServletRequest req = (HttpServletRequest) aReq;
+        HttpServletResponse resp = (HttpServletResponse) aResp;
+        
+        String path = req.getRequestURI().substring(req.getContextPath().length());
+        Principal principal = req.getUserPrincipal();
+        if (!configuration.isEnabled() || principal == null || !isApiRequest(path)) {
+            aChain.doFilter(aReq, aResp);
+            return;
+        }
+        
+        String username = principal.getName();
+        UserLimits limits = userLimits.computeIfAbsent(username, key -> new UserLimits(
+                configuration.getRequestsPerSecond(), configuration.getBurst(),
+                configuration.getMaxConcurrentRequestsPerUser()));
+        
+        long waitNanos = limits.bucket.tryConsume();
+        if (waitNanos > 0) {
+            rejectedByRate.incrementAndGet();
+            log.debug("Rate limit of user [{}] exceeded on [{} {}]", username, req.getMethod(),
+                    path);
+            reject(resp, NANOSECONDS.toSeconds(waitNanos) + 1,
+                    "Request rate limit exceeded.");
+            return;
+        }
+        
+        long deadline = System.nanoTime() + configuration.getQueueTimeout().toNanos();
+        
+        if (!acquire(limits.concurrentRequests, deadline)) {
+            rejectedByConcurrency.incrementAndGet();
+            log.debug("Too many concurrent requests from user [{}] on [{} {}]", username,
+                    req.getMethod(), path);
+            reject(resp, 1, "Too many concurrent requests.");
+            return;
+        }
+        
+        Semaphore endpointLimit = getEndpointLimit(req.getMethod(), path);
+        if (endpointLimit != null && !acquire(endpointLimit, deadline)) {
+            limits.concurrentRequests.release();
+            rejectedByConcurrency.incrementAndGet();
+            log.debug("Too many concurrent requests on [{} {}] - rejecting user [{}]",
+                    req.getMethod(), path, username);
+            reject(resp, configuration.getQueueTimeout().getSeconds(),
+                    "Server is busy. Too many concurrent requests to this endpoint.");
+            return;
+        }
+        
+        Permits permits = new Permits(limits.concurrentRequests, endpointLimit);
+        boolean async = false;
+        try {
+            accepted.incrementAndGet();
+            aChain.doFilter(aReq, aResp);
+            
+            // Streaming responses are written after the filter chain has returned, so the
+            // permits are only released once the asynchronous processing is finished
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(permits);
+                async = true;
+            }
+        }
+        finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+    
+    private boolean isApiRequest(String aPath)
+    {
+        return API_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, aPath));
+    }
+    
+    private Semaphore getEndpointLimit(String aMethod, String aPath)
+    {
+        // Deleting things is cheap
+        if ("DELETE".equals(aMethod)) {
+            return null;
+        }
+        
+        for (Map.Entry<String, Semaphore> e : endpointLimits.entrySet()) {
+            if (pathMatcher.match(e.getKey(), aPath)) {
+                return e.getValue();
+            }
+        }
+        
+        return null;
+    }
+    
+    private boolean acquire(Semaphore aSemaphore, long aDeadline)
+    {
+        if (aSemaphore.tryAcquire()) {
+            return true;
+        }
+        
+        queued.incrementAndGet();
+        try {
+            return aSemaphore.tryAcquire(Math.max(0, aDeadline - System.nanoTime()), NANOSECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void reject(HttpServletResponse aResponse, long aRetryAfterSeconds, String aMessage)
+        throws IOException
+    {
+        aResponse.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.min(aRetryAfterSeconds, MAX_RETRY_AFTER_SECONDS)));
+        aResponse.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), aMessage);
+    }
+
+    @Override
+    public void destroy()
+    {
+        // Do nothing
+    }
+    
+    public long getAcceptedTotal()
+    {
+        return accepted.get();
+    }
+    
+    public long getQueuedTotal()
+    {
+        return queued.get();
+    }
+    
+    public long getRejectedByRateTotal()
+    {
+        return rejectedByRate.get();
+    }
+    
+    public long getRejectedByConcurrencyTotal()
+    {
+        return rejectedByConcurrency.get();
+    }
+    
+    /**
+     * The permits held by a request. They are released exactly once, either when the filter chain
+     * returns or when the asynchronous processing of the request ends.
+     */
+    private static class Permits
+        implements AsyncListener
+    {
+        private final Semaphore userLimit;
+        private final Semaphore endpointLimit;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        public Permits(Semaphore aUserLimit, Semaphore aEndpointLimit)
+        {
+            userLimit = aUserLimit;
+            endpointLimit = aEndpointLimit;
+        }
+        
+        public void release()
+        {
+            if (released.compareAndSet(false, true)) {
+                if (endpointLimit != null) {
+                    endpointLimit.release();
+                }
+                userLimit.release();
+            }
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent aEvent)
+        {
+            release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent aEvent)
+        {
+            release();
+        }
+        
+        @Override
+        public void onError(AsyncEvent aEvent)
+        {
+            release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent aEvent)
+        {
+            // The request is dispatched asynchronously again - keep listening
+            aEvent.getAsyncContext().addListener(this);
+        }
+    }
+    
+    private static class UserLimits
+    {
+        private final TokenBucket bucket;
+        private final Semaphore concurrentRequests;
+        
+        public UserLimits(double aRequestsPerSecond, int aBurst, int aMaxConcurrentRequests)
+        {
+            bucket = new TokenBucket(aRequestsPerSecond, aBurst);
+            concurrentRequests = new Semaphore(aMaxConcurrentRequests, true);
+        }
+    }
+}
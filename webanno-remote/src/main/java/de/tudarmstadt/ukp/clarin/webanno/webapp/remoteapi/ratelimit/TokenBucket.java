@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.ratelimit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Token bucket which is refilled continuously at a fixed rate up to its capacity.
+ */
+class TokenBucket
+{
+    private final double capacity;
+    private final double tokensPerNano;
+    
+    private double tokens;
+    private long lastRefill;
+    
+    public TokenBucket(double aTokensPerSecond, double aCapacity)
+    {
+        capacity = aCapacity;
+        tokensPerNano = aTokensPerSecond / SECONDS.toNanos(1);
+        tokens = aCapacity;
+        lastRefill = System.nanoTime();
+    }
+    
+    /**
+     * Tries to take a token from the bucket.
+     * 
+     * @return {@code 0} if a token was taken, otherwise the number of nanoseconds until the next
+     *         token becomes available.
+     */
+    public synchronized long tryConsume()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.ratelimit.metrics;
+
+public interface RateLimitMetrics
+{
+    /**
+     * Retrieve the total number of remote API requests which passed the limits
+     */
+    public long getRequestsAcceptedTotal();
+    /**
+     * Retrieve the total number of remote API requests which had to wait for a free slot
+     */
+    public long getRequestsQueuedTotal();
+    /**
+     * Retrieve the total number of remote API requests rejected because of the rate limit
+     */
+    public long getRequestsRejectedByRateTotal();
+    /**
+     * Retrieve the total number of remote API requests rejected because no slot became free
+     */
+    public long getRequestsRejectedByConcurrencyTotal();
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks;
+
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.WebhookService.X_AERO_NOTIFICATION;
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.WebhookService.X_AERO_SIGNATURE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Delivers the notifications for a single webhook. Notifications are queued and sent one after
+ * the other by a dedicated worker thread which re-uses the same {@link RestTemplate} and thus the
+ * same connections for all deliveries. Failed deliveries are retried with an exponential backoff.
+ * While a delivery is being retried, further notifications are queued up behind it so that the
+ * order of the notifications is retained.
+ * <p>
+ * When shutting down, the worker keeps delivering the queued notifications until the queue is
+ * empty, a delivery fails or the shutdown timeout expires. If a spool folder is configured, the
+ * notifications which are left are stored there and queued again when the dispatcher for the same
+ * webhook is created after the next start.
+ */
+class WebhookDispatcher
+{
+    private static final long MAX_RETRY_DELAY = 15 * 60 * 1000;
+    
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    
+    private final Webhook hook;
+    private final RestTemplate restTemplate;
+    private final WebhooksConfiguration configuration;
+    private final WebhookStatistics statistics;
+    private final BlockingQueue<Notification> queue;
+    private final CountDownLatch shutdownRequested = new CountDownLatch(1);
+    private final Thread worker;
+    
+    private volatile Notification next;
+    private volatile List<Notification> current;
+    
+    WebhookDispatcher(Webhook aHook, RestTemplate aRestTemplate,
+            WebhooksConfiguration aConfiguration, WebhookStatistics aStatistics, int aIndex)
+    {
+        hook = aHook;
+        restTemplate = aRestTemplate;
+        configuration = aConfiguration;
+        statistics = aStatistics;
+        queue = new ArrayBlockingQueue<>(Math.max(1, aConfiguration.getQueueCapacity()));
+        
+        restoreSpooledNotifications();
+        
+        worker = new Thread(this::run, "webhook-" + aIndex);
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    /**
+     * Queues a notification for delivery. If the queue of the webhook is full, e.g. because the
+     * remote service has not been reachable for a long time, the notification is dropped.
+     */
+    void enqueue(String aTopic, String aJson)
+    {
+        if (queue.offer(new Notification(aTopic, aJson))) {
+            statistics.queued.incrementAndGet();
+        }
+        else {
+            statistics.dropped.incrementAndGet();
+            log.error("Queue of webhook [{}] is full - dropping [{}] notification", hook, aTopic);
+        }
+    }
+    
+    int getQueueSize()
+    {
+        List<Notification> batch = current;
+        return queue.size() + (next != null ? 1 : 0) + (batch != null ? batch.size() : 0);
+    }
+    
+    /**
+     * Asks the worker to deliver the queued notifications and then to stop. This method does not
+     * wait for the worker. Use {@link #awaitShutdown(long)} for that.
+     */
+    void requestShutdown()
+    {
+        shutdownRequested.countDown();
+    }
+    
+    /**
+     * Waits until the worker has stopped or the given deadline has passed. If the worker is still
+     * busy at the deadline, it is interrupted. The notifications which have not been delivered are
+     * then stored in the spool folder, if one is configured.
+     * 
+     * @param aDeadline
+     *            the time in milliseconds since the epoch until which the worker may deliver
+     *            notifications.
+     */
+    void awaitShutdown(long aDeadline)
+    {
+        requestShutdown();
+        
+        try {
+            worker.join(Math.max(1, aDeadline - System.currentTimeMillis()));
+            if (worker.isAlive()) {
+                worker.interrupt();
+                worker.join(SECONDS.toMillis(1));
+            }
+        }
+        catch (InterruptedException e) {
+            worker.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        
+        List<Notification> pending = new ArrayList<>();
+        // If the worker is stuck in a request, the batch it is sending still belongs to it
+        List<Notification> batch = current;
+        if (batch != null && !worker.isAlive()) {
+            pending.addAll(batch);
+        }
+        Notification n = next;
+        if (n != null) {
+            pending.add(n);
+            next = null;
+        }
+        queue.drainTo(pending);
+        
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        statistics.queued.addAndGet(-pending.size());
+        
+        if (spoolNotifications(pending)) {
+            return;
+        }
+        
+        log.warn("Webhook [{}] shut down with [{}] undelivered notifications", hook,
+                pending.size());
+    }
+    
+    private boolean isShutdownRequested()
+    {
+        return shutdownRequested.getCount() == 0;
+    }
+    
+    private void run()
+    {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Notification> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    // Shutting down and nothing left to deliver
+                    return;
+                }
+                
+                current = batch;
+                if (!deliver(batch)) {
+                    // Shutting down and the remote service is not reachable - the batch is left
+                    // to be spooled
+                    return;
+                }
+                current = null;
+                statistics.queued.addAndGet(-batch.size());
+            }
+        }
+        catch (InterruptedException e) {
+            // Shutdown timeout expired
+        }
+    }
+    
+    /**
+     * Collects the next notifications to be sent in one request. A batch only contains
+     * notifications on the same topic because the topic is sent as a header. The batch is only
+     * empty if a shutdown has been requested and there are no more notifications to deliver.
+     */
+    private List<Notification> nextBatch() throws InterruptedException
+    {
+        List<Notification> batch = new ArrayList<>();
+        while (next == null) {
+            if (isShutdownRequested()) {
+                next = queue.poll();
+                if (next == null) {
+                    return batch;
+                }
+            }
+            else {
+                next = queue.poll(1, SECONDS);
+            }
+        }
+        
+        int batchSize = Math.max(1, hook.getBatchSize());
+        while (next != null && batch.size() < batchSize
+                && (batch.isEmpty() || batch.get(0).topic.equals(next.topic))) {
+            batch.add(next);
+            next = queue.poll();
+        }
+        
+        return batch;
+    }
+    
+    /**
+     * @return {@code false} if the batch could not be delivered because a shutdown has been
+     *         requested. Otherwise, the batch has either been delivered or dropped after failing.
+     */
+    private boolean deliver(List<Notification> aBatch) throws InterruptedException
+    {
+        String topic = aBatch.get(0).topic;
+        
+        String json;
+        if (hook.getBatchSize() > 1) {
+            StringBuilder sb = new StringBuilder("[");
+            for (Notification n : aBatch) {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(n.json);
+            }
+            json = sb.append(']').toString();
+        }
+        else {
+            json = aBatch.get(0).json;
+        }
+        
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        requestHeaders.set(X_AERO_NOTIFICATION, topic);
+        
+        // If a secret is set, then add a digest header that allows the client to verify
+        // the message integrity
+        if (isNotBlank(hook.getSecret())) {
+            String digest = DigestUtils.shaHex(hook.getSecret() + json);
+            requestHeaders.set(X_AERO_SIGNATURE, digest);
+        }
+        
+        HttpEntity<?> httpEntity = new HttpEntity<Object>(json, requestHeaders);
+        
+        int attempt = 0;
+        while (true) {
+            try {
+                restTemplate.postForEntity(hook.getUrl(), httpEntity, Void.class);
+                statistics.delivered.addAndGet(aBatch.size());
+                return true;
+            }
+            catch (RestClientException e) {
+                attempt++;
+                
+                if (!isRetryable(e) || attempt > configuration.getRetryLimit()) {
+                    statistics.failed.addAndGet(aBatch.size());
+                    log.error("Unable to deliver [{}] [{}] notification(s) to webhook [{}]",
+                            aBatch.size(), topic, hook, e);
+                    return true;
+                }
+                
+                if (isShutdownRequested()) {
+                    log.warn("Unable to deliver [{}] [{}] notification(s) to webhook [{}] while "
+                            + "shutting down: {}", aBatch.size(), topic, hook, e.getMessage());
+                    return false;
+                }
+                
+                long delay = Math.min(MAX_RETRY_DELAY,
+                        configuration.getRetryDelay().toMillis() << Math.min(attempt - 1, 20));
+                statistics.retried.incrementAndGet();
+                log.warn("Unable to deliver [{}] [{}] notification(s) to webhook [{}]: {} - "
+                        + "retrying in [{}]ms", aBatch.size(), topic, hook, e.getMessage(),
+                        delay);
+                
+                // Stop waiting for the retry if a shutdown is requested meanwhile
+                if (shutdownRequested.await(delay, MILLISECONDS)) {
+                    return false;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Client errors indicate that the remote service does not accept the notification, so trying
+     * again does not help - unless the service asks us to slow down.
+     */
+    private static boolean isRetryable(RestClientException aException)
+    {
+        if (aException instanceof HttpStatusCodeException) {
+            HttpStatus status = ((HttpStatusCodeException) aException).getStatusCode();
+            return status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS
+                    || status == HttpStatus.REQUEST_TIMEOUT;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * The spool file is identified by the URL and the topics of the webhook, so it is picked up
+     * again as long as the webhook configuration does not change.
+     */
+    private File getSpoolFile()
+    {
+        if (configuration.getSpoolFolder() == null) {
+            return null;
+        }
+        
+        return new File(configuration.getSpoolFolder(),
+                "webhook-" + DigestUtils.md5Hex(hook.getUrl() + hook.getTopics()) + ".spool");
+    }
+    
+    private boolean spoolNotifications(List<Notification> aNotifications)
+    {
+        File spoolFile = getSpoolFile();
+        if (spoolFile == null) {
+            return false;
+        }
+        
+        // The JSON of a notification never contains a line break, so we store one notification
+        // per line
+        List<String> lines = new ArrayList<>();
+        for (Notification n : aNotifications) {
+            lines.add(n.topic + '\t' + n.json);
+        }
+        
+        try {
+            Files.createDirectories(spoolFile.getParentFile().toPath());
+            Files.write(spoolFile.toPath(), lines, UTF_8);
+            log.info("Stored [{}] undelivered notifications of webhook [{}] in [{}]",
+                    aNotifications.size(), hook, spoolFile);
+            return true;
+        }
+        catch (IOException e) {
+            log.error("Unable to store [{}] undelivered notifications of webhook [{}] in [{}]",
+                    aNotifications.size(), hook, spoolFile, e);
+            return false;
+        }
+    }
+    
+    private void restoreSpooledNotifications()
+    {
+        File spoolFile = getSpoolFile();
+        if (spoolFile == null || !spoolFile.exists()) {
+            return;
+        }
+        
+        try {
+            List<String> lines = Files.readAllLines(spoolFile.toPath(), UTF_8);
+            for (String line : lines) {
+                int sep = line.indexOf('\t');
+                if (sep > 0) {
+                    enqueue(line.substring(0, sep), line.substring(sep + 1));
+                }
+            }
+            Files.delete(spoolFile.toPath());
+            log.info("Restored [{}] undelivered notifications of webhook [{}] from [{}]",
+                    lines.size(), hook, spoolFile);
+        }
+        catch (IOException e) {
+            log.error("Unable to restore undelivered notifications of webhook [{}] from [{}]",
+                    hook, spoolFile, e);
+        }
+    }
+    
+    private static class Notification
+    {
+        private final String topic;
+        private final String json;
+        
+        Notification(String aTopic, String aJson)
+        {
+            topic = aTopic;
+            json = aJson;
+        }
+    }
+}
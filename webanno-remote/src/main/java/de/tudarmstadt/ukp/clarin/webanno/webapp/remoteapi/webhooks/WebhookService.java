@@ -17,34 +17,32 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks;
 
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-
+import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.net.ssl.SSLContext;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.TrustStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.ApplicationEvent;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.client.RestTemplate;
@@ -58,7 +56,7 @@ import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.json.Document
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.json.ProjectStateChangeMessage;
 
 @Component
-public class WebhookService implements InitializingBean
+public class WebhookService implements InitializingBean, DisposableBean
 {
     private final Logger log = LoggerFactory.getLogger(getClass());
     
@@ -84,6 +82,10 @@ public class WebhookService implements InitializingBean
 
     private HttpComponentsClientHttpRequestFactory nonValidatingRequestFactory = null;
     
+    private final Map<Webhook, WebhookDispatcher> dispatchers = new IdentityHashMap<>();
+    private boolean shutdown = false;
+    private final WebhookStatistics statistics = new WebhookStatistics();
+    
     public WebhookService()
         throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException
     {
@@ -115,10 +117,43 @@ public class WebhookService implements InitializingBean
                 log.info("- " + hook);
             }
         }
+        
+        // Start the dispatchers right away, so that notifications which were spooled during the
+        // last shutdown are delivered without waiting for the next event
+        if (configuration.getSpoolFolder() != null) {
+            configuration.getGlobalHooks().stream()
+                    .filter(Webhook::isEnabled)
+                    .forEach(this::getDispatcher);
+        }
     }
     
+    /**
+     * Gives all webhooks together the configured shutdown timeout to deliver their queued
+     * notifications. Notifications which are still pending afterwards are spooled if a spool
+     * folder is configured and are lost otherwise. Events arriving after the shutdown has started
+     * are dropped.
+     */
+    @Override
+    public void destroy()
+    {
+        List<WebhookDispatcher> stopping;
+        synchronized (this) {
+            shutdown = true;
+            stopping = new ArrayList<>(dispatchers.values());
+            dispatchers.clear();
+        }
+        
+        long deadline = System.currentTimeMillis()
+                + configuration.getShutdownTimeout().toMillis();
+        stopping.forEach(WebhookDispatcher::requestShutdown);
+        stopping.forEach(dispatcher -> dispatcher.awaitShutdown(deadline));
+    }
+    
+    /**
+     * Queues a notification for all webhooks listening to the topic of the event. The
+     * notifications are delivered in the background by a {@link WebhookDispatcher} per webhook.
+     */
     @TransactionalEventListener(fallbackExecution = true)
-    @Async
     public void onApplicationEvent(ApplicationEvent aEvent)
     {
         String topic = EVENT_TOPICS.get(aEvent.getClass());
@@ -141,41 +176,101 @@ public class WebhookService implements InitializingBean
             return;
         }
         
+        // Render the message right away - the event may refer to entities which might no
+        // longer be accessible by the time the notification is delivered
+        String json;
+        try {
+            json = JSONUtil.toJsonString(message);
+        }
+        catch (IOException e) {
+            log.error("Unable to render [{}] notification", topic, e);
+            return;
+        }
+        
         for (Webhook hook : configuration.getGlobalHooks()) {
             if (!hook.isEnabled() || !hook.getTopics().contains(topic)) {
                 continue;
             }
 
-            try {
-                // Configure rest template without SSL certification check if that is disabled.
-                RestTemplate restTemplate;
-                if (hook.isVerifyCertificates()) {
-                    restTemplate = restTemplateBuilder.build();
-                }
-                else {
-                    restTemplate = restTemplateBuilder
-                            .requestFactory(this::getNonValidatingRequestFactory).build();
-                }
-                
-                HttpHeaders requestHeaders = new HttpHeaders();
-                requestHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
-                requestHeaders.set(X_AERO_NOTIFICATION, topic);
-                
-                // If a secret is set, then add a digest header that allows the client to verify
-                // the message integrity
-                String json = JSONUtil.toJsonString(message);
-                if (isNotBlank(hook.getSecret())) {
-                    String digest = DigestUtils.shaHex(hook.getSecret() + json);
-                    requestHeaders.set(X_AERO_SIGNATURE, digest);
-                }
-    
-                HttpEntity<?> httpEntity = new HttpEntity<Object>(json, requestHeaders);
-                restTemplate.postForEntity(hook.getUrl(), httpEntity, Void.class);
+            dispatch(hook, topic, json);
+        }
+    }
+    
+    private synchronized void dispatch(Webhook aHook, String aTopic, String aJson)
+    {
+        // Queue under the lock so that the notification cannot slip into a dispatcher which is
+        // already being shut down
+        if (shutdown) {
+            statistics.dropped.incrementAndGet();
+            log.warn("Shutting down - dropping [{}] notification for webhook [{}]", aTopic,
+                    aHook);
+            return;
+        }
+        
+        getDispatcher(aHook).enqueue(aTopic, aJson);
+    }
+    
+    private synchronized WebhookDispatcher getDispatcher(Webhook aHook)
+    {
+        // A new dispatcher would restore (and delete) the spool file written during shutdown
+        if (shutdown) {
+            throw new IllegalStateException("Webhook service has been shut down");
+        }
+        
+        return dispatchers.computeIfAbsent(aHook, hook -> {
+            // Configure rest template without SSL certification check if that is disabled.
+            RestTemplate restTemplate;
+            if (hook.isVerifyCertificates()) {
+                restTemplate = restTemplateBuilder.build();
             }
-            catch (Exception e) {
-                log.error("Unable to invoke webhook [{}]", hook, e);
+            else {
+                restTemplate = restTemplateBuilder
+                        .requestFactory(this::getNonValidatingRequestFactory).build();
             }
-        }
+            
+            return new WebhookDispatcher(hook, restTemplate, configuration, statistics,
+                    dispatchers.size());
+        });
+    }
+    
+    /**
+     * @return number of notifications waiting to be delivered.
+     */
+    public long getQueuedTotal()
+    {
+        return statistics.queued.get();
+    }
+    
+    /**
+     * @return number of notifications delivered successfully.
+     */
+    public long getDeliveredTotal()
+    {
+        return statistics.delivered.get();
+    }
+    
+    /**
+     * @return number of delivery attempts which failed and were retried.
+     */
+    public long getRetriedTotal()
+    {
+        return statistics.retried.get();
+    }
+    
+    /**
+     * @return number of notifications which could not be delivered even after retrying.
+     */
+    public long getFailedTotal()
+    {
+        return statistics.failed.get();
+    }
+    
+    /**
+     * @return number of notifications dropped because the queue of the webhook was full.
+     */
+    public long getDroppedTotal()
+    {
+        return statistics.dropped.get();
     }
     
     private HttpComponentsClientHttpRequestFactory getNonValidatingRequestFactory()
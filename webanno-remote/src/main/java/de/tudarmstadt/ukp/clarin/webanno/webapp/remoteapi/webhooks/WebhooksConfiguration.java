@@ -17,6 +17,8 @@
  */
 package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,6 +32,35 @@ public class WebhooksConfiguration
     public static final String PROPERTY_PREFIX = "webhooks";
     
     private List<Webhook> globalHooks = new ArrayList<>();
+    
+    /**
+     * Maximum number of notifications waiting to be delivered per webhook. Further notifications
+     * are dropped.
+     */
+    private int queueCapacity = 10000;
+    
+    /**
+     * Number of times a failed delivery is retried before the notification is dropped.
+     */
+    private int retryLimit = 10;
+    
+    /**
+     * Delay before the first retry of a failed delivery. The delay doubles with every retry.
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+    
+    /**
+     * Time given to the webhooks to deliver the notifications which are still queued when the
+     * application shuts down. Failed deliveries are not retried during this time.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * Folder in which notifications that could not be delivered before the application shut down
+     * are stored. They are delivered after the next start. If no folder is set, these
+     * notifications are lost.
+     */
+    private File spoolFolder;
 
     public List<Webhook> getGlobalHooks()
     {
@@ -40,4 +71,54 @@ public class WebhooksConfiguration
     {
         globalHooks = aWebhooks;
     }
+
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int aQueueCapacity)
+    {
+        queueCapacity = aQueueCapacity;
+    }
+
+    public int getRetryLimit()
+    {
+        return retryLimit;
+    }
+
+    public void setRetryLimit(int aRetryLimit)
+    {
+        retryLimit = aRetryLimit;
+    }
+
+    public Duration getRetryDelay()
+    {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration aRetryDelay)
+    {
+        retryDelay = aRetryDelay;
+    }
+
+    public Duration getShutdownTimeout()
+    {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration aShutdownTimeout)
+    {
+        shutdownTimeout = aShutdownTimeout;
+    }
+
+    public File getSpoolFolder()
+    {
+        return spoolFolder;
+    }
+
+    public void setSpoolFolder(File aSpoolFolder)
+    {
+        spoolFolder = aSpoolFolder;
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.metrics;
+
+public interface WebhookMetrics
+{
+    /**
+     * Retrieve the number of notifications waiting to be delivered
+     */
+    public long getNotificationsQueued();
+    /**
+     * Retrieve the total number of notifications delivered
+     */
+    public long getNotificationsDeliveredTotal();
+    /**
+     * Retrieve the total number of retried deliveries
+     */
+    public long getDeliveriesRetriedTotal();
+    /**
+     * Retrieve the total number of notifications which could not be delivered
+     */
+    public long getNotificationsFailedTotal();
+    /**
+     * Retrieve the total number of notifications dropped because of a full queue
+     */
+    public long getNotificationsDroppedTotal();
+}
@@ -21,17 +21,23 @@ import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemote
 import static java.util.Arrays.asList;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.persistence.EntityManager;
 
@@ -45,6 +51,7 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -53,10 +60,13 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.FileSystemUtils;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.jayway.jsonpath.JsonPath;
+
 import de.tudarmstadt.ukp.clarin.webanno.api.AnnotationSchemaService;
 import de.tudarmstadt.ukp.clarin.webanno.api.CasStorageService;
 import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
@@ -88,6 +98,9 @@ import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
 import de.tudarmstadt.ukp.clarin.webanno.support.ApplicationContextProvider;
 import de.tudarmstadt.ukp.clarin.webanno.text.TextFormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemoteApiController;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.ChangeLogService;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.ChangeLogServiceImpl;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring.RemoteApiStatistics;
 
 @RunWith(SpringRunner.class) 
 @EnableAutoConfiguration
@@ -97,7 +110,8 @@ import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.AeroRemoteApiCont
 @EnableWebSecurity
 @EntityScan({
         "de.tudarmstadt.ukp.clarin.webanno.model",
-        "de.tudarmstadt.ukp.clarin.webanno.security.model" })
+        "de.tudarmstadt.ukp.clarin.webanno.security.model",
+        "de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.changes.model" })
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 public class AeroRemoteApiControllerTest
 {
@@ -278,8 +292,177 @@ public class AeroRemoteApiControllerTest
             .andExpect(jsonPath("$.body[0].state").value("ANNOTATION-IN-PROGRESS"));
     }
     
+    @Test
+    public void t006_testAnnotationRead() throws Exception
+    {
+        String etag = mvc.perform(get(API_BASE + "/projects/1/documents/1/annotations/admin")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+        
+        mvc.perform(get(API_BASE + "/projects/1/documents/1/annotations/admin")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text")
+                .header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        
+        mvc.perform(get(API_BASE + "/projects/1/documents/1/annotations/admin")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text")
+                .header("Range", "bytes=0-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("This"));
+    }
+    
+    @Test
+    public void t007_testAnnotationBulkRead() throws Exception
+    {
+        MvcResult result = mvc.perform(get(API_BASE + "/projects/1/annotations")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text")
+                .param("packaging", "ndjson")
+                .param("state", "IN-PROGRESS"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(jsonPath("$.documentId").value("1"))
+            .andExpect(jsonPath("$.documentName").value("test.txt"))
+            .andExpect(jsonPath("$.user").value("admin"))
+            .andExpect(jsonPath("$.format").value("text"))
+            .andExpect(jsonPath("$.content").isNotEmpty());
+        
+        result = mvc.perform(get(API_BASE + "/projects/1/annotations")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text")
+                .param("packaging", "ndjson")
+                .param("userId", "nobody"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(""));
+    }
+    
+    @Test
+    public void t008_testChangesList() throws Exception
+    {
+        mvc.perform(get(API_BASE + "/projects/1/changes")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.body.changes[?(@.type == 'ANNOTATION_CAS' "
+                    + "&& @.user == 'admin' && @.documentId == 1)]").exists())
+            .andExpect(jsonPath("$.body.more").value(false));
+        
+        mvc.perform(get(API_BASE + "/projects/1/changes")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.body.changes.length()").value(1));
+        
+        mvc.perform(get(API_BASE + "/projects/1/changes")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("cursor", String.valueOf(Long.MAX_VALUE)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.body.changes").isEmpty())
+            .andExpect(jsonPath("$.body.cursor").value(Long.MAX_VALUE))
+            .andExpect(jsonPath("$.body.more").value(false));
+    }
+    
+    @Test
+    public void t009_testAnnotationBulkCreate() throws Exception
+    {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+            zos.putNextEntry(new ZipEntry("test.txt/admin.txt"));
+            zos.write("This is a test.".getBytes("UTF-8"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("missing.txt/admin.txt"));
+            zos.write("This is a test.".getBytes("UTF-8"));
+            zos.closeEntry();
+        }
+        
+        mvc.perform(multipart(API_BASE + "/projects/1/annotations")
+                .file("content", zip.toByteArray())
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .param("format", "text")
+                .param("state", "COMPLETE"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json;charset=UTF-8"))
+            .andExpect(jsonPath("$.body[0].entry").value("test.txt/admin.txt"))
+            .andExpect(jsonPath("$.body[0].documentId").value("1"))
+            .andExpect(jsonPath("$.body[0].success").value(true))
+            .andExpect(jsonPath("$.body[1].entry").value("missing.txt/admin.txt"))
+            .andExpect(jsonPath("$.body[1].success").value(false))
+            .andExpect(jsonPath("$.body[1].message").value("Document [missing.txt] not found."))
+            .andExpect(jsonPath("$.messages[0].level").value("WARN"));
+        
+        mvc.perform(get(API_BASE + "/projects/1/documents/1/annotations")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.body[0].user").value("admin"))
+            .andExpect(jsonPath("$.body[0].state").value("COMPLETE"));
+    }
+    
+    @Test
+    public void t010_testProjectExportJob() throws Exception
+    {
+        MvcResult created = mvc.perform(post(API_BASE + "/projects/1/export-jobs")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.body.type").value("EXPORT"))
+            .andExpect(jsonPath("$.body.projectId").value(1))
+            .andReturn();
+        
+        int jobId = JsonPath.read(created.getResponse().getContentAsString(), "$.body.id");
+        
+        String state = null;
+        for (int i = 0; i < 100 && !"COMPLETED".equals(state); i++) {
+            Thread.sleep(100);
+            MvcResult job = mvc.perform(get(API_BASE + "/jobs/" + jobId)
+                    .with(csrf().asHeader())
+                    .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+            state = JsonPath.read(job.getResponse().getContentAsString(), "$.body.state");
+        }
+        
+        MvcResult result = mvc.perform(get(API_BASE + "/jobs/" + jobId + "/result")
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/zip"));
+        
+        mvc.perform(get(API_BASE + "/jobs/" + Integer.MAX_VALUE)
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNotFound());
+    }
+    
     @Configuration
     public static class TestContext {
+        private @Autowired ApplicationContext applicationContext;
         private @Autowired ApplicationEventPublisher applicationEventPublisher;
         private @Autowired EntityManager entityManager;
         
@@ -289,6 +472,18 @@ public class AeroRemoteApiControllerTest
             return new AeroRemoteApiController();
         }
         
+        @Bean
+        public ChangeLogService changeLogService()
+        {
+            return new ChangeLogServiceImpl();
+        }
+        
+        @Bean
+        public RemoteApiStatistics remoteApiStatistics()
+        {
+            return new RemoteApiStatistics();
+        }
+        
         @Bean
         public ProjectService projectService()
         {
@@ -346,7 +541,7 @@ public class AeroRemoteApiControllerTest
         @Bean
         public ProjectExportService exportService()
         {
-            return new ProjectExportServiceImpl(null, null, projectService());
+            return new ProjectExportServiceImpl(applicationContext, null, projectService());
         }
         
         @Bean
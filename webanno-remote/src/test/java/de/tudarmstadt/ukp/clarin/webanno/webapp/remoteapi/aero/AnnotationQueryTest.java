@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.resource.metadata.TypeDescription;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.apache.uima.util.CasCreationUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.aero.model.RAnnotationMatch;
+
+public class AnnotationQueryTest
+{
+    private static final String LAYER = "webanno.custom.Entity";
+    private static final String FEATURE = "value";
+    
+    private CAS cas;
+    private AnnotationDocument annotationDocument;
+    
+    @Before
+    public void setup() throws Exception
+    {
+        TypeSystemDescription tsd = UIMAFramework.getResourceSpecifierFactory()
+                .createTypeSystemDescription();
+        TypeDescription td = tsd.addType(LAYER, "", CAS.TYPE_NAME_ANNOTATION);
+        td.addFeature(FEATURE, "", CAS.TYPE_NAME_STRING);
+        
+        cas = CasCreationUtils.createCas(tsd, null, null);
+        cas.setDocumentText("John met Mary in Berlin.");
+        addEntity(0, 4, "PER");
+        addEntity(9, 13, "PER");
+        addEntity(17, 23, "LOC");
+        
+        SourceDocument document = new SourceDocument();
+        document.setId(1l);
+        document.setName("doc.txt");
+        annotationDocument = new AnnotationDocument("doc.txt", null, "user", document);
+    }
+    
+    @Test
+    public void thatAnnotationsAreFilteredByFeatureValue()
+    {
+        AnnotationQuery sut = new AnnotationQuery(LAYER, asList(FEATURE), FEATURE, "PER", 0,
+                Integer.MAX_VALUE);
+        
+        List<RAnnotationMatch> matches = sut.select(cas, annotationDocument);
+        
+        assertEquals(asList("John", "Mary"),
+                matches.stream().map(m -> m.text).collect(toList()));
+        assertEquals("PER", matches.get(0).features.get(FEATURE));
+        assertEquals(1l, matches.get(0).documentId);
+        assertEquals("user", matches.get(0).user);
+    }
+    
+    @Test
+    public void thatAnnotationsAreFilteredByOffsets()
+    {
+        AnnotationQuery sut = new AnnotationQuery(LAYER, asList(FEATURE), null, null, 5, 23);
+        
+        List<RAnnotationMatch> matches = sut.select(cas, annotationDocument);
+        
+        assertEquals(asList("Mary", "Berlin"),
+                matches.stream().map(m -> m.text).collect(toList()));
+        assertEquals(9, matches.get(0).begin);
+        assertEquals(13, matches.get(0).end);
+    }
+    
+    @Test
+    public void thatUnknownLayerYieldsNoMatches()
+    {
+        AnnotationQuery sut = new AnnotationQuery("webanno.custom.Unknown", asList(FEATURE),
+                null, null, 0, Integer.MAX_VALUE);
+        
+        assertTrue(sut.select(cas, annotationDocument).isEmpty());
+    }
+    
+    private void addEntity(int aBegin, int aEnd, String aValue)
+    {
+        Type type = cas.getTypeSystem().getType(LAYER);
+        Feature feature = type.getFeatureByBaseName(FEATURE);
+        AnnotationFS ann = cas.createAnnotation(type, aBegin, aEnd);
+        ann.setFeatureValueFromString(feature, aValue);
+        cas.addFsToIndexes(ann);
+    }
+}
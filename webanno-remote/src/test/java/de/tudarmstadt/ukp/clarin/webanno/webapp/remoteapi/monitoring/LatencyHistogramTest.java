@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void thatPercentilesAreEstimatedByBucketBounds()
+    {
+        LatencyHistogram sut = new LatencyHistogram();
+        
+        for (int i = 0; i < 90; i++) {
+            sut.record(MILLISECONDS.toNanos(3));
+        }
+        for (int i = 0; i < 9; i++) {
+            sut.record(MILLISECONDS.toNanos(200));
+        }
+        sut.record(MILLISECONDS.toNanos(120000));
+        
+        assertEquals(100, sut.getCount());
+        assertEquals(5, sut.getPercentileMillis(0.5));
+        assertEquals(250, sut.getPercentileMillis(0.95));
+        assertEquals(250, sut.getPercentileMillis(0.99));
+        assertEquals(120000, sut.getPercentileMillis(1.0));
+        assertEquals(120000, sut.getMaxMillis());
+    }
+    
+    @Test
+    public void thatEmptyHistogramReportsZero()
+    {
+        LatencyHistogram sut = new LatencyHistogram();
+        
+        assertEquals(0, sut.getPercentileMillis(0.95));
+        assertEquals(0.0, sut.getMeanMillis(), 0.0);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class RemoteApiMetricsFilterTest
+{
+    private RemoteApiStatistics statistics;
+    private RemoteApiMetricsFilter sut;
+    
+    @Before
+    public void setup()
+    {
+        statistics = new RemoteApiStatistics();
+        sut = new RemoteApiMetricsFilter(statistics);
+    }
+    
+    @Test
+    public void thatRequestsAreRecordedPerRoute() throws Exception
+    {
+        send("/api/aero/v1/projects/1/documents", "/api/aero/v1/projects/{projectId}/documents",
+                200, 10);
+        send("/api/aero/v1/projects/2/documents", "/api/aero/v1/projects/{projectId}/documents",
+                200, 20);
+        send("/api/aero/v1/projects/3/documents", "/api/aero/v1/projects/{projectId}/documents",
+                404, 5);
+        send("/api/aero/v1/projects/3", "/api/aero/v1/projects/{projectId}", 500, 0);
+        
+        List<RouteStatistics> routes = statistics.listRoutes();
+        assertEquals(2, routes.size());
+        
+        RouteStatistics documents = routes.get(1);
+        assertEquals("GET /api/aero/v1/projects/{projectId}/documents", documents.getRoute());
+        assertEquals(3, documents.getRequests());
+        assertEquals(1, documents.getClientErrors());
+        assertEquals(0, documents.getServerErrors());
+        assertEquals(35, documents.getResponseBytes());
+        assertEquals(20, documents.getMaxResponseBytes());
+        
+        RouteStatistics project = routes.get(0);
+        assertEquals(1, project.getServerErrors());
+    }
+    
+    @Test
+    public void thatRequestsOutsideTheApiAreIgnored() throws Exception
+    {
+        send("/welcome.html", null, 200, 10);
+        
+        assertTrue(statistics.listRoutes().isEmpty());
+    }
+    
+    private void send(String aPath, String aPattern, int aStatus, int aBytes) throws Exception
+    {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", aPath);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        FilterChain chain = (aReq, aResp) -> {
+            aReq.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, aPattern);
+            ((HttpServletResponse) aResp).setStatus(aStatus);
+            aResp.getOutputStream().write(new byte[aBytes]);
+        };
+        sut.doFilter(req, resp, chain);
+    }
+}
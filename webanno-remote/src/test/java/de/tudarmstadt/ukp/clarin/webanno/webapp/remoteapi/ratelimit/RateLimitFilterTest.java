@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RateLimitFilterTest
+{
+    private RateLimitConfiguration configuration;
+    
+    @Before
+    public void setup()
+    {
+        configuration = new RateLimitConfiguration();
+        configuration.setEnabled(true);
+        configuration.setRequestsPerSecond(0.001);
+        configuration.setBurst(2);
+        configuration.setMaxConcurrentHeavyRequests(1);
+        configuration.setQueueTimeout(Duration.ofMillis(100));
+    }
+    
+    @Test
+    public void thatRequestsExceedingTheRateAreRejected() throws Exception
+    {
+        RateLimitFilter sut = new RateLimitFilter(configuration);
+        
+        assertEquals(200, send(sut, "GET", "/api/aero/v1/projects", "user1").getStatus());
+        assertEquals(200, send(sut, "GET", "/api/aero/v1/projects", "user1").getStatus());
+        
+        MockHttpServletResponse rejected = send(sut, "GET", "/api/aero/v1/projects", "user1");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        
+        // Other users have their own budget
+        assertEquals(200, send(sut, "GET", "/api/aero/v1/projects", "user2").getStatus());
+        // Requests outside the remote API are not limited
+        assertEquals(200, send(sut, "GET", "/annotation.html", "user1").getStatus());
+        
+        assertEquals(1, sut.getRejectedByRateTotal());
+    }
+    
+    @Test
+    public void thatConcurrentHeavyRequestsAreLimited() throws Exception
+    {
+        RateLimitFilter sut = new RateLimitFilter(configuration);
+        
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (req, resp) -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        
+        Thread export = new Thread(() -> {
+            try {
+                sut.doFilter(request("GET", "/api/aero/v1/projects/1/export.zip", "user1"),
+                        new MockHttpServletResponse(), blockingChain);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        export.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        
+        try {
+            // The same endpoint is busy - the request is queued and eventually rejected
+            assertEquals(429, send(sut, "GET", "/api/aero/v1/projects/2/export.zip", "user2")
+                    .getStatus());
+            // Cheap endpoints are not affected
+            assertEquals(200, send(sut, "GET", "/api/aero/v1/projects/2", "user2").getStatus());
+        }
+        finally {
+            release.countDown();
+            export.join();
+        }
+        
+        assertEquals(1, sut.getQueuedTotal());
+        assertEquals(1, sut.getRejectedByConcurrencyTotal());
+    }
+    
+    @Test
+    public void thatStreamingRequestsHoldPermitsUntilCompleted() throws Exception
+    {
+        RateLimitFilter sut = new RateLimitFilter(configuration);
+        
+        MockHttpServletRequest streaming = request("GET", "/api/aero/v1/projects/1/query",
+                "user1");
+        streaming.setAsyncSupported(true);
+        sut.doFilter(streaming, new MockHttpServletResponse(),
+                (req, resp) -> req.startAsync());
+        
+        // The filter chain has returned, but the response is still being streamed
+        assertEquals(429, send(sut, "GET", "/api/aero/v1/projects/2/query", "user2")
+                .getStatus());
+        
+        streaming.getAsyncContext().complete();
+        
+        assertEquals(200, send(sut, "GET", "/api/aero/v1/projects/2/query", "user2")
+                .getStatus());
+    }
+    
+    private MockHttpServletResponse send(RateLimitFilter aFilter, String aMethod, String aPath,
+            String aUser)
+        throws Exception
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        aFilter.doFilter(request(aMethod, aPath, aUser), response, new MockFilterChain());
+        return response;
+    }
+    
+    private MockHttpServletRequest request(String aMethod, String aPath, String aUser)
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest(aMethod, aPath);
+        request.setUserPrincipal(() -> aUser);
+        return request;
+    }
+}
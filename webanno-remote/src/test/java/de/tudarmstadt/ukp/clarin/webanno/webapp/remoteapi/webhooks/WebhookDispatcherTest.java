@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks;
+
+import static de.tudarmstadt.ukp.clarin.webanno.webapp.remoteapi.webhooks.WebhookService.DOCUMENT_STATE;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+public class WebhookDispatcherTest
+{
+    public @Rule TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Webhook hook;
+    private WebhooksConfiguration configuration;
+    private WebhookStatistics statistics;
+
+    @Before
+    public void setup()
+    {
+        hook = new Webhook();
+        hook.setUrl("http://localhost/test/subscribe");
+        hook.setTopics(asList(DOCUMENT_STATE));
+        hook.setEnabled(true);
+
+        configuration = new WebhooksConfiguration();
+        configuration.setRetryDelay(Duration.ofMinutes(1));
+
+        statistics = new WebhookStatistics();
+    }
+
+    @Test
+    public void thatQueuedNotificationsAreDeliveredOnShutdown()
+    {
+        RecordingRestTemplate remote = new RecordingRestTemplate();
+        WebhookDispatcher sut = new WebhookDispatcher(hook, remote, configuration, statistics, 0);
+
+        for (int i = 0; i < 10; i++) {
+            sut.enqueue(DOCUMENT_STATE, "{\"n\":" + i + "}");
+        }
+        sut.awaitShutdown(System.currentTimeMillis() + 10_000);
+
+        assertEquals(10, remote.received.size());
+        assertEquals(10, statistics.delivered.get());
+        assertEquals(0, statistics.queued.get());
+    }
+
+    @Test
+    public void thatUndeliveredNotificationsAreSpooledAndRestored()
+    {
+        configuration.setSpoolFolder(tempFolder.getRoot());
+
+        RecordingRestTemplate unreachable = new RecordingRestTemplate();
+        unreachable.reachable = false;
+        WebhookDispatcher first = new WebhookDispatcher(hook, unreachable, configuration,
+                statistics, 0);
+        for (int i = 0; i < 3; i++) {
+            first.enqueue(DOCUMENT_STATE, "{\"n\":" + i + "}");
+        }
+        first.awaitShutdown(System.currentTimeMillis() + 10_000);
+
+        assertEquals(0, unreachable.received.size());
+        assertEquals(0, statistics.queued.get());
+        assertEquals(1, tempFolder.getRoot().listFiles().length);
+
+        RecordingRestTemplate reachable = new RecordingRestTemplate();
+        WebhookDispatcher second = new WebhookDispatcher(hook, reachable, configuration,
+                statistics, 0);
+        second.awaitShutdown(System.currentTimeMillis() + 10_000);
+
+        assertEquals(asList("{\"n\":0}", "{\"n\":1}", "{\"n\":2}"), reachable.received);
+        assertEquals(0, tempFolder.getRoot().listFiles().length);
+    }
+
+    private static class RecordingRestTemplate
+        extends RestTemplate
+    {
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+        private volatile boolean reachable = true;
+
+        @Override
+        public <T> ResponseEntity<T> postForEntity(String aUrl, Object aRequest,
+                Class<T> aResponseType, Object... aUriVariables)
+            throws RestClientException
+        {
+            if (!reachable) {
+                throw new ResourceAccessException("Connection refused");
+            }
+
+            received.add(((HttpEntity<?>) aRequest).getBody());
+            return null;
+        }
+    }
+}
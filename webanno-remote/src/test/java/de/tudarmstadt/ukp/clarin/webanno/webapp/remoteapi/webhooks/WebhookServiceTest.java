@@ -25,8 +25,9 @@ import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -41,6 +42,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.MethodMode;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -69,6 +72,7 @@ public class WebhookServiceTest
     private @Autowired ApplicationEventPublisher applicationEventPublisher;
     private @Autowired WebhooksConfiguration webhooksConfiguration;
     private @Autowired TestService testService;
+    private @Autowired WebhookService webhookService;
 
     @Test
     public void test()
@@ -102,18 +106,106 @@ public class WebhookServiceTest
         applicationEventPublisher.publishEvent(
                 new AnnotationStateChangeEvent(this, ann, AnnotationDocumentState.IN_PROGRESS));
         
+        // Notifications are delivered in the background
+        await(() -> testService.projectStateChangeMsgs.size() == 1
+                && testService.docStateChangeMsgs.size() == 1
+                && testService.annStateChangeMsgs.size() == 1);
+        
         assertEquals(1, testService.projectStateChangeMsgs.size());
         assertEquals(1, testService.docStateChangeMsgs.size());
         assertEquals(1, testService.annStateChangeMsgs.size());
     }
 
+    @Test
+    public void thatNotificationsAreBatched()
+    {
+        Webhook hook = new Webhook();
+        hook.setUrl("http://localhost:" + port + "/test/batch");
+        hook.setTopics(asList(DOCUMENT_STATE));
+        hook.setBatchSize(10);
+
+        webhooksConfiguration.setGlobalHooks(asList(hook));
+
+        Project project = new Project();
+        project.setState(ProjectState.NEW);
+        project.setId(1l);
+
+        for (int i = 0; i < 5; i++) {
+            SourceDocument doc = new SourceDocument();
+            doc.setProject(project);
+            doc.setId((long) i);
+            doc.setState(SourceDocumentState.ANNOTATION_IN_PROGRESS);
+            
+            applicationEventPublisher.publishEvent(
+                    new DocumentStateChangedEvent(this, doc, SourceDocumentState.NEW));
+        }
+        
+        await(() -> testService.batchedDocStateChangeMsgs.size() == 5);
+        
+        assertEquals(5, testService.batchedDocStateChangeMsgs.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, testService.batchedDocStateChangeMsgs.get(i).getDocumentId());
+        }
+    }
+    
+    @Test
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD)
+    public void thatEventsAfterShutdownAreDropped()
+    {
+        Webhook hook = new Webhook();
+        hook.setUrl("http://localhost:" + port + "/test/batch");
+        hook.setTopics(asList(DOCUMENT_STATE));
+        hook.setEnabled(true);
+
+        webhooksConfiguration.setGlobalHooks(asList(hook));
+        
+        webhookService.destroy();
+        
+        Project project = new Project();
+        project.setState(ProjectState.NEW);
+        project.setId(1l);
+
+        SourceDocument doc = new SourceDocument();
+        doc.setProject(project);
+        doc.setId(2l);
+        doc.setState(SourceDocumentState.ANNOTATION_IN_PROGRESS);
+        
+        long dropped = webhookService.getDroppedTotal();
+        long queued = webhookService.getQueuedTotal();
+        
+        applicationEventPublisher.publishEvent(
+                new DocumentStateChangedEvent(this, doc, SourceDocumentState.NEW));
+        
+        assertEquals(dropped + 1, webhookService.getDroppedTotal());
+        assertEquals(queued, webhookService.getQueuedTotal());
+    }
+    
+    private static void await(BooleanSupplier aCondition)
+    {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!aCondition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     @RequestMapping("/test")
     @Controller
     public static class TestService
     {
-        private List<ProjectStateChangeMessage> projectStateChangeMsgs = new ArrayList<>();
-        private List<DocumentStateChangeMessage> docStateChangeMsgs = new ArrayList<>();
-        private List<AnnotationStateChangeMessage> annStateChangeMsgs = new ArrayList<>();
+        private List<ProjectStateChangeMessage> projectStateChangeMsgs = 
+                new CopyOnWriteArrayList<>();
+        private List<DocumentStateChangeMessage> docStateChangeMsgs = 
+                new CopyOnWriteArrayList<>();
+        private List<AnnotationStateChangeMessage> annStateChangeMsgs = 
+                new CopyOnWriteArrayList<>();
+        private List<DocumentStateChangeMessage> batchedDocStateChangeMsgs = 
+                new CopyOnWriteArrayList<>();
         
         @RequestMapping(value = "/subscribe", 
                 method = RequestMethod.POST, 
@@ -153,6 +245,19 @@ public class WebhookServiceTest
             annStateChangeMsgs.add(aMsg);
             return ResponseEntity.ok().build();
         }
+
+        @RequestMapping(value = "/batch", 
+                method = RequestMethod.POST, 
+                headers = X_AERO_NOTIFICATION + "=" + DOCUMENT_STATE,
+                consumes = APPLICATION_JSON_UTF8_VALUE, 
+                produces = APPLICATION_JSON_UTF8_VALUE)
+        public ResponseEntity<Void> onDocumentStateEvents(
+                @RequestBody List<DocumentStateChangeMessage> aMsgs)
+            throws Exception
+        {
+            batchedDocStateChangeMsgs.addAll(aMsgs);
+            return ResponseEntity.ok().build();
+        }
     }
 
     @Configuration
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020
+ * Ubiquitous Knowledge Processing (UKP) Lab and FG Language Technology
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.clarin.webanno.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Short-lived cache for the user details used to authenticate stateless requests, e.g. to the
+ * remote API where every request carries the credentials. Entries are evicted when the user is
+ * changed through the {@link UserDao} or the {@link OverridableUserDetailsManager}.
+ * <p>
+ * The cache only hands out copies of the cached user details because Spring Security erases the
+ * credentials of the authenticated principal after a successful authentication.
+ */
+public class CaffeineUserCache
+    implements UserCache
+{
+    private final Cache<String, UserDetails> cache;
+    
+    public CaffeineUserCache(long aTimeToLiveSeconds, long aMaximumSize)
+    {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(aTimeToLiveSeconds, TimeUnit.SECONDS)
+                .maximumSize(aMaximumSize)
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String aUsername)
+    {
+        UserDetails user = cache.getIfPresent(aUsername);
+        return user != null ? User.withUserDetails(user).build() : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails aUser)
+    {
+        cache.put(aUser.getUsername(), User.withUserDetails(aUser).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String aUsername)
+    {
+        cache.invalidate(aUsername);
+    }
+}
@@ -26,9 +26,11 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 
 import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,6 +47,8 @@ public class UserDaoImpl
 {
     @PersistenceContext
     private EntityManager entityManager;
+    
+    private @Autowired(required = false) UserCache userCache;
 
     @Override
     @Transactional
@@ -67,6 +71,7 @@ public class UserDaoImpl
     @Transactional
     public User update(User aUser)
     {
+        evictFromUserCache(aUser.getUsername());
         return entityManager.merge(aUser);
     }
 
@@ -88,8 +93,16 @@ public class UserDaoImpl
     @Transactional
     public void delete(User aUser)
     {
+        evictFromUserCache(aUser.getUsername());
         entityManager.remove(entityManager.merge(aUser));
     }
+    
+    private void evictFromUserCache(String aUsername)
+    {
+        if (userCache != null && aUsername != null) {
+            userCache.removeUserFromCache(aUsername);
+        }
+    }
 
     @Override
     @Transactional
@@ -29,6 +29,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * A utility class.
@@ -116,6 +117,56 @@ public class ZipUtils
         }
     }
 
+    /**
+     * Adds the given file to a ZIP archive. Leading slashes are removed from the entry name.
+     * 
+     * @param aZip the target archive.
+     * @param aFile the file to add.
+     * @param aEntryName the name of the entry in the archive.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void addFileToZip(ZipOutputStream aZip, File aFile, String aEntryName)
+        throws IOException
+    {
+        aZip.putNextEntry(new ZipEntry(StringUtils.stripStart(aEntryName, "/")));
+        try (InputStream in = new FileInputStream(aFile)) {
+            IOUtils.copy(in, aZip);
+        }
+        aZip.closeEntry();
+    }
+
+    /**
+     * Adds the files in the given folder and its sub-folders to a ZIP archive. The entry names are
+     * the paths relative to the given folder prefixed with the given prefix. Like
+     * {@link #zipFolder}, this method does not add entries for (empty) folders.
+     * 
+     * @param aZip the target archive.
+     * @param aFolder the folder to add.
+     * @param aEntryPrefix the prefix of the entry names, e.g. {@code "META-INF/"}.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void addFolderToZip(ZipOutputStream aZip, File aFolder, String aEntryPrefix)
+        throws IOException
+    {
+        File base = aFolder.getAbsoluteFile();
+        addFolderToZip(aZip, base, base, aEntryPrefix);
+    }
+
+    private static void addFolderToZip(ZipOutputStream aZip, File aBasePath, File aPath,
+            String aEntryPrefix)
+        throws IOException
+    {
+        if (aPath.isDirectory()) {
+            for (File file : aPath.listFiles()) {
+                addFolderToZip(aZip, aBasePath, file, aEntryPrefix);
+            }
+        }
+        else {
+            String relativePath = aBasePath.toURI().relativize(aPath.toURI()).getPath();
+            addFileToZip(aZip, aPath, aEntryPrefix + relativePath);
+        }
+    }
+
     public static String normalizeEntryName(ZipEntry aEntry)
     {
         // Strip leading "/" that we had in ZIP files prior to 2.0.8 (bug #985)
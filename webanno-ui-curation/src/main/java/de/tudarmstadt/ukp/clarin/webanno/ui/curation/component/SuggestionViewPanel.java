@@ -77,6 +77,7 @@ import de.tudarmstadt.ukp.clarin.webanno.api.annotation.event.BulkAnnotationEven
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.exception.AnnotationException;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.AnnotatorState;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.model.VID;
+import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.LabelTemplateService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.PreRenderer;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VDocument;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.rendering.model.VObject;
@@ -145,6 +146,7 @@ public class SuggestionViewPanel
     private @SpringBean CorrectionDocumentService correctionDocumentService;
     private @SpringBean AnnotationSchemaService schemaService;
     private @SpringBean ColoringService coloringService;
+    private @SpringBean LabelTemplateService labelTemplateService;
     private @SpringBean UserDao userRepository;
     private @SpringBean ApplicationEventPublisherHolder applicationEventPublisher;
 
@@ -470,9 +472,11 @@ public class SuggestionViewPanel
         VDocument vdoc = new VDocument();
         preRenderer.render(vdoc, aBratAnnotatorModel.getWindowBeginOffset(),
                 aBratAnnotatorModel.getWindowEndOffset(), aCas, layersToRender);
+        vdoc.getWarnings().forEach(getPage()::warn);
 
         GetDocumentResponse response = new GetDocumentResponse();
-        BratRenderer renderer = new BratRenderer(schemaService, coloringService);
+        BratRenderer renderer = new BratRenderer(schemaService, coloringService,
+                labelTemplateService);
         renderer.render(response, aBratAnnotatorModel, vdoc, aCas, aCurationColoringStrategy);
         return JSONUtil.toInterpretableJsonString(response);
     }
@@ -21,13 +21,15 @@ import static java.util.Objects.isNull;
 import static org.apache.commons.collections.CollectionUtils.isEmpty;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.uima.resource.metadata.TypeSystemDescription;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.feedback.IFeedback;
@@ -40,6 +42,7 @@ import org.apache.wicket.model.Model;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
 
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.form.fileinput.BootstrapFileInputField;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.form.select.BootstrapSelect;
@@ -144,6 +147,9 @@ public class ImportDocumentsPanel extends Panel
                 .map(SourceDocument::getName)
                 .collect(Collectors.toCollection(HashSet::new));
         
+        String formatId = importExportService.getFormatByName(format.getObject()).get().getId();
+        
+        List<Pair<SourceDocument, InputStreamSource>> documentsToUpload = new ArrayList<>();
         for (FileUpload documentToUpload : uploadedFiles) {
             String fileName = documentToUpload.getClientFileName();
 
@@ -157,19 +163,24 @@ public class ImportDocumentsPanel extends Panel
             // somehow manages to upload two files with the same name...
             existingDocuments.add(fileName);
 
-            try {
-                SourceDocument document = new SourceDocument();
-                document.setName(fileName);
-                document.setProject(project);
-                document.setFormat(importExportService.getFormatByName(format.getObject())
-                        .get().getId());
-                
-                try (InputStream is = documentToUpload.getInputStream()) {
-                    documentService.uploadSourceDocument(is, document, fullProjectTypeSystem);
-                }
+            SourceDocument document = new SourceDocument();
+            document.setName(fileName);
+            document.setProject(project);
+            document.setFormat(formatId);
+            documentsToUpload.add(Pair.of(document, documentToUpload::getInputStream));
+        }
+        
+        // Upload all documents in one go so they can share the conversion setup
+        Map<String, Exception> failures = documentService.uploadSourceDocuments(documentsToUpload,
+                fullProjectTypeSystem);
+        
+        for (Pair<SourceDocument, InputStreamSource> upload : documentsToUpload) {
+            String fileName = upload.getKey().getName();
+            Exception e = failures.get(fileName);
+            if (e == null) {
                 info("Document [" + fileName + "] has been imported successfully!");
             }
-            catch (Exception e) {
+            else {
                 error("Error while uploading document " + fileName + ": "
                     + ExceptionUtils.getRootCauseMessage(e));
                 LOG.error(fileName + ": " + e.getMessage(), e);
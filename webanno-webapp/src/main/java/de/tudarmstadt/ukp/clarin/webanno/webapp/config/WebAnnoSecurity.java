@@ -36,6 +36,7 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetailsByNameServiceWrapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.UserDetailsManager;
@@ -46,6 +47,7 @@ import org.springframework.security.web.authentication.preauth.PreAuthenticatedA
 import org.springframework.security.web.authentication.preauth.RequestHeaderAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import de.tudarmstadt.ukp.clarin.webanno.security.CaffeineUserCache;
 import de.tudarmstadt.ukp.clarin.webanno.security.OverridableUserDetailsManager;
 import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
 import de.tudarmstadt.ukp.clarin.webanno.security.WebAnnoDaoAuthenticationProvider;
@@ -78,13 +80,15 @@ public class WebAnnoSecurity
     {
         private final PasswordEncoder passwordEncoder;
         private final UserDetailsManager userDetailsService;
+        private final UserCache userCache;
         
         @Autowired
         public RemoteApiSecurity(PasswordEncoder aPasswordEncoder,
-                UserDetailsManager aUserDetailsService)
+                UserDetailsManager aUserDetailsService, UserCache aUserCache)
         {
             passwordEncoder = aPasswordEncoder;
             userDetailsService = aUserDetailsService;
+            userCache = aUserCache;
         }
         
         @Override
@@ -110,6 +114,9 @@ public class WebAnnoSecurity
             DaoAuthenticationProvider authProvider = new WebAnnoDaoAuthenticationProvider();
             authProvider.setUserDetailsService(userDetailsService);
             authProvider.setPasswordEncoder(passwordEncoder);
+            // The API is stateless, so the user is authenticated on every request. Caching the
+            // user details saves a few database queries per request.
+            authProvider.setUserCache(userCache);
             return authProvider;
         }
     }
@@ -262,14 +269,24 @@ public class WebAnnoSecurity
     @Bean
     @Autowired
     public UserDetailsManager userDetailsService(DataSource aDataSource,
-            @Lazy AuthenticationManager aAuthenticationManager)
+            @Lazy AuthenticationManager aAuthenticationManager, UserCache aUserCache)
     {
         OverridableUserDetailsManager manager = new OverridableUserDetailsManager();
         manager.setDataSource(aDataSource);
         manager.setAuthenticationManager(aAuthenticationManager);
+        // Evicts users from the cache when they are changed through the manager
+        manager.setUserCache(aUserCache);
         return manager;
     }
     
+    @Bean
+    public UserCache userCache(
+            @Value("${auth.user-cache.ttl:60}") long aTimeToLiveSeconds,
+            @Value("${auth.user-cache.size:1000}") long aMaximumSize)
+    {
+        return new CaffeineUserCache(aTimeToLiveSeconds, aMaximumSize);
+    }
+    
     // This bean allows the application to access session information. We currently only use this
     // to display the number of active users in the SystemStatusDashlet. However, the LoginPage
     // also accesses this bean in order to manually register the session when the user logs in.